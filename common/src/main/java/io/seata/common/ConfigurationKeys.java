@@ -180,6 +180,22 @@ public interface ConfigurationKeys {
      * The constant CLIENT_ASYNC_COMMIT_BUFFER_LIMIT.
      */
     String CLIENT_ASYNC_COMMIT_BUFFER_LIMIT = CLIENT_RM_PREFIX + "asyncCommitBufferLimit";
+
+    /**
+     * The constant CLIENT_ASYNC_COMMIT_WORKER_SIZE, the undo log cleanup workers per data source.
+     */
+    String CLIENT_ASYNC_COMMIT_WORKER_SIZE = CLIENT_RM_PREFIX + "asyncCommitWorkerSize";
+
+    /**
+     * The constant CLIENT_ASYNC_COMMIT_FLUSH_SIZE, the undo logs deleted in one batch.
+     */
+    String CLIENT_ASYNC_COMMIT_FLUSH_SIZE = CLIENT_RM_PREFIX + "asyncCommitFlushSize";
+
+    /**
+     * The constant CLIENT_ASYNC_COMMIT_FLUSH_INTERVAL, the max interval of the undo log cleanup in milliseconds.
+     */
+    String CLIENT_ASYNC_COMMIT_FLUSH_INTERVAL = CLIENT_RM_PREFIX + "asyncCommitFlushInterval";
+
     /**
      * The constant CLIENT_RM_LOCK_PREFIX.
      */
@@ -197,6 +213,10 @@ public interface ConfigurationKeys {
      * The constant CLIENT_LOCK_RETRY_POLICY_BRANCH_ROLLBACK_ON_CONFLICT.
      */
     String CLIENT_LOCK_RETRY_POLICY_BRANCH_ROLLBACK_ON_CONFLICT = CLIENT_RM_LOCK_PREFIX + "retryPolicyBranchRollbackOnConflict";
+    /**
+     * The constant CLIENT_LOCK_CONFLICT_CACHE_TTL, how long a conflicting lock query is cached, in milliseconds.
+     */
+    String CLIENT_LOCK_CONFLICT_CACHE_TTL = CLIENT_RM_LOCK_PREFIX + "conflictCacheTtl";
 
     /**
      * The constant SERVICE_SESSION_RELOAD_READ_SIZE
@@ -228,6 +248,21 @@ public interface ConfigurationKeys {
      */
     String CLIENT_SAGA_COMPENSATE_PERSIST_MODE_UPDATE = CLIENT_RM_PREFIX + "sagaCompensatePersistModeUpdate";
 
+    /**
+     * The constant CLIENT_SAGA_STATE_LOG_PERSIST_MODE.
+     */
+    String CLIENT_SAGA_STATE_LOG_PERSIST_MODE = CLIENT_RM_PREFIX + "sagaStateLogPersistMode";
+
+    /**
+     * The constant CLIENT_SAGA_STATE_LOG_BATCH_SIZE.
+     */
+    String CLIENT_SAGA_STATE_LOG_BATCH_SIZE = CLIENT_RM_PREFIX + "sagaStateLogBatchSize";
+
+    /**
+     * The constant CLIENT_SAGA_STATE_LOG_BATCH_WINDOW.
+     */
+    String CLIENT_SAGA_STATE_LOG_BATCH_WINDOW = CLIENT_RM_PREFIX + "sagaStateLogBatchWindow";
+
     /**
      * The constant CLIENT_REPORT_RETRY_COUNT.
      */
@@ -279,6 +314,11 @@ public interface ConfigurationKeys {
      */
     String COMPRESSOR_FOR_RPC = TRANSPORT_PREFIX + "compressor";
 
+    /**
+     * The constant COMPRESS_THRESHOLD_FOR_RPC, the message body smaller than it is not compressed.
+     */
+    String COMPRESS_THRESHOLD_FOR_RPC = TRANSPORT_PREFIX + "compressThreshold";
+
     /**
      * The constant STORE_DB_PREFIX.
      */
@@ -354,6 +394,21 @@ public interface ConfigurationKeys {
      */
     String STORE_DB_LOG_QUERY_LIMIT = STORE_DB_PREFIX + "queryLimit";
 
+    /**
+     * The constant STORE_DB_WRITE_BATCH_ENABLE.
+     */
+    String STORE_DB_WRITE_BATCH_ENABLE = STORE_DB_PREFIX + "writeBatchEnable";
+
+    /**
+     * The constant STORE_DB_WRITE_BATCH_SIZE.
+     */
+    String STORE_DB_WRITE_BATCH_SIZE = STORE_DB_PREFIX + "writeBatchSize";
+
+    /**
+     * The constant STORE_DB_WRITE_BATCH_WINDOW.
+     */
+    String STORE_DB_WRITE_BATCH_WINDOW = STORE_DB_PREFIX + "writeBatchWindow";
+
     /**
      * The constant LOCK_DB_TABLE.
      */
@@ -404,6 +459,76 @@ public interface ConfigurationKeys {
      */
     String TIMEOUT_RETRY_PERIOD = RECOVERY_PREFIX + "timeoutRetryPeriod";
 
+    /**
+     * The constant TIMEOUT_SWEEP_PERIOD.
+     */
+    String TIMEOUT_SWEEP_PERIOD = RECOVERY_PREFIX + "timeoutSweepPeriod";
+
+    /**
+     * The constant RECOVERY_SHARD_COUNT.
+     */
+    String RECOVERY_SHARD_COUNT = RECOVERY_PREFIX + "shardCount";
+
+    /**
+     * The constant RECOVERY_SHARD_QUEUE_SIZE.
+     */
+    String RECOVERY_SHARD_QUEUE_SIZE = RECOVERY_PREFIX + "shardQueueSize";
+
+    /**
+     * The constant RECOVERY_RESOURCE_MAX_CONCURRENCY.
+     */
+    String RECOVERY_RESOURCE_MAX_CONCURRENCY = RECOVERY_PREFIX + "resourceMaxConcurrency";
+
+    /**
+     * The constant RETRY_BACKOFF_PREFIX, the policy of a branch type is under RETRY_BACKOFF_PREFIX + "{branchType}."
+     */
+    String RETRY_BACKOFF_PREFIX = RECOVERY_PREFIX + "retryBackoff.";
+
+    /**
+     * The constant RETRY_BACKOFF_INITIAL_INTERVAL_SUFFIX.
+     */
+    String RETRY_BACKOFF_INITIAL_INTERVAL_SUFFIX = "initialInterval";
+
+    /**
+     * The constant RETRY_BACKOFF_MAX_INTERVAL_SUFFIX.
+     */
+    String RETRY_BACKOFF_MAX_INTERVAL_SUFFIX = "maxInterval";
+
+    /**
+     * The constant RETRY_BACKOFF_MULTIPLIER_SUFFIX.
+     */
+    String RETRY_BACKOFF_MULTIPLIER_SUFFIX = "multiplier";
+
+    /**
+     * The constant RETRY_BACKOFF_JITTER_SUFFIX.
+     */
+    String RETRY_BACKOFF_JITTER_SUFFIX = "jitter";
+
+    /**
+     * The constant RETRY_BACKOFF_ENABLE.
+     */
+    String RETRY_BACKOFF_ENABLE = RETRY_BACKOFF_PREFIX + "enable";
+
+    /**
+     * The constant RETRY_BACKOFF_INITIAL_INTERVAL.
+     */
+    String RETRY_BACKOFF_INITIAL_INTERVAL = RETRY_BACKOFF_PREFIX + RETRY_BACKOFF_INITIAL_INTERVAL_SUFFIX;
+
+    /**
+     * The constant RETRY_BACKOFF_MAX_INTERVAL.
+     */
+    String RETRY_BACKOFF_MAX_INTERVAL = RETRY_BACKOFF_PREFIX + RETRY_BACKOFF_MAX_INTERVAL_SUFFIX;
+
+    /**
+     * The constant RETRY_BACKOFF_MULTIPLIER.
+     */
+    String RETRY_BACKOFF_MULTIPLIER = RETRY_BACKOFF_PREFIX + RETRY_BACKOFF_MULTIPLIER_SUFFIX;
+
+    /**
+     * The constant RETRY_BACKOFF_JITTER.
+     */
+    String RETRY_BACKOFF_JITTER = RETRY_BACKOFF_PREFIX + RETRY_BACKOFF_JITTER_SUFFIX;
+
     /**
      * The constant CLIENT_UNDO_PREFIX.
      */
@@ -424,6 +549,11 @@ public interface ConfigurationKeys {
      */
     String TRANSACTION_UNDO_ONLY_CARE_UPDATE_COLUMNS = CLIENT_UNDO_PREFIX + "onlyCareUpdateColumns";
 
+    /**
+     * The constant TRANSACTION_UNDO_BATCH_SIZE, the max undo rows executed in a batch, 1 to undo row by row.
+     */
+    String TRANSACTION_UNDO_BATCH_SIZE = CLIENT_UNDO_PREFIX + "batchSize";
+
     /**
      * the constant CLIENT_UNDO_COMPRESS_PREFIX
      */
@@ -468,6 +598,11 @@ public interface ConfigurationKeys {
      */
     String METRICS_EXPORTER_PROMETHEUS_PORT = "exporterPrometheusPort";
 
+    /**
+     * The constant METRICS_EXPORTER_PROMETHEUS_PERCENTILES
+     */
+    String METRICS_EXPORTER_PROMETHEUS_PERCENTILES = "exporterPrometheusPercentiles";
+
     /**
      * The constant SERVER_UNDO_PREFIX.
      */
@@ -658,6 +793,11 @@ public interface ConfigurationKeys {
      */
     String ENABLE_TC_SERVER_BATCH_SEND_RESPONSE = TRANSPORT_PREFIX + "enableTcServerBatchSendResponse";
 
+    /**
+     * The constant ENABLE_TC_SERVER_BATCH_SEND_REQUEST
+     */
+    String ENABLE_TC_SERVER_BATCH_SEND_REQUEST = TRANSPORT_PREFIX + "enableTcServerBatchSendRequest";
+
     /**
      * The constant DISABLE_GLOBAL_TRANSACTION.
      */
@@ -668,6 +808,21 @@ public interface ConfigurationKeys {
      */
     String SQL_PARSER_TYPE = CLIENT_RM_PREFIX + "sqlParserType";
 
+    /**
+     * The constant SQL_PARSER_CACHE_ENABLE.
+     */
+    String SQL_PARSER_CACHE_ENABLE = CLIENT_RM_PREFIX + "sqlParserCacheEnable";
+
+    /**
+     * The constant SQL_PARSER_CACHE_MAX_WEIGHT, the max total length of the cached sql.
+     */
+    String SQL_PARSER_CACHE_MAX_WEIGHT = CLIENT_RM_PREFIX + "sqlParserCacheMaxWeight";
+
+    /**
+     * The constant CLIENT_AFTER_IMAGE_RETURNING_ENABLE, build the after image from the rows returned by the dml.
+     */
+    String CLIENT_AFTER_IMAGE_RETURNING_ENABLE = CLIENT_RM_PREFIX + "afterImageReturningEnable";
+
     /**
      * The constant STORE_REDIS_MODE.
      */
@@ -851,6 +1006,21 @@ public interface ConfigurationKeys {
      */
     String TCC_FENCE_LOG_TABLE_NAME = TCC_FENCE_PREFIX + "logTableName";
 
+    /**
+     * The constant TCC_FENCE_LOG_CLEAN_THREADS
+     */
+    String TCC_FENCE_LOG_CLEAN_THREADS = TCC_FENCE_PREFIX + "logCleanThreads";
+
+    /**
+     * The constant TCC_FENCE_LOG_CLEAN_QUEUE_SIZE
+     */
+    String TCC_FENCE_LOG_CLEAN_QUEUE_SIZE = TCC_FENCE_PREFIX + "logCleanQueueSize";
+
+    /**
+     * The constant TCC_FENCE_LOG_CLEAN_BATCH_SIZE
+     */
+    String TCC_FENCE_LOG_CLEAN_BATCH_SIZE = TCC_FENCE_PREFIX + "logCleanBatchSize";
+
     /**
      * The constant TCC_BUSINESS_ACTION_CONTEXT_JSON_PARSER_NAME
      */
@@ -951,6 +1121,16 @@ public interface ConfigurationKeys {
      */
     String SERVER_RAFT_COMPRESSOR = SERVER_RAFT + "compressor";
 
+    /**
+     * The constant SERVER_RAFT_COMPACT_CODEC_ENABLE.
+     */
+    String SERVER_RAFT_COMPACT_CODEC_ENABLE = SERVER_RAFT + "compactCodecEnable";
+
+    /**
+     * The constant SERVER_RAFT_PROPOSAL_BATCH_SIZE.
+     */
+    String SERVER_RAFT_PROPOSAL_BATCH_SIZE = SERVER_RAFT + "proposalBatchSize";
+
     /**
      * The constant CLIENT_METADATA_MAX_AGE_MS.
      */
@@ -25,13 +25,20 @@ public interface DefaultValues {
     int DEFAULT_TM_DEGRADE_CHECK_ALLOW_TIMES = 10;
     int DEFAULT_CLIENT_LOCK_RETRY_TIMES = 30;
     boolean DEFAULT_CLIENT_LOCK_RETRY_POLICY_BRANCH_ROLLBACK_ON_CONFLICT = true;
+    long DEFAULT_CLIENT_LOCK_CONFLICT_CACHE_TTL = 10L;
     int DEFAULT_LOG_EXCEPTION_RATE = 100;
     int DEFAULT_CLIENT_ASYNC_COMMIT_BUFFER_LIMIT = 10000;
+    int DEFAULT_CLIENT_ASYNC_COMMIT_WORKER_SIZE = 1;
+    int DEFAULT_CLIENT_ASYNC_COMMIT_FLUSH_SIZE = 1000;
+    long DEFAULT_CLIENT_ASYNC_COMMIT_FLUSH_INTERVAL = 1000L;
     int DEFAULT_TM_DEGRADE_CHECK_PERIOD = 2000;
     int DEFAULT_CLIENT_REPORT_RETRY_COUNT = 5;
     boolean DEFAULT_CLIENT_REPORT_SUCCESS_ENABLE = false;
     boolean DEFAULT_CLIENT_TABLE_META_CHECK_ENABLE = true;
     long DEFAULT_TABLE_META_CHECKER_INTERVAL = 60000L;
+    boolean DEFAULT_SQL_PARSER_CACHE_ENABLE = true;
+    long DEFAULT_SQL_PARSER_CACHE_MAX_WEIGHT = 1024 * 1024L;
+    boolean DEFAULT_CLIENT_AFTER_IMAGE_RETURNING_ENABLE = false;
     boolean DEFAULT_TM_DEGRADE_CHECK = false;
     boolean DEFAULT_CLIENT_SAGA_BRANCH_REGISTER_ENABLE = false;
 
@@ -41,8 +48,13 @@ public interface DefaultValues {
     String DEFAULT_SESSION_STORE_FILE_DIR = "sessionStore";
     boolean DEFAULT_CLIENT_SAGA_RETRY_PERSIST_MODE_UPDATE = false;
     boolean DEFAULT_CLIENT_SAGA_COMPENSATE_PERSIST_MODE_UPDATE = false;
+    String DEFAULT_CLIENT_SAGA_STATE_LOG_PERSIST_MODE = "sync";
+    int DEFAULT_CLIENT_SAGA_STATE_LOG_BATCH_SIZE = 128;
+    int DEFAULT_CLIENT_SAGA_STATE_LOG_BATCH_WINDOW = 1;
     String DEFAULT_RAFT_SERIALIZATION = "jackson";
     String DEFAULT_RAFT_COMPRESSOR = "none";
+    boolean DEFAULT_RAFT_COMPACT_CODEC_ENABLE = true;
+    int DEFAULT_RAFT_PROPOSAL_BATCH_SIZE = 64;
 
     /**
      * Shutdown timeout default 3s
@@ -59,6 +71,7 @@ public interface DefaultValues {
     boolean DEFAULT_ENABLE_TM_CLIENT_BATCH_SEND_REQUEST = false;
     boolean DEFAULT_ENABLE_RM_CLIENT_BATCH_SEND_REQUEST = true;
     boolean DEFAULT_ENABLE_TC_SERVER_BATCH_SEND_RESPONSE = false;
+    boolean DEFAULT_ENABLE_TC_SERVER_BATCH_SEND_REQUEST = false;
 
     boolean DEFAULT_CLIENT_CHANNEL_CHECK_FAIL_FAST = true;
 
@@ -67,9 +80,14 @@ public interface DefaultValues {
     String DEFAULT_EXECUTOR_THREAD_PREFIX = "NettyServerBizHandler";
 
     boolean DEFAULT_TRANSPORT_HEARTBEAT = true;
+    /**
+     * The message body smaller than it is not compressed, in bytes
+     */
+    int DEFAULT_TRANSPORT_COMPRESS_THRESHOLD = 1024;
     boolean DEFAULT_TRANSACTION_UNDO_DATA_VALIDATION = true;
     String DEFAULT_TRANSACTION_UNDO_LOG_SERIALIZATION = "jackson";
     boolean DEFAULT_ONLY_CARE_UPDATE_COLUMNS = true;
+    int DEFAULT_TRANSACTION_UNDO_BATCH_SIZE = 100;
     /**
      * The constant  DEFAULT_TRANSACTION_UNDO_LOG_TABLE.
      */
@@ -179,6 +197,18 @@ public interface DefaultValues {
      * the constant DEFAULT_COMMON_FENCE_LOG_TABLE_NAME
      */
     String DEFAULT_COMMON_FENCE_LOG_TABLE_NAME = "tcc_fence_log";
+    /**
+     * the constant DEFAULT_COMMON_FENCE_LOG_CLEAN_THREADS
+     */
+    int DEFAULT_COMMON_FENCE_LOG_CLEAN_THREADS = 1;
+    /**
+     * the constant DEFAULT_COMMON_FENCE_LOG_CLEAN_QUEUE_SIZE
+     */
+    int DEFAULT_COMMON_FENCE_LOG_CLEAN_QUEUE_SIZE = 10000;
+    /**
+     * the constant DEFAULT_COMMON_FENCE_LOG_CLEAN_BATCH_SIZE
+     */
+    int DEFAULT_COMMON_FENCE_LOG_CLEAN_BATCH_SIZE = 100;
     /**
      * the constant COMMON_FENCE_BEAN_NAME
      */
@@ -243,6 +273,51 @@ public interface DefaultValues {
      */
     int DEFAULT_TIMEOUT_RETRY_PERIOD = 1000;
 
+    /**
+     * the constant DEFAULT_TIMEOUT_SWEEP_PERIOD
+     */
+    int DEFAULT_TIMEOUT_SWEEP_PERIOD = 60 * 1000;
+
+    /**
+     * the constant DEFAULT_RECOVERY_SHARD_COUNT
+     */
+    int DEFAULT_RECOVERY_SHARD_COUNT = 4;
+
+    /**
+     * the constant DEFAULT_RECOVERY_SHARD_QUEUE_SIZE
+     */
+    int DEFAULT_RECOVERY_SHARD_QUEUE_SIZE = 2000;
+
+    /**
+     * the constant DEFAULT_RECOVERY_RESOURCE_MAX_CONCURRENCY
+     */
+    int DEFAULT_RECOVERY_RESOURCE_MAX_CONCURRENCY = 2;
+
+    /**
+     * the constant DEFAULT_RETRY_BACKOFF_ENABLE
+     */
+    boolean DEFAULT_RETRY_BACKOFF_ENABLE = true;
+
+    /**
+     * the constant DEFAULT_RETRY_BACKOFF_INITIAL_INTERVAL
+     */
+    long DEFAULT_RETRY_BACKOFF_INITIAL_INTERVAL = 1000;
+
+    /**
+     * the constant DEFAULT_RETRY_BACKOFF_MAX_INTERVAL
+     */
+    long DEFAULT_RETRY_BACKOFF_MAX_INTERVAL = 60 * 1000;
+
+    /**
+     * the constant DEFAULT_RETRY_BACKOFF_MULTIPLIER
+     */
+    int DEFAULT_RETRY_BACKOFF_MULTIPLIER = 2;
+
+    /**
+     * the constant DEFAULT_RETRY_BACKOFF_JITTER, in percent
+     */
+    int DEFAULT_RETRY_BACKOFF_JITTER = 20;
+
     /**
      * the constant DEFAULT_UNDO_LOG_DELETE_PERIOD
      */
@@ -258,6 +333,11 @@ public interface DefaultValues {
      */
     int DEFAULT_PROMETHEUS_PORT = 9898;
 
+    /**
+     * the constant DEFAULT_PROMETHEUS_PERCENTILES
+     */
+    String DEFAULT_PROMETHEUS_PERCENTILES = "0.5,0.9,0.99,0.999";
+
     /**
      * the const DEFAULT_METRICS_ENABLED
      */
@@ -310,6 +390,12 @@ public interface DefaultValues {
 
     int DEFAULT_QUERY_LIMIT = 1000;
 
+    boolean DEFAULT_STORE_DB_WRITE_BATCH_ENABLE = false;
+
+    int DEFAULT_STORE_DB_WRITE_BATCH_SIZE = 256;
+
+    int DEFAULT_STORE_DB_WRITE_BATCH_WINDOW = 1;
+
     /**
      * Default druid location in classpath
      */
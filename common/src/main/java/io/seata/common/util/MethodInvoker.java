@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.common.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * The invoker of a method, built once and called many times.
+ * <p>
+ * The method is unreflected to a method handle of the shape (Object target, Object[] args)Object, so a call skips the
+ * access check and the argument checks of the reflection. If the method cannot be unreflected, it is invoked by the
+ * reflection. The exception thrown by the method is thrown as is, not wrapped.
+ * </p>
+ *
+ */
+public final class MethodInvoker {
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    private final Method method;
+
+    private final MethodHandle methodHandle;
+
+    private MethodInvoker(Method method, MethodHandle methodHandle) {
+        this.method = method;
+        this.methodHandle = methodHandle;
+    }
+
+    /**
+     * Build the invoker of the method.
+     *
+     * @param method the method
+     * @return the method invoker
+     */
+    public static MethodInvoker of(Method method) {
+        return new MethodInvoker(method, toMethodHandle(method));
+    }
+
+    private static MethodHandle toMethodHandle(Method method) {
+        try {
+            if (!Modifier.isPublic(method.getModifiers())
+                || !Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                method.setAccessible(true);
+            }
+            MethodHandle handle = MethodHandles.lookup().unreflect(method).asFixedArity();
+            if (Modifier.isStatic(method.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            return handle.asSpreader(Object[].class, method.getParameterCount()).asType(INVOKER_TYPE);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Invoke the method.
+     *
+     * @param target the target, ignored if the method is static
+     * @param args   the arguments
+     * @return the returned value, null if the method returns void
+     * @throws Throwable the exception thrown by the method
+     */
+    public Object invoke(Object target, Object... args) throws Throwable {
+        if (methodHandle != null) {
+            Object[] actualArgs = args != null ? args : new Object[0];
+            return (Object)methodHandle.invokeExact(target, actualArgs);
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException() != null ? e.getTargetException() : e;
+        }
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * Whether the method is invoked by a method handle.
+     *
+     * @return true if the method is invoked by a method handle
+     */
+    public boolean isMethodHandle() {
+        return methodHandle != null;
+    }
+}
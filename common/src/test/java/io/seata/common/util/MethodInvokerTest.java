@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.common.util;
+
+import java.lang.reflect.Method;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class MethodInvokerTest {
+
+    @Test
+    public void testInvoke() throws Throwable {
+        MethodInvoker invoker = MethodInvoker.of(Target.class.getMethod("add", int.class, Integer.class));
+        Assertions.assertTrue(invoker.isMethodHandle());
+        Assertions.assertEquals(3, invoker.invoke(new Target(), 1, 2));
+
+        MethodInvoker staticInvoker = MethodInvoker.of(Target.class.getMethod("concat", String[].class));
+        Assertions.assertEquals("ab", staticInvoker.invoke(null, new Object[] {new String[] {"a", "b"}}));
+
+        MethodInvoker voidInvoker = MethodInvoker.of(Target.class.getMethod("nothing"));
+        Assertions.assertNull(voidInvoker.invoke(new Target()));
+    }
+
+    @Test
+    public void testInvokeNotPublic() throws Throwable {
+        Method method = Target.class.getDeclaredMethod("secret");
+        Assertions.assertEquals("secret", MethodInvoker.of(method).invoke(new Target()));
+    }
+
+    @Test
+    public void testThrowTargetException() throws Exception {
+        MethodInvoker invoker = MethodInvoker.of(Target.class.getMethod("fail"));
+        Assertions.assertThrows(IllegalStateException.class, () -> invoker.invoke(new Target()));
+    }
+
+    public static class Target {
+
+        public int add(int a, Integer b) {
+            return a + b;
+        }
+
+        public static String concat(String... values) {
+            return String.join("", values);
+        }
+
+        public void nothing() {
+        }
+
+        public void fail() {
+            throw new IllegalStateException("fail");
+        }
+
+        private String secret() {
+            return "secret";
+        }
+    }
+}
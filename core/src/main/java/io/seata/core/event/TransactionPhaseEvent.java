@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.core.event;
+
+/**
+ * Event data for the latency of a transaction phase.
+ *
+ */
+public class TransactionPhaseEvent implements Event {
+    /**
+     * The constant PHASE_BRANCH_REGISTER.
+     */
+    public static final String PHASE_BRANCH_REGISTER = "branchRegister";
+
+    /**
+     * The constant PHASE_ONE, from the global transaction begin to its commit or rollback.
+     */
+    public static final String PHASE_ONE = "phase1";
+
+    /**
+     * The constant PHASE_TWO, the commit or rollback of a branch.
+     */
+    public static final String PHASE_TWO = "phase2";
+
+    /**
+     * The phase
+     */
+    private final String phase;
+
+    /**
+     * The branch type, null if it is a global phase
+     */
+    private final String branchType;
+
+    /**
+     * business applicationId
+     */
+    private final String applicationId;
+
+    /**
+     * Transaction Service Group
+     */
+    private final String group;
+
+    /**
+     * The status the phase goes to, null if no status
+     */
+    private final String status;
+
+    /**
+     * The duration in nanoseconds
+     */
+    private final long durationNanos;
+
+    /**
+     * Instantiates a new Transaction phase event.
+     *
+     * @param phase         the phase
+     * @param branchType    the branch type
+     * @param applicationId the application id
+     * @param group         the group
+     * @param status        the status
+     * @param durationNanos the duration in nanoseconds
+     */
+    public TransactionPhaseEvent(String phase, String branchType, String applicationId, String group, String status,
+                                 long durationNanos) {
+        this.phase = phase;
+        this.branchType = branchType;
+        this.applicationId = applicationId;
+        this.group = group;
+        this.status = status;
+        this.durationNanos = durationNanos;
+    }
+
+    public String getPhase() {
+        return phase;
+    }
+
+    public String getBranchType() {
+        return branchType;
+    }
+
+    public String getApplicationId() {
+        return applicationId;
+    }
+
+    public String getGroup() {
+        return group;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "TransactionPhaseEvent{" + "phase='" + phase + '\'' + ", branchType='" + branchType + '\''
+            + ", applicationId='" + applicationId + '\'' + ", group='" + group + '\'' + ", status='" + status + '\''
+            + ", durationNanos=" + durationNanos + '}';
+    }
+}
@@ -74,6 +74,22 @@ public class MessageFuture {
         return result;
     }
 
+    /**
+     * Gets the result without blocking, a timeout or exception result completes the returned future exceptionally.
+     *
+     * @return the completable future of the result
+     */
+    public CompletableFuture<Object> toCompletableFuture() {
+        return origin.thenCompose(result -> {
+            if (result instanceof Throwable) {
+                CompletableFuture<Object> failed = new CompletableFuture<>();
+                failed.completeExceptionally((Throwable)result);
+                return failed;
+            }
+            return CompletableFuture.completedFuture(result);
+        });
+    }
+
     /**
      * Sets result message.
      *
@@ -39,6 +39,7 @@ public class Version {
     private static final String CURRENT = VersionInfo.VERSION;
     private static final String VERSION_0_7_1 = "0.7.1";
     private static final String VERSION_1_5_0 = "1.5.0";
+    private static final String VERSION_2_1_0 = "2.1.0";
     private static final int MAX_VERSION_DOT = 3;
 
     /**
@@ -112,6 +113,27 @@ public class Version {
         return isAboveOrEqualVersion150;
     }
 
+    /**
+     * Determine whether the client version is greater than or equal to version 2.1.0,
+     * which understands the batch branch commit/rollback requests sent by TC.
+     * The pre-release of 2.1.0 (e.g. 2.1.0-SNAPSHOT) may be built before it, so it is below 2.1.0.
+     *
+     * @param version client version
+     * @return true: client version is above or equal version 2.1.0, false: on the contrary
+     */
+    public static boolean isAboveOrEqualVersion210(String version) {
+        boolean isAboveOrEqualVersion210 = false;
+        try {
+            long clientVersion = convertVersion(version);
+            long divideVersion = convertVersion(VERSION_2_1_0);
+            isAboveOrEqualVersion210 = clientVersion > divideVersion
+                || (clientVersion == divideVersion && version.indexOf('-') < 0);
+        } catch (Exception e) {
+            LOGGER.error("convert version error, clientVersion:{}", version, e);
+        }
+        return isAboveOrEqualVersion210;
+    }
+
     public static long convertVersion(String version) throws IncompatibleVersionException {
         if (StringUtils.isBlank(version)) {
             throw new IllegalArgumentException("The version must not be blank.");
@@ -20,6 +20,7 @@ import io.netty.channel.Channel;
 import io.seata.core.protocol.RpcMessage;
 import io.seata.core.rpc.processor.RemotingProcessor;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeoutException;
 
@@ -42,6 +43,26 @@ public interface RemotingServer {
      */
     Object sendSyncRequest(String resourceId, String clientId, Object msg, boolean tryOtherApp) throws TimeoutException;
 
+    /**
+     * server send sync request without blocking the caller, the response completes the returned future.
+     *
+     * @param resourceId rm client resourceId
+     * @param clientId   rm client id
+     * @param msg        transaction message {@code io.seata.core.protocol}
+     * @param tryOtherApp try other app
+     * @return the future of client result message, completed exceptionally on timeout
+     */
+    default CompletableFuture<Object> sendSyncRequestAsync(String resourceId, String clientId, Object msg,
+                                                           boolean tryOtherApp) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        try {
+            future.complete(sendSyncRequest(resourceId, clientId, msg, tryOtherApp));
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+        }
+        return future;
+    }
+
     /**
      * server send sync request.
      *
@@ -22,6 +22,7 @@ import java.net.SocketAddress;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
@@ -174,6 +175,45 @@ public abstract class AbstractNettyRemoting implements Disposable {
             return null;
         }
 
+        String remoteAddr = ChannelUtil.getAddressFromChannel(channel);
+        MessageFuture messageFuture = writeSyncRequest(channel, rpcMessage, timeoutMillis, remoteAddr);
+
+        try {
+            Object result = messageFuture.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            doAfterRpcHooks(remoteAddr, rpcMessage, result);
+            return result;
+        } catch (Exception exx) {
+            LOGGER.error("wait response error:{},ip:{},request:{}", exx.getMessage(), channel.remoteAddress(),
+                rpcMessage.getBody());
+            if (exx instanceof TimeoutException) {
+                throw (TimeoutException) exx;
+            } else {
+                throw new RuntimeException(exx);
+            }
+        }
+    }
+
+    /**
+     * rpc sync request without blocking the caller.
+     * The response of the request completes the returned future, a timeout completes it exceptionally.
+     *
+     * @param channel       netty channel
+     * @param rpcMessage    rpc message
+     * @param timeoutMillis rpc communication timeout
+     * @return the future of response message
+     */
+    protected CompletableFuture<Object> sendSyncAsync(Channel channel, RpcMessage rpcMessage, long timeoutMillis) {
+        if (timeoutMillis <= 0) {
+            throw new FrameworkException("timeout should more than 0ms");
+        }
+        String remoteAddr = ChannelUtil.getAddressFromChannel(channel);
+        MessageFuture messageFuture = writeSyncRequest(channel, rpcMessage, timeoutMillis, remoteAddr);
+        return messageFuture.toCompletableFuture()
+            .whenComplete((result, throwable) -> doAfterRpcHooks(remoteAddr, rpcMessage, result));
+    }
+
+    private MessageFuture writeSyncRequest(Channel channel, RpcMessage rpcMessage, long timeoutMillis,
+                                           String remoteAddr) {
         MessageFuture messageFuture = new MessageFuture();
         messageFuture.setRequestMessage(rpcMessage);
         messageFuture.setTimeout(timeoutMillis);
@@ -181,7 +221,6 @@ public abstract class AbstractNettyRemoting implements Disposable {
 
         channelWritableCheck(channel, rpcMessage.getBody());
 
-        String remoteAddr = ChannelUtil.getAddressFromChannel(channel);
         doBeforeRpcHooks(remoteAddr, rpcMessage);
 
         channel.writeAndFlush(rpcMessage).addListener((ChannelFutureListener) future -> {
@@ -193,20 +232,7 @@ public abstract class AbstractNettyRemoting implements Disposable {
                 destroyChannel(future.channel());
             }
         });
-
-        try {
-            Object result = messageFuture.get(timeoutMillis, TimeUnit.MILLISECONDS);
-            doAfterRpcHooks(remoteAddr, rpcMessage, result);
-            return result;
-        } catch (Exception exx) {
-            LOGGER.error("wait response error:{},ip:{},request:{}", exx.getMessage(), channel.remoteAddress(),
-                rpcMessage.getBody());
-            if (exx instanceof TimeoutException) {
-                throw (TimeoutException) exx;
-            } else {
-                throw new RuntimeException(exx);
-            }
-        }
+        return messageFuture;
     }
 
     /**
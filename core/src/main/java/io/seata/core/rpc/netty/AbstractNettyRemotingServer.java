@@ -16,8 +16,13 @@
  */
 package io.seata.core.rpc.netty;
 
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 import io.netty.channel.Channel;
@@ -28,10 +33,20 @@ import io.netty.channel.ChannelPromise;
 import io.netty.handler.codec.DecoderException;
 import io.netty.handler.timeout.IdleState;
 import io.netty.handler.timeout.IdleStateEvent;
+import io.seata.common.exception.FrameworkException;
+import io.seata.common.thread.NamedThreadFactory;
+import io.seata.common.util.CollectionUtils;
 import io.seata.common.util.NetUtil;
+import io.seata.common.util.StringUtils;
+import io.seata.core.protocol.AbstractMessage;
 import io.seata.core.protocol.HeartbeatMessage;
+import io.seata.core.protocol.MergedWarpMessage;
+import io.seata.core.protocol.MessageFuture;
 import io.seata.core.protocol.ProtocolConstants;
 import io.seata.core.protocol.RpcMessage;
+import io.seata.core.protocol.Version;
+import io.seata.core.protocol.transaction.BranchCommitRequest;
+import io.seata.core.protocol.transaction.BranchRollbackRequest;
 import io.seata.core.rpc.RemotingServer;
 import io.seata.core.rpc.RpcContext;
 import io.seata.core.rpc.processor.Pair;
@@ -48,14 +63,49 @@ public abstract class AbstractNettyRemotingServer extends AbstractNettyRemoting
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractNettyRemotingServer.class);
 
+    private static final int MAX_MERGE_SEND_MILLS = 1;
+    private static final int MAX_MERGE_SEND_SIZE = 1000;
+    private static final int MAX_MERGE_SEND_THREAD = 1;
+    private static final long KEEP_ALIVE_TIME = Integer.MAX_VALUE;
+    private static final String MERGE_THREAD_PREFIX = "rpcServerMergeMessageSend";
+
     private final NettyServerBootstrap serverBootstrap;
 
+    private final Object mergeLock = new Object();
+
+    /**
+     * When batch sending is enabled, the branch commit/rollback requests will be stored to basketMap per RM channel
+     * and sent via asynchronous thread {@link MergedSendRunnable}
+     * {@link NettyServerConfig#isEnableTcServerBatchSendRequest()}
+     */
+    private final ConcurrentHashMap<Channel, BlockingQueue<RpcMessage>> basketMap = new ConcurrentHashMap<>();
+
+    private ExecutorService mergeSendExecutorService;
+
+    private volatile boolean mergeSendRunning;
+
     @Override
     public void init() {
+        if (NettyServerConfig.isEnableTcServerBatchSendRequest()) {
+            startMergeSend();
+        }
         super.init();
         serverBootstrap.start();
     }
 
+    /**
+     * Start the thread merging the branch commit/rollback requests of the same RM channel.
+     */
+    void startMergeSend() {
+        mergeSendExecutorService = new ThreadPoolExecutor(MAX_MERGE_SEND_THREAD,
+            MAX_MERGE_SEND_THREAD,
+            KEEP_ALIVE_TIME, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            new NamedThreadFactory(MERGE_THREAD_PREFIX, MAX_MERGE_SEND_THREAD));
+        mergeSendRunning = true;
+        mergeSendExecutorService.submit(new MergedSendRunnable());
+    }
+
     public AbstractNettyRemotingServer(ThreadPoolExecutor messageExecutor, NettyServerConfig nettyServerConfig) {
         super(messageExecutor);
         serverBootstrap = new NettyServerBootstrap(nettyServerConfig);
@@ -70,9 +120,94 @@ public abstract class AbstractNettyRemotingServer extends AbstractNettyRemoting
             throw new RuntimeException("rm client is not connected. dbkey:" + resourceId + ",clientId:" + clientId);
         }
         RpcMessage rpcMessage = buildRequestMessage(msg, ProtocolConstants.MSGTYPE_RESQUEST_SYNC);
+        if (isBatchSendable(channel, msg)) {
+            return sendSyncMerged(channel, rpcMessage, NettyServerConfig.getRpcRequestTimeout());
+        }
         return super.sendSync(channel, rpcMessage, NettyServerConfig.getRpcRequestTimeout());
     }
 
+    @Override
+    public CompletableFuture<Object> sendSyncRequestAsync(String resourceId, String clientId, Object msg,
+                                                          boolean tryOtherApp) {
+        Channel channel = ChannelManager.getChannel(resourceId, clientId, tryOtherApp);
+        if (channel == null) {
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            future.completeExceptionally(new RuntimeException(
+                "rm client is not connected. dbkey:" + resourceId + ",clientId:" + clientId));
+            return future;
+        }
+        RpcMessage rpcMessage = buildRequestMessage(msg, ProtocolConstants.MSGTYPE_RESQUEST_SYNC);
+        long timeoutMillis = NettyServerConfig.getRpcRequestTimeout();
+        if (isBatchSendable(channel, msg)) {
+            MessageFuture messageFuture = offerMergedRequest(channel, rpcMessage, timeoutMillis);
+            if (messageFuture != null) {
+                return messageFuture.toCompletableFuture();
+            }
+        }
+        return super.sendSyncAsync(channel, rpcMessage, timeoutMillis);
+    }
+
+    /**
+     * Only the phase two requests are merged, and only for the RM which understands the merged request,
+     * the older ones are still sent one by one.
+     */
+    private boolean isBatchSendable(Channel channel, Object msg) {
+        if (mergeSendExecutorService == null || !mergeSendRunning
+            || !(msg instanceof BranchCommitRequest || msg instanceof BranchRollbackRequest)) {
+            return false;
+        }
+        RpcContext rpcContext = ChannelManager.getContextFromIdentified(channel);
+        return rpcContext != null && StringUtils.isNotBlank(rpcContext.getVersion())
+            && Version.isAboveOrEqualVersion210(rpcContext.getVersion());
+    }
+
+    private Object sendSyncMerged(Channel channel, RpcMessage rpcMessage, long timeoutMillis)
+        throws TimeoutException {
+        MessageFuture messageFuture = offerMergedRequest(channel, rpcMessage, timeoutMillis);
+        if (messageFuture == null) {
+            return super.sendSync(channel, rpcMessage, timeoutMillis);
+        }
+        try {
+            return messageFuture.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (Exception exx) {
+            LOGGER.error("wait response error:{},ip:{},request:{}", exx.getMessage(), channel.remoteAddress(),
+                rpcMessage.getBody());
+            if (exx instanceof TimeoutException) {
+                throw (TimeoutException) exx;
+            } else {
+                throw new RuntimeException(exx);
+            }
+        }
+    }
+
+    /**
+     * Put the request into the basket of the channel.
+     * The merged message is sent asynchronously, the messageFuture of every request is completed
+     * by the BatchResultMessage in ServerOnResponseProcessor.
+     *
+     * @return the message future, null if the basket is full
+     */
+    private MessageFuture offerMergedRequest(Channel channel, RpcMessage rpcMessage, long timeoutMillis) {
+        MessageFuture messageFuture = new MessageFuture();
+        messageFuture.setRequestMessage(rpcMessage);
+        messageFuture.setTimeout(timeoutMillis);
+        futures.put(rpcMessage.getId(), messageFuture);
+
+        BlockingQueue<RpcMessage> basket = CollectionUtils.computeIfAbsent(basketMap, channel,
+            key -> new LinkedBlockingQueue<>());
+        if (!basket.offer(rpcMessage)) {
+            futures.remove(rpcMessage.getId());
+            LOGGER.error("put message into basketMap offer failed, channel:{},rpcMessage:{}", channel, rpcMessage);
+            return null;
+        }
+        if (!isSending) {
+            synchronized (mergeLock) {
+                mergeLock.notifyAll();
+            }
+        }
+        return messageFuture;
+    }
+
     @Override
     public Object sendSyncRequest(Channel channel, Object msg) throws TimeoutException {
         if (channel == null) {
@@ -125,6 +260,13 @@ public abstract class AbstractNettyRemotingServer extends AbstractNettyRemoting
     @Override
     public void destroy() {
         serverBootstrap.shutdown();
+        if (mergeSendExecutorService != null) {
+            mergeSendRunning = false;
+            synchronized (mergeLock) {
+                mergeLock.notifyAll();
+            }
+            mergeSendExecutorService.shutdown();
+        }
         super.destroy();
     }
 
@@ -148,6 +290,77 @@ public abstract class AbstractNettyRemotingServer extends AbstractNettyRemoting
         ctx.close();
     }
 
+    /**
+     * The type Merged send runnable, merges the branch commit/rollback requests of the same RM channel.
+     */
+    private class MergedSendRunnable implements Runnable {
+
+        @Override
+        public void run() {
+            while (mergeSendRunning) {
+                synchronized (mergeLock) {
+                    try {
+                        mergeLock.wait(MAX_MERGE_SEND_MILLS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        mergeSendRunning = false;
+                    }
+                }
+                if (!mergeSendRunning) {
+                    break;
+                }
+                isSending = true;
+                basketMap.forEach((channel, basket) -> {
+                    if (!channel.isActive()) {
+                        basketMap.remove(channel);
+                        failMessages(basket, new RuntimeException("rm client is not connected: " + channel));
+                        return;
+                    }
+                    while (!basket.isEmpty()) {
+                        MergedWarpMessage mergeMessage = new MergedWarpMessage();
+                        RpcMessage msg;
+                        while (mergeMessage.msgIds.size() < MAX_MERGE_SEND_SIZE && (msg = basket.poll()) != null) {
+                            mergeMessage.msgs.add((AbstractMessage) msg.getBody());
+                            mergeMessage.msgIds.add(msg.getId());
+                        }
+                        debugLog("merge msg size:{}, channel:{}", mergeMessage.msgIds.size(), channel);
+                        try {
+                            // the response of the merged message is a BatchResultMessage,
+                            // see ServerOnResponseProcessor.
+                            RpcMessage rpcMessage = buildRequestMessage(mergeMessage,
+                                ProtocolConstants.MSGTYPE_RESQUEST_SYNC);
+                            sendAsync(channel, rpcMessage);
+                        } catch (FrameworkException e) {
+                            // fast fail
+                            for (Integer msgId : mergeMessage.msgIds) {
+                                MessageFuture messageFuture = futures.remove(msgId);
+                                if (messageFuture != null) {
+                                    messageFuture.setResultMessage(e);
+                                }
+                            }
+                            LOGGER.error("server merge call failed: {}", e.getMessage(), e);
+                        }
+                    }
+                });
+                isSending = false;
+            }
+            // the server is destroyed, the requests not sent yet fail fast instead of waiting for the timeout
+            basketMap.forEach((channel, basket) -> failMessages(basket,
+                new FrameworkException("the remoting server is destroyed")));
+            basketMap.clear();
+        }
+
+        private void failMessages(BlockingQueue<RpcMessage> basket, Exception cause) {
+            RpcMessage msg;
+            while ((msg = basket.poll()) != null) {
+                MessageFuture messageFuture = futures.remove(msg.getId());
+                if (messageFuture != null) {
+                    messageFuture.setResultMessage(cause);
+                }
+            }
+        }
+    }
+
     /**
      * The type ServerHandler.
      */
@@ -68,6 +68,8 @@ public class NettyServerConfig extends NettyBaseConfig {
             ConfigurationKeys.MAX_BRANCH_RESULT_POOL_SIZE, String.valueOf(WorkThreadMode.Pin.getValue())));
     private static boolean ENABLE_TC_SERVER_BATCH_SEND_RESPONSE = CONFIG.getBoolean(ConfigurationKeys.ENABLE_TC_SERVER_BATCH_SEND_RESPONSE,
         DefaultValues.DEFAULT_ENABLE_TC_SERVER_BATCH_SEND_RESPONSE);
+    private static boolean ENABLE_TC_SERVER_BATCH_SEND_REQUEST = CONFIG.getBoolean(ConfigurationKeys.ENABLE_TC_SERVER_BATCH_SEND_REQUEST,
+        DefaultValues.DEFAULT_ENABLE_TC_SERVER_BATCH_SEND_REQUEST);
 
     /**
      * The Server channel clazz.
@@ -336,4 +338,13 @@ public class NettyServerConfig extends NettyBaseConfig {
     public static boolean isEnableTcServerBatchSendResponse() {
         return ENABLE_TC_SERVER_BATCH_SEND_RESPONSE;
     }
+
+    /**
+     * Get the tc server batch send request enable
+     *
+     * @return true or false
+     */
+    public static boolean isEnableTcServerBatchSendRequest() {
+        return ENABLE_TC_SERVER_BATCH_SEND_REQUEST;
+    }
 }
@@ -25,11 +25,13 @@ import io.seata.config.Configuration;
 import io.seata.config.ConfigurationFactory;
 import io.seata.core.compressor.Compressor;
 import io.seata.core.compressor.CompressorFactory;
+import io.seata.core.compressor.CompressorType;
 import io.seata.core.constants.ConfigurationKeys;
 import io.seata.core.exception.DecodeException;
 import io.seata.core.protocol.HeartbeatMessage;
 import io.seata.core.protocol.ProtocolConstants;
 import io.seata.core.protocol.RpcMessage;
+import io.seata.core.serializer.ByteBufSerializer;
 import io.seata.core.serializer.Serializer;
 import io.seata.core.serializer.SerializerServiceLoader;
 import io.seata.core.serializer.SerializerType;
@@ -57,6 +59,9 @@ import org.slf4j.LoggerFactory;
  * <li>Head Length: include head data from magic code to head map. </li>
  * <li>Body Length: Full Length - Head Length</li>
  * </p>
+ * <p>
+ * The uncompressed body is decoded from the frame directly if the serializer is a {@link ByteBufSerializer}.
+ * </p>
  * https://github.com/seata/seata/issues/893
  *
  * @see ProtocolV1Encoder
@@ -145,14 +150,19 @@ public class ProtocolV1Decoder extends LengthFieldBasedFrameDecoder {
         } else {
             int bodyLength = fullLength - headLength;
             if (bodyLength > 0) {
-                byte[] bs = new byte[bodyLength];
-                frame.readBytes(bs);
-                Compressor compressor = CompressorFactory.getCompressor(compressorType);
-                bs = compressor.decompress(bs);
                 SerializerType protocolType = SerializerType.getByCode(rpcMessage.getCodec());
                 if (this.serializerType.equals(protocolType)) {
                     Serializer serializer = SerializerServiceLoader.load(protocolType);
-                    rpcMessage.setBody(serializer.deserialize(bs));
+                    if (compressorType == CompressorType.NONE.getCode() && serializer instanceof ByteBufSerializer) {
+                        // direct read body with zero-copy
+                        rpcMessage.setBody(((ByteBufSerializer)serializer).deserialize(frame, bodyLength));
+                    } else {
+                        byte[] bs = new byte[bodyLength];
+                        frame.readBytes(bs);
+                        Compressor compressor = CompressorFactory.getCompressor(compressorType);
+                        bs = compressor.decompress(bs);
+                        rpcMessage.setBody(serializer.deserialize(bs));
+                    }
                 } else {
                     throw new IllegalArgumentException("SerializerType not match");
                 }
@@ -19,6 +19,10 @@ package io.seata.core.rpc.netty.v1;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
+import io.seata.common.ConfigurationKeys;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.compressor.CompressorType;
+import io.seata.core.serializer.ByteBufSerializer;
 import io.seata.core.serializer.Serializer;
 import io.seata.core.compressor.Compressor;
 import io.seata.core.compressor.CompressorFactory;
@@ -31,6 +35,8 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Map;
 
+import static io.seata.common.DefaultValues.DEFAULT_TRANSPORT_COMPRESS_THRESHOLD;
+
 /**
  * <pre>
  * 0     1     2     3     4     5     6     7     8     9    10     11    12    13    14    15    16
@@ -52,6 +58,10 @@ import java.util.Map;
  * <li>Head Length: include head data from magic code to head map. </li>
  * <li>Body Length: Full Length - Head Length</li>
  * </p>
+ * <p>
+ * The body is encoded into the out buffer directly if the serializer is a {@link ByteBufSerializer}. The body smaller
+ * than the compress threshold is not compressed, and its compressor type is written as none.
+ * </p>
  * https://github.com/seata/seata/issues/893
  *
  * @see ProtocolV1Decoder
@@ -61,6 +71,22 @@ public class ProtocolV1Encoder extends MessageToByteEncoder {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ProtocolV1Encoder.class);
 
+    private final int compressThreshold;
+
+    public ProtocolV1Encoder() {
+        this(ConfigurationFactory.getInstance().getInt(ConfigurationKeys.COMPRESS_THRESHOLD_FOR_RPC,
+            DEFAULT_TRANSPORT_COMPRESS_THRESHOLD));
+    }
+
+    /**
+     * Instantiates a new Protocol v1 encoder.
+     *
+     * @param compressThreshold the body smaller than it is not compressed, in bytes
+     */
+    public ProtocolV1Encoder(int compressThreshold) {
+        this.compressThreshold = compressThreshold;
+    }
+
     @Override
     public void encode(ChannelHandlerContext ctx, Object msg, ByteBuf out) {
         try {
@@ -78,6 +104,7 @@ public class ProtocolV1Encoder extends MessageToByteEncoder {
                 out.writerIndex(out.writerIndex() + 6);
                 out.writeByte(messageType);
                 out.writeByte(rpcMessage.getCodec());
+                int compressorIndex = out.writerIndex();
                 out.writeByte(rpcMessage.getCompressor());
                 out.writeInt(rpcMessage.getId());
 
@@ -89,19 +116,11 @@ public class ProtocolV1Encoder extends MessageToByteEncoder {
                     fullLength += headMapBytesLength;
                 }
 
-                byte[] bodyBytes = null;
                 if (messageType != ProtocolConstants.MSGTYPE_HEARTBEAT_REQUEST
                         && messageType != ProtocolConstants.MSGTYPE_HEARTBEAT_RESPONSE) {
                     // heartbeat has no body
                     Serializer serializer = SerializerServiceLoader.load(SerializerType.getByCode(rpcMessage.getCodec()));
-                    bodyBytes = serializer.serialize(rpcMessage.getBody());
-                    Compressor compressor = CompressorFactory.getCompressor(rpcMessage.getCompressor());
-                    bodyBytes = compressor.compress(bodyBytes);
-                    fullLength += bodyBytes.length;
-                }
-
-                if (bodyBytes != null) {
-                    out.writeBytes(bodyBytes);
+                    fullLength += encodeBody(rpcMessage, serializer, out, compressorIndex);
                 }
 
                 // fix fullLength and headLength
@@ -118,4 +137,42 @@ public class ProtocolV1Encoder extends MessageToByteEncoder {
             LOGGER.error("Encode request error!", e);
         }
     }
+
+    private int encodeBody(RpcMessage rpcMessage, Serializer serializer, ByteBuf out, int compressorIndex) {
+        byte compressorType = rpcMessage.getCompressor();
+        if (serializer instanceof ByteBufSerializer) {
+            // direct write body with zero-copy
+            int bodyIndex = out.writerIndex();
+            ((ByteBufSerializer)serializer).serialize(rpcMessage.getBody(), out);
+            int bodyLength = out.writerIndex() - bodyIndex;
+            if (!needCompress(compressorType, bodyLength, out, compressorIndex)) {
+                return bodyLength;
+            }
+            byte[] bodyBytes = new byte[bodyLength];
+            out.getBytes(bodyIndex, bodyBytes);
+            bodyBytes = CompressorFactory.getCompressor(compressorType).compress(bodyBytes);
+            out.writerIndex(bodyIndex);
+            out.writeBytes(bodyBytes);
+            return bodyBytes.length;
+        }
+        byte[] bodyBytes = serializer.serialize(rpcMessage.getBody());
+        if (needCompress(compressorType, bodyBytes.length, out, compressorIndex)) {
+            Compressor compressor = CompressorFactory.getCompressor(compressorType);
+            bodyBytes = compressor.compress(bodyBytes);
+        }
+        out.writeBytes(bodyBytes);
+        return bodyBytes.length;
+    }
+
+    private boolean needCompress(byte compressorType, int bodyLength, ByteBuf out, int compressorIndex) {
+        if (compressorType == CompressorType.NONE.getCode()) {
+            return false;
+        }
+        if (bodyLength < compressThreshold) {
+            // the small body is sent uncompressed, tell the decoder by the compressor type
+            out.setByte(compressorIndex, CompressorType.NONE.getCode());
+            return false;
+        }
+        return true;
+    }
 }
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.core.rpc.processor.client;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.seata.common.util.NetUtil;
+import io.seata.core.model.BranchStatus;
+import io.seata.core.protocol.AbstractMessage;
+import io.seata.core.protocol.AbstractResultMessage;
+import io.seata.core.protocol.BatchResultMessage;
+import io.seata.core.protocol.MergedWarpMessage;
+import io.seata.core.protocol.ResultCode;
+import io.seata.core.protocol.RpcMessage;
+import io.seata.core.protocol.transaction.AbstractBranchEndRequest;
+import io.seata.core.protocol.transaction.AbstractBranchEndResponse;
+import io.seata.core.protocol.transaction.BranchCommitResponse;
+import io.seata.core.protocol.transaction.BranchRollbackRequest;
+import io.seata.core.protocol.transaction.BranchRollbackResponse;
+import io.seata.core.rpc.RemotingClient;
+import io.seata.core.rpc.TransactionMessageHandler;
+import io.seata.core.rpc.processor.RemotingProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * process TC merged branch commit and rollback command.
+ * <p>
+ * process message type:
+ * {@link MergedWarpMessage} of {@link io.seata.core.protocol.transaction.BranchCommitRequest}
+ * and {@link BranchRollbackRequest}, the results are sent back in one {@link BatchResultMessage}.
+ *
+ * @see RmBranchCommitProcessor
+ * @see RmBranchRollbackProcessor
+ */
+public class RmMergedBranchProcessor implements RemotingProcessor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RmMergedBranchProcessor.class);
+
+    private TransactionMessageHandler handler;
+
+    private RemotingClient remotingClient;
+
+    private ThreadPoolExecutor executor;
+
+    /**
+     * Instantiates a new Rm merged branch processor.
+     *
+     * @param handler        the transaction message handler
+     * @param remotingClient the remoting client
+     * @param executor       runs the branch end requests of the merged message, the rm message executor
+     */
+    public RmMergedBranchProcessor(TransactionMessageHandler handler, RemotingClient remotingClient,
+                                   ThreadPoolExecutor executor) {
+        this.handler = handler;
+        this.remotingClient = remotingClient;
+        this.executor = executor;
+    }
+
+    @Override
+    public void process(ChannelHandlerContext ctx, RpcMessage rpcMessage) throws Exception {
+        String remoteAddress = NetUtil.toStringAddress(ctx.channel().remoteAddress());
+        MergedWarpMessage mergedWarpMessage = (MergedWarpMessage) rpcMessage.getBody();
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("rm client handle merged branch end process, size:{}", mergedWarpMessage.msgs.size());
+        }
+        int size = mergedWarpMessage.msgs.size();
+        AbstractResultMessage[] results = new AbstractResultMessage[size];
+        if (size == 0) {
+            sendResults(remoteAddress, rpcMessage, mergedWarpMessage, results);
+            return;
+        }
+        AtomicInteger remaining = new AtomicInteger(size);
+        // the requests run on the rm message executor, the last one done sends the batch result,
+        // so no thread is blocked waiting for the others
+        for (int i = 0; i < size; i++) {
+            int index = i;
+            AbstractMessage msg = mergedWarpMessage.msgs.get(i);
+            Runnable task = () -> {
+                try {
+                    results[index] = handler.onRequest(msg, null);
+                } catch (Throwable e) {
+                    LOGGER.error("handle branch end request error: {}", e.getMessage(), e);
+                    results[index] = buildFailedResult(msg, e);
+                }
+                if (remaining.decrementAndGet() == 0) {
+                    sendResults(remoteAddress, rpcMessage, mergedWarpMessage, results);
+                }
+            };
+            if (executor == null || executor.isShutdown()) {
+                task.run();
+            } else {
+                // the executor runs the task on the caller if it is full
+                executor.execute(task);
+            }
+        }
+    }
+
+    private void sendResults(String remoteAddress, RpcMessage rpcMessage, MergedWarpMessage mergedWarpMessage,
+                             AbstractResultMessage[] results) {
+        BatchResultMessage batchResultMessage = new BatchResultMessage();
+        batchResultMessage.setResultMessages(new ArrayList<>(Arrays.asList(results)));
+        batchResultMessage.setMsgIds(new ArrayList<>(mergedWarpMessage.msgIds));
+        try {
+            this.remotingClient.sendAsyncResponse(remoteAddress, rpcMessage, batchResultMessage);
+        } catch (Throwable throwable) {
+            LOGGER.error("merged branch end error: {}", throwable.getMessage(), throwable);
+        }
+    }
+
+    private AbstractResultMessage buildFailedResult(AbstractMessage msg, Throwable e) {
+        AbstractBranchEndResponse response;
+        if (msg instanceof BranchRollbackRequest) {
+            response = new BranchRollbackResponse();
+            response.setBranchStatus(BranchStatus.PhaseTwo_RollbackFailed_Retryable);
+        } else {
+            response = new BranchCommitResponse();
+            response.setBranchStatus(BranchStatus.PhaseTwo_CommitFailed_Retryable);
+        }
+        if (msg instanceof AbstractBranchEndRequest) {
+            response.setXid(((AbstractBranchEndRequest) msg).getXid());
+            response.setBranchId(((AbstractBranchEndRequest) msg).getBranchId());
+        }
+        response.setResultCode(ResultCode.Failed);
+        response.setMsg(e.getMessage());
+        return response;
+    }
+}
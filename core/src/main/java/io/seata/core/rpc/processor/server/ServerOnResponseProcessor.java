@@ -22,6 +22,7 @@ import java.util.concurrent.ConcurrentMap;
 import io.netty.channel.ChannelHandlerContext;
 import io.seata.common.util.NetUtil;
 import io.seata.core.protocol.AbstractResultMessage;
+import io.seata.core.protocol.BatchResultMessage;
 import io.seata.core.protocol.MessageFuture;
 import io.seata.core.protocol.RpcMessage;
 import io.seata.core.protocol.transaction.BranchCommitResponse;
@@ -40,6 +41,7 @@ import org.slf4j.LoggerFactory;
  * RM:
  * 1) {@link BranchCommitResponse}
  * 2) {@link BranchRollbackResponse}
+ * 3) {@link BatchResultMessage} of the merged branch commit/rollback requests
  *
  * @since 1.3.0
  */
@@ -65,6 +67,10 @@ public class ServerOnResponseProcessor implements RemotingProcessor {
 
     @Override
     public void process(ChannelHandlerContext ctx, RpcMessage rpcMessage) throws Exception {
+        if (rpcMessage.getBody() instanceof BatchResultMessage) {
+            onBatchResultMessage((BatchResultMessage) rpcMessage.getBody());
+            return;
+        }
         MessageFuture messageFuture = futures.remove(rpcMessage.getId());
         String receiveMsgLog = String.format("receive msg[single]: %s, clientIp: %s, vgroup: %s", rpcMessage.getBody(), NetUtil.toIpAddress(ctx.channel().remoteAddress()),
             ChannelManager.getContextFromIdentified(ctx.channel()).getTransactionServiceGroup());
@@ -90,6 +96,19 @@ public class ServerOnResponseProcessor implements RemotingProcessor {
         }
     }
 
+    private void onBatchResultMessage(BatchResultMessage batchResultMessage) {
+        for (int i = 0; i < batchResultMessage.getMsgIds().size(); i++) {
+            int msgId = batchResultMessage.getMsgIds().get(i);
+            MessageFuture future = futures.remove(msgId);
+            if (future == null) {
+                LOGGER.error("msg: {} is not found in futures, result message: {}", msgId,
+                    batchResultMessage.getResultMessages().get(i));
+            } else {
+                future.setResultMessage(batchResultMessage.getResultMessages().get(i));
+            }
+        }
+    }
+
     private void onResponseMessage(ChannelHandlerContext ctx, RpcMessage rpcMessage) {
         if (rpcMessage.getBody() instanceof AbstractResultMessage) {
             RpcContext rpcContext = ChannelManager.getContextFromIdentified(ctx.channel());
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.core.serializer;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * The serializer encodes to and decodes from the ByteBuf directly, without the intermediate byte[].
+ * <p>
+ * It is optional, the protocol codec uses it instead of the {@link Serializer} if the serializer implements it, so
+ * the message is encoded into the pooled buffer of the channel and decoded from the received frame. The bytes must be
+ * the same as {@link Serializer#serialize(Object)}.
+ * </p>
+ *
+ */
+public interface ByteBufSerializer {
+
+    /**
+     * Encode object to the ByteBuf.
+     *
+     * @param <T> the type parameter
+     * @param t   the t
+     * @param out the ByteBuf written to, from its writer index
+     */
+    <T> void serialize(T t, ByteBuf out);
+
+    /**
+     * Decode t from the ByteBuf.
+     *
+     * @param <T>    the type parameter
+     * @param in     the ByteBuf read from, from its reader index
+     * @param length the length of the encoded object
+     * @return the t
+     */
+    <T> T deserialize(ByteBuf in, int length);
+}
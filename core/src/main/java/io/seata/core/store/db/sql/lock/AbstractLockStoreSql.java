@@ -171,11 +171,34 @@ public class AbstractLockStoreSql implements LockStoreSql {
         return CHECK_LOCK_SQL.replace(LOCK_TABLE_PLACE_HOLD, lockTable).replace(LOCK_TABLE_PK_WHERE_CONDITION_PLACE_HOLD, whereCondition);
     }
 
+    @Override
+    public String getInsertIgnoreLockSql(String lockTable, int rowSize) {
+        return null;
+    }
+
     @Override
     public String getBatchUpdateStatusLockByGlobalSql(String lockTable) {
         return BATCH_UPDATE_STATUS_LOCK_BY_GLOBAL_SQL.replace(LOCK_TABLE_PLACE_HOLD, lockTable);
     }
 
+    /**
+     * Build the values of a multi-row insert, the result will like :"(?, ?, now()),(?, ?, now())"
+     *
+     * @param rowValues the values of one row, without brackets
+     * @param rowSize   the row size of records
+     * @return the values sql string
+     */
+    protected String buildMultiRowValues(String rowValues, int rowSize) {
+        StringBuilder valuesStr = new StringBuilder((rowValues.length() + 3) * rowSize);
+        for (int i = 0; i < rowSize; i++) {
+            if (i > 0) {
+                valuesStr.append(",");
+            }
+            valuesStr.append("(").append(rowValues).append(")");
+        }
+        return valuesStr.toString();
+    }
+
     /**
      * each pk is a condition.the result will like :" (id,userCode) in ((?,?),(?,?)) or (id,userCode) in ((?,?),(?,?)
      * ) or (id,userCode) in ((?,?))"
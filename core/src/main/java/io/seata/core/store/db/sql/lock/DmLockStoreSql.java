@@ -25,4 +25,10 @@ import io.seata.common.loader.LoadLevel;
  */
 @LoadLevel(name = "dm")
 public class DmLockStoreSql extends MysqlLockStoreSql {
+
+    @Override
+    public String getInsertIgnoreLockSql(String lockTable, int rowSize) {
+        // insert ignore is a mysql extension the DaMeng syntax lacks
+        return null;
+    }
 }
@@ -90,6 +90,16 @@ public interface LockStoreSql {
      */
     String getCheckLockableSql(String lockTable, int rowSize);
 
+    /**
+     * Get the sql inserting all the rows in one statement and skipping the ones already locked,
+     * the affected rows tell if all of them are acquired.
+     *
+     * @param lockTable the lock table
+     * @param rowSize   the size of rowkey
+     * @return the string, null if the db type does not support it
+     */
+    String getInsertIgnoreLockSql(String lockTable, int rowSize);
+
     /**
      * get batch update status lock by global sql
      *
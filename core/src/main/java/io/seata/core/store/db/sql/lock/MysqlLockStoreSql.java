@@ -32,9 +32,26 @@ public class MysqlLockStoreSql extends AbstractLockStoreSql {
     private static final String INSERT_LOCK_SQL_MYSQL = "insert into " + LOCK_TABLE_PLACE_HOLD + "(" + ALL_COLUMNS + ")"
         + " values (?, ?, ?, ?, ?, ?, ?, now(), now(), ?)";
 
+    /**
+     * The constant INSERT_IGNORE_LOCK_SQL_MYSQL.
+     */
+    private static final String INSERT_IGNORE_LOCK_SQL_MYSQL = "insert ignore into " + LOCK_TABLE_PLACE_HOLD + "("
+        + ALL_COLUMNS + ") values ";
+
+    /**
+     * The constant ROW_VALUES_MYSQL.
+     */
+    private static final String ROW_VALUES_MYSQL = "?, ?, ?, ?, ?, ?, ?, now(), now(), ?";
+
     @Override
     public String getInsertLockSQL(String lockTable) {
         return INSERT_LOCK_SQL_MYSQL.replace(LOCK_TABLE_PLACE_HOLD, lockTable);
     }
 
+    @Override
+    public String getInsertIgnoreLockSql(String lockTable, int rowSize) {
+        return INSERT_IGNORE_LOCK_SQL_MYSQL.replace(LOCK_TABLE_PLACE_HOLD, lockTable)
+            + buildMultiRowValues(ROW_VALUES_MYSQL, rowSize);
+    }
+
 }
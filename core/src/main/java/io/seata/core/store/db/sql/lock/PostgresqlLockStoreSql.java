@@ -32,9 +32,26 @@ public class PostgresqlLockStoreSql extends AbstractLockStoreSql {
     private static final String INSERT_LOCK_SQL_POSTGRESQL = "insert into " + LOCK_TABLE_PLACE_HOLD + "(" + ALL_COLUMNS + ")"
         + " values (?, ?, ?, ?, ?, ?, ?, now(), now(), ?)";
 
+    /**
+     * The constant INSERT_IGNORE_LOCK_SQL_POSTGRESQL.
+     */
+    private static final String INSERT_IGNORE_LOCK_SQL_POSTGRESQL = "insert into " + LOCK_TABLE_PLACE_HOLD + "("
+        + ALL_COLUMNS + ") values ";
+
+    /**
+     * The constant ROW_VALUES_POSTGRESQL.
+     */
+    private static final String ROW_VALUES_POSTGRESQL = "?, ?, ?, ?, ?, ?, ?, now(), now(), ?";
+
     @Override
     public String getInsertLockSQL(String lockTable) {
         return INSERT_LOCK_SQL_POSTGRESQL.replace(LOCK_TABLE_PLACE_HOLD, lockTable);
     }
 
+    @Override
+    public String getInsertIgnoreLockSql(String lockTable, int rowSize) {
+        return INSERT_IGNORE_LOCK_SQL_POSTGRESQL.replace(LOCK_TABLE_PLACE_HOLD, lockTable)
+            + buildMultiRowValues(ROW_VALUES_POSTGRESQL, rowSize) + " on conflict do nothing";
+    }
+
 }
@@ -21,7 +21,9 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -186,6 +188,23 @@ public class MessageFutureTest {
         }
     }
 
+    @Test
+    public void testToCompletableFuture() throws Exception {
+        MessageFuture messageFuture = new MessageFuture();
+        messageFuture.setRequestMessage(buildRepcMessage());
+        CompletableFuture<Object> future = messageFuture.toCompletableFuture();
+        Assertions.assertFalse(future.isDone());
+        messageFuture.setResultMessage(BODY_FIELD);
+        assertThat(future.get()).isEqualTo(BODY_FIELD);
+
+        MessageFuture timeoutFuture = new MessageFuture();
+        timeoutFuture.setRequestMessage(buildRepcMessage());
+        CompletableFuture<Object> failed = timeoutFuture.toCompletableFuture();
+        timeoutFuture.setResultMessage(new TimeoutException("test_timeout"));
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class, failed::get);
+        assertThat(e.getCause()).isInstanceOf(TimeoutException.class);
+    }
+
     private RpcMessage buildRepcMessage() {
         RpcMessage rpcMessage = new RpcMessage();
         rpcMessage.setId(ID_FIELD);
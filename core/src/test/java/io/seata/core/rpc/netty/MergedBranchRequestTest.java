@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.core.rpc.netty;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.seata.core.model.BranchStatus;
+import io.seata.core.protocol.AbstractMessage;
+import io.seata.core.protocol.BatchResultMessage;
+import io.seata.core.protocol.MergedWarpMessage;
+import io.seata.core.protocol.RegisterRMRequest;
+import io.seata.core.protocol.ResultCode;
+import io.seata.core.protocol.RpcMessage;
+import io.seata.core.protocol.transaction.AbstractBranchEndRequest;
+import io.seata.core.protocol.transaction.AbstractBranchEndResponse;
+import io.seata.core.protocol.transaction.BranchCommitRequest;
+import io.seata.core.protocol.transaction.BranchCommitResponse;
+import io.seata.core.protocol.transaction.BranchRollbackRequest;
+import io.seata.core.protocol.transaction.BranchRollbackResponse;
+import io.seata.core.rpc.RemotingClient;
+import io.seata.core.rpc.TransactionMessageHandler;
+import io.seata.core.rpc.processor.client.RmMergedBranchProcessor;
+import io.seata.core.rpc.processor.server.ServerOnResponseProcessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+
+/**
+ * The round trip of the branch commit/rollback requests merged by TC and answered by RM in one batch result.
+ */
+public class MergedBranchRequestTest {
+
+    private static final String RESOURCE_ID = "jdbc:mysql://127.0.0.1:3306/merged";
+
+    private static final String APPLICATION_ID = "merged-app";
+
+    private static final String CLIENT_ID = APPLICATION_ID + ":127.0.0.1:12345";
+
+    private NettyRemotingServer remotingServer;
+
+    private ThreadPoolExecutor rmExecutor;
+
+    private Channel channel;
+
+    private final List<RpcMessage> sent = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    public void init() throws Exception {
+        remotingServer = new NettyRemotingServer(new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>()));
+        rmExecutor = new ThreadPoolExecutor(4, 4, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+
+        channel = Mockito.mock(Channel.class);
+        Mockito.when(channel.isActive()).thenReturn(true);
+        Mockito.when(channel.isWritable()).thenReturn(true);
+        Mockito.when(channel.remoteAddress()).thenReturn(new InetSocketAddress("127.0.0.1", 12345));
+        ChannelFuture channelFuture = Mockito.mock(ChannelFuture.class);
+        Mockito.when(channel.writeAndFlush(any())).thenAnswer(invocation -> {
+            sent.add(invocation.getArgument(0));
+            return channelFuture;
+        });
+
+        RegisterRMRequest registerRMRequest = new RegisterRMRequest(APPLICATION_ID, "default_tx_group");
+        registerRMRequest.setVersion("2.1.0");
+        registerRMRequest.setResourceIds(RESOURCE_ID);
+        ChannelManager.registerRMChannel(registerRMRequest, channel);
+    }
+
+    @AfterEach
+    public void destroy() {
+        ChannelManager.releaseRpcContext(channel);
+        remotingServer.destroy();
+        rmExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testMergedRoundTrip() throws Exception {
+        remotingServer.startMergeSend();
+        CompletableFuture<Object> commit = remotingServer.sendSyncRequestAsync(RESOURCE_ID, CLIENT_ID,
+            branchEndRequest(new BranchCommitRequest(), 1L), false);
+        CompletableFuture<Object> rollback = remotingServer.sendSyncRequestAsync(RESOURCE_ID, CLIENT_ID,
+            branchEndRequest(new BranchRollbackRequest(), 2L), false);
+
+        // the merge thread sends the requests in merged messages
+        long deadline = System.currentTimeMillis() + 5000;
+        while (countMerged() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(2, countMerged());
+
+        // the rm handles them and answers each merged message with a batch result
+        TransactionMessageHandler handler = Mockito.mock(TransactionMessageHandler.class);
+        Mockito.when(handler.onRequest(any(), isNull())).thenAnswer(invocation -> {
+            AbstractMessage request = invocation.getArgument(0);
+            AbstractBranchEndResponse response;
+            if (request instanceof BranchCommitRequest) {
+                response = new BranchCommitResponse();
+                response.setBranchStatus(BranchStatus.PhaseTwo_Committed);
+            } else {
+                response = new BranchRollbackResponse();
+                response.setBranchStatus(BranchStatus.PhaseTwo_Rollbacked);
+            }
+            response.setXid(((AbstractBranchEndRequest) request).getXid());
+            response.setBranchId(((AbstractBranchEndRequest) request).getBranchId());
+            response.setResultCode(ResultCode.Success);
+            return response;
+        });
+        RemotingClient remotingClient = Mockito.mock(RemotingClient.class);
+        RmMergedBranchProcessor rmProcessor = new RmMergedBranchProcessor(handler, remotingClient, rmExecutor);
+        ChannelHandlerContext rmCtx = Mockito.mock(ChannelHandlerContext.class);
+        Mockito.when(rmCtx.channel()).thenReturn(channel);
+        int merged = 0;
+        for (RpcMessage rpcMessage : new ArrayList<>(sent)) {
+            if (rpcMessage.getBody() instanceof MergedWarpMessage) {
+                rmProcessor.process(rmCtx, rpcMessage);
+                merged++;
+            }
+        }
+        Mockito.verify(remotingClient, Mockito.timeout(5000).times(merged))
+            .sendAsyncResponse(anyString(), any(RpcMessage.class), any());
+        ArgumentCaptor<Object> results = ArgumentCaptor.forClass(Object.class);
+        Mockito.verify(remotingClient, Mockito.times(merged))
+            .sendAsyncResponse(anyString(), any(RpcMessage.class), results.capture());
+
+        // the tc completes the future of every request from the batch results
+        ServerOnResponseProcessor onResponseProcessor =
+            new ServerOnResponseProcessor(null, remotingServer.futures);
+        for (Object result : results.getAllValues()) {
+            Assertions.assertTrue(result instanceof BatchResultMessage);
+            RpcMessage response = new RpcMessage();
+            response.setBody(result);
+            onResponseProcessor.process(rmCtx, response);
+        }
+        BranchCommitResponse commitResponse = (BranchCommitResponse) commit.get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(BranchStatus.PhaseTwo_Committed, commitResponse.getBranchStatus());
+        Assertions.assertEquals(1L, commitResponse.getBranchId());
+        BranchRollbackResponse rollbackResponse = (BranchRollbackResponse) rollback.get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(BranchStatus.PhaseTwo_Rollbacked, rollbackResponse.getBranchStatus());
+        Assertions.assertEquals(2L, rollbackResponse.getBranchId());
+    }
+
+    @Test
+    public void testNotMergedAfterDestroy() throws Exception {
+        remotingServer.startMergeSend();
+        remotingServer.destroy();
+        remotingServer.sendSyncRequestAsync(RESOURCE_ID, CLIENT_ID,
+            branchEndRequest(new BranchCommitRequest(), 1L), false);
+        // the merge thread is stopped, the request is sent alone
+        Assertions.assertEquals(1, sent.size());
+        Assertions.assertTrue(sent.get(0).getBody() instanceof BranchCommitRequest);
+    }
+
+    private static AbstractBranchEndRequest branchEndRequest(AbstractBranchEndRequest request, long branchId) {
+        request.setXid("127.0.0.1:8091:" + branchId);
+        request.setBranchId(branchId);
+        request.setResourceId(RESOURCE_ID);
+        return request;
+    }
+
+    private int countMerged() {
+        int count = 0;
+        synchronized (sent) {
+            for (RpcMessage rpcMessage : sent) {
+                if (rpcMessage.getBody() instanceof MergedWarpMessage) {
+                    count += ((MergedWarpMessage) rpcMessage.getBody()).msgs.size();
+                }
+            }
+        }
+        return count;
+    }
+}
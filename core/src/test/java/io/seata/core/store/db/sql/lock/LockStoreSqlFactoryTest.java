@@ -379,4 +379,24 @@ public class LockStoreSqlFactoryTest {
         sql = DM_LOCK_STORE.getCheckLockableSql(BRANCH_TABLE, 3);
         Assertions.assertEquals(EXPECT_CHECK_BRANCH_LOCKABLE_SQL,sql);
     }
+
+    @Test
+    public void insertIgnoreLockTest() {
+        String expectMysqlSql = "insert ignore into " + GLOBAL_TABLE + "(xid, transaction_id, branch_id, resource_id, "
+            + "table_name, pk, row_key, gmt_create, gmt_modified,status) values "
+            + "(?, ?, ?, ?, ?, ?, ?, now(), now(), ?),(?, ?, ?, ?, ?, ?, ?, now(), now(), ?)";
+        Assertions.assertEquals(expectMysqlSql, MYSQL_LOCK_STORE.getInsertIgnoreLockSql(GLOBAL_TABLE, 2));
+        Assertions.assertEquals(expectMysqlSql, MARIADB_LOCK_STORE.getInsertIgnoreLockSql(GLOBAL_TABLE, 2));
+
+        String expectPgSql = "insert into " + GLOBAL_TABLE + "(xid, transaction_id, branch_id, resource_id, "
+            + "table_name, pk, row_key, gmt_create, gmt_modified,status) values "
+            + "(?, ?, ?, ?, ?, ?, ?, now(), now(), ?),(?, ?, ?, ?, ?, ?, ?, now(), now(), ?) on conflict do nothing";
+        Assertions.assertEquals(expectPgSql, POSTGRESQL_LOCK_STORE.getInsertIgnoreLockSql(GLOBAL_TABLE, 2));
+
+        // the others acquire by the check and insert statements
+        Assertions.assertNull(ORACLE_LOCK_STORE.getInsertIgnoreLockSql(GLOBAL_TABLE, 2));
+        Assertions.assertNull(H2_LOCK_STORE.getInsertIgnoreLockSql(GLOBAL_TABLE, 2));
+        Assertions.assertNull(OCEANBASE_LOCK_STORE.getInsertIgnoreLockSql(GLOBAL_TABLE, 2));
+        Assertions.assertNull(DM_LOCK_STORE.getInsertIgnoreLockSql(GLOBAL_TABLE, 2));
+    }
 }
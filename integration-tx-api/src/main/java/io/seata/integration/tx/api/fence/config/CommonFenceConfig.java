@@ -57,6 +57,20 @@ public class CommonFenceConfig implements Disposable {
      */
     private String logTableName = DefaultValues.DEFAULT_COMMON_FENCE_LOG_TABLE_NAME;
 
+    /**
+     * Common fence log clean threads
+     */
+    private int logCleanThreads = DefaultValues.DEFAULT_COMMON_FENCE_LOG_CLEAN_THREADS;
+
+    /**
+     * Common fence log clean queue size, the overflowed logs are left to the time range clean
+     */
+    private int logCleanQueueSize = DefaultValues.DEFAULT_COMMON_FENCE_LOG_CLEAN_QUEUE_SIZE;
+
+    /**
+     * Common fence log clean batch size, the max logs deleted by a statement
+     */
+    private int logCleanBatchSize = DefaultValues.DEFAULT_COMMON_FENCE_LOG_CLEAN_BATCH_SIZE;
 
     /**
      * Common fence clean scheduled thread pool
@@ -68,6 +82,10 @@ public class CommonFenceConfig implements Disposable {
         return initialized;
     }
 
+    public Duration getCleanPeriod() {
+        return cleanPeriod;
+    }
+
     public void setCleanPeriod(Duration cleanPeriod) {
         this.cleanPeriod = cleanPeriod;
     }
@@ -76,6 +94,30 @@ public class CommonFenceConfig implements Disposable {
         this.logTableName = logTableName;
     }
 
+    public int getLogCleanThreads() {
+        return logCleanThreads;
+    }
+
+    public void setLogCleanThreads(int logCleanThreads) {
+        this.logCleanThreads = logCleanThreads;
+    }
+
+    public int getLogCleanQueueSize() {
+        return logCleanQueueSize;
+    }
+
+    public void setLogCleanQueueSize(int logCleanQueueSize) {
+        this.logCleanQueueSize = logCleanQueueSize;
+    }
+
+    public int getLogCleanBatchSize() {
+        return logCleanBatchSize;
+    }
+
+    public void setLogCleanBatchSize(int logCleanBatchSize) {
+        this.logCleanBatchSize = logCleanBatchSize;
+    }
+
     /**
      * init common fence clean task
      */
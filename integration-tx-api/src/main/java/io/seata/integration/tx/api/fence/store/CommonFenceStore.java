@@ -73,6 +73,22 @@ public interface CommonFenceStore {
      */
     boolean deleteCommonFenceDO(Connection conn, String xid, Long branchId);
 
+    /**
+     * Delete common fence dos, one by one unless the store deletes them with one statement.
+     * @param conn the connection
+     * @param commonFenceDOs the common fence dos, xid and branch id only
+     * @return the deleted row count
+     */
+    default int deleteCommonFenceDOs(Connection conn, List<CommonFenceDO> commonFenceDOs) {
+        int deleted = 0;
+        for (CommonFenceDO commonFenceDO : commonFenceDOs) {
+            if (deleteCommonFenceDO(conn, commonFenceDO.getXid(), commonFenceDO.getBranchId())) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
     /**
      * Delete tcc fence do boolean.
      * @param conn the connection
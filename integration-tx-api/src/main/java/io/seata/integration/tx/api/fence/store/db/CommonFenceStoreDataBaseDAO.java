@@ -176,6 +176,25 @@ public class CommonFenceStoreDataBaseDAO implements CommonFenceStore {
         }
     }
 
+    @Override
+    public int deleteCommonFenceDOs(Connection conn, List<CommonFenceDO> commonFenceDOs) {
+        PreparedStatement ps = null;
+        try {
+            String sql = CommonFenceStoreSqls.getDeleteSQLByBranchIdsAndXids(logTableName, commonFenceDOs.size());
+            ps = conn.prepareStatement(sql);
+            int index = 1;
+            for (CommonFenceDO commonFenceDO : commonFenceDOs) {
+                ps.setString(index++, commonFenceDO.getXid());
+                ps.setLong(index++, commonFenceDO.getBranchId());
+            }
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new StoreException(e);
+        } finally {
+            IOUtil.close(ps);
+        }
+    }
+
     @Override
     public int deleteTCCFenceDO(Connection conn, List<String> xids) {
         PreparedStatement ps = null;
@@ -87,6 +87,16 @@ public class CommonFenceStoreSqls {
      */
     protected static final String DELETE_BY_BRANCH_XIDS = "delete from " + LOCAL_TCC_LOG_PLACEHOLD + " where xid in (" + PRAMETER_PLACEHOLD + ")";
 
+    /**
+     * The constant DELETE_BY_BRANCH_IDS_AND_XIDS.
+     * The parameter placeholder format: (xid = ? and branch_id = ?) or (xid = ? and branch_id = ?)
+     */
+    protected static final String DELETE_BY_BRANCH_IDS_AND_XIDS = "delete from " + LOCAL_TCC_LOG_PLACEHOLD + " where " + PRAMETER_PLACEHOLD;
+
+    /**
+     * The constant BRANCH_ID_AND_XID_CONDITION.
+     */
+    protected static final String BRANCH_ID_AND_XID_CONDITION = "(xid = ? and branch_id = ?)";
 
     /**
      * The constant DELETE_BY_DATE_AND_STATUS.
@@ -121,6 +131,18 @@ public class CommonFenceStoreSqls {
         return DELETE_BY_BRANCH_ID_AND_XID.replace(LOCAL_TCC_LOG_PLACEHOLD, localTccTable);
     }
 
+    public static String getDeleteSQLByBranchIdsAndXids(String localTccTable, int size) {
+        StringBuilder conditions = new StringBuilder(size * (BRANCH_ID_AND_XID_CONDITION.length() + 4));
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                conditions.append(" or ");
+            }
+            conditions.append(BRANCH_ID_AND_XID_CONDITION);
+        }
+        return DELETE_BY_BRANCH_IDS_AND_XIDS.replace(LOCAL_TCC_LOG_PLACEHOLD, localTccTable)
+                .replace(PRAMETER_PLACEHOLD, conditions.toString());
+    }
+
     public static String getDeleteSQLByXids(String localTccTable, String paramsPlaceHolder) {
         return DELETE_BY_BRANCH_XIDS.replace(LOCAL_TCC_LOG_PLACEHOLD, localTccTable)
                 .replace(PRAMETER_PLACEHOLD, paramsPlaceHolder);
@@ -0,0 +1,31 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.metrics;
+
+/**
+ * Meter keeps the distribution of the recorded values in a sliding time window
+ *
+ */
+public interface HistogramMeter extends Meter {
+    /**
+     * Compute the percentiles of the values recorded in the time window, in the unit of the measurements.
+     *
+     * @param percentiles the percentiles, in (0, 1]
+     * @return the value of each percentile, 0 if no value is recorded
+     */
+    double[] percentiles(double... percentiles);
+}
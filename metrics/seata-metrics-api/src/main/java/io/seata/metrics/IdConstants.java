@@ -25,6 +25,10 @@ public interface IdConstants {
 
     String SEATA_EXCEPTION = "seata.exception";
 
+    String SEATA_RECOVERY = "seata.recovery";
+
+    String SEATA_STORE = "seata.store";
+
     String APP_ID_KEY = "applicationId";
     
     String GROUP_KEY = "group";
@@ -39,6 +43,16 @@ public interface IdConstants {
 
     String STATUS_KEY = "status";
 
+    String TASK_KEY = "task";
+
+    String SHARD_KEY = "shard";
+
+    String PHASE_KEY = "phase";
+
+    String BRANCH_TYPE_KEY = "branchType";
+
+    String QUANTILE_KEY = "quantile";
+
     String ROLE_VALUE_TC = "tc";
 
     String ROLE_VALUE_TM = "tm";
@@ -63,6 +77,8 @@ public interface IdConstants {
 
     String STATISTIC_VALUE_AVERAGE = "average";
 
+    String STATISTIC_VALUE_PERCENTILE = "percentile";
+
     String STATUS_VALUE_ACTIVE = "active";
 
     String STATUS_VALUE_COMMITTED = "committed";
@@ -73,10 +89,24 @@ public interface IdConstants {
 
     String STATUS_VALUE_TWO_PHASE_TIMEOUT = "2phaseTimeout";
 
+    String PHASE_VALUE_BRANCH_REGISTER = "branchRegister";
+
+    String PHASE_VALUE_PHASE_ONE = "phase1";
+
+    String PHASE_VALUE_PHASE_TWO = "phase2";
+
     String RETRY_KEY = "retry";
 
     String STATUS_VALUE_AFTER_COMMITTED_KEY = "AfterCommitted";
 
     String STATUS_VALUE_AFTER_ROLLBACKED_KEY = "AfterRollbacked";
 
+    String NAME_VALUE_QUEUE_DEPTH = "queueDepth";
+
+    String NAME_VALUE_PASS_DURATION = "passDuration";
+
+    String NAME_VALUE_FLUSH_BATCH_SIZE = "flushBatchSize";
+
+    String NAME_VALUE_FLUSH_LATENCY = "flushLatency";
+
 }
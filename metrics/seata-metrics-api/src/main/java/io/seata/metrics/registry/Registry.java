@@ -16,12 +16,14 @@
  */
 package io.seata.metrics.registry;
 
+import java.util.Collections;
 import java.util.function.Supplier;
 
 import io.seata.metrics.Counter;
 import io.seata.metrics.Gauge;
 import io.seata.metrics.Id;
 import io.seata.metrics.Measurement;
+import io.seata.metrics.Meter;
 import io.seata.metrics.Summary;
 import io.seata.metrics.Timer;
 
@@ -40,5 +42,12 @@ public interface Registry {
 
     Iterable<Measurement> measure();
 
+    /**
+     * The registered meters, empty if the registry does not expose them, e.g. no percentiles are exported then.
+     */
+    default Iterable<Meter> getMeters() {
+        return Collections.emptyList();
+    }
+
     void clearUp();
 }
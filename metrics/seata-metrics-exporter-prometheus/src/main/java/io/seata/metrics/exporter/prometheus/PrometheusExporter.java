@@ -25,13 +25,19 @@ import io.prometheus.client.Collector;
 import io.prometheus.client.Collector.MetricFamilySamples.Sample;
 import io.prometheus.client.exporter.HTTPServer;
 import io.seata.common.loader.LoadLevel;
+import io.seata.common.util.StringUtils;
 import io.seata.config.ConfigurationFactory;
 import io.seata.core.constants.ConfigurationKeys;
+import io.seata.metrics.HistogramMeter;
+import io.seata.metrics.IdConstants;
 import io.seata.metrics.Measurement;
+import io.seata.metrics.Meter;
 import io.seata.metrics.exporter.Exporter;
 import io.seata.metrics.registry.Registry;
 
+import static io.seata.common.DefaultValues.DEFAULT_PROMETHEUS_PERCENTILES;
 import static io.seata.common.DefaultValues.DEFAULT_PROMETHEUS_PORT;
+import static io.seata.core.constants.ConfigurationKeys.METRICS_EXPORTER_PROMETHEUS_PERCENTILES;
 import static io.seata.core.constants.ConfigurationKeys.METRICS_EXPORTER_PROMETHEUS_PORT;
 
 /**
@@ -43,11 +49,15 @@ public class PrometheusExporter extends Collector implements Collector.Describab
 
     private final HTTPServer server;
 
+    private final double[] percentiles;
+
     private Registry registry;
 
     public PrometheusExporter() throws IOException {
         int port = ConfigurationFactory.getInstance().getInt(
             ConfigurationKeys.METRICS_PREFIX + METRICS_EXPORTER_PROMETHEUS_PORT, DEFAULT_PROMETHEUS_PORT);
+        this.percentiles = parsePercentiles(ConfigurationFactory.getInstance().getConfig(
+            ConfigurationKeys.METRICS_PREFIX + METRICS_EXPORTER_PROMETHEUS_PERCENTILES, DEFAULT_PROMETHEUS_PERCENTILES));
         this.server = new HTTPServer(port, true);
         this.register();
     }
@@ -64,6 +74,13 @@ public class PrometheusExporter extends Collector implements Collector.Describab
             Iterable<Measurement> measurements = registry.measure();
             List<Sample> samples = new ArrayList<>();
             measurements.forEach(measurement -> samples.add(convertMeasurementToSample(measurement)));
+            if (percentiles.length > 0) {
+                for (Meter meter : registry.getMeters()) {
+                    if (meter instanceof HistogramMeter) {
+                        addPercentileSamples((HistogramMeter)meter, samples);
+                    }
+                }
+            }
 
             if (!samples.isEmpty()) {
                 Type unknownType = getUnknownType();
@@ -85,6 +102,53 @@ public class PrometheusExporter extends Collector implements Collector.Describab
             (long)measurement.getTimestamp());
     }
 
+    private void addPercentileSamples(HistogramMeter meter, List<Sample> samples) {
+        double[] values = meter.percentiles(percentiles);
+        String prometheusName = meter.getId().getName().replace(".", "_");
+        long timestamp = System.currentTimeMillis();
+        for (int i = 0; i < percentiles.length; i++) {
+            List<String> labelNames = new ArrayList<>();
+            List<String> labelValues = new ArrayList<>();
+            for (Entry<String, String> tag : meter.getId().getTags()) {
+                labelNames.add(tag.getKey());
+                labelValues.add(tag.getValue());
+            }
+            labelNames.add(IdConstants.STATISTIC_KEY);
+            labelValues.add(IdConstants.STATISTIC_VALUE_PERCENTILE);
+            labelNames.add(IdConstants.QUANTILE_KEY);
+            labelValues.add(Collector.doubleToGoString(percentiles[i]));
+            samples.add(new Sample(prometheusName, labelNames, labelValues, values[i], timestamp));
+        }
+    }
+
+    /**
+     * Parse the percentiles exported, split by comma, the values out of (0, 1] are ignored
+     *
+     * @param percentiles the percentiles config
+     * @return the percentiles
+     */
+    static double[] parsePercentiles(String percentiles) {
+        if (StringUtils.isBlank(percentiles)) {
+            return new double[0];
+        }
+        List<Double> values = new ArrayList<>();
+        for (String percentile : percentiles.split(",")) {
+            try {
+                double value = Double.parseDouble(percentile.trim());
+                if (value > 0 && value <= 1 && !values.contains(value)) {
+                    values.add(value);
+                }
+            } catch (NumberFormatException ignore) {
+                // ignore the illegal percentile
+            }
+        }
+        double[] result = new double[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i);
+        }
+        return result;
+    }
+
     /**
      * Compatible with high and low versions of 'io.prometheus:simpleclient'
      *
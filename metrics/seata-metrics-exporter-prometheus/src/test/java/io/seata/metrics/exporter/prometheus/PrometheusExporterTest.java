@@ -31,4 +31,13 @@ public class PrometheusExporterTest {
             PrometheusExporter.getUnknownType();
         });
     }
+
+    @Test
+    public void testParsePercentiles() {
+        Assertions.assertArrayEquals(new double[] {0.5, 0.99, 0.999},
+            PrometheusExporter.parsePercentiles(" 0.5, 0.99,0.999 "));
+        Assertions.assertArrayEquals(new double[] {0.9, 1},
+            PrometheusExporter.parsePercentiles("0,0.9,abc,1,1.5,0.9"));
+        Assertions.assertEquals(0, PrometheusExporter.parsePercentiles("").length);
+    }
 }
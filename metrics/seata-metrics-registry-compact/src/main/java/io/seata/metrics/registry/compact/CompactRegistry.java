@@ -17,6 +17,7 @@
 package io.seata.metrics.registry.compact;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -76,6 +77,11 @@ public class CompactRegistry implements Registry {
         return measurements;
     }
 
+    @Override
+    public Iterable<Meter> getMeters() {
+        return Collections.unmodifiableCollection(METERS.values());
+    }
+
     @Override
     public void clearUp() {
         METERS.clear();
@@ -19,6 +19,7 @@ package io.seata.metrics.registry.compact;
 import java.util.Arrays;
 
 import io.seata.metrics.Clock;
+import io.seata.metrics.HistogramMeter;
 import io.seata.metrics.Id;
 import io.seata.metrics.Measurement;
 import io.seata.metrics.Summary;
@@ -26,10 +27,10 @@ import io.seata.metrics.SystemClock;
 import io.seata.metrics.IdConstants;
 
 /**
- * Compact Summary implement with SummaryValue
+ * Compact Summary implement with SummaryValue, and a TimeWindowHistogram for the percentiles
  *
  */
-public class CompactSummary implements Summary {
+public class CompactSummary implements Summary, HistogramMeter {
     private final Id id;
 
     private final Id countId;
@@ -40,6 +41,8 @@ public class CompactSummary implements Summary {
 
     private volatile SummaryValue value;
 
+    private final TimeWindowHistogram histogram;
+
     private final Clock clock;
 
     public CompactSummary(Id id) {
@@ -55,6 +58,7 @@ public class CompactSummary implements Summary {
         this.tpsId = new Id(id.getName()).withTag(id.getTags())
             .withTag(IdConstants.STATISTIC_KEY, IdConstants.STATISTIC_VALUE_TPS);
         this.value = new SummaryValue(clock.getCurrentMilliseconds());
+        this.histogram = new TimeWindowHistogram(clock);
         this.clock = clock;
     }
 
@@ -66,6 +70,7 @@ public class CompactSummary implements Summary {
     @Override
     public void increase(long value) {
         this.value.increase(value);
+        this.histogram.record(value);
     }
 
     @Override
@@ -83,6 +88,16 @@ public class CompactSummary implements Summary {
         return this.value.getTps(clock.getCurrentMilliseconds());
     }
 
+    @Override
+    public double[] percentiles(double... percentiles) {
+        long[] values = histogram.percentiles(percentiles);
+        double[] result = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = values[i];
+        }
+        return result;
+    }
+
     @Override
     public Iterable<Measurement> measure() {
         SummaryValue value = this.value;
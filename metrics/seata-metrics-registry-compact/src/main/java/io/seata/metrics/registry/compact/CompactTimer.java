@@ -20,6 +20,7 @@ import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
 
 import io.seata.metrics.Clock;
+import io.seata.metrics.HistogramMeter;
 import io.seata.metrics.Id;
 import io.seata.metrics.Measurement;
 import io.seata.metrics.SystemClock;
@@ -27,10 +28,10 @@ import io.seata.metrics.Timer;
 import io.seata.metrics.IdConstants;
 
 /**
- * Compact Timer implement with TimerValue
+ * Compact Timer implement with TimerValue, and a TimeWindowHistogram for the percentiles
  *
  */
-public class CompactTimer implements Timer {
+public class CompactTimer implements Timer, HistogramMeter {
     private final Id id;
 
     private final Id countId;
@@ -43,6 +44,8 @@ public class CompactTimer implements Timer {
 
     private volatile TimerValue value;
 
+    private final TimeWindowHistogram histogram;
+
     private final Clock clock;
 
     public CompactTimer(Id id) {
@@ -60,6 +63,7 @@ public class CompactTimer implements Timer {
         this.averageId = new Id(id.getName()).withTag(id.getTags())
             .withTag(IdConstants.STATISTIC_KEY, IdConstants.STATISTIC_VALUE_AVERAGE);
         this.value = new TimerValue();
+        this.histogram = new TimeWindowHistogram(clock);
         this.clock = clock;
     }
 
@@ -70,7 +74,11 @@ public class CompactTimer implements Timer {
 
     @Override
     public void record(long value, TimeUnit unit) {
+        if (value < 0) {
+            return;
+        }
         this.value.record(value, unit);
+        this.histogram.record(unit == TimeUnit.MICROSECONDS ? value : TimeUnit.MICROSECONDS.convert(value, unit));
     }
 
     @Override
@@ -93,6 +101,16 @@ public class CompactTimer implements Timer {
         return this.value.getAverage();
     }
 
+    @Override
+    public double[] percentiles(double... percentiles) {
+        long[] values = histogram.percentiles(percentiles);
+        double[] result = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = values[i] * 0.001;
+        }
+        return result;
+    }
+
     @Override
     public Iterable<Measurement> measure() {
         //reset value when measure
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.metrics.registry.compact;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock free histogram of long values with the log-linear buckets of HdrHistogram.
+ * <p>
+ * The values below 128 have a bucket each, above it every power of two range is split into 64 buckets, so the
+ * recorded value is off by less than 1/64 of itself. The values above 2^36 - 1 are recorded as 2^36 - 1. Recording is
+ * an increment of an array slot, without allocation and lock.
+ * </p>
+ *
+ */
+public class Histogram {
+    private static final int SUB_BUCKET_BITS = 7;
+
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT >> 1;
+
+    private static final int MAX_VALUE_BITS = 36;
+
+    /**
+     * The max value can be recorded, about 19 hours in microseconds
+     */
+    public static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (MAX_VALUE_BITS - SUB_BUCKET_BITS) * SUB_BUCKET_HALF_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    public void record(long value) {
+        if (value < 0) {
+            return;
+        }
+        counts.incrementAndGet(indexOf(Math.min(value, MAX_VALUE)));
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    /**
+     * Compute the percentiles, the value of a percentile is the highest value of the bucket it falls in.
+     *
+     * @param percentiles the percentiles, in (0, 1]
+     * @return the value of each percentile, 0 if no value is recorded
+     */
+    public long[] percentiles(double... percentiles) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        long[] values = new long[percentiles.length];
+        if (total == 0) {
+            return values;
+        }
+        for (int p = 0; p < percentiles.length; p++) {
+            long rank = Math.max(1, (long)Math.ceil(Math.min(1, percentiles[p]) * total));
+            long accumulated = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                accumulated += snapshot[i];
+                if (accumulated >= rank) {
+                    values[p] = highestValueOf(i);
+                    break;
+                }
+            }
+        }
+        return values;
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int)value;
+        }
+        // value >>> shift falls in [SUB_BUCKET_HALF_COUNT, SUB_BUCKET_COUNT)
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF_COUNT
+            + (int)((value >>> shift) - SUB_BUCKET_HALF_COUNT);
+    }
+
+    static long highestValueOf(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF_COUNT + 1;
+        long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.metrics.registry.compact;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.seata.metrics.Clock;
+
+/**
+ * Histogram of the values recorded in a sliding time window.
+ * <p>
+ * A value is recorded into a ring of histograms, every rotate interval the oldest one is reset and the next becomes
+ * the oldest, so the percentiles read from the oldest one cover the last (ring size - 1) to ring size intervals.
+ * </p>
+ *
+ */
+public class TimeWindowHistogram {
+    /**
+     * The default time window
+     */
+    public static final long DEFAULT_WINDOW_MILLISECONDS = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * The default ring size
+     */
+    public static final int DEFAULT_RING_SIZE = 3;
+
+    private final Histogram[] ring;
+
+    private final long rotateIntervalMilliseconds;
+
+    private final Clock clock;
+
+    private final AtomicLong lastRotateTime;
+
+    private volatile int oldest;
+
+    public TimeWindowHistogram(Clock clock) {
+        this(clock, DEFAULT_WINDOW_MILLISECONDS, DEFAULT_RING_SIZE);
+    }
+
+    public TimeWindowHistogram(Clock clock, long windowMilliseconds, int ringSize) {
+        this.ring = new Histogram[Math.max(2, ringSize)];
+        for (int i = 0; i < ring.length; i++) {
+            ring[i] = new Histogram();
+        }
+        this.rotateIntervalMilliseconds = Math.max(1, windowMilliseconds / ring.length);
+        this.clock = clock;
+        this.lastRotateTime = new AtomicLong((long)clock.getCurrentMilliseconds());
+    }
+
+    public void record(long value) {
+        rotate();
+        for (Histogram histogram : ring) {
+            histogram.record(value);
+        }
+    }
+
+    /**
+     * Compute the percentiles of the values recorded in the time window.
+     *
+     * @param percentiles the percentiles, in (0, 1]
+     * @return the value of each percentile, 0 if no value is recorded
+     */
+    public long[] percentiles(double... percentiles) {
+        rotate();
+        return ring[oldest].percentiles(percentiles);
+    }
+
+    private void rotate() {
+        long now = (long)clock.getCurrentMilliseconds();
+        long last = lastRotateTime.get();
+        long elapsed = now - last;
+        if (elapsed < rotateIntervalMilliseconds
+            || !lastRotateTime.compareAndSet(last, now - elapsed % rotateIntervalMilliseconds)) {
+            return;
+        }
+        long rotations = Math.min(ring.length, elapsed / rotateIntervalMilliseconds);
+        int index = oldest;
+        for (int i = 0; i < rotations; i++) {
+            ring[index].reset();
+            index = (index + 1) % ring.length;
+        }
+        oldest = index;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.metrics.registry.compact;
+
+import java.util.concurrent.TimeUnit;
+
+import io.seata.metrics.Clock;
+import io.seata.metrics.Id;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * test {@link Histogram} and {@link TimeWindowHistogram}
+ *
+ */
+public class TimeWindowHistogramTest {
+
+    @Test
+    public void testBucketIndex() {
+        int lastIndex = -1;
+        for (long value = 0; value < 1 << 20; value++) {
+            int index = Histogram.indexOf(value);
+            Assertions.assertTrue(index == lastIndex || index == lastIndex + 1);
+            Assertions.assertTrue(Histogram.highestValueOf(index) >= value);
+            Assertions.assertTrue(Histogram.highestValueOf(index) - value <= value / 64);
+            lastIndex = index;
+        }
+        Assertions.assertEquals(Histogram.MAX_VALUE, Histogram.highestValueOf(Histogram.indexOf(Histogram.MAX_VALUE)));
+    }
+
+    @Test
+    public void testPercentiles() {
+        Histogram histogram = new Histogram();
+        Assertions.assertArrayEquals(new long[] {0, 0}, histogram.percentiles(0.5, 0.99));
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(value);
+        }
+        histogram.record(Long.MAX_VALUE);
+        long[] values = histogram.percentiles(0.5, 0.99, 1);
+        Assertions.assertEquals(501, values[0], 501 / 64);
+        Assertions.assertEquals(991, values[1], 991 / 64);
+        Assertions.assertEquals(Histogram.MAX_VALUE, values[2]);
+
+        histogram.reset();
+        Assertions.assertArrayEquals(new long[] {0}, histogram.percentiles(0.5));
+    }
+
+    @Test
+    public void testTimeWindow() {
+        ManualClock clock = new ManualClock();
+        TimeWindowHistogram histogram = new TimeWindowHistogram(clock, 3000, 3);
+        histogram.record(100);
+        clock.time += 1000;
+        histogram.record(10);
+        Assertions.assertEquals(100, histogram.percentiles(1)[0]);
+
+        // the window slides over the first value
+        clock.time += 2000;
+        Assertions.assertEquals(10, histogram.percentiles(1)[0]);
+
+        clock.time += 3000;
+        Assertions.assertEquals(0, histogram.percentiles(1)[0]);
+    }
+
+    @Test
+    public void testTimerPercentiles() {
+        CompactTimer timer = new CompactTimer(new Id("test"), new ManualClock());
+        for (int i = 1; i <= 100; i++) {
+            timer.record(i, TimeUnit.MILLISECONDS);
+        }
+        double[] values = timer.percentiles(0.5, 0.99);
+        Assertions.assertEquals(50, values[0], 1);
+        Assertions.assertEquals(99, values[1], 2);
+        // the percentiles are kept after measure
+        timer.measure();
+        Assertions.assertEquals(50, timer.percentiles(0.5)[0], 1);
+    }
+
+    private static class ManualClock implements Clock {
+        private double time = 1000;
+
+        @Override
+        public double getCurrentMilliseconds() {
+            return time;
+        }
+    }
+}
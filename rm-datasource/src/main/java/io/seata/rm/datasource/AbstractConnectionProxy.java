@@ -16,13 +16,21 @@
  */
 package io.seata.rm.datasource;
 
+import io.seata.common.DefaultValues;
+import io.seata.common.util.CollectionUtils;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
 import io.seata.core.context.RootContext;
 import io.seata.core.model.BranchType;
 import io.seata.rm.datasource.sql.SQLVisitorFactory;
+import io.seata.sqlparser.struct.ColumnMeta;
 import io.seata.sqlparser.struct.TableMeta;
 import io.seata.rm.datasource.sql.struct.TableMetaCacheFactory;
+import io.seata.sqlparser.SQLInsertRecognizer;
 import io.seata.sqlparser.SQLRecognizer;
 import io.seata.sqlparser.SQLType;
+import io.seata.sqlparser.SQLUpdateRecognizer;
+import io.seata.sqlparser.util.JdbcConstants;
 import java.sql.Array;
 import java.sql.Blob;
 import java.sql.CallableStatement;
@@ -37,10 +45,14 @@ import java.sql.SQLWarning;
 import java.sql.SQLXML;
 import java.sql.Statement;
 import java.sql.Struct;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.Executor;
+import java.util.regex.Pattern;
 
 /**
  * The type Abstract connection proxy.
@@ -48,6 +60,17 @@ import java.util.concurrent.Executor;
  */
 public abstract class AbstractConnectionProxy implements Connection {
 
+    private static final boolean AFTER_IMAGE_RETURNING_ENABLE = ConfigurationFactory.getInstance().getBoolean(
+            ConfigurationKeys.CLIENT_AFTER_IMAGE_RETURNING_ENABLE, DefaultValues.DEFAULT_CLIENT_AFTER_IMAGE_RETURNING_ENABLE);
+
+    private static final boolean ONLY_CARE_UPDATE_COLUMNS = ConfigurationFactory.getInstance().getBoolean(
+            ConfigurationKeys.TRANSACTION_UNDO_ONLY_CARE_UPDATE_COLUMNS, DefaultValues.DEFAULT_ONLY_CARE_UPDATE_COLUMNS);
+
+    /**
+     * a returning keyword anywhere in the sql, a false match only queries the after image again
+     */
+    private static final Pattern RETURNING_CLAUSE = Pattern.compile("\\bRETURNING\\b", Pattern.CASE_INSENSITIVE);
+
     /**
      * The Data source proxy.
      */
@@ -107,11 +130,20 @@ public abstract class AbstractConnectionProxy implements Connection {
         String dbType = getDbType();
         // support oracle 10.2+
         PreparedStatement targetPreparedStatement = null;
+        String[] returningColumns = null;
         if (BranchType.AT == RootContext.getBranchType()) {
             List<SQLRecognizer> sqlRecognizers = SQLVisitorFactory.get(sql, dbType);
             if (sqlRecognizers != null && sqlRecognizers.size() == 1) {
                 SQLRecognizer sqlRecognizer = sqlRecognizers.get(0);
-                if (sqlRecognizer != null && sqlRecognizer.getSQLType() == SQLType.INSERT) {
+                if (sqlRecognizer != null
+                        && isAfterImageReturningSupported(AFTER_IMAGE_RETURNING_ENABLE, getDbType(), sqlRecognizer)) {
+                    TableMeta tableMeta = TableMetaCacheFactory.getTableMetaCache(dbType).getTableMeta(getTargetConnection(),
+                            sqlRecognizer.getTableName(), getDataSourceProxy().getResourceId());
+                    returningColumns = getReturningColumns(sqlRecognizer, tableMeta, ONLY_CARE_UPDATE_COLUMNS);
+                }
+                if (returningColumns != null) {
+                    targetPreparedStatement = getTargetConnection().prepareStatement(sql, returningColumns);
+                } else if (sqlRecognizer != null && sqlRecognizer.getSQLType() == SQLType.INSERT) {
                     TableMeta tableMeta = TableMetaCacheFactory.getTableMetaCache(dbType).getTableMeta(getTargetConnection(),
                             sqlRecognizer.getTableName(), getDataSourceProxy().getResourceId());
                     String[] pkNameArray = new String[tableMeta.getPrimaryKeyOnlyName().size()];
@@ -123,7 +155,62 @@ public abstract class AbstractConnectionProxy implements Connection {
         if (targetPreparedStatement == null) {
             targetPreparedStatement = getTargetConnection().prepareStatement(sql);
         }
-        return new PreparedStatementProxy(this, targetPreparedStatement, sql);
+        return new PreparedStatementProxy(this, targetPreparedStatement, sql, returningColumns);
+    }
+
+    /**
+     * Whether the dml can return the rows of its after image, so the after image need not be queried again.
+     * Only the postgresql driver appends the returning clause for the requested columns of an update, and only if
+     * the dml has no returning clause of its own.
+     *
+     * @param enable        whether the after image returning is enabled
+     * @param dbType        the db type
+     * @param sqlRecognizer the sql recognizer
+     * @return true if the after image can be returned by the dml
+     */
+    static boolean isAfterImageReturningSupported(boolean enable, String dbType, SQLRecognizer sqlRecognizer) {
+        if (!enable || !JdbcConstants.POSTGRESQL.equals(dbType)) {
+            return false;
+        }
+        if (sqlRecognizer.getSQLType() != SQLType.INSERT && sqlRecognizer.getSQLType() != SQLType.UPDATE) {
+            return false;
+        }
+        String sql = sqlRecognizer.getOriginalSQL();
+        return sql == null || !RETURNING_CLAUSE.matcher(sql).find();
+    }
+
+    /**
+     * Get the columns of the after image, the primary keys first, as the executor selects them.
+     *
+     * @param sqlRecognizer          the insert or update recognizer
+     * @param tableMeta              the table meta
+     * @param onlyCareUpdateColumns  whether the after image only holds the columns of the dml
+     * @return the column names, null if any column is unknown
+     */
+    static String[] getReturningColumns(SQLRecognizer sqlRecognizer, TableMeta tableMeta,
+                                        boolean onlyCareUpdateColumns) {
+        Set<String> returningColumns = new LinkedHashSet<>(tableMeta.getPrimaryKeyOnlyName());
+        List<String> dmlColumns = sqlRecognizer.getSQLType() == SQLType.INSERT
+                ? ((SQLInsertRecognizer) sqlRecognizer).getInsertColumnsUnEscape()
+                : ((SQLUpdateRecognizer) sqlRecognizer).getUpdateColumnsUnEscape();
+        Set<String> needColumns = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        if (onlyCareUpdateColumns && CollectionUtils.isNotEmpty(dmlColumns)) {
+            for (String dmlColumn : dmlColumns) {
+                // the column may be prefixed with the table alias
+                ColumnMeta columnMeta = tableMeta.getColumnMeta(dmlColumn.substring(dmlColumn.lastIndexOf('.') + 1));
+                if (columnMeta == null) {
+                    return null;
+                }
+                needColumns.add(columnMeta.getColumnName());
+            }
+            needColumns.addAll(tableMeta.getOnUpdateColumnsOnlyName());
+        } else {
+            for (ColumnMeta columnMeta : tableMeta.getAllColumns().values()) {
+                needColumns.add(columnMeta.getColumnName());
+            }
+        }
+        returningColumns.addAll(needColumns);
+        return returningColumns.toArray(new String[0]);
     }
 
     @Override
@@ -52,6 +52,11 @@ public abstract class AbstractStatementProxy<T extends Statement> implements Sta
      */
     protected CachedRowSet scrollableGeneratedKeysCache;
 
+    /**
+     * The columns of the after image the target statement returns as the generated keys, null if not
+     */
+    protected String[] returningColumns;
+
     /**
      * Instantiates a new Abstract statement proxy.
      *
@@ -105,6 +110,15 @@ public abstract class AbstractStatementProxy<T extends Statement> implements Sta
         return targetSQL;
     }
 
+    /**
+     * Gets the columns of the after image the target statement returns as the generated keys.
+     *
+     * @return the returning columns, null if the after image can not be built from the generated keys
+     */
+    public String[] getReturningColumns() {
+        return returningColumns;
+    }
+
     @Override
     public void close() throws SQLException {
         targetStatement.close();
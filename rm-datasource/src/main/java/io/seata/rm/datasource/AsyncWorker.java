@@ -18,6 +18,7 @@ package io.seata.rm.datasource;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
@@ -25,17 +26,26 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
-import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.google.common.collect.Lists;
 import io.seata.common.thread.NamedThreadFactory;
+import io.seata.common.util.CollectionUtils;
 import io.seata.common.util.IOUtil;
 import io.seata.common.util.StringUtils;
+import io.seata.config.Configuration;
 import io.seata.config.ConfigurationFactory;
 import io.seata.core.model.BranchStatus;
 import io.seata.rm.datasource.undo.UndoLogManager;
@@ -44,61 +54,124 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_ASYNC_COMMIT_BUFFER_LIMIT;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_ASYNC_COMMIT_FLUSH_INTERVAL;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_ASYNC_COMMIT_FLUSH_SIZE;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_ASYNC_COMMIT_WORKER_SIZE;
 import static io.seata.core.constants.ConfigurationKeys.CLIENT_ASYNC_COMMIT_BUFFER_LIMIT;
+import static io.seata.core.constants.ConfigurationKeys.CLIENT_ASYNC_COMMIT_FLUSH_INTERVAL;
+import static io.seata.core.constants.ConfigurationKeys.CLIENT_ASYNC_COMMIT_FLUSH_SIZE;
+import static io.seata.core.constants.ConfigurationKeys.CLIENT_ASYNC_COMMIT_WORKER_SIZE;
 
 /**
  * The type Async worker.
- *
+ * <p>
+ * The phase two commits of AT only delete the undo logs, they are buffered in the commit queue and flushed when the
+ * queue reaches the flush size or every flush interval. A flush groups the contexts by resource and hands the batches
+ * to the workers of the resource, so a slow database never delays the cleanup of the others. The batches failed to
+ * delete, and the batches of a resource whose workers fall behind, are parked in the dead letter queue and retried
+ * with exponential backoff, the dispatcher never deletes by itself.
+ * </p>
  */
 public class AsyncWorker {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AsyncWorker.class);
 
-    private static final int DEFAULT_RESOURCE_SIZE = 16;
+    private static final Configuration CONFIG = ConfigurationFactory.getInstance();
 
-    private static final int UNDOLOG_DELETE_LIMIT_SIZE = 1000;
+    private static final int DEFAULT_RESOURCE_SIZE = 16;
 
-    private static final int ASYNC_COMMIT_BUFFER_LIMIT = ConfigurationFactory.getInstance().getInt(
+    private static final int ASYNC_COMMIT_BUFFER_LIMIT = CONFIG.getInt(
         CLIENT_ASYNC_COMMIT_BUFFER_LIMIT, DEFAULT_CLIENT_ASYNC_COMMIT_BUFFER_LIMIT);
 
+    private static final int WORKER_SIZE = Math.max(1, CONFIG.getInt(
+        CLIENT_ASYNC_COMMIT_WORKER_SIZE, DEFAULT_CLIENT_ASYNC_COMMIT_WORKER_SIZE));
+
+    private static final int UNDOLOG_DELETE_LIMIT_SIZE = Math.max(1, CONFIG.getInt(
+        CLIENT_ASYNC_COMMIT_FLUSH_SIZE, DEFAULT_CLIENT_ASYNC_COMMIT_FLUSH_SIZE));
+
+    private static final long FLUSH_INTERVAL = Math.max(1, CONFIG.getLong(
+        CLIENT_ASYNC_COMMIT_FLUSH_INTERVAL, DEFAULT_CLIENT_ASYNC_COMMIT_FLUSH_INTERVAL));
+
+    private static final long DEAD_LETTER_INITIAL_BACKOFF = 1000L;
+
+    private static final long DEAD_LETTER_MAX_BACKOFF = 60000L;
+
+    private static final long WORKER_KEEP_ALIVE_MILLS = 60000L;
+
     private final DataSourceManager dataSourceManager;
 
     private final BlockingQueue<Phase2Context> commitQueue;
 
     private final ScheduledExecutorService scheduledExecutor;
 
+    private final AtomicBoolean flushTriggered = new AtomicBoolean(false);
+
+    private final ConcurrentMap<String, ThreadPoolExecutor> workers = new ConcurrentHashMap<>();
+
+    private final AtomicInteger workerIndex = new AtomicInteger();
+
+    private final DelayQueue<DeadLetter> deadLetterQueue = new DelayQueue<>();
+
+    /**
+     * the contexts in the dead letter queue, the queue itself counts the batches
+     */
+    private final AtomicInteger deadLetterDepth = new AtomicInteger();
+
+    private final AtomicLong deleteCount = new AtomicLong();
+
+    private final AtomicLong deleteFailedCount = new AtomicLong();
+
+    private final AtomicLong deleteLatencyNanos = new AtomicLong();
+
+    private final AtomicLong maxDeleteLatencyNanos = new AtomicLong();
+
     public AsyncWorker(DataSourceManager dataSourceManager) {
         this.dataSourceManager = dataSourceManager;
 
-        LOGGER.info("Async Commit Buffer Limit: {}", ASYNC_COMMIT_BUFFER_LIMIT);
+        LOGGER.info("Async Commit Buffer Limit: {}, Worker Size: {}, Flush Size: {}, Flush Interval: {}ms",
+            ASYNC_COMMIT_BUFFER_LIMIT, WORKER_SIZE, UNDOLOG_DELETE_LIMIT_SIZE, FLUSH_INTERVAL);
         commitQueue = new LinkedBlockingQueue<>(ASYNC_COMMIT_BUFFER_LIMIT);
 
-        ThreadFactory threadFactory = new NamedThreadFactory("AsyncWorker", 2, true);
-        scheduledExecutor = new ScheduledThreadPoolExecutor(2, threadFactory);
-        scheduledExecutor.scheduleAtFixedRate(this::doBranchCommitSafely, 10, 1000, TimeUnit.MILLISECONDS);
+        // the single dispatcher thread, the deletes run on the workers of the resources
+        scheduledExecutor = new ScheduledThreadPoolExecutor(1, new NamedThreadFactory("AsyncWorker", 1, true));
+        scheduledExecutor.scheduleWithFixedDelay(this::doBranchCommitSafely, 10, FLUSH_INTERVAL,
+            TimeUnit.MILLISECONDS);
     }
 
+    /**
+     * Buffer the phase two commit.
+     * <p>
+     * If the buffer is full, the commit is reported retryable to the TC instead of blocking the RM thread,
+     * the TC will commit the branch again later.
+     * </p>
+     *
+     * @param xid        the xid
+     * @param branchId   the branch id
+     * @param resourceId the resource id
+     * @return the branch status
+     */
     public BranchStatus branchCommit(String xid, long branchId, String resourceId) {
         Phase2Context context = new Phase2Context(xid, branchId, resourceId);
-        addToCommitQueue(context);
+        if (!commitQueue.offer(context)) {
+            LOGGER.warn("Async commit buffer is full, let TC retry later: {}", context);
+            triggerFlush();
+            return BranchStatus.PhaseTwo_CommitFailed_Retryable;
+        }
+        if (commitQueue.size() >= UNDOLOG_DELETE_LIMIT_SIZE) {
+            triggerFlush();
+        }
         return BranchStatus.PhaseTwo_Committed;
     }
 
     /**
-     * try add context to commitQueue directly, if fail(which means the queue is full),
-     * then doBranchCommit urgently(so that the queue could be empty again) and retry this process.
+     * flush on the dispatcher thread now, at most one flush is pending at the same time
      */
-    private void addToCommitQueue(Phase2Context context) {
-        if (commitQueue.offer(context)) {
-            return;
-        }
-        CompletableFuture.runAsync(this::doBranchCommitSafely, scheduledExecutor)
-                .thenRun(() -> addToCommitQueue(context));
-    }
-
-    private void addAllToCommitQueue(List<Phase2Context> contexts) {
-        for (Phase2Context context : contexts) {
-            addToCommitQueue(context);
+    private void triggerFlush() {
+        if (flushTriggered.compareAndSet(false, true)) {
+            scheduledExecutor.execute(() -> {
+                flushTriggered.set(false);
+                doBranchCommitSafely();
+            });
         }
     }
 
@@ -111,9 +184,21 @@ public class AsyncWorker {
     }
 
     private void doBranchCommit() {
+        // retry the dead letters whose backoff has expired
+        DeadLetter deadLetter;
+        while ((deadLetter = deadLetterQueue.poll()) != null) {
+            deadLetterDepth.addAndGet(-deadLetter.contexts.size());
+            dispatch(deadLetter.resourceId, deadLetter.contexts, deadLetter.attempts);
+        }
+
         if (commitQueue.isEmpty()) {
             return;
         }
+        if (deadLetterDepth.get() >= ASYNC_COMMIT_BUFFER_LIMIT) {
+            // stop draining, the full commit queue pushes back to the TC until the dead letters are cleared
+            LOGGER.warn("Too many undo logs failed to delete: {}, pause the async commit", deadLetterDepth.get());
+            return;
+        }
 
         // transfer all context currently received to this list
         List<Phase2Context> allContexts = new LinkedList<>();
@@ -122,7 +207,7 @@ public class AsyncWorker {
         // group context by their resourceId
         Map<String, List<Phase2Context>> groupedContexts = groupedByResourceId(allContexts);
 
-        groupedContexts.forEach(this::dealWithGroupedContexts);
+        groupedContexts.forEach((resourceId, contexts) -> dispatch(resourceId, contexts, 0));
     }
 
     Map<String, List<Phase2Context>> groupedByResourceId(List<Phase2Context> contexts) {
@@ -132,45 +217,77 @@ public class AsyncWorker {
                 LOGGER.warn("resourceId is empty, resource:{}", context);
                 return;
             }
-            List<Phase2Context> group = groupedContexts.computeIfAbsent(context.resourceId, key -> new LinkedList<>());
+            List<Phase2Context> group = groupedContexts.computeIfAbsent(context.resourceId, key -> new ArrayList<>());
             group.add(context);
         });
         return groupedContexts;
     }
 
-    private void dealWithGroupedContexts(String resourceId, List<Phase2Context> contexts) {
-        if (StringUtils.isBlank(resourceId)) {
-            //ConcurrentHashMap required notNull key
-            LOGGER.warn("resourceId is empty and will skip.");
-            return;
-        }
+    private void dispatch(String resourceId, List<Phase2Context> contexts, int attempts) {
         DataSourceProxy dataSourceProxy = dataSourceManager.get(resourceId);
         if (dataSourceProxy == null) {
-            LOGGER.warn("failed to find resource for {} and requeue", resourceId);
-            addAllToCommitQueue(contexts);
+            LOGGER.warn("failed to find resource for {} and retry later", resourceId);
+            addToDeadLetterQueue(resourceId, contexts, attempts + 1);
             return;
         }
 
+        ThreadPoolExecutor worker = getWorker(resourceId);
+        // split contexts into several lists, with each list contain no more element than limit size
+        List<List<Phase2Context>> partitions = Lists.partition(contexts, UNDOLOG_DELETE_LIMIT_SIZE);
+        for (int i = 0; i < partitions.size(); i++) {
+            List<Phase2Context> partition = partitions.get(i);
+            try {
+                worker.execute(() -> dealWithPartition(dataSourceProxy, resourceId, partition, attempts));
+            } catch (RejectedExecutionException e) {
+                // the workers of the resource fall behind, skip it in this round and retry the rest later
+                List<Phase2Context> rest = contexts.subList(i * UNDOLOG_DELETE_LIMIT_SIZE, contexts.size());
+                LOGGER.warn("The async commit workers of {} are busy, retry {} undo logs later", resourceId,
+                    rest.size());
+                addToDeadLetterQueue(resourceId, rest, Math.max(1, attempts));
+                return;
+            }
+        }
+    }
+
+    private ThreadPoolExecutor getWorker(String resourceId) {
+        return CollectionUtils.computeIfAbsent(workers, resourceId, key -> {
+            ThreadPoolExecutor worker = new ThreadPoolExecutor(WORKER_SIZE, WORKER_SIZE, WORKER_KEEP_ALIVE_MILLS,
+                TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, ASYNC_COMMIT_BUFFER_LIMIT / UNDOLOG_DELETE_LIMIT_SIZE)),
+                new NamedThreadFactory("AsyncWorker_" + workerIndex.incrementAndGet(), WORKER_SIZE, true),
+                new ThreadPoolExecutor.AbortPolicy());
+            worker.allowCoreThreadTimeOut(true);
+            return worker;
+        });
+    }
+
+    private void dealWithPartition(DataSourceProxy dataSourceProxy, String resourceId, List<Phase2Context> contexts,
+                                   int attempts) {
+        long start = System.nanoTime();
+        boolean success = false;
         Connection conn = null;
         try {
             conn = dataSourceProxy.getPlainConnection();
             UndoLogManager undoLogManager = UndoLogManagerFactory.getUndoLogManager(dataSourceProxy.getDbType());
-
-            // split contexts into several lists, with each list contain no more element than limit size
-            List<List<Phase2Context>> splitByLimit = Lists.partition(contexts, UNDOLOG_DELETE_LIMIT_SIZE);
-            for (List<Phase2Context> partition : splitByLimit) {
-                deleteUndoLog(conn, undoLogManager, partition);
-            }
-        } catch (SQLException sqlExx) {
-            addAllToCommitQueue(contexts);
-            LOGGER.error("failed to get connection for async committing on {} and requeue", resourceId, sqlExx);
+            success = deleteUndoLog(conn, undoLogManager, contexts);
+        } catch (Throwable e) {
+            LOGGER.error("failed to get connection for async committing on {} and retry later", resourceId, e);
         } finally {
             IOUtil.close(conn);
         }
 
+        if (success) {
+            long latency = System.nanoTime() - start;
+            deleteCount.addAndGet(contexts.size());
+            deleteLatencyNanos.addAndGet(latency);
+            maxDeleteLatencyNanos.accumulateAndGet(latency, Math::max);
+        } else {
+            deleteFailedCount.addAndGet(contexts.size());
+            addToDeadLetterQueue(resourceId, contexts, attempts + 1);
+        }
     }
 
-    private void deleteUndoLog(final Connection conn, UndoLogManager undoLogManager, List<Phase2Context> contexts) {
+    private boolean deleteUndoLog(final Connection conn, UndoLogManager undoLogManager, List<Phase2Context> contexts) {
         Set<String> xids = new LinkedHashSet<>(contexts.size());
         Set<Long> branchIds = new LinkedHashSet<>(contexts.size());
         contexts.forEach(context -> {
@@ -183,17 +300,80 @@ public class AsyncWorker {
             if (!conn.getAutoCommit()) {
                 conn.commit();
             }
+            return true;
         } catch (SQLException e) {
             LOGGER.error("Failed to batch delete undo log", e);
             try {
                 conn.rollback();
-                addAllToCommitQueue(contexts);
             } catch (SQLException rollbackEx) {
                 LOGGER.error("Failed to rollback JDBC resource after deleting undo log failed", rollbackEx);
             }
+            return false;
         }
     }
 
+    private void addToDeadLetterQueue(String resourceId, List<Phase2Context> contexts, int attempts) {
+        long backoff = DEAD_LETTER_INITIAL_BACKOFF << Math.min(attempts - 1, 16);
+        DeadLetter deadLetter = new DeadLetter(resourceId, new ArrayList<>(contexts), attempts,
+            System.currentTimeMillis() + Math.min(backoff, DEAD_LETTER_MAX_BACKOFF));
+        deadLetterDepth.addAndGet(contexts.size());
+        deadLetterQueue.offer(deadLetter);
+    }
+
+    /**
+     * Gets the contexts waiting in the commit queue.
+     *
+     * @return the queue depth
+     */
+    public int getQueueDepth() {
+        return commitQueue.size();
+    }
+
+    /**
+     * Gets the contexts waiting in the dead letter queue.
+     *
+     * @return the dead letter depth
+     */
+    public int getDeadLetterDepth() {
+        return deadLetterDepth.get();
+    }
+
+    /**
+     * Gets the undo logs deleted.
+     *
+     * @return the delete count
+     */
+    public long getDeleteCount() {
+        return deleteCount.get();
+    }
+
+    /**
+     * Gets the undo logs failed to delete, counted per attempt.
+     *
+     * @return the delete failed count
+     */
+    public long getDeleteFailedCount() {
+        return deleteFailedCount.get();
+    }
+
+    /**
+     * Gets the total latency of the succeeded deletes.
+     *
+     * @return the latency in milliseconds
+     */
+    public long getDeleteLatency() {
+        return TimeUnit.NANOSECONDS.toMillis(deleteLatencyNanos.get());
+    }
+
+    /**
+     * Gets the max latency of a succeeded delete.
+     *
+     * @return the latency in milliseconds
+     */
+    public long getMaxDeleteLatency() {
+        return TimeUnit.NANOSECONDS.toMillis(maxDeleteLatencyNanos.get());
+    }
+
     static class Phase2Context {
 
         /**
@@ -227,4 +407,35 @@ public class AsyncWorker {
                 + '\'' + '}';
         }
     }
+
+    /**
+     * The batch of contexts failed to delete, retried once it expires.
+     */
+    private static class DeadLetter implements Delayed {
+
+        private final String resourceId;
+
+        private final List<Phase2Context> contexts;
+
+        private final int attempts;
+
+        private final long dueTime;
+
+        DeadLetter(String resourceId, List<Phase2Context> contexts, int attempts, long dueTime) {
+            this.resourceId = resourceId;
+            this.contexts = contexts;
+            this.attempts = attempts;
+            this.dueTime = dueTime;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueTime - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed o) {
+            return Long.compare(dueTime, ((DeadLetter)o).dueTime);
+        }
+    }
 }
@@ -349,12 +349,19 @@ public class ConnectionContext {
             return null;
         }
 
-        StringBuilder appender = new StringBuilder();
+        if (lockKeysBufferSet.size() == 1) {
+            return lockKeysBufferSet.iterator().next();
+        }
+        int length = lockKeysBufferSet.size() - 1;
+        for (String lockKey : lockKeysBufferSet) {
+            length += lockKey.length();
+        }
+        StringBuilder appender = new StringBuilder(length);
         Iterator<String> iterable = lockKeysBufferSet.iterator();
         while (iterable.hasNext()) {
             appender.append(iterable.next());
             if (iterable.hasNext()) {
-                appender.append(";");
+                appender.append(';');
             }
         }
         return appender.toString();
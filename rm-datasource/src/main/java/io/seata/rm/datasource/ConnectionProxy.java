@@ -29,6 +29,7 @@ import io.seata.core.model.BranchStatus;
 import io.seata.core.model.BranchType;
 import io.seata.rm.DefaultResourceManager;
 import io.seata.rm.datasource.exec.LockConflictException;
+import io.seata.rm.datasource.exec.LockQueryCache;
 import io.seata.rm.datasource.exec.LockRetryController;
 import io.seata.rm.datasource.undo.SQLUndoLog;
 import io.seata.rm.datasource.undo.UndoLogManagerFactory;
@@ -115,10 +116,9 @@ public class ConnectionProxy extends AbstractConnectionProxy {
         }
         // Just check lock without requiring lock by now.
         try {
-            boolean lockable = DefaultResourceManager.get().lockQuery(BranchType.AT,
-                getDataSourceProxy().getResourceId(), context.getXid(), lockKeys);
+            boolean lockable = lockQuery(getDataSourceProxy().getResourceId(), context.getXid(), lockKeys);
             if (!lockable) {
-                throw new LockConflictException(String.format("get lock failed, lockKey: %s",lockKeys));
+                throw new LockConflictException(String.format("get lock failed, lockKey: %s", lockKeys), null, lockKeys);
             }
         } catch (TransactionException e) {
             recognizeLockKeyConflictException(e, lockKeys);
@@ -136,14 +136,19 @@ public class ConnectionProxy extends AbstractConnectionProxy {
         // Just check lock without requiring lock by now.
         boolean result = false;
         try {
-            result = DefaultResourceManager.get().lockQuery(BranchType.AT, getDataSourceProxy().getResourceId(),
-                context.getXid(), lockKeys);
+            result = lockQuery(getDataSourceProxy().getResourceId(), context.getXid(), lockKeys);
         } catch (TransactionException e) {
             recognizeLockKeyConflictException(e, lockKeys);
         }
         return result;
     }
 
+    private static boolean lockQuery(String resourceId, String xid, String lockKeys) throws TransactionException {
+        // the same query of other threads is shared, and the conflict is cached for a while
+        return LockQueryCache.get().lockQuery(resourceId, xid, lockKeys,
+            () -> DefaultResourceManager.get().lockQuery(BranchType.AT, resourceId, xid, lockKeys));
+    }
+
     private void recognizeLockKeyConflictException(TransactionException te) throws SQLException {
         recognizeLockKeyConflictException(te, null);
     }
@@ -156,7 +161,7 @@ public class ConnectionProxy extends AbstractConnectionProxy {
             if (StringUtils.isNotBlank(lockKeys)) {
                 reasonBuilder.append(", lockKeys:").append(lockKeys);
             }
-            throw new LockConflictException(reasonBuilder.toString(), te.getCode());
+            throw new LockConflictException(reasonBuilder.toString(), te.getCode(), lockKeys);
         } else {
             throw new SQLException(te);
         }
@@ -350,7 +355,8 @@ public class ConnectionProxy extends AbstractConnectionProxy {
         }
 
         protected <T> T doRetryOnLockConflict(Callable<T> callable) throws Exception {
-            LockRetryController lockRetryController = new LockRetryController();
+            LockRetryController lockRetryController = new LockRetryController(
+                connection.getDataSourceProxy().getResourceId());
             while (true) {
                 try {
                     return callable.call();
@@ -174,24 +174,39 @@ public class DataCompareUtils {
     }
 
     private static Result<Boolean> compareRows(TableMeta tableMetaData, List<Row> oldRows, List<Row> newRows) {
-        // old row to map
-        Map<String, Map<String, Field>> oldRowsMap = rowListToMap(oldRows, tableMetaData.getPrimaryKeyOnlyName());
-        // new row to map
-        Map<String, Map<String, Field>> newRowsMap = rowListToMap(newRows, tableMetaData.getPrimaryKeyOnlyName());
+        // the rows of the same query are in the same order mostly, exit early if they are exactly equal
+        if (isRowsEqualsInOrder(oldRows, newRows)) {
+            return Result.ok();
+        }
+        List<String> primaryKeyList = tableMetaData.getPrimaryKeyOnlyName();
+        // {value of primaryKey, new row}
+        Map<String, Row> newRowsMap = new HashMap<>(newRows.size() * 4 / 3 + 1);
+        for (Row newRow : newRows) {
+            newRowsMap.put(rowKey(newRow, primaryKeyList), newRow);
+        }
+        // the index of the old column in the new row, the columns of the rows are in the same order mostly
+        int[] columnIndexes = null;
         // compare data
-        for (Map.Entry<String, Map<String, Field>> oldEntry : oldRowsMap.entrySet()) {
-            String key = oldEntry.getKey();
-            Map<String, Field> oldRow = oldEntry.getValue();
-            Map<String, Field> newRow = newRowsMap.get(key);
+        for (Row oldRow : oldRows) {
+            String key = rowKey(oldRow, primaryKeyList);
+            Row newRow = newRowsMap.get(key);
             if (newRow == null) {
                 return Result.buildWithParams(false, "compare row failed, rowKey {}, reason [newRow is null]", key);
             }
-            for (Map.Entry<String, Field> oldRowEntry : oldRow.entrySet()) {
-                String fieldName = oldRowEntry.getKey();
-                Field oldField = oldRowEntry.getValue();
-                Field newField = newRow.get(fieldName);
+            List<Field> oldFields = oldRow.getFields();
+            List<Field> newFields = newRow.getFields();
+            if (columnIndexes == null) {
+                columnIndexes = columnIndexes(oldFields, newFields);
+            }
+            for (int i = 0; i < oldFields.size(); i++) {
+                Field oldField = oldFields.get(i);
+                Field newField = i < columnIndexes.length ? fieldAt(newFields, columnIndexes[i], oldField.getName())
+                    : null;
+                if (newField == null) {
+                    newField = findField(newFields, oldField.getName());
+                }
                 if (newField == null) {
-                    return Result.buildWithParams(false, "compare row failed, rowKey {}, fieldName {}, reason [newField is null]", key, fieldName);
+                    return Result.buildWithParams(false, "compare row failed, rowKey {}, fieldName {}, reason [newField is null]", key, oldField.getName().trim().toUpperCase());
                 }
                 Result<Boolean> oldEqualsNewFieldResult = isFieldEquals(oldField, newField);
                 if (!oldEqualsNewFieldResult.getResult()) {
@@ -202,6 +217,73 @@ public class DataCompareUtils {
         return Result.ok();
     }
 
+    private static boolean isRowsEqualsInOrder(List<Row> oldRows, List<Row> newRows) {
+        for (int i = 0; i < oldRows.size(); i++) {
+            List<Field> oldFields = oldRows.get(i).getFields();
+            List<Field> newFields = newRows.get(i).getFields();
+            if (oldFields.size() != newFields.size()) {
+                return false;
+            }
+            for (int j = 0; j < oldFields.size(); j++) {
+                Field f0 = oldFields.get(j);
+                Field f1 = newFields.get(j);
+                if (f0.getType() != f1.getType() || !StringUtils.equalsIgnoreCase(f0.getName(), f1.getName())
+                        || !Objects.deepEquals(f0.getValue(), f1.getValue())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static String rowKey(Row row, List<String> primaryKeyList) {
+        StringBuilder rowKey = new StringBuilder();
+        for (int i = 0; i < primaryKeyList.size(); i++) {
+            Field field = findField(row.getFields(), primaryKeyList.get(i));
+            if (i > 0) {
+                rowKey.append("_");
+            }
+            rowKey.append(field == null ? null : String.valueOf(field.getValue()));
+        }
+        return rowKey.toString();
+    }
+
+    private static int[] columnIndexes(List<Field> oldFields, List<Field> newFields) {
+        int[] columnIndexes = new int[oldFields.size()];
+        for (int i = 0; i < oldFields.size(); i++) {
+            columnIndexes[i] = -1;
+            String name = oldFields.get(i).getName();
+            for (int j = 0; j < newFields.size(); j++) {
+                if (isSameColumn(name, newFields.get(j).getName())) {
+                    columnIndexes[i] = j;
+                    break;
+                }
+            }
+        }
+        return columnIndexes;
+    }
+
+    private static Field fieldAt(List<Field> fields, int index, String name) {
+        if (index < 0 || index >= fields.size()) {
+            return null;
+        }
+        Field field = fields.get(index);
+        return isSameColumn(name, field.getName()) ? field : null;
+    }
+
+    private static Field findField(List<Field> fields, String name) {
+        for (Field field : fields) {
+            if (isSameColumn(name, field.getName())) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isSameColumn(String name0, String name1) {
+        return name0 != null && name1 != null && name0.trim().equalsIgnoreCase(name1.trim());
+    }
+
     /**
      * Row list to map map.
      *
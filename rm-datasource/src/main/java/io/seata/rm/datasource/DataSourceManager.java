@@ -35,6 +35,7 @@ import io.seata.core.protocol.transaction.GlobalLockQueryRequest;
 import io.seata.core.protocol.transaction.GlobalLockQueryResponse;
 import io.seata.core.rpc.netty.RmNettyRemotingClient;
 import io.seata.rm.AbstractResourceManager;
+import io.seata.rm.datasource.exec.LockQueryCache;
 import io.seata.rm.datasource.undo.UndoLogManagerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -105,9 +106,19 @@ public class DataSourceManager extends AbstractResourceManager {
         return (DataSourceProxy) dataSourceCache.get(resourceId);
     }
 
+    @Override
+    public Long branchRegister(BranchType branchType, String resourceId, String clientId, String xid,
+                               String applicationData, String lockKeys) throws TransactionException {
+        Long branchId = super.branchRegister(branchType, resourceId, clientId, xid, applicationData, lockKeys);
+        LockQueryCache.get().registerBranch(resourceId, branchId, lockKeys);
+        return branchId;
+    }
+
     @Override
     public BranchStatus branchCommit(BranchType branchType, String xid, long branchId, String resourceId,
                                      String applicationData) throws TransactionException {
+        // the global locks are released by the TC before the branches are committed
+        LockQueryCache.get().releaseBranch(branchId);
         return asyncWorker.branchCommit(xid, branchId, resourceId);
     }
 
@@ -123,6 +134,8 @@ public class DataSourceManager extends AbstractResourceManager {
             if (LOGGER.isInfoEnabled()) {
                 LOGGER.info("branch rollback success, xid:{}, branchId:{}", xid, branchId);
             }
+            // the global locks of the branch are released by the TC only after this response
+            LockQueryCache.get().forgetBranch(branchId);
         } catch (TransactionException te) {
             StackTraceLogger.error(LOGGER, te,
                 "branchRollback failed. branchType:[{}], xid:[{}], branchId:[{}], resourceId:[{}], applicationData:[{}]. reason:[{}]",
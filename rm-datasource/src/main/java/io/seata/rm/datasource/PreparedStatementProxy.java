@@ -50,6 +50,22 @@ public class PreparedStatementProxy extends AbstractPreparedStatementProxy
         super(connectionProxy, targetStatement, targetSQL);
     }
 
+    /**
+     * Instantiates a new Prepared statement proxy.
+     *
+     * @param connectionProxy the connection proxy
+     * @param targetStatement the target statement
+     * @param targetSQL       the target sql
+     * @param returningColumns the columns of the after image the target statement returns as the generated keys,
+     *                         null if not
+     * @throws SQLException the sql exception
+     */
+    public PreparedStatementProxy(AbstractConnectionProxy connectionProxy, PreparedStatement targetStatement,
+                                  String targetSQL, String[] returningColumns) throws SQLException {
+        super(connectionProxy, targetStatement, targetSQL);
+        this.returningColumns = returningColumns;
+    }
+
     @Override
     public boolean execute() throws SQLException {
         return ExecuteTemplate.execute(this, (statement, args) -> statement.execute());
@@ -76,7 +76,10 @@ public abstract class BaseInsertExecutor<T, S extends Statement> extends Abstrac
     @Override
     protected TableRecords afterImage(TableRecords beforeImage) throws SQLException {
         Map<String, List<Object>> pkValues = getPkValues();
-        TableRecords afterImage = buildTableRecords(pkValues);
+        TableRecords afterImage = buildTableRecordsByReturning(getTableMeta());
+        if (afterImage == null || afterImage.size() != pkValues.values().iterator().next().size()) {
+            afterImage = buildTableRecords(pkValues);
+        }
         if (afterImage == null) {
             throw new SQLException("Failed to build after-image for insert");
         }
@@ -18,9 +18,11 @@ package io.seata.rm.datasource.exec;
 
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -432,26 +434,25 @@ public abstract class BaseTransactionalExecutor<T, S extends Statement> implemen
         if (rowsIncludingPK.size() == 0) {
             return null;
         }
-        StringBuilder sb = new StringBuilder();
-        sb.append(rowsIncludingPK.getTableMeta().getTableName());
-        sb.append(":");
-        int rowSequence = 0;
+        String tableName = rowsIncludingPK.getTableMeta().getTableName();
         List<Map<String, Field>> pksRows = rowsIncludingPK.pkRows();
         List<String> primaryKeysOnlyName = rowsIncludingPK.getTableMeta().getPrimaryKeyOnlyName();
+        // pre-size the builder to avoid growing it on the large batches, assume about 8 chars per pk value
+        StringBuilder sb = new StringBuilder(tableName.length() + 1 + pksRows.size() * primaryKeysOnlyName.size() * 9);
+        sb.append(tableName).append(':');
+        int rowSequence = 0;
         for (Map<String, Field> rowMap : pksRows) {
+            if (rowSequence++ > 0) {
+                sb.append(',');
+            }
             int pkSplitIndex = 0;
             for (String pkName : primaryKeysOnlyName) {
-                if (pkSplitIndex > 0) {
-                    sb.append("_");
+                if (pkSplitIndex++ > 0) {
+                    sb.append('_');
                 }
-                Object pkVal = rowMap.get(pkName).getValue();
-                validPk(String.valueOf(pkVal));
+                String pkVal = String.valueOf(rowMap.get(pkName).getValue());
+                validPk(pkVal);
                 sb.append(pkVal);
-                pkSplitIndex++;
-            }
-            rowSequence++;
-            if (rowSequence < pksRows.size()) {
-                sb.append(",");
             }
         }
         return sb.toString();
@@ -505,6 +506,33 @@ public abstract class BaseTransactionalExecutor<T, S extends Statement> implemen
         }
     }
 
+    /**
+     * Build the table records from the rows returned by the dml as the generated keys, instead of querying them again.
+     *
+     * @param tableMeta the table meta
+     * @return the table records, null if the dml does not return the rows or any of the requested columns
+     * @throws SQLException the sql exception
+     */
+    protected TableRecords buildTableRecordsByReturning(TableMeta tableMeta) throws SQLException {
+        String[] returningColumns = statementProxy.getReturningColumns();
+        if (returningColumns == null) {
+            return null;
+        }
+        ResultSet rs = statementProxy.getGeneratedKeys();
+        ResultSetMetaData metaData = rs.getMetaData();
+        Set<String> returnedColumns = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            returnedColumns.add(metaData.getColumnName(i));
+        }
+        if (!returnedColumns.containsAll(Arrays.asList(returningColumns))) {
+            return null;
+        }
+        TableRecords tableRecords = TableRecords.buildRecords(tableMeta, rs);
+        // the generated keys are cached, so the caller can read them again
+        rs.beforeFirst();
+        return tableRecords;
+    }
+
     /**
      * build TableRecords
      *
@@ -27,6 +27,8 @@ public class LockConflictException extends SQLException {
 
     TransactionExceptionCode code;
 
+    private String lockKeys;
+
     public LockConflictException(String message) {
         super(message);
     }
@@ -36,6 +38,12 @@ public class LockConflictException extends SQLException {
         this.code = code;
     }
 
+    public LockConflictException(String message, TransactionExceptionCode code, String lockKeys) {
+        super(message);
+        this.code = code;
+        this.lockKeys = lockKeys;
+    }
+
     public TransactionExceptionCode getCode() {
         return code;
     }
@@ -44,4 +52,17 @@ public class LockConflictException extends SQLException {
         this.code = code;
     }
 
+    /**
+     * Gets the conflicting lock keys.
+     *
+     * @return the lock keys, null if unknown
+     */
+    public String getLockKeys() {
+        return lockKeys;
+    }
+
+    public void setLockKeys(String lockKeys) {
+        this.lockKeys = lockKeys;
+    }
+
 }
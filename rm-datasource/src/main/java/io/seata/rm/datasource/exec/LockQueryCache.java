@@ -0,0 +1,391 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.rm.datasource.exec;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.seata.common.DefaultValues;
+import io.seata.common.util.CollectionUtils;
+import io.seata.common.util.StringUtils;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
+import io.seata.core.exception.TransactionException;
+
+/**
+ * The global lock queries of the resource manager, which share the queries to the TC.
+ * <p>
+ * The same lock query in flight is sent to the TC once, the threads asking it meanwhile wait for its result. A
+ * conflicting lock query is cached for a short ttl, so the threads retrying the hot rows get the conflict without
+ * asking the TC again. The TC releases the global locks of a transaction before it commits the branches, so when a
+ * branch registered by this RM is committed, the cached conflicts and the lock waiters of its rows are released.
+ * A rolled back branch releases nothing here, the TC releases its locks only after the branch rollback response.
+ * </p>
+ *
+ */
+public class LockQueryCache {
+
+    /**
+     * the max conflicts cached, the expired ones are cleared when exceeded
+     */
+    private static final int MAX_CACHED_CONFLICTS = 10000;
+
+    /**
+     * the max branches whose locks are tracked, they are all dropped when exceeded, e.g. by the branches finished
+     * on another RM of the resource
+     */
+    private static final int MAX_TRACKED_BRANCHES = 10000;
+
+    private static final String ROW_KEYS_SPLIT_CHAR = ";";
+
+    private static final String PK_SPLIT_CHAR = ",";
+
+    private static final String TABLE_SPLIT_CHAR = ":";
+
+    private static final LockQueryCache INSTANCE = new LockQueryCache(ConfigurationFactory.getInstance().getLong(
+        ConfigurationKeys.CLIENT_LOCK_CONFLICT_CACHE_TTL, DefaultValues.DEFAULT_CLIENT_LOCK_CONFLICT_CACHE_TTL));
+
+    private final long conflictTtlNanos;
+
+    private final Map<LockQueryKey, CompletableFuture<Boolean>> inFlightQueries = new ConcurrentHashMap<>();
+
+    private final Map<LockQueryKey, CachedConflict> conflicts = new ConcurrentHashMap<>();
+
+    /**
+     * the release times of the resources, it changes when some rows of the resource are released
+     */
+    private final Map<String, AtomicLong> releaseVersions = new ConcurrentHashMap<>();
+
+    /**
+     * the lock keys of the branches registered by this RM, by branch id
+     */
+    private final Map<Long, BranchLocks> branchLocks = new ConcurrentHashMap<>();
+
+    private final Map<String, Set<ReleaseWaiter>> releaseWaiters = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new Lock query cache.
+     *
+     * @param conflictTtlMillis how long a conflict is cached, not positive to disable the cache
+     */
+    public LockQueryCache(long conflictTtlMillis) {
+        this.conflictTtlNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, conflictTtlMillis));
+    }
+
+    /**
+     * Get the lock query cache.
+     *
+     * @return the lock query cache
+     */
+    public static LockQueryCache get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Query whether the lock keys are lockable, by the cached conflict, the same query in flight, or the query.
+     *
+     * @param resourceId the resource id
+     * @param xid        the xid
+     * @param lockKeys   the lock keys
+     * @param lockQuery  query the TC
+     * @return true if the lock keys are lockable
+     * @throws TransactionException the transaction exception thrown by the query
+     */
+    public boolean lockQuery(String resourceId, String xid, String lockKeys, LockQuery lockQuery)
+        throws TransactionException {
+        LockQueryKey key = new LockQueryKey(resourceId, xid, lockKeys);
+        CachedConflict conflict = conflicts.get(key);
+        if (conflict != null) {
+            if (System.nanoTime() - conflict.expireTime < 0) {
+                return false;
+            }
+            conflicts.remove(key, conflict);
+        }
+
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        CompletableFuture<Boolean> inFlight = inFlightQueries.putIfAbsent(key, future);
+        if (inFlight != null) {
+            return awaitResult(inFlight);
+        }
+        long version = getReleaseVersion(resourceId).get();
+        try {
+            boolean lockable = lockQuery.query();
+            // the conflict may be gone if some rows of the resource are released during the query
+            if (!lockable && conflictTtlNanos > 0 && version == getReleaseVersion(resourceId).get()) {
+                cacheConflict(key);
+            }
+            future.complete(lockable);
+            return lockable;
+        } catch (TransactionException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightQueries.remove(key, future);
+        }
+    }
+
+    private static boolean awaitResult(CompletableFuture<Boolean> inFlight) throws TransactionException {
+        try {
+            return inFlight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // the caller takes it as a conflict and retries
+            return false;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TransactionException) {
+                throw (TransactionException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private void cacheConflict(LockQueryKey key) {
+        long now = System.nanoTime();
+        if (conflicts.size() >= MAX_CACHED_CONFLICTS) {
+            conflicts.values().removeIf(conflict -> now - conflict.expireTime >= 0);
+            if (conflicts.size() >= MAX_CACHED_CONFLICTS) {
+                return;
+            }
+        }
+        conflicts.put(key, new CachedConflict(now + conflictTtlNanos, toRowKeys(key.lockKeys)));
+    }
+
+    /**
+     * Track the lock keys of a branch registered by this RM, they are released when the branch is committed.
+     *
+     * @param resourceId the resource id
+     * @param branchId   the branch id
+     * @param lockKeys   the lock keys of the branch
+     */
+    public void registerBranch(String resourceId, Long branchId, String lockKeys) {
+        if (branchId == null || StringUtils.isBlank(lockKeys)) {
+            return;
+        }
+        if (branchLocks.size() >= MAX_TRACKED_BRANCHES) {
+            // the waiters of the dropped branches fall back to their retry interval
+            branchLocks.clear();
+        }
+        branchLocks.put(branchId, new BranchLocks(resourceId, lockKeys));
+    }
+
+    /**
+     * The branch is committed, the TC has released its global locks before. Clear the cached conflicts of its rows
+     * and wake up the threads waiting to retry the lock of them.
+     *
+     * @param branchId the branch id
+     */
+    public void releaseBranch(long branchId) {
+        BranchLocks locks = branchLocks.remove(branchId);
+        if (locks != null) {
+            release(locks.resourceId, toRowKeys(locks.lockKeys));
+        }
+    }
+
+    /**
+     * The branch is rolled back, the TC releases its global locks after the response, so nothing is released here.
+     *
+     * @param branchId the branch id
+     */
+    public void forgetBranch(long branchId) {
+        branchLocks.remove(branchId);
+    }
+
+    /**
+     * The rows of the resource are released.
+     *
+     * @param resourceId the resource id
+     * @param rowKeys    the released rows
+     */
+    void release(String resourceId, Set<String> rowKeys) {
+        if (rowKeys.isEmpty()) {
+            return;
+        }
+        getReleaseVersion(resourceId).incrementAndGet();
+        conflicts.entrySet().removeIf(entry -> Objects.equals(resourceId, entry.getKey().resourceId)
+            && !Collections.disjoint(entry.getValue().rowKeys, rowKeys));
+        Set<ReleaseWaiter> waiters = releaseWaiters.get(resourceId);
+        if (waiters != null) {
+            for (ReleaseWaiter waiter : waiters) {
+                if (!Collections.disjoint(waiter.rowKeys, rowKeys)) {
+                    waiter.wakeUp();
+                }
+            }
+        }
+    }
+
+    /**
+     * Wait to retry the lock keys of the resource, until some of their rows are released or the timeout elapses.
+     *
+     * @param resourceId    the resource id
+     * @param lockKeys      the conflicting lock keys
+     * @param timeoutMillis the max time to wait
+     * @throws InterruptedException the interrupted exception
+     */
+    public void awaitRelease(String resourceId, String lockKeys, long timeoutMillis) throws InterruptedException {
+        if (timeoutMillis <= 0) {
+            return;
+        }
+        ReleaseWaiter waiter = new ReleaseWaiter(toRowKeys(lockKeys));
+        Set<ReleaseWaiter> waiters = CollectionUtils.computeIfAbsent(releaseWaiters, resourceId,
+            key -> ConcurrentHashMap.newKeySet());
+        waiters.add(waiter);
+        try {
+            waiter.await(timeoutMillis);
+        } finally {
+            waiters.remove(waiter);
+        }
+    }
+
+    private AtomicLong getReleaseVersion(String resourceId) {
+        return CollectionUtils.computeIfAbsent(releaseVersions, resourceId, key -> new AtomicLong());
+    }
+
+    /**
+     * Split the lock keys into the row keys, the lock keys will like "t1:1,2;t2:3" and the row keys "t1:1".
+     *
+     * @param lockKeys the lock keys
+     * @return the row keys
+     */
+    static Set<String> toRowKeys(String lockKeys) {
+        if (StringUtils.isBlank(lockKeys)) {
+            return Collections.emptySet();
+        }
+        Set<String> rowKeys = new HashSet<>();
+        for (String tableLockKeys : lockKeys.split(ROW_KEYS_SPLIT_CHAR)) {
+            int index = tableLockKeys.indexOf(TABLE_SPLIT_CHAR);
+            if (index <= 0) {
+                continue;
+            }
+            String tableName = tableLockKeys.substring(0, index);
+            for (String pk : tableLockKeys.substring(index + 1).split(PK_SPLIT_CHAR)) {
+                rowKeys.add(tableName + TABLE_SPLIT_CHAR + pk);
+            }
+        }
+        return rowKeys;
+    }
+
+    /**
+     * Query the TC whether the lock keys are lockable.
+     */
+    @FunctionalInterface
+    public interface LockQuery {
+
+        /**
+         * Query the TC.
+         *
+         * @return true if the lock keys are lockable
+         * @throws TransactionException the transaction exception
+         */
+        boolean query() throws TransactionException;
+    }
+
+    private static class CachedConflict {
+
+        private final long expireTime;
+
+        private final Set<String> rowKeys;
+
+        CachedConflict(long expireTime, Set<String> rowKeys) {
+            this.expireTime = expireTime;
+            this.rowKeys = rowKeys;
+        }
+    }
+
+    private static class BranchLocks {
+
+        private final String resourceId;
+
+        private final String lockKeys;
+
+        BranchLocks(String resourceId, String lockKeys) {
+            this.resourceId = resourceId;
+            this.lockKeys = lockKeys;
+        }
+    }
+
+    private static class ReleaseWaiter {
+
+        private final Set<String> rowKeys;
+
+        private boolean released;
+
+        ReleaseWaiter(Set<String> rowKeys) {
+            this.rowKeys = rowKeys;
+        }
+
+        synchronized void await(long timeoutMillis) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            long remaining;
+            while (!released && (remaining = deadline - System.nanoTime()) > 0) {
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+        }
+
+        synchronized void wakeUp() {
+            released = true;
+            notifyAll();
+        }
+    }
+
+    private static class LockQueryKey {
+
+        private final String resourceId;
+
+        private final String xid;
+
+        private final String lockKeys;
+
+        private final int hash;
+
+        LockQueryKey(String resourceId, String xid, String lockKeys) {
+            this.resourceId = resourceId;
+            this.xid = xid;
+            this.lockKeys = lockKeys;
+            this.hash = Objects.hash(resourceId, xid, lockKeys);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof LockQueryKey)) {
+                return false;
+            }
+            LockQueryKey that = (LockQueryKey) o;
+            return Objects.equals(resourceId, that.resourceId) && Objects.equals(xid, that.xid)
+                && Objects.equals(lockKeys, that.lockKeys);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -45,10 +45,23 @@ public class LockRetryController {
 
     private int lockRetryTimes;
 
+    private final String resourceId;
+
     /**
      * Instantiates a new Lock retry controller.
      */
     public LockRetryController() {
+        this(null);
+    }
+
+    /**
+     * Instantiates a new Lock retry controller, which retries as soon as the conflicting rows of the resource
+     * are released by a branch committed on this RM.
+     *
+     * @param resourceId the resource id of the lock
+     */
+    public LockRetryController(String resourceId) {
+        this.resourceId = resourceId;
         this.lockRetryInterval = getLockRetryInterval();
         this.lockRetryTimes = getLockRetryTimes();
     }
@@ -67,7 +80,12 @@ public class LockRetryController {
         }
 
         try {
-            Thread.sleep(lockRetryInterval);
+            String lockKeys = e instanceof LockConflictException ? ((LockConflictException)e).getLockKeys() : null;
+            if (resourceId != null && lockKeys != null) {
+                LockQueryCache.get().awaitRelease(resourceId, lockKeys, lockRetryInterval);
+            } else {
+                Thread.sleep(lockRetryInterval);
+            }
         } catch (InterruptedException ignore) {
         }
     }
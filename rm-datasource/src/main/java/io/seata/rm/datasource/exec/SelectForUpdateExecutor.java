@@ -80,7 +80,8 @@ public class SelectForUpdateExecutor<T, S extends Statement> extends BaseTransac
                 throw new SQLException("not support savepoint. please check your db version");
             }
 
-            LockRetryController lockRetryController = new LockRetryController();
+            LockRetryController lockRetryController = new LockRetryController(
+                statementProxy.getConnectionProxy().getDataSourceProxy().getResourceId());
             ArrayList<List<Object>> paramAppenderList = new ArrayList<>();
             String selectPKSQL = buildSelectSQL(paramAppenderList);
             while (true) {
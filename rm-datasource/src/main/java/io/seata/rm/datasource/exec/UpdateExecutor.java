@@ -21,8 +21,12 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.StringJoiner;
+import java.util.TreeMap;
 
 import io.seata.common.util.IOUtil;
 import io.seata.common.util.StringUtils;
@@ -32,6 +36,7 @@ import io.seata.core.constants.ConfigurationKeys;
 import io.seata.common.DefaultValues;
 import io.seata.rm.datasource.SqlGenerateUtils;
 import io.seata.rm.datasource.StatementProxy;
+import io.seata.rm.datasource.sql.struct.Field;
 import io.seata.sqlparser.struct.TableMeta;
 import io.seata.rm.datasource.sql.struct.TableRecords;
 import io.seata.sqlparser.SQLRecognizer;
@@ -99,6 +104,12 @@ public class UpdateExecutor<T, S extends Statement> extends AbstractDMLBaseExecu
         if (beforeImage == null || beforeImage.size() == 0) {
             return TableRecords.empty(getTableMeta());
         }
+        // the returned rows are the after image, unless the update changed rows out of the before image
+        TableRecords afterImage = buildTableRecordsByReturning(tmeta);
+        if (afterImage != null && afterImage.size() == beforeImage.size()
+            && getPkValues(afterImage).equals(getPkValues(beforeImage))) {
+            return afterImage;
+        }
         String selectSQL = buildAfterImageSQL(tmeta, beforeImage);
         PreparedStatement pst = null;
         ResultSet rs = null;
@@ -112,6 +123,19 @@ public class UpdateExecutor<T, S extends Statement> extends AbstractDMLBaseExecu
         }
     }
 
+    private static Set<List<Object>> getPkValues(TableRecords tableRecords) {
+        Set<List<Object>> pkValues = new HashSet<>(tableRecords.size() * 2);
+        for (Map<String, Field> pkRow : tableRecords.pkRows()) {
+            // order the pk columns by name, the returned rows may spell them in another case
+            Map<String, Field> sortedPkRow = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            sortedPkRow.putAll(pkRow);
+            List<Object> values = new ArrayList<>(sortedPkRow.size());
+            sortedPkRow.values().forEach(field -> values.add(field.getValue()));
+            pkValues.add(values);
+        }
+        return pkValues;
+    }
+
     private String buildAfterImageSQL(TableMeta tableMeta, TableRecords beforeImage) throws SQLException {
         String prefix = "SELECT ";
         String whereSql = SqlGenerateUtils.buildWhereConditionByPKs(tableMeta.getPrimaryKeyOnlyName(), beforeImage.pkRows().size(), getDbType());
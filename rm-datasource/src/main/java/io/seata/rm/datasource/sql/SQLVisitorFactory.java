@@ -16,16 +16,31 @@
  */
 package io.seata.rm.datasource.sql;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.seata.common.loader.EnhancedServiceLoader;
+import io.seata.config.Configuration;
 import io.seata.config.ConfigurationFactory;
 import io.seata.core.constants.ConfigurationKeys;
 import io.seata.sqlparser.SQLRecognizer;
 import io.seata.sqlparser.SQLRecognizerFactory;
 import io.seata.sqlparser.SqlParserType;
 
-import java.util.List;
+import static io.seata.common.DefaultValues.DEFAULT_SQL_PARSER_CACHE_ENABLE;
+import static io.seata.common.DefaultValues.DEFAULT_SQL_PARSER_CACHE_MAX_WEIGHT;
 
 /**
+ * The factory of the sql recognizers.
+ * <p>
+ * The recognizers are cached by (dbType, sql), so the same prepared statement is parsed only once. The cache is
+ * bounded by the total length of the cached sql. The sql text is used as is, so the different placeholder forms
+ * ({@code ?}, {@code :name}, {@code $1}) and the literal values never share an entry. The cached recognizers are
+ * shared by all the executions and must be read only.
+ * </p>
  */
 public class SQLVisitorFactory {
     /**
@@ -33,9 +48,26 @@ public class SQLVisitorFactory {
      */
     private final static SQLRecognizerFactory SQL_RECOGNIZER_FACTORY;
 
+    /**
+     * the marker of the sql which need no recognizer, e.g. plain select
+     */
+    private final static List<SQLRecognizer> NO_RECOGNIZER = Collections.emptyList();
+
+    private final static Cache<CacheKey, List<SQLRecognizer>> SQL_RECOGNIZER_CACHE;
+
     static {
-        String sqlParserType = ConfigurationFactory.getInstance().getConfig(ConfigurationKeys.SQL_PARSER_TYPE, SqlParserType.SQL_PARSER_TYPE_DRUID);
+        Configuration config = ConfigurationFactory.getInstance();
+        String sqlParserType = config.getConfig(ConfigurationKeys.SQL_PARSER_TYPE, SqlParserType.SQL_PARSER_TYPE_DRUID);
         SQL_RECOGNIZER_FACTORY = EnhancedServiceLoader.load(SQLRecognizerFactory.class, sqlParserType);
+        if (config.getBoolean(ConfigurationKeys.SQL_PARSER_CACHE_ENABLE, DEFAULT_SQL_PARSER_CACHE_ENABLE)) {
+            long maxWeight = config.getLong(ConfigurationKeys.SQL_PARSER_CACHE_MAX_WEIGHT,
+                DEFAULT_SQL_PARSER_CACHE_MAX_WEIGHT);
+            SQL_RECOGNIZER_CACHE = Caffeine.newBuilder().maximumWeight(maxWeight)
+                .weigher((CacheKey key, List<SQLRecognizer> value) -> key.sql.length())
+                .recordStats().build();
+        } else {
+            SQL_RECOGNIZER_CACHE = null;
+        }
     }
 
     /**
@@ -43,11 +75,65 @@ public class SQLVisitorFactory {
      *
      * @param sql    the sql
      * @param dbType the db type
-     * @return the sql recognizer
+     * @return the sql recognizer, the cached list is unmodifiable
      */
     public static List<SQLRecognizer> get(String sql, String dbType) {
-        return SQL_RECOGNIZER_FACTORY.create(sql, dbType);
+        if (SQL_RECOGNIZER_CACHE == null || sql == null) {
+            return SQL_RECOGNIZER_FACTORY.create(sql, dbType);
+        }
+        // the parse exception is thrown to the caller and never cached
+        List<SQLRecognizer> sqlRecognizers = SQL_RECOGNIZER_CACHE.get(new CacheKey(dbType, sql), key -> {
+            List<SQLRecognizer> recognizers = SQL_RECOGNIZER_FACTORY.create(key.sql, key.dbType);
+            return recognizers == null || recognizers.isEmpty() ? NO_RECOGNIZER
+                : Collections.unmodifiableList(recognizers);
+        });
+        return sqlRecognizers == NO_RECOGNIZER ? null : sqlRecognizers;
+    }
+
+    /**
+     * Gets the hit count of the sql recognizer cache.
+     *
+     * @return the hit count, 0 if the cache is disabled
+     */
+    public static long getCacheHitCount() {
+        return SQL_RECOGNIZER_CACHE == null ? 0 : SQL_RECOGNIZER_CACHE.stats().hitCount();
+    }
+
+    /**
+     * Gets the miss count of the sql recognizer cache.
+     *
+     * @return the miss count, 0 if the cache is disabled
+     */
+    public static long getCacheMissCount() {
+        return SQL_RECOGNIZER_CACHE == null ? 0 : SQL_RECOGNIZER_CACHE.stats().missCount();
     }
 
+    private static final class CacheKey {
 
+        private final String dbType;
+
+        private final String sql;
+
+        CacheKey(String dbType, String sql) {
+            this.dbType = dbType;
+            this.sql = sql;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey cacheKey = (CacheKey)o;
+            return sql.equals(cacheKey.sql) && Objects.equals(dbType, cacheKey.dbType);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * sql.hashCode() + Objects.hashCode(dbType);
+        }
+    }
 }
@@ -26,7 +26,12 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 import com.alibaba.fastjson.JSON;
 import io.seata.common.util.BlobUtils;
@@ -48,6 +53,7 @@ import io.seata.rm.datasource.sql.struct.TableRecords;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static io.seata.common.DefaultValues.DEFAULT_TRANSACTION_UNDO_BATCH_SIZE;
 import static io.seata.common.DefaultValues.DEFAULT_TRANSACTION_UNDO_DATA_VALIDATION;
 
 import java.util.Map;
@@ -70,17 +76,30 @@ public abstract class AbstractUndoExecutor {
      */
     private static final String CHECK_SQL_TEMPLATE = "SELECT * FROM %s WHERE %s FOR UPDATE";
 
+    /**
+     * the max rows queried by a check sql
+     */
+    private static final int CHECK_SQL_MAX_ROWS = 1000;
+
     /**
      * Switch of undo data validation
      */
     public static final boolean IS_UNDO_DATA_VALIDATION_ENABLE = ConfigurationFactory.getInstance()
             .getBoolean(ConfigurationKeys.TRANSACTION_UNDO_DATA_VALIDATION, DEFAULT_TRANSACTION_UNDO_DATA_VALIDATION);
 
+    /**
+     * The max undo rows executed in a batch, 1 to undo row by row
+     */
+    public static final int UNDO_BATCH_SIZE = ConfigurationFactory.getInstance()
+            .getInt(ConfigurationKeys.TRANSACTION_UNDO_BATCH_SIZE, DEFAULT_TRANSACTION_UNDO_BATCH_SIZE);
+
     /**
      * The Sql undo log.
      */
     protected SQLUndoLog sqlUndoLog;
 
+    private String undoSQL;
+
     /**
      * Build undo sql string.
      *
@@ -113,29 +132,214 @@ public abstract class AbstractUndoExecutor {
      * @throws SQLException the sql exception
      */
     public void executeOn(ConnectionProxy connectionProxy) throws SQLException {
-        Connection conn = connectionProxy.getTargetConnection();
         if (IS_UNDO_DATA_VALIDATION_ENABLE && !dataValidationAndGoOn(connectionProxy)) {
             return;
         }
-        PreparedStatement undoPST = null;
-        try {
-            String undoSQL = buildUndoSQL();
-            undoPST = conn.prepareStatement(undoSQL);
-            TableRecords undoRows = getUndoRows();
-            for (Row undoRow : undoRows.getRows()) {
-                ArrayList<Field> undoValues = new ArrayList<>();
-                List<Field> pkValueList = getOrderedPkList(undoRows, undoRow, connectionProxy.getDbType());
-                for (Field field : undoRow.getFields()) {
-                    if (field.getKeyType() != KeyType.PRIMARY_KEY) {
-                        undoValues.add(field);
-                    }
+        undo(connectionProxy, getUndoRows().getRows());
+    }
+
+    /**
+     * Execute the undo executors on in order.
+     * <p>
+     * The adjacent executors of the same table and different rows are executed together: the current records of all
+     * of them are queried at once to validate them, then the undo rows of the executors with the same undo sql are
+     * executed in batches. It is the same as executing them one by one since the rows are different.
+     * </p>
+     *
+     * @param connectionProxy the connection proxy
+     * @param undoExecutors   the undo executors, in the undo order
+     * @throws SQLException the sql exception
+     */
+    public static void executeOn(ConnectionProxy connectionProxy, List<AbstractUndoExecutor> undoExecutors)
+            throws SQLException {
+        String dbType = connectionProxy.getDbType();
+        List<AbstractUndoExecutor> group = new ArrayList<>();
+        Set<List<String>> groupPks = new HashSet<>();
+        for (AbstractUndoExecutor undoExecutor : undoExecutors) {
+            if (!group.isEmpty() && group.get(0).canExecuteTogether(undoExecutor)
+                    && undoExecutor.addUndoRowPks(groupPks, dbType)) {
+                group.add(undoExecutor);
+                continue;
+            }
+            if (!group.isEmpty()) {
+                executeTogetherOn(connectionProxy, group);
+                group.clear();
+                groupPks.clear();
+            }
+            group.add(undoExecutor);
+            undoExecutor.addUndoRowPks(groupPks, dbType);
+        }
+        if (!group.isEmpty()) {
+            executeTogetherOn(connectionProxy, group);
+        }
+    }
+
+    private static void executeTogetherOn(ConnectionProxy connectionProxy, List<AbstractUndoExecutor> undoExecutors)
+            throws SQLException {
+        if (undoExecutors.size() == 1) {
+            undoExecutors.get(0).executeOn(connectionProxy);
+            return;
+        }
+        List<AbstractUndoExecutor> validExecutors = undoExecutors;
+        if (IS_UNDO_DATA_VALIDATION_ENABLE) {
+            Map<List<String>, Row> currentRows = undoExecutors.get(0).queryCurrentRows(connectionProxy, undoExecutors);
+            validExecutors = new ArrayList<>(undoExecutors.size());
+            for (AbstractUndoExecutor undoExecutor : undoExecutors) {
+                if (undoExecutor.dataValidationAndGoOn(connectionProxy, currentRows)) {
+                    validExecutors.add(undoExecutor);
                 }
+            }
+        }
+        AbstractUndoExecutor first = null;
+        List<Row> undoRows = new ArrayList<>();
+        for (AbstractUndoExecutor undoExecutor : validExecutors) {
+            if (first != null && !first.canUndoTogether(undoExecutor)) {
+                first.undo(connectionProxy, undoRows);
+                first = null;
+                undoRows = new ArrayList<>();
+            }
+            if (first == null) {
+                first = undoExecutor;
+            }
+            undoRows.addAll(undoExecutor.getUndoRows().getRows());
+        }
+        if (first != null) {
+            first.undo(connectionProxy, undoRows);
+        }
+    }
+
+    /**
+     * Whether the other executor can be validated and executed with this one.
+     *
+     * @param other the other undo executor
+     * @return true if both have the undo rows of the same table, and they can be validated together or undone together
+     */
+    protected boolean canExecuteTogether(AbstractUndoExecutor other) {
+        // the empty undo log builds no undo sql
+        if (getUndoRows().size() == 0 || other.getUndoRows().size() == 0
+                || !Objects.equals(sqlUndoLog.getTableName(), other.sqlUndoLog.getTableName())) {
+            return false;
+        }
+        return IS_UNDO_DATA_VALIDATION_ENABLE || canUndoTogether(other);
+    }
 
-                undoPrepare(undoPST, undoValues, pkValueList);
+    /**
+     * Whether the undo rows of the other executor can be executed with the undo rows of this one.
+     *
+     * @param other the other undo executor
+     * @return true if both support the batch undo and have the same undo sql
+     */
+    protected boolean canUndoTogether(AbstractUndoExecutor other) {
+        if (UNDO_BATCH_SIZE <= 1 || !isBatchUndoSupported() || getClass() != other.getClass()
+                || sqlUndoLog.getSqlType() != other.sqlUndoLog.getSqlType()
+                || !Objects.equals(sqlUndoLog.getTableName(), other.sqlUndoLog.getTableName())) {
+            return false;
+        }
+        // the empty undo log builds no undo sql
+        if (getUndoRows().size() == 0 || other.getUndoRows().size() == 0) {
+            return false;
+        }
+        return getUndoSQL().equals(other.getUndoSQL());
+    }
 
-                undoPST.executeUpdate();
+    /**
+     * Add the primary key values of the undo rows.
+     *
+     * @param pks    the primary key values added
+     * @param dbType the db type
+     * @return false if any of the primary key values is added already
+     */
+    private boolean addUndoRowPks(Set<List<String>> pks, String dbType) {
+        TableRecords undoRecords = getUndoRows();
+        List<List<String>> undoRowPks = new ArrayList<>(undoRecords.size());
+        for (Row undoRow : undoRecords.getRows()) {
+            List<String> undoRowPk = getUndoRowPk(undoRecords, undoRow, dbType);
+            if (pks.contains(undoRowPk)) {
+                return false;
             }
+            undoRowPks.add(undoRowPk);
+        }
+        pks.addAll(undoRowPks);
+        return true;
+    }
+
+    private List<String> getUndoRowPk(TableRecords image, Row row, String dbType) {
+        List<Field> pkValueList = getOrderedPkList(image, row, dbType);
+        String[] pkValues = new String[pkValueList.size()];
+        for (int i = 0; i < pkValues.length; i++) {
+            pkValues[i] = String.valueOf(pkValueList.get(i).getValue());
+        }
+        return Arrays.asList(pkValues);
+    }
 
+    /**
+     * Query the current rows of the undo rows of the executors, in chunks.
+     *
+     * @param connectionProxy the connection proxy
+     * @param undoExecutors   the undo executors of this table
+     * @return the current rows, by the primary key values
+     * @throws SQLException the sql exception
+     */
+    protected Map<List<String>, Row> queryCurrentRows(ConnectionProxy connectionProxy,
+                                                      List<AbstractUndoExecutor> undoExecutors) throws SQLException {
+        String dbType = connectionProxy.getDbType();
+        TableMeta tableMeta = getUndoRows().getTableMeta();
+        //the order of element matters
+        List<String> pkNameList = tableMeta.getPrimaryKeyOnlyName();
+        List<Row> undoRows = new ArrayList<>();
+        for (AbstractUndoExecutor undoExecutor : undoExecutors) {
+            undoRows.addAll(undoExecutor.getUndoRows().getRows());
+        }
+
+        Map<List<String>, Row> currentRows = new HashMap<>(undoRows.size() * 4 / 3 + 1);
+        for (int from = 0; from < undoRows.size(); from += CHECK_SQL_MAX_ROWS) {
+            List<Row> checkRows = undoRows.subList(from, Math.min(undoRows.size(), from + CHECK_SQL_MAX_ROWS));
+            String checkSQL = buildCheckSql(sqlUndoLog.getTableName(),
+                    SqlGenerateUtils.buildWhereConditionByPKs(pkNameList, checkRows.size(), dbType));
+            PreparedStatement statement = null;
+            ResultSet checkSet = null;
+            try {
+                statement = connectionProxy.getTargetConnection().prepareStatement(checkSQL);
+                int paramIndex = 1;
+                for (Row checkRow : checkRows) {
+                    for (Field field : getOrderedPkList(getUndoRows(), checkRow, dbType)) {
+                        int dataType = tableMeta.getColumnMeta(field.getName()).getDataType();
+                        statement.setObject(paramIndex, field.getValue(), dataType);
+                        paramIndex++;
+                    }
+                }
+                checkSet = statement.executeQuery();
+                TableRecords currentRecords = TableRecords.buildRecords(tableMeta, checkSet);
+                for (Row currentRow : currentRecords.getRows()) {
+                    currentRows.put(getUndoRowPk(currentRecords, currentRow, dbType), currentRow);
+                }
+            } finally {
+                IOUtil.close(checkSet, statement);
+            }
+        }
+        return currentRows;
+    }
+
+    /**
+     * Undo the rows.
+     *
+     * @param connectionProxy the connection proxy
+     * @param undoRows        the undo rows
+     * @throws SQLException the sql exception
+     */
+    protected void undo(ConnectionProxy connectionProxy, List<Row> undoRows) throws SQLException {
+        Connection conn = connectionProxy.getTargetConnection();
+        String dbType = connectionProxy.getDbType();
+        try {
+            if (UNDO_BATCH_SIZE > 1 && undoRows.size() > 1 && isBatchUndoSupported()) {
+                if (buildMultiRowUndoSQL(1) != null) {
+                    undoByMultiRowSQL(conn, undoRows, dbType);
+                } else {
+                    undoInBatch(conn, undoRows, dbType);
+                }
+            } else {
+                undoRowByRow(conn, undoRows, dbType);
+            }
         } catch (Exception ex) {
             if (ex instanceof SQLException) {
                 throw (SQLException) ex;
@@ -143,11 +347,104 @@ public abstract class AbstractUndoExecutor {
                 throw new SQLException(ex);
             }
         }
-        finally {
+    }
+
+    private void undoRowByRow(Connection conn, List<Row> undoRows, String dbType) throws SQLException {
+        PreparedStatement undoPST = null;
+        try {
+            undoPST = conn.prepareStatement(getUndoSQL());
+            for (Row undoRow : undoRows) {
+                undoPrepare(undoPST, undoRow, dbType);
+                undoPST.executeUpdate();
+            }
+        } finally {
             //important for oracle
             IOUtil.close(undoPST);
         }
+    }
 
+    private void undoInBatch(Connection conn, List<Row> undoRows, String dbType) throws SQLException {
+        PreparedStatement undoPST = null;
+        try {
+            undoPST = conn.prepareStatement(getUndoSQL());
+            int batchRows = 0;
+            for (Row undoRow : undoRows) {
+                undoPrepare(undoPST, undoRow, dbType);
+                undoPST.addBatch();
+                if (++batchRows == UNDO_BATCH_SIZE) {
+                    undoPST.executeBatch();
+                    batchRows = 0;
+                }
+            }
+            if (batchRows > 0) {
+                undoPST.executeBatch();
+            }
+        } finally {
+            //important for oracle
+            IOUtil.close(undoPST);
+        }
+    }
+
+    private void undoByMultiRowSQL(Connection conn, List<Row> undoRows, String dbType) throws SQLException {
+        TableRecords undoRecords = getUndoRows();
+        for (int from = 0; from < undoRows.size(); from += UNDO_BATCH_SIZE) {
+            List<Row> batchRows = undoRows.subList(from, Math.min(undoRows.size(), from + UNDO_BATCH_SIZE));
+            PreparedStatement undoPST = null;
+            try {
+                undoPST = conn.prepareStatement(buildMultiRowUndoSQL(batchRows.size()));
+                int undoIndex = 0;
+                for (Row undoRow : batchRows) {
+                    for (Field pkField : getOrderedPkList(undoRecords, undoRow, dbType)) {
+                        undoIndex++;
+                        undoPST.setObject(undoIndex, pkField.getValue(), pkField.getType());
+                    }
+                }
+                undoPST.executeUpdate();
+            } finally {
+                //important for oracle
+                IOUtil.close(undoPST);
+            }
+        }
+    }
+
+    private void undoPrepare(PreparedStatement undoPST, Row undoRow, String dbType) throws SQLException {
+        ArrayList<Field> undoValues = new ArrayList<>();
+        List<Field> pkValueList = getOrderedPkList(getUndoRows(), undoRow, dbType);
+        for (Field field : undoRow.getFields()) {
+            if (field.getKeyType() != KeyType.PRIMARY_KEY) {
+                undoValues.add(field);
+            }
+        }
+
+        undoPrepare(undoPST, undoValues, pkValueList);
+    }
+
+    private String getUndoSQL() {
+        if (undoSQL == null) {
+            undoSQL = buildUndoSQL();
+        }
+        return undoSQL;
+    }
+
+    /**
+     * Whether the undo rows can be executed in batches, the dialect executors support it opt in.
+     *
+     * @return true if the undo sql can be executed by the jdbc batch
+     */
+    protected boolean isBatchUndoSupported() {
+        return false;
+    }
+
+    /**
+     * Build the undo sql of multiple rows, to undo them by one statement instead of the jdbc batch.
+     * The parameters of the sql are the primary key values of the rows, row by row.
+     *
+     * @param rowSize the row size
+     * @return the undo sql, null if not supported
+     * @throws SQLException the sql exception
+     */
+    protected String buildMultiRowUndoSQL(int rowSize) throws SQLException {
+        return null;
     }
 
     /**
@@ -229,7 +526,48 @@ public abstract class AbstractUndoExecutor {
      * @throws SQLException the sql exception such as has dirty data
      */
     protected boolean dataValidationAndGoOn(ConnectionProxy conn) throws SQLException {
+        if (isBeforeEqualsAfter()) {
+            // no need continue undo.
+            return false;
+        }
+
+        // Validate if data is dirty.
+        TableRecords currentRecords = queryCurrentRecords(conn);
+        return dataValidationAndGoOn(currentRecords);
+    }
+
+    /**
+     * Data validation with the current records queried already.
+     *
+     * @param conn        the conn
+     * @param currentRows the current rows of the undo rows and others, by the primary key values
+     * @return return true if data validation is ok and need continue undo, and return false if no need continue undo.
+     * @throws SQLException the sql exception such as has dirty data
+     */
+    protected boolean dataValidationAndGoOn(ConnectionProxy conn, Map<List<String>, Row> currentRows)
+            throws SQLException {
+        if (isBeforeEqualsAfter()) {
+            // no need continue undo.
+            return false;
+        }
+
+        // the current rows in the order of the undo rows
+        TableRecords undoRecords = getUndoRows();
+        TableRecords currentRecords = new TableRecords(undoRecords.getTableMeta());
+        for (Row undoRow : undoRecords.getRows()) {
+            Row currentRow = currentRows.get(getUndoRowPk(undoRecords, undoRow, conn.getDbType()));
+            if (currentRow != null) {
+                currentRecords.add(currentRow);
+            }
+        }
+        if (currentRecords.size() != sqlUndoLog.getAfterImage().size()) {
+            // the pk values may be in another form than the queried ones, query them by itself to make sure
+            currentRecords = queryCurrentRecords(conn);
+        }
+        return dataValidationAndGoOn(currentRecords);
+    }
 
+    private boolean isBeforeEqualsAfter() {
         TableRecords beforeRecords = sqlUndoLog.getBeforeImage();
         TableRecords afterRecords = sqlUndoLog.getAfterImage();
 
@@ -241,12 +579,14 @@ public abstract class AbstractUndoExecutor {
                 LOGGER.info("Stop rollback because there is no data change " +
                         "between the before data snapshot and the after data snapshot.");
             }
-            // no need continue undo.
-            return false;
+            return true;
         }
+        return false;
+    }
 
-        // Validate if data is dirty.
-        TableRecords currentRecords = queryCurrentRecords(conn);
+    private boolean dataValidationAndGoOn(TableRecords currentRecords) throws SQLException {
+        TableRecords beforeRecords = sqlUndoLog.getBeforeImage();
+        TableRecords afterRecords = sqlUndoLog.getAfterImage();
         // compare with current data and after image.
         Result<Boolean> afterEqualsCurrentResult = DataCompareUtils.isRecordsEquals(afterRecords, currentRecords);
         if (!afterEqualsCurrentResult.getResult()) {
@@ -21,6 +21,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -308,14 +309,15 @@ public abstract class AbstractUndoLogManager implements UndoLogManager {
                         if (sqlUndoLogs.size() > 1) {
                             Collections.reverse(sqlUndoLogs);
                         }
+                        List<AbstractUndoExecutor> undoExecutors = new ArrayList<>(sqlUndoLogs.size());
                         for (SQLUndoLog sqlUndoLog : sqlUndoLogs) {
                             TableMeta tableMeta = TableMetaCacheFactory.getTableMetaCache(dataSourceProxy.getDbType()).getTableMeta(
                                 conn, sqlUndoLog.getTableName(), dataSourceProxy.getResourceId());
                             sqlUndoLog.setTableMeta(tableMeta);
-                            AbstractUndoExecutor undoExecutor = UndoExecutorFactory.getUndoExecutor(
-                                dataSourceProxy.getDbType(), sqlUndoLog);
-                            undoExecutor.executeOn(connectionProxy);
+                            undoExecutors.add(UndoExecutorFactory.getUndoExecutor(dataSourceProxy.getDbType(), sqlUndoLog));
                         }
+                        // the adjacent undo logs of the same table and type are undone in batches
+                        AbstractUndoExecutor.executeOn(connectionProxy, undoExecutors);
                     } finally {
                         // remove serializer name
                         removeCurrentSerializer();
@@ -76,4 +76,9 @@ public class DmUndoDeleteExecutor extends AbstractUndoExecutor {
     protected TableRecords getUndoRows() {
         return sqlUndoLog.getBeforeImage();
     }
+
+    @Override
+    protected boolean isBatchUndoSupported() {
+        return true;
+    }
 }
@@ -83,4 +83,18 @@ public class DmUndoInsertExecutor extends AbstractUndoExecutor {
     protected TableRecords getUndoRows() {
         return sqlUndoLog.getAfterImage();
     }
+
+    @Override
+    protected String buildMultiRowUndoSQL(int rowSize) throws SQLException {
+        TableRecords afterImage = sqlUndoLog.getAfterImage();
+        List<String> pkNameList = getOrderedPkList(afterImage, afterImage.getRows().get(0), JdbcConstants.DM).stream().map(
+            e -> e.getName()).collect(Collectors.toList());
+        String whereSql = SqlGenerateUtils.buildWhereConditionByPKs(pkNameList, rowSize, JdbcConstants.DM);
+        return String.format(DELETE_SQL_TEMPLATE, sqlUndoLog.getTableName(), whereSql);
+    }
+
+    @Override
+    protected boolean isBatchUndoSupported() {
+        return true;
+    }
 }
@@ -77,4 +77,9 @@ public class DmUndoUpdateExecutor extends AbstractUndoExecutor {
     protected TableRecords getUndoRows() {
         return sqlUndoLog.getBeforeImage();
     }
+
+    @Override
+    protected boolean isBatchUndoSupported() {
+        return true;
+    }
 }
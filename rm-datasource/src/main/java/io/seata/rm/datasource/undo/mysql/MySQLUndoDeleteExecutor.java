@@ -84,4 +84,9 @@ public class MySQLUndoDeleteExecutor extends AbstractUndoExecutor {
     protected TableRecords getUndoRows() {
         return sqlUndoLog.getBeforeImage();
     }
+
+    @Override
+    protected boolean isBatchUndoSupported() {
+        return true;
+    }
 }
@@ -88,4 +88,18 @@ public class MySQLUndoInsertExecutor extends AbstractUndoExecutor {
     protected TableRecords getUndoRows() {
         return sqlUndoLog.getAfterImage();
     }
+
+    @Override
+    protected String buildMultiRowUndoSQL(int rowSize) throws SQLException {
+        TableRecords afterImage = sqlUndoLog.getAfterImage();
+        List<String> pkNameList = getOrderedPkList(afterImage, afterImage.getRows().get(0), JdbcConstants.MYSQL).stream().map(
+            e -> e.getName()).collect(Collectors.toList());
+        String whereSql = SqlGenerateUtils.buildWhereConditionByPKs(pkNameList, rowSize, JdbcConstants.MYSQL);
+        return String.format(DELETE_SQL_TEMPLATE, sqlUndoLog.getTableName(), whereSql);
+    }
+
+    @Override
+    protected boolean isBatchUndoSupported() {
+        return true;
+    }
 }
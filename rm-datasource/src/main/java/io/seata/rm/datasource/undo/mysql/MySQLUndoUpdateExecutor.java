@@ -85,4 +85,9 @@ public class MySQLUndoUpdateExecutor extends AbstractUndoExecutor {
     protected TableRecords getUndoRows() {
         return sqlUndoLog.getBeforeImage();
     }
+
+    @Override
+    protected boolean isBatchUndoSupported() {
+        return true;
+    }
 }
@@ -76,4 +76,9 @@ public class OracleUndoDeleteExecutor extends AbstractUndoExecutor {
     protected TableRecords getUndoRows() {
         return sqlUndoLog.getBeforeImage();
     }
+
+    @Override
+    protected boolean isBatchUndoSupported() {
+        return true;
+    }
 }
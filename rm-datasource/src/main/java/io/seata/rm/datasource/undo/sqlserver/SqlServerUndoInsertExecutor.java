@@ -76,4 +76,24 @@ public class SqlServerUndoInsertExecutor extends BaseSqlServerUndoExecutor {
             undoPST.setObject(undoIndex, pkField.getValue(), pkField.getType());
         }
     }
+
+    @Override
+    protected String buildMultiRowUndoSQL(int rowSize) throws SQLException {
+        TableRecords afterImage = sqlUndoLog.getAfterImage();
+        List<String> pkNameList = getOrderedPkList(afterImage, afterImage.getRows().get(0), JdbcConstants.SQLSERVER)
+                .stream()
+                .map(Field::getName)
+                .collect(Collectors.toList());
+        // the row value constructor is not supported by the in predicate
+        if (pkNameList.size() > 1) {
+            return null;
+        }
+        String whereSql = SqlGenerateUtils.buildWhereConditionByPKs(pkNameList, rowSize, JdbcConstants.SQLSERVER);
+        return "DELETE FROM " + sqlUndoLog.getTableName() + " WHERE " + whereSql;
+    }
+
+    @Override
+    protected boolean isBatchUndoSupported() {
+        return true;
+    }
 }
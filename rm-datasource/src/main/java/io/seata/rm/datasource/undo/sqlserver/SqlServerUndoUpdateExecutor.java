@@ -69,4 +69,9 @@ public class SqlServerUndoUpdateExecutor extends BaseSqlServerUndoExecutor {
     protected TableRecords getUndoRows() {
         return sqlUndoLog.getBeforeImage();
     }
+
+    @Override
+    protected boolean isBatchUndoSupported() {
+        return true;
+    }
 }
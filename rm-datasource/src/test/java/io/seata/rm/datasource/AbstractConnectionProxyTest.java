@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.rm.datasource;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import io.seata.sqlparser.SQLDeleteRecognizer;
+import io.seata.sqlparser.SQLInsertRecognizer;
+import io.seata.sqlparser.SQLType;
+import io.seata.sqlparser.SQLUpdateRecognizer;
+import io.seata.sqlparser.struct.ColumnMeta;
+import io.seata.sqlparser.struct.IndexMeta;
+import io.seata.sqlparser.struct.IndexType;
+import io.seata.sqlparser.struct.TableMeta;
+import io.seata.sqlparser.util.JdbcConstants;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+/**
+ * The after image returned by the dml.
+ */
+public class AbstractConnectionProxyTest {
+
+    @Test
+    public void testIsAfterImageReturningSupported() {
+        SQLUpdateRecognizer update = updateRecognizer("name");
+        Assertions.assertTrue(
+            AbstractConnectionProxy.isAfterImageReturningSupported(true, JdbcConstants.POSTGRESQL, update));
+        Assertions.assertFalse(
+            AbstractConnectionProxy.isAfterImageReturningSupported(false, JdbcConstants.POSTGRESQL, update));
+        Assertions.assertFalse(
+            AbstractConnectionProxy.isAfterImageReturningSupported(true, JdbcConstants.MYSQL, update));
+        Assertions.assertFalse(
+            AbstractConnectionProxy.isAfterImageReturningSupported(true, JdbcConstants.ORACLE, update));
+
+        SQLInsertRecognizer insert = Mockito.mock(SQLInsertRecognizer.class);
+        Mockito.when(insert.getSQLType()).thenReturn(SQLType.INSERT);
+        Assertions.assertTrue(
+            AbstractConnectionProxy.isAfterImageReturningSupported(true, JdbcConstants.POSTGRESQL, insert));
+        SQLDeleteRecognizer delete = Mockito.mock(SQLDeleteRecognizer.class);
+        Mockito.when(delete.getSQLType()).thenReturn(SQLType.DELETE);
+        Assertions.assertFalse(
+            AbstractConnectionProxy.isAfterImageReturningSupported(true, JdbcConstants.POSTGRESQL, delete));
+
+        // the driver does not append the requested columns to the returning clause of the dml
+        Mockito.when(update.getOriginalSQL()).thenReturn("update t set name = ? returning id");
+        Assertions.assertFalse(
+            AbstractConnectionProxy.isAfterImageReturningSupported(true, JdbcConstants.POSTGRESQL, update));
+        Mockito.when(insert.getOriginalSQL()).thenReturn("insert into t (id, name) values (?, ?) RETURNING *");
+        Assertions.assertFalse(
+            AbstractConnectionProxy.isAfterImageReturningSupported(true, JdbcConstants.POSTGRESQL, insert));
+    }
+
+    @Test
+    public void testGetReturningColumns() {
+        TableMeta tableMeta = tableMeta();
+        // the primary key first, then the updated columns and the on update columns
+        Assertions.assertArrayEquals(new String[] {"id", "name", "updated"},
+            AbstractConnectionProxy.getReturningColumns(updateRecognizer("name"), tableMeta, true));
+        // the columns prefixed with the table alias
+        Assertions.assertArrayEquals(new String[] {"id", "age", "name", "updated"},
+            AbstractConnectionProxy.getReturningColumns(updateRecognizer("t.name", "t.age"), tableMeta, true));
+        // an unknown column falls back to the query of the after image
+        Assertions.assertNull(
+            AbstractConnectionProxy.getReturningColumns(updateRecognizer("name", "missing"), tableMeta, true));
+
+        SQLInsertRecognizer insert = Mockito.mock(SQLInsertRecognizer.class);
+        Mockito.when(insert.getSQLType()).thenReturn(SQLType.INSERT);
+        Mockito.when(insert.getInsertColumnsUnEscape()).thenReturn(Arrays.asList("id", "name"));
+        Assertions.assertArrayEquals(new String[] {"id", "name", "updated"},
+            AbstractConnectionProxy.getReturningColumns(insert, tableMeta, true));
+    }
+
+    @Test
+    public void testGetReturningColumnsOfAllColumns() {
+        TableMeta tableMeta = tableMeta();
+        // all the columns if not only care the update columns, or the dml does not name its columns
+        Assertions.assertArrayEquals(new String[] {"id", "age", "name", "updated"},
+            AbstractConnectionProxy.getReturningColumns(updateRecognizer("name"), tableMeta, false));
+        Assertions.assertArrayEquals(new String[] {"id", "age", "name", "updated"},
+            AbstractConnectionProxy.getReturningColumns(updateRecognizer("name", "missing"), tableMeta, false));
+
+        SQLInsertRecognizer insert = Mockito.mock(SQLInsertRecognizer.class);
+        Mockito.when(insert.getSQLType()).thenReturn(SQLType.INSERT);
+        Mockito.when(insert.getInsertColumnsUnEscape()).thenReturn(Collections.emptyList());
+        Assertions.assertArrayEquals(new String[] {"id", "age", "name", "updated"},
+            AbstractConnectionProxy.getReturningColumns(insert, tableMeta, true));
+    }
+
+    private static SQLUpdateRecognizer updateRecognizer(String... columns) {
+        SQLUpdateRecognizer update = Mockito.mock(SQLUpdateRecognizer.class);
+        Mockito.when(update.getSQLType()).thenReturn(SQLType.UPDATE);
+        Mockito.when(update.getUpdateColumnsUnEscape()).thenReturn(Arrays.asList(columns));
+        return update;
+    }
+
+    private static TableMeta tableMeta() {
+        TableMeta tableMeta = new TableMeta();
+        tableMeta.setTableName("t");
+        ColumnMeta id = columnMeta("id", false);
+        tableMeta.getAllColumns().put("name", columnMeta("name", false));
+        tableMeta.getAllColumns().put("updated", columnMeta("updated", true));
+        tableMeta.getAllColumns().put("id", id);
+        tableMeta.getAllColumns().put("age", columnMeta("age", false));
+        IndexMeta primary = new IndexMeta();
+        primary.setIndexName("PRIMARY");
+        primary.setIndextype(IndexType.PRIMARY);
+        primary.setValues(Collections.singletonList(id));
+        tableMeta.getAllIndexes().put("PRIMARY", primary);
+        return tableMeta;
+    }
+
+    private static ColumnMeta columnMeta(String name, boolean onUpdate) {
+        ColumnMeta columnMeta = new ColumnMeta();
+        columnMeta.setTableName("t");
+        columnMeta.setColumnName(name);
+        columnMeta.setOnUpdate(onUpdate);
+        return columnMeta;
+    }
+}
@@ -19,15 +19,25 @@ package io.seata.rm.datasource;
 import io.seata.core.model.BranchStatus;
 import org.junit.jupiter.api.Test;
 
+import java.sql.SQLException;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 class AsyncWorkerTest {
 
@@ -46,6 +56,57 @@ class AsyncWorkerTest {
         assertDoesNotThrow(worker::doBranchCommitSafely, "this method should never throw anything");
     }
 
+    @Test
+    void deadLetter() {
+        DataSourceManager dataSourceManager = mock(DataSourceManager.class);
+        when(dataSourceManager.get(anyString())).thenReturn(null);
+        AsyncWorker asyncWorker = new AsyncWorker(dataSourceManager);
+        for (int i = 0; i < 10; i++) {
+            asyncWorker.branchCommit("test", i, "missing");
+        }
+        asyncWorker.doBranchCommitSafely();
+        assertEquals(0, asyncWorker.getQueueDepth());
+        // the contexts of the missing resource wait for the backoff instead of requeueing at once
+        assertEquals(10, asyncWorker.getDeadLetterDepth());
+        asyncWorker.doBranchCommitSafely();
+        assertEquals(10, asyncWorker.getDeadLetterDepth());
+    }
+
+    @Test
+    void busyWorkers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Set<Thread> deleteThreads = ConcurrentHashMap.newKeySet();
+        DataSourceProxy dataSourceProxy = mock(DataSourceProxy.class);
+        when(dataSourceProxy.getPlainConnection()).thenAnswer(invocation -> {
+            deleteThreads.add(Thread.currentThread());
+            release.await(10, TimeUnit.SECONDS);
+            throw new SQLException("released");
+        });
+        DataSourceManager dataSourceManager = mock(DataSourceManager.class);
+        when(dataSourceManager.get(anyString())).thenReturn(dataSourceProxy);
+        AsyncWorker asyncWorker = new AsyncWorker(dataSourceManager);
+        try {
+            // far more batches than the blocked workers of the resource and their queue can hold
+            for (int round = 0; round < 2; round++) {
+                for (int i = 0; i < 10000; i++) {
+                    asyncWorker.branchCommit("test", i, "slow");
+                }
+                asyncWorker.doBranchCommitSafely();
+            }
+            long deadline = System.currentTimeMillis() + 5000;
+            while (asyncWorker.getDeadLetterDepth() < 9000 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            // the rejected batches are parked for a later round instead of being deleted by the dispatcher
+            assertTrue(asyncWorker.getDeadLetterDepth() >= 9000);
+            // only the single worker of the resource deletes, neither the caller nor the dispatcher thread
+            assertEquals(1, deleteThreads.size());
+            assertFalse(deleteThreads.contains(Thread.currentThread()));
+        } finally {
+            release.countDown();
+        }
+    }
+
     @Test
     void groupedByResourceId() {
         List<AsyncWorker.Phase2Context> contexts = getRandomContexts();
@@ -159,6 +159,38 @@ public class DataCompareUtilsTest {
         Assertions.assertFalse(DataCompareUtils.isRowsEquals(tableMeta, rows, rows2).getResult());
     }
 
+    @Test
+    public void isRowsEqualsOutOfOrder() {
+        TableMeta tableMeta = Mockito.mock(TableMeta.class);
+        Mockito.when(tableMeta.getPrimaryKeyOnlyName()).thenReturn(Arrays.asList("id1", "id2"));
+
+        List<Row> rows = new ArrayList<>();
+        List<Row> rows2 = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Row row = new Row();
+            addField(row, "id1", 1, "1");
+            addField(row, "id2", 1, String.valueOf(i));
+            addField(row, "name", 1, "name" + i);
+            rows.add(row);
+
+            // the rows and the columns in another order, the column names in another case
+            Row row2 = new Row();
+            addField(row2, "NAME", 1, "name" + i);
+            addField(row2, "ID2", 1, String.valueOf(i));
+            addField(row2, "ID1", 1, "1");
+            rows2.add(0, row2);
+        }
+        Assertions.assertTrue(DataCompareUtils.isRowsEquals(tableMeta, rows, rows2).getResult());
+
+        rows2.get(0).getFields().get(0).setValue("name");
+        Assertions.assertFalse(DataCompareUtils.isRowsEquals(tableMeta, rows, rows2).getResult());
+        rows2.get(0).getFields().get(0).setValue("name2");
+        Assertions.assertTrue(DataCompareUtils.isRowsEquals(tableMeta, rows, rows2).getResult());
+
+        rows2.get(1).getFields().get(1).setValue("3");
+        Assertions.assertFalse(DataCompareUtils.isRowsEquals(tableMeta, rows, rows2).getResult());
+    }
+
     @Test
     public void testRowListToMapWithSinglePk(){
         List<String> primaryKeyList = new ArrayList<>();
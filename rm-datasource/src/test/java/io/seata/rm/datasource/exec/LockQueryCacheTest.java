@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.rm.datasource.exec;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.seata.core.exception.TransactionException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class LockQueryCacheTest {
+
+    private static final String RESOURCE_ID = "jdbc:mysql://127.0.0.1:3306/seata";
+
+    private static final String LOCK_KEYS = "t:1,2";
+
+    @Test
+    public void testCoalesceInFlightQuery() throws Exception {
+        LockQueryCache cache = new LockQueryCache(0);
+        AtomicInteger queries = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> lockQuery(cache, () -> {
+            queries.incrementAndGet();
+            started.countDown();
+            Assertions.assertTrue(release.await(5, TimeUnit.SECONDS));
+            return true;
+        }));
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> second = CompletableFuture.supplyAsync(() -> lockQuery(cache, () -> {
+            queries.incrementAndGet();
+            return true;
+        }));
+        // the second waits for the query of the first
+        Thread.sleep(100);
+        Assertions.assertFalse(second.isDone());
+        release.countDown();
+
+        Assertions.assertTrue(first.get(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(second.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, queries.get());
+    }
+
+    @Test
+    public void testCacheConflict() throws TransactionException {
+        LockQueryCache cache = new LockQueryCache(TimeUnit.MINUTES.toMillis(1));
+        AtomicInteger queries = new AtomicInteger();
+        LockQueryCache.LockQuery conflict = () -> {
+            queries.incrementAndGet();
+            return false;
+        };
+        Assertions.assertFalse(cache.lockQuery(RESOURCE_ID, null, LOCK_KEYS, conflict));
+        Assertions.assertFalse(cache.lockQuery(RESOURCE_ID, null, LOCK_KEYS, conflict));
+        Assertions.assertEquals(1, queries.get());
+
+        // another xid is not the same query
+        Assertions.assertFalse(cache.lockQuery(RESOURCE_ID, "xid", LOCK_KEYS, conflict));
+        Assertions.assertEquals(2, queries.get());
+
+        // the rows released do not conflict with the query
+        cache.release(RESOURCE_ID, LockQueryCache.toRowKeys("t:3;t2:1"));
+        Assertions.assertFalse(cache.lockQuery(RESOURCE_ID, null, LOCK_KEYS, conflict));
+        Assertions.assertEquals(2, queries.get());
+
+        // the conflicts are cleared when a branch of the conflicting rows is committed
+        cache.registerBranch(RESOURCE_ID, 1L, "t2:1;t:2");
+        cache.releaseBranch(1L);
+        Assertions.assertTrue(cache.lockQuery(RESOURCE_ID, null, LOCK_KEYS, () -> true));
+        Assertions.assertTrue(cache.lockQuery(RESOURCE_ID, null, LOCK_KEYS, () -> true));
+    }
+
+    @Test
+    public void testNotCacheConflictReleasedDuringQuery() throws TransactionException {
+        LockQueryCache cache = new LockQueryCache(TimeUnit.MINUTES.toMillis(1));
+        Assertions.assertFalse(cache.lockQuery(RESOURCE_ID, null, LOCK_KEYS, () -> {
+            cache.release(RESOURCE_ID, LockQueryCache.toRowKeys("t:1"));
+            return false;
+        }));
+        Assertions.assertTrue(cache.lockQuery(RESOURCE_ID, null, LOCK_KEYS, () -> true));
+    }
+
+    @Test
+    public void testAwaitRelease() throws Exception {
+        LockQueryCache cache = new LockQueryCache(0);
+        long start = System.nanoTime();
+        cache.awaitRelease(RESOURCE_ID, LOCK_KEYS, 50);
+        Assertions.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+
+        CompletableFuture<Void> waiter = awaitRelease(cache);
+        Thread.sleep(100);
+        // the same rows of another resource and other rows of the resource do not wake it up
+        cache.release("another", LockQueryCache.toRowKeys(LOCK_KEYS));
+        cache.release(RESOURCE_ID, LockQueryCache.toRowKeys("t:3;t2:1"));
+        Thread.sleep(100);
+        Assertions.assertFalse(waiter.isDone());
+        cache.registerBranch(RESOURCE_ID, 1L, "t:2");
+        cache.releaseBranch(1L);
+        waiter.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testNotReleaseRolledBackBranch() throws Exception {
+        LockQueryCache cache = new LockQueryCache(TimeUnit.MINUTES.toMillis(1));
+        Assertions.assertFalse(cache.lockQuery(RESOURCE_ID, null, LOCK_KEYS, () -> false));
+        CompletableFuture<Void> waiter = awaitRelease(cache);
+        Thread.sleep(100);
+
+        // the TC releases the locks of a rolled back branch after the response
+        cache.registerBranch(RESOURCE_ID, 1L, LOCK_KEYS);
+        cache.forgetBranch(1L);
+        cache.releaseBranch(1L);
+        Thread.sleep(100);
+        Assertions.assertFalse(waiter.isDone());
+        Assertions.assertFalse(cache.lockQuery(RESOURCE_ID, null, LOCK_KEYS, () -> true));
+        cache.release(RESOURCE_ID, LockQueryCache.toRowKeys(LOCK_KEYS));
+        waiter.get(5, TimeUnit.SECONDS);
+    }
+
+    private static CompletableFuture<Void> awaitRelease(LockQueryCache cache) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                cache.awaitRelease(RESOURCE_ID, LOCK_KEYS, TimeUnit.MINUTES.toMillis(1));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private static boolean lockQuery(LockQueryCache cache, InterruptibleLockQuery lockQuery) {
+        try {
+            return cache.lockQuery(RESOURCE_ID, null, LOCK_KEYS, () -> {
+                try {
+                    return lockQuery.query();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        } catch (TransactionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface InterruptibleLockQuery {
+        boolean query() throws InterruptedException;
+    }
+}
@@ -20,6 +20,7 @@ import io.seata.rm.datasource.ConnectionProxy;
 import io.seata.rm.datasource.PreparedStatementProxy;
 import io.seata.rm.datasource.StatementProxy;
 import io.seata.rm.datasource.exec.postgresql.PostgresqlInsertExecutor;
+import io.seata.rm.datasource.sql.struct.TableRecords;
 import io.seata.sqlparser.struct.ColumnMeta;
 import io.seata.sqlparser.struct.TableMeta;
 import io.seata.sqlparser.SQLInsertRecognizer;
@@ -30,7 +31,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -290,6 +294,56 @@ public class PostgresqlInsertExecutorTest {
         Assertions.assertTrue(insertExecutor.containsAnyPk());
     }
 
+    @Test
+    public void testAfterImageByReturning() throws SQLException {
+        Map<String, List<Object>> pkValues = new HashMap<>();
+        pkValues.put(ID_COLUMN, Arrays.<Object>asList(PK_VALUE_ID, PK_VALUE_ID + 1));
+        doReturn(pkValues).when(insertExecutor).getPkValues();
+        doReturn(tableMeta).when(insertExecutor).getTableMeta();
+        when(tableMeta.getCaseInsensitivePKs()).thenReturn(Collections.singleton(ID_COLUMN));
+        when(tableMeta.getColumnMeta(ID_COLUMN)).thenReturn(columnMeta(ID_COLUMN, Types.INTEGER));
+        when(tableMeta.getColumnMeta(USER_NAME_COLUMN)).thenReturn(columnMeta(USER_NAME_COLUMN, Types.VARCHAR));
+        when(statementProxy.getReturningColumns()).thenReturn(new String[] {ID_COLUMN, USER_NAME_COLUMN});
+
+        ResultSet returningRows = mockReturningRows(new Object[][] {{PK_VALUE_ID, "a"}, {PK_VALUE_ID + 1, "b"}});
+        when(statementProxy.getGeneratedKeys()).thenReturn(returningRows);
+        TableRecords afterImage = insertExecutor.afterImage(TableRecords.empty(tableMeta));
+        Assertions.assertEquals(2, afterImage.size());
+        Assertions.assertEquals(PK_VALUE_ID + 1, afterImage.getRows().get(1).getFields().get(0).getValue());
+        Assertions.assertEquals("b", afterImage.getRows().get(1).getFields().get(1).getValue());
+        // reset for the caller
+        verify(returningRows).beforeFirst();
+        verify(insertExecutor, Mockito.never()).buildTableRecords(pkValues);
+
+        // fewer rows returned than inserted, query the after image
+        returningRows = mockReturningRows(new Object[][] {{PK_VALUE_ID, "a"}});
+        when(statementProxy.getGeneratedKeys()).thenReturn(returningRows);
+        TableRecords queried = new TableRecords(tableMeta);
+        doReturn(queried).when(insertExecutor).buildTableRecords(pkValues);
+        Assertions.assertSame(queried, insertExecutor.afterImage(TableRecords.empty(tableMeta)));
+    }
+
+    private static ColumnMeta columnMeta(String columnName, int dataType) {
+        ColumnMeta columnMeta = new ColumnMeta();
+        columnMeta.setColumnName(columnName);
+        columnMeta.setDataType(dataType);
+        return columnMeta;
+    }
+
+    private static ResultSet mockReturningRows(Object[][] rows) throws SQLException {
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(2);
+        when(metaData.getColumnName(1)).thenReturn(ID_COLUMN);
+        when(metaData.getColumnName(2)).thenReturn(USER_NAME_COLUMN);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        int[] cursor = {-1};
+        when(resultSet.next()).thenAnswer(invocation -> ++cursor[0] < rows.length);
+        when(resultSet.getObject(Mockito.anyInt()))
+            .thenAnswer(invocation -> rows[cursor[0]][(int) invocation.getArgument(0) - 1]);
+        return resultSet;
+    }
+
     private void mockParametersPkWithDefault() {
         Map<Integer, ArrayList<Object>> parameters = new HashMap<>(4);
         ArrayList arrayList0 = new ArrayList<>();
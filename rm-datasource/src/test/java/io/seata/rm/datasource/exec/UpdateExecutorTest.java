@@ -17,6 +17,8 @@
 package io.seata.rm.datasource.exec;
 
 import java.lang.reflect.Field;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Types;
 import java.util.ArrayList;
@@ -40,6 +42,7 @@ import io.seata.sqlparser.druid.mysql.MySQLUpdateRecognizer;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 
 /**
  */
@@ -109,6 +112,63 @@ public class UpdateExecutorTest {
         Assertions.assertNotNull(afterImage);
     }
 
+    @Test
+    public void testAfterImageByReturning() throws SQLException {
+        String sql = "update table_update_executor_test set name = 'WILL'";
+        List<SQLStatement> asts = SQLUtils.parseStatements(sql, JdbcConstants.MYSQL);
+        MySQLUpdateRecognizer recognizer = new MySQLUpdateRecognizer(sql, asts.get(0));
+        StatementProxy returningStatementProxy = Mockito.spy(statementProxy);
+        Mockito.doReturn(new String[] {"id", "name"}).when(returningStatementProxy).getReturningColumns();
+        UpdateExecutor executor = new UpdateExecutor(returningStatementProxy, (statement, args) -> null, recognizer);
+        TableRecords beforeImage = executor.beforeImage();
+        Assertions.assertEquals(2, beforeImage.size());
+
+        ResultSet returningRows = mockReturningRows(new Object[][] {{1, "WILL"}, {2, "WILL"}});
+        Mockito.doReturn(returningRows).when(returningStatementProxy).getGeneratedKeys();
+        TableRecords afterImage = executor.afterImage(beforeImage);
+        Assertions.assertEquals(2, afterImage.size());
+        Assertions.assertEquals("WILL", afterImage.getRows().get(0).getFields().get(1).getValue());
+        Assertions.assertEquals("WILL", afterImage.getRows().get(1).getFields().get(1).getValue());
+        // reset for the caller
+        Mockito.verify(returningRows).beforeFirst();
+
+        // the returned rows are not the rows of the before image, query the after image
+        returningRows = mockReturningRows(new Object[][] {{1, "WILL"}});
+        Mockito.doReturn(returningRows).when(returningStatementProxy).getGeneratedKeys();
+        afterImage = executor.afterImage(beforeImage);
+        Assertions.assertEquals(2, afterImage.size());
+
+        // as many rows as the before image, but another primary key, query the after image
+        returningRows = mockReturningRows(new Object[][] {{1, "WILL"}, {3, "WILL"}});
+        Mockito.doReturn(returningRows).when(returningStatementProxy).getGeneratedKeys();
+        afterImage = executor.afterImage(beforeImage);
+        Assertions.assertEquals(2, afterImage.size());
+        Assertions.assertEquals(2, afterImage.getRows().get(1).getFields().get(0).getValue());
+        Assertions.assertEquals("Jack", afterImage.getRows().get(1).getFields().get(1).getValue());
+
+        // the returned rows lack a requested column, e.g. by a returning clause of the dml, query the after image
+        Mockito.doReturn(new String[] {"id", "name", "age"}).when(returningStatementProxy).getReturningColumns();
+        returningRows = mockReturningRows(new Object[][] {{1, "WILL"}, {2, "WILL"}});
+        Mockito.doReturn(returningRows).when(returningStatementProxy).getGeneratedKeys();
+        afterImage = executor.afterImage(beforeImage);
+        Assertions.assertEquals(2, afterImage.size());
+        Assertions.assertEquals("Jack", afterImage.getRows().get(1).getFields().get(1).getValue());
+    }
+
+    private static ResultSet mockReturningRows(Object[][] rows) throws SQLException {
+        ResultSetMetaData metaData = Mockito.mock(ResultSetMetaData.class);
+        Mockito.when(metaData.getColumnCount()).thenReturn(2);
+        Mockito.when(metaData.getColumnName(1)).thenReturn("id");
+        Mockito.when(metaData.getColumnName(2)).thenReturn("name");
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(resultSet.getMetaData()).thenReturn(metaData);
+        int[] cursor = {-1};
+        Mockito.when(resultSet.next()).thenAnswer(invocation -> ++cursor[0] < rows.length);
+        Mockito.when(resultSet.getObject(Mockito.anyInt()))
+            .thenAnswer(invocation -> rows[cursor[0]][(int) invocation.getArgument(0) - 1]);
+        return resultSet;
+    }
+
     @Test
     public void testBeforeAndAfterImageWithTableAlias() throws SQLException {
         Assertions.assertNotNull(updateExecutor.beforeImage());
@@ -317,4 +317,32 @@ public class SQLVisitorFactoryTest {
         Assertions.assertEquals(SQLType.UPDATE, recognizer.getSQLType());
         Assertions.assertEquals("t1", recognizer.getTableName());
     }
+
+    @Test
+    public void testSqlRecognizerCache() {
+        String sql = "update t2 set name = ? where id = ?";
+        long missCount = SQLVisitorFactory.getCacheMissCount();
+        long hitCount = SQLVisitorFactory.getCacheHitCount();
+        List<SQLRecognizer> recognizers = SQLVisitorFactory.get(sql, JdbcConstants.MYSQL);
+        Assertions.assertSame(recognizers, SQLVisitorFactory.get(sql, JdbcConstants.MYSQL));
+        Assertions.assertEquals(missCount + 1, SQLVisitorFactory.getCacheMissCount());
+        Assertions.assertEquals(hitCount + 1, SQLVisitorFactory.getCacheHitCount());
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> recognizers.remove(0));
+
+        // the same sql of another db type is parsed by its own recognizer
+        Assertions.assertEquals(MariadbUpdateRecognizer.class.getName(),
+            SQLVisitorFactory.get(sql, JdbcConstants.MARIADB).get(0).getClass().getName());
+        // the sql text is the key as is, the literal values are never shared
+        Assertions.assertNotSame(recognizers, SQLVisitorFactory.get("update t2 set name = 'a' where id = ?", JdbcConstants.MYSQL));
+
+        // the sql without recognizer is cached too
+        Assertions.assertNull(SQLVisitorFactory.get("select * from t2 where id = ?", JdbcConstants.MYSQL));
+        hitCount = SQLVisitorFactory.getCacheHitCount();
+        Assertions.assertNull(SQLVisitorFactory.get("select * from t2 where id = ?", JdbcConstants.MYSQL));
+        Assertions.assertEquals(hitCount + 1, SQLVisitorFactory.getCacheHitCount());
+
+        // the parse failure is never cached
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> SQLVisitorFactory.get("", JdbcConstants.MYSQL));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> SQLVisitorFactory.get("", JdbcConstants.MYSQL));
+    }
 }
@@ -16,6 +16,7 @@
  */
 package io.seata.rm.datasource.undo;
 
+import io.seata.rm.datasource.ConnectionProxy;
 import io.seata.rm.datasource.SqlGenerateUtils;
 import io.seata.sqlparser.SQLType;
 import io.seata.rm.datasource.sql.struct.Field;
@@ -158,6 +159,143 @@ public class AbstractUndoExecutorTest extends BaseH2Test {
         Assertions.assertFalse(spy.dataValidationAndGoOn(connection));
     }
 
+    @Test
+    public void testUndoInBatch() throws SQLException {
+        execSQL("INSERT INTO table_name(id, name) VALUES (12345,'aaa');");
+        execSQL("INSERT INTO table_name(id, name) VALUES (12346,'aaa');");
+        execSQL("INSERT INTO table_name(id, name) VALUES (12347,'aaa');");
+
+        // two updates of different rows and the third one updates a row again
+        SQLUndoLog sqlUndoLog1 = updateUndoLog("12345, 12346", "bbb");
+        SQLUndoLog sqlUndoLog2 = updateUndoLog("12347", "bbb");
+        SQLUndoLog sqlUndoLog3 = updateUndoLog("12345", "ccc");
+
+        BatchTestUndoExecutor executor1 = new BatchTestUndoExecutor(sqlUndoLog1, false);
+        BatchTestUndoExecutor executor2 = new BatchTestUndoExecutor(sqlUndoLog2, false);
+        BatchTestUndoExecutor executor3 = new BatchTestUndoExecutor(sqlUndoLog3, false);
+        Assertions.assertTrue(executor3.canUndoTogether(executor2));
+        Assertions.assertTrue(executor2.canUndoTogether(executor1));
+
+        // undo in the reverse order
+        AbstractUndoExecutor.executeOn(connection, Arrays.asList(executor3, executor2, executor1));
+
+        TableRecords currentRecords = execQuery(tableMeta, "SELECT * FROM table_name WHERE name = 'aaa';");
+        Assertions.assertEquals(3, currentRecords.size());
+    }
+
+    @Test
+    public void testUndoByMultiRowSQL() throws SQLException {
+        TableRecords beforeImage = execQuery(tableMeta, "SELECT * FROM table_name WHERE id IN (12345, 12346, 12347);");
+
+        execSQL("INSERT INTO table_name(id, name) VALUES (12345,'aaa');");
+        execSQL("INSERT INTO table_name(id, name) VALUES (12346,'aaa');");
+        execSQL("INSERT INTO table_name(id, name) VALUES (12347,'aaa');");
+
+        TableRecords afterImage = execQuery(tableMeta, "SELECT * FROM table_name WHERE id IN (12345, 12346, 12347);");
+
+        SQLUndoLog sqlUndoLog = new SQLUndoLog();
+        sqlUndoLog.setSqlType(SQLType.INSERT);
+        sqlUndoLog.setTableMeta(tableMeta);
+        sqlUndoLog.setTableName("table_name");
+        sqlUndoLog.setBeforeImage(beforeImage);
+        sqlUndoLog.setAfterImage(afterImage);
+
+        BatchTestUndoExecutor executor = new BatchTestUndoExecutor(sqlUndoLog, true);
+        executor.executeOn(connection);
+
+        TableRecords currentRecords = execQuery(tableMeta, "SELECT * FROM table_name WHERE id IN (12345, 12346, 12347);");
+        Assertions.assertEquals(0, currentRecords.size());
+    }
+
+    @Test
+    public void testQueryCurrentRowsInChunks() throws SQLException {
+        StringBuilder values = new StringBuilder();
+        StringBuilder ids1 = new StringBuilder();
+        StringBuilder ids2 = new StringBuilder();
+        for (int id = 1; id <= 1100; id++) {
+            values.append(id == 1 ? "" : ",").append("(").append(id).append(",'aaa')");
+            StringBuilder ids = id <= 600 ? ids1 : ids2;
+            ids.append(ids.length() == 0 ? "" : ",").append(id);
+        }
+        execSQL("INSERT INTO table_name(id, name) VALUES " + values + ";");
+
+        CheckCountingUndoExecutor executor1 = new CheckCountingUndoExecutor(updateUndoLog(ids1.toString(), "bbb"));
+        CheckCountingUndoExecutor executor2 = new CheckCountingUndoExecutor(updateUndoLog(ids2.toString(), "bbb"));
+
+        // 1100 rows are queried by two check sqls of 1000 rows at most
+        Map<List<String>, Row> currentRows = executor1.queryCurrentRows(connection, Arrays.asList(executor1, executor2));
+        Assertions.assertEquals(2, executor1.checkSqlCount);
+        Assertions.assertEquals(1100, currentRows.size());
+        Assertions.assertEquals("bbb", currentRows.get(Collections.singletonList("1100")).nonPrimaryKeys().get(0).getValue());
+
+        Assertions.assertTrue(executor1.dataValidationAndGoOn(connection, currentRows));
+        Assertions.assertTrue(executor2.dataValidationAndGoOn(connection, currentRows));
+        Assertions.assertEquals(0, executor1.queryCount);
+        Assertions.assertEquals(0, executor2.queryCount);
+    }
+
+    @Test
+    public void testDataValidationWithSharedQuery() throws SQLException {
+        execSQL("INSERT INTO table_name(id, name) VALUES (12345,'aaa');");
+        execSQL("INSERT INTO table_name(id, name) VALUES (12346,'aaa');");
+        execSQL("INSERT INTO table_name(id, name) VALUES (12347,'aaa');");
+
+        CheckCountingUndoExecutor executor1 = new CheckCountingUndoExecutor(updateUndoLog("12345, 12346", "bbb"));
+        CheckCountingUndoExecutor executor2 = new CheckCountingUndoExecutor(updateUndoLog("12347", "bbb"));
+
+        // dirty data of the second executor: after:bbb -> current:yyy
+        execSQL("update table_name set name = 'yyy' where id = 12347;");
+
+        Map<List<String>, Row> currentRows = executor1.queryCurrentRows(connection, Arrays.asList(executor1, executor2));
+        Assertions.assertEquals(1, executor1.checkSqlCount);
+        Assertions.assertEquals(3, currentRows.size());
+
+        Assertions.assertTrue(executor1.dataValidationAndGoOn(connection, currentRows));
+        Assertions.assertThrows(SQLUndoDirtyException.class,
+            () -> executor2.dataValidationAndGoOn(connection, currentRows));
+        // the dirty row is detected by the shared query, not by a query of its own
+        Assertions.assertEquals(0, executor1.queryCount);
+        Assertions.assertEquals(0, executor2.queryCount);
+    }
+
+    @Test
+    public void testDataValidationFallbackOnPkMiss() throws SQLException {
+        execSQL("INSERT INTO table_name(id, name) VALUES (12345,'aaa');");
+        execSQL("INSERT INTO table_name(id, name) VALUES (12346,'aaa');");
+
+        CheckCountingUndoExecutor executor = new CheckCountingUndoExecutor(updateUndoLog("12345, 12346", "bbb"));
+
+        // the pk values of the shared query are in another form than the ones of the undo rows
+        Map<List<String>, Row> currentRows = executor.queryCurrentRows(connection, Collections.singletonList(executor));
+        Map<List<String>, Row> otherFormRows = new HashMap<>();
+        for (Map.Entry<List<String>, Row> entry : currentRows.entrySet()) {
+            otherFormRows.put(Collections.singletonList(entry.getKey().get(0) + ".0"), entry.getValue());
+        }
+        Assertions.assertTrue(executor.dataValidationAndGoOn(connection, otherFormRows));
+        Assertions.assertEquals(1, executor.queryCount);
+
+        // the rows queried by itself are validated as well: after:bbb -> current:yyy
+        execSQL("update table_name set name = 'yyy' where id = 12346;");
+        Assertions.assertThrows(SQLUndoDirtyException.class,
+            () -> executor.dataValidationAndGoOn(connection, otherFormRows));
+        Assertions.assertEquals(2, executor.queryCount);
+    }
+
+    private SQLUndoLog updateUndoLog(String ids, String name) throws SQLException {
+        String query = "SELECT * FROM table_name WHERE id IN (" + ids + ");";
+        TableRecords beforeImage = execQuery(tableMeta, query);
+        execSQL("update table_name set name = '" + name + "' where id in (" + ids + ");");
+        TableRecords afterImage = execQuery(tableMeta, query);
+
+        SQLUndoLog sqlUndoLog = new SQLUndoLog();
+        sqlUndoLog.setSqlType(SQLType.UPDATE);
+        sqlUndoLog.setTableMeta(tableMeta);
+        sqlUndoLog.setTableName("table_name");
+        sqlUndoLog.setBeforeImage(beforeImage);
+        sqlUndoLog.setAfterImage(afterImage);
+        return sqlUndoLog;
+    }
+
     @Test
     public void testParsePK() {
         TableMeta tableMeta = Mockito.mock(TableMeta.class);
@@ -253,3 +391,56 @@ class TestUndoExecutor extends AbstractUndoExecutor {
         return isDelete ? sqlUndoLog.getBeforeImage() : sqlUndoLog.getAfterImage();
     }
 }
+
+class CheckCountingUndoExecutor extends TestUndoExecutor {
+    int checkSqlCount;
+    int queryCount;
+
+    public CheckCountingUndoExecutor(SQLUndoLog sqlUndoLog) {
+        super(sqlUndoLog, false);
+    }
+
+    @Override
+    protected String buildCheckSql(String tableName, String whereCondition) {
+        checkSqlCount++;
+        return super.buildCheckSql(tableName, whereCondition);
+    }
+
+    @Override
+    protected TableRecords queryCurrentRecords(ConnectionProxy connectionProxy) throws SQLException {
+        queryCount++;
+        return super.queryCurrentRecords(connectionProxy);
+    }
+}
+
+class BatchTestUndoExecutor extends AbstractUndoExecutor {
+    private final boolean isInsert;
+    public BatchTestUndoExecutor(SQLUndoLog sqlUndoLog, boolean isInsert) {
+        super(sqlUndoLog);
+        this.isInsert = isInsert;
+    }
+
+    @Override
+    protected String buildUndoSQL() {
+        return isInsert ? "DELETE FROM table_name WHERE ID = ?" : "UPDATE table_name SET NAME = ? WHERE ID = ?";
+    }
+
+    @Override
+    protected String buildMultiRowUndoSQL(int rowSize) throws SQLException {
+        if (!isInsert) {
+            return null;
+        }
+        return "DELETE FROM table_name WHERE "
+            + SqlGenerateUtils.buildWhereConditionByPKs(Collections.singletonList("ID"), rowSize, "h2");
+    }
+
+    @Override
+    protected boolean isBatchUndoSupported() {
+        return true;
+    }
+
+    @Override
+    protected TableRecords getUndoRows() {
+        return isInsert ? sqlUndoLog.getAfterImage() : sqlUndoLog.getBeforeImage();
+    }
+}
@@ -41,6 +41,8 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Types;
 import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
 
 import static org.mockito.ArgumentMatchers.anyString;
 
@@ -116,6 +118,9 @@ public abstract class BaseH2Test {
     protected static TableMeta mockTableMeta() {
         TableMeta tableMeta = Mockito.mock(TableMeta.class);
         Mockito.when(tableMeta.getPrimaryKeyOnlyName()).thenReturn(Arrays.asList(new String[]{"ID"}));
+        Set<String> caseInsensitivePKs = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        caseInsensitivePKs.add("ID");
+        Mockito.when(tableMeta.getCaseInsensitivePKs()).thenReturn(caseInsensitivePKs);
         Mockito.when(tableMeta.getEscapePkNameList("h2")).thenReturn(Arrays.asList(new String[]{"ID"}));
         Mockito.when(tableMeta.getTableName()).thenReturn("table_name");
         ColumnMeta meta0 = Mockito.mock(ColumnMeta.class);
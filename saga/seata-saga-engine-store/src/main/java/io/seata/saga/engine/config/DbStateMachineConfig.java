@@ -28,6 +28,8 @@ import io.seata.saga.engine.impl.DefaultStateMachineConfig;
 import io.seata.saga.engine.serializer.impl.ParamsSerializer;
 import io.seata.saga.engine.store.db.DbAndReportTcStateLogStore;
 import io.seata.saga.engine.store.db.DbStateLangStore;
+import io.seata.saga.engine.store.db.StateLogBatchWriter;
+import io.seata.saga.engine.store.db.StateLogPersistMode;
 import io.seata.saga.tm.DefaultSagaTransactionalTemplate;
 import io.seata.saga.tm.SagaTransactionalTemplate;
 import org.slf4j.Logger;
@@ -39,6 +41,9 @@ import static io.seata.common.DefaultValues.DEFAULT_CLIENT_REPORT_SUCCESS_ENABLE
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_BRANCH_REGISTER_ENABLE;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_COMPENSATE_PERSIST_MODE_UPDATE;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_RETRY_PERSIST_MODE_UPDATE;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_STATE_LOG_BATCH_SIZE;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_STATE_LOG_BATCH_WINDOW;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_STATE_LOG_PERSIST_MODE;
 import static io.seata.common.DefaultValues.DEFAULT_SAGA_JSON_PARSER;
 
 /**
@@ -59,7 +64,10 @@ public class DbStateMachineConfig extends DefaultStateMachineConfig implements D
     private SagaTransactionalTemplate sagaTransactionalTemplate;
     private boolean rmReportSuccessEnable = DEFAULT_CLIENT_REPORT_SUCCESS_ENABLE;
     private boolean sagaBranchRegisterEnable = DEFAULT_CLIENT_SAGA_BRANCH_REGISTER_ENABLE;
-
+    private String sagaStateLogPersistMode = DEFAULT_CLIENT_SAGA_STATE_LOG_PERSIST_MODE;
+    private int sagaStateLogBatchSize = DEFAULT_CLIENT_SAGA_STATE_LOG_BATCH_SIZE;
+    private int sagaStateLogBatchWindow = DEFAULT_CLIENT_SAGA_STATE_LOG_BATCH_WINDOW;
+    private StateLogBatchWriter stateLogBatchWriter;
 
     public DbStateMachineConfig() {
         try {
@@ -76,6 +84,12 @@ public class DbStateMachineConfig extends DefaultStateMachineConfig implements D
                     DEFAULT_CLIENT_SAGA_RETRY_PERSIST_MODE_UPDATE));
                 setSagaCompensatePersistModeUpdate(configuration.getBoolean(ConfigurationKeys.CLIENT_SAGA_COMPENSATE_PERSIST_MODE_UPDATE,
                     DEFAULT_CLIENT_SAGA_COMPENSATE_PERSIST_MODE_UPDATE));
+                this.sagaStateLogPersistMode = configuration.getConfig(ConfigurationKeys.CLIENT_SAGA_STATE_LOG_PERSIST_MODE,
+                    DEFAULT_CLIENT_SAGA_STATE_LOG_PERSIST_MODE);
+                this.sagaStateLogBatchSize = configuration.getInt(ConfigurationKeys.CLIENT_SAGA_STATE_LOG_BATCH_SIZE,
+                    DEFAULT_CLIENT_SAGA_STATE_LOG_BATCH_SIZE);
+                this.sagaStateLogBatchWindow = configuration.getInt(ConfigurationKeys.CLIENT_SAGA_STATE_LOG_BATCH_WINDOW,
+                    DEFAULT_CLIENT_SAGA_STATE_LOG_BATCH_WINDOW);
             }
         } catch (Exception e) {
             LOGGER.warn("Load SEATA configuration failed, use default configuration instead.", e);
@@ -102,6 +116,13 @@ public class DbStateMachineConfig extends DefaultStateMachineConfig implements D
             dbStateLogStore.setDefaultTenantId(getDefaultTenantId());
             dbStateLogStore.setSeqGenerator(getSeqGenerator());
 
+            StateLogPersistMode persistMode = StateLogPersistMode.get(sagaStateLogPersistMode);
+            dbStateLogStore.setPersistMode(persistMode);
+            if (persistMode != StateLogPersistMode.SYNC) {
+                stateLogBatchWriter = new StateLogBatchWriter(dataSource, sagaStateLogBatchSize, sagaStateLogBatchWindow);
+                dbStateLogStore.setStateLogBatchWriter(stateLogBatchWriter);
+            }
+
             if (StringUtils.hasLength(getSagaJsonParser())) {
                 ParamsSerializer paramsSerializer = new ParamsSerializer();
                 paramsSerializer.setJsonParserName(getSagaJsonParser());
@@ -139,6 +160,9 @@ public class DbStateMachineConfig extends DefaultStateMachineConfig implements D
 
     @Override
     public void destroy() throws Exception {
+        if (stateLogBatchWriter != null) {
+            stateLogBatchWriter.shutdown();
+        }
         if ((sagaTransactionalTemplate != null) && (sagaTransactionalTemplate instanceof DisposableBean)) {
             ((DisposableBean) sagaTransactionalTemplate).destroy();
         }
@@ -219,4 +243,28 @@ public class DbStateMachineConfig extends DefaultStateMachineConfig implements D
     public void setRmReportSuccessEnable(boolean rmReportSuccessEnable) {
         this.rmReportSuccessEnable = rmReportSuccessEnable;
     }
+
+    public String getSagaStateLogPersistMode() {
+        return sagaStateLogPersistMode;
+    }
+
+    public void setSagaStateLogPersistMode(String sagaStateLogPersistMode) {
+        this.sagaStateLogPersistMode = sagaStateLogPersistMode;
+    }
+
+    public int getSagaStateLogBatchSize() {
+        return sagaStateLogBatchSize;
+    }
+
+    public void setSagaStateLogBatchSize(int sagaStateLogBatchSize) {
+        this.sagaStateLogBatchSize = sagaStateLogBatchSize;
+    }
+
+    public int getSagaStateLogBatchWindow() {
+        return sagaStateLogBatchWindow;
+    }
+
+    public void setSagaStateLogBatchWindow(int sagaStateLogBatchWindow) {
+        this.sagaStateLogBatchWindow = sagaStateLogBatchWindow;
+    }
 }
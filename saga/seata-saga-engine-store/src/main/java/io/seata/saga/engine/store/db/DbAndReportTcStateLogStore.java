@@ -76,10 +76,6 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
                                                                                                = new StateMachineInstanceToStatementForUpdate();
     private static final ResultSetToStateMachineInstance          RESULT_SET_TO_STATE_MACHINE_INSTANCE
                                                                                                = new ResultSetToStateMachineInstance();
-    private static final StateInstanceToStatementForInsert        STATE_INSTANCE_TO_STATEMENT_FOR_INSERT
-                                                                                               = new StateInstanceToStatementForInsert();
-    private static final StateInstanceToStatementForUpdate        STATE_INSTANCE_TO_STATEMENT_FOR_UPDATE
-                                                                                               = new StateInstanceToStatementForUpdate();
     private static final ResultSetToStateInstance                 RESULT_SET_TO_STATE_INSTANCE = new ResultSetToStateInstance();
     private SagaTransactionalTemplate sagaTransactionalTemplate;
     private Serializer<Object, String>    paramsSerializer    = new ParamsSerializer();
@@ -87,6 +83,8 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
     private StateLogStoreSqls stateLogStoreSqls;
     private String            defaultTenantId;
     private SeqGenerator      seqGenerator;
+    private StateLogPersistMode persistMode = StateLogPersistMode.SYNC;
+    private StateLogBatchWriter stateLogBatchWriter;
 
     @Override
     public void recordStateMachineStarted(StateMachineInstance machineInstance, ProcessContext context) {
@@ -174,6 +172,10 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
 
                 machineInstance.setSerializedEndParams(paramsSerializer.serialize(machineInstance.getEndParams()));
                 machineInstance.setSerializedException(exceptionSerializer.serialize(machineInstance.getException()));
+                // the state logs written behind must be committed before the end state
+                if (stateLogBatchWriter != null) {
+                    stateLogBatchWriter.flush(machineInstance.getId());
+                }
                 int effect = executeUpdate(stateLogStoreSqls.getRecordStateMachineFinishedSql(dbType),
                         STATE_MACHINE_INSTANCE_TO_STATEMENT_FOR_UPDATE, machineInstance);
                 if (effect < 1) {
@@ -284,12 +286,13 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
             }
 
             stateInstance.setSerializedInputParams(paramsSerializer.serialize(stateInstance.getInputParams()));
+            // a compensation depends on the started states, they are always compensation relevant
             if (!isUpdateMode) {
-                executeUpdate(stateLogStoreSqls.getRecordStateStartedSql(dbType),
-                    STATE_INSTANCE_TO_STATEMENT_FOR_INSERT, stateInstance);
+                executeStateUpdate(stateInstance, true, stateLogStoreSqls.getRecordStateStartedSql(dbType),
+                    stateInstanceArgsForInsert(stateInstance));
             } else {
                 // if this retry/compensate state do not need persist, just update last inst
-                executeUpdate(stateLogStoreSqls.getUpdateStateExecutionStatusSql(dbType),
+                executeStateUpdate(stateInstance, true, stateLogStoreSqls.getUpdateStateExecutionStatusSql(dbType),
                     stateInstance.getStatus().name(), new Timestamp(System.currentTimeMillis()),
                     stateInstance.getMachineInstanceId(), stateInstance.getId());
             }
@@ -460,8 +463,10 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
 
             stateInstance.setSerializedOutputParams(paramsSerializer.serialize(stateInstance.getOutputParams()));
             stateInstance.setSerializedException(exceptionSerializer.serialize(stateInstance.getException()));
-            executeUpdate(stateLogStoreSqls.getRecordStateFinishedSql(dbType), STATE_INSTANCE_TO_STATEMENT_FOR_UPDATE,
-                    stateInstance);
+            boolean compensationRelevant = StringUtils.hasLength(stateInstance.getStateIdCompensatedFor())
+                    || !ExecutionStatus.SU.equals(stateInstance.getStatus());
+            executeStateUpdate(stateInstance, compensationRelevant, stateLogStoreSqls.getRecordStateFinishedSql(dbType),
+                    stateInstanceArgsForUpdate(stateInstance));
 
             //A switch to skip branch report on branch success, in order to optimize performance
             StateMachineConfig stateMachineConfig = (StateMachineConfig) context.getVariable(
@@ -474,6 +479,46 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
         }
     }
 
+    /**
+     * Write the state log on the caller thread, or by the batch writer if the state logs are not persisted in sync
+     * mode. The caller waits for the batch writer in compensation mode if the state log is compensation relevant.
+     */
+    private void executeStateUpdate(StateInstance stateInstance, boolean compensationRelevant, String sql,
+                                    Object... args) {
+        if (stateLogBatchWriter == null || StateLogPersistMode.SYNC == persistMode) {
+            executeUpdate(sql, args);
+        } else {
+            boolean sync = StateLogPersistMode.COMPENSATION == persistMode && compensationRelevant;
+            stateLogBatchWriter.write(stateInstance.getMachineInstanceId(), sync, sql, args);
+        }
+    }
+
+    private static Object[] stateInstanceArgsForInsert(StateInstance stateInstance) {
+        return new Object[] {stateInstance.getId(), stateInstance.getMachineInstanceId(), stateInstance.getName(),
+            stateInstance.getType(), new Timestamp(stateInstance.getGmtStarted().getTime()),
+            stateInstance.getServiceName(), stateInstance.getServiceMethod(), stateInstance.getServiceType(),
+            stateInstance.isForUpdate(), stateInstance.getSerializedInputParams(), stateInstance.getStatus().name(),
+            stateInstance.getBusinessKey(), stateInstance.getStateIdCompensatedFor(),
+            stateInstance.getStateIdRetriedFor(), new Timestamp(stateInstance.getGmtUpdated().getTime())};
+    }
+
+    private static Object[] stateInstanceArgsForUpdate(StateInstance stateInstance) {
+        return new Object[] {new Timestamp(stateInstance.getGmtEnd().getTime()),
+            stateInstance.getException() != null ? (byte[]) stateInstance.getSerializedException() : null,
+            stateInstance.getStatus().name(), stateInstance.getSerializedOutputParams(),
+            new Timestamp(stateInstance.getGmtEnd().getTime()), stateInstance.getId(),
+            stateInstance.getMachineInstanceId()};
+    }
+
+    /**
+     * The state logs written behind must be visible to the queries.
+     */
+    private void awaitStateLogsWritten() {
+        if (stateLogBatchWriter != null) {
+            stateLogBatchWriter.flush(null);
+        }
+    }
+
     protected void branchReport(StateInstance stateInstance, ProcessContext context) {
         if (sagaTransactionalTemplate != null) {
             StateMachineConfig stateMachineConfig = (StateMachineConfig) context.getVariable(
@@ -599,6 +644,7 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
 
     @Override
     public StateMachineInstance getStateMachineInstance(String stateMachineInstanceId) {
+        awaitStateLogsWritten();
         StateMachineInstance stateMachineInstance = selectOne(stateLogStoreSqls.getGetStateMachineInstanceByIdSql(dbType),
                 RESULT_SET_TO_STATE_MACHINE_INSTANCE, stateMachineInstanceId);
         if (stateMachineInstance == null) {
@@ -618,6 +664,7 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
         if (StringUtils.isEmpty(tenantId)) {
             tenantId = defaultTenantId;
         }
+        awaitStateLogsWritten();
         StateMachineInstance stateMachineInstance = selectOne(
                 stateLogStoreSqls.getGetStateMachineInstanceByBusinessKeySql(dbType), RESULT_SET_TO_STATE_MACHINE_INSTANCE,
                 businessKey, tenantId);
@@ -653,12 +700,14 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
 
     @Override
     public List<StateMachineInstance> queryStateMachineInstanceByParentId(String parentId) {
+        awaitStateLogsWritten();
         return selectList(stateLogStoreSqls.getQueryStateMachineInstancesByParentIdSql(dbType),
                 RESULT_SET_TO_STATE_MACHINE_INSTANCE, parentId);
     }
 
     @Override
     public StateInstance getStateInstance(String stateInstanceId, String machineInstId) {
+        awaitStateLogsWritten();
         StateInstance stateInstance = selectOne(
                 stateLogStoreSqls.getGetStateInstanceByIdAndMachineInstanceIdSql(dbType), RESULT_SET_TO_STATE_INSTANCE,
                 machineInstId, stateInstanceId);
@@ -685,6 +734,7 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
 
     @Override
     public List<StateInstance> queryStateInstanceListByMachineInstanceId(String stateMachineInstanceId) {
+        awaitStateLogsWritten();
         List<StateInstance> stateInstanceList = selectList(
                 stateLogStoreSqls.getQueryStateInstancesByMachineInstanceIdSql(dbType), RESULT_SET_TO_STATE_INSTANCE,
                 stateMachineInstanceId);
@@ -782,6 +832,22 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
         this.seqGenerator = seqGenerator;
     }
 
+    public StateLogPersistMode getPersistMode() {
+        return persistMode;
+    }
+
+    public void setPersistMode(StateLogPersistMode persistMode) {
+        this.persistMode = persistMode;
+    }
+
+    public StateLogBatchWriter getStateLogBatchWriter() {
+        return stateLogBatchWriter;
+    }
+
+    public void setStateLogBatchWriter(StateLogBatchWriter stateLogBatchWriter) {
+        this.stateLogBatchWriter = stateLogBatchWriter;
+    }
+
     @Override
     public void setTablePrefix(String tablePrefix) {
         super.setTablePrefix(tablePrefix);
@@ -824,41 +890,6 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
         }
     }
 
-    private static class StateInstanceToStatementForInsert implements ObjectToStatement<StateInstance> {
-        @Override
-        public void toStatement(StateInstance stateInstance, PreparedStatement statement) throws SQLException {
-            statement.setString(1, stateInstance.getId());
-            statement.setString(2, stateInstance.getMachineInstanceId());
-            statement.setString(3, stateInstance.getName());
-            statement.setString(4, stateInstance.getType());
-            statement.setTimestamp(5, new Timestamp(stateInstance.getGmtStarted().getTime()));
-            statement.setString(6, stateInstance.getServiceName());
-            statement.setString(7, stateInstance.getServiceMethod());
-            statement.setString(8, stateInstance.getServiceType());
-            statement.setBoolean(9, stateInstance.isForUpdate());
-            statement.setObject(10, stateInstance.getSerializedInputParams());
-            statement.setString(11, stateInstance.getStatus().name());
-            statement.setString(12, stateInstance.getBusinessKey());
-            statement.setString(13, stateInstance.getStateIdCompensatedFor());
-            statement.setString(14, stateInstance.getStateIdRetriedFor());
-            statement.setTimestamp(15, new Timestamp(stateInstance.getGmtUpdated().getTime()));
-        }
-    }
-
-    private static class StateInstanceToStatementForUpdate implements ObjectToStatement<StateInstance> {
-        @Override
-        public void toStatement(StateInstance stateInstance, PreparedStatement statement) throws SQLException {
-            statement.setTimestamp(1, new Timestamp(stateInstance.getGmtEnd().getTime()));
-            statement.setBytes(2,
-                    stateInstance.getException() != null ? (byte[]) stateInstance.getSerializedException() : null);
-            statement.setString(3, stateInstance.getStatus().name());
-            statement.setObject(4, stateInstance.getSerializedOutputParams());
-            statement.setTimestamp(5, new Timestamp(stateInstance.getGmtEnd().getTime()));
-            statement.setString(6, stateInstance.getId());
-            statement.setString(7, stateInstance.getMachineInstanceId());
-        }
-    }
-
     private static class ResultSetToStateMachineInstance implements ResultSetToObject<StateMachineInstance> {
         @Override
         public StateMachineInstance toObject(ResultSet resultSet) throws SQLException {
@@ -0,0 +1,366 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.saga.engine.store.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import io.seata.common.exception.StoreException;
+import io.seata.common.thread.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Buffered writer of the state instance logs.
+ * <p>
+ * The state logs of all the running state machine instances are queued, the writer thread takes the logs of a short
+ * window and writes them in one transaction, with a jdbc batch per statement. The parameters are taken by value when
+ * a log is queued, so the state instance can go on changing. A sync write waits until its batch is committed, an
+ * async one returns at once and its failure is kept until the state machine instance is flushed.
+ * </p>
+ *
+ */
+public class StateLogBatchWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StateLogBatchWriter.class);
+
+    private final DataSource dataSource;
+
+    private final int batchSize;
+
+    private final long windowNanos;
+
+    private final BlockingQueue<StateLog> stateLogs = new LinkedBlockingQueue<>();
+
+    private final Map<String, Throwable> failures = new ConcurrentHashMap<>();
+
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    private final AtomicLong batchCount = new AtomicLong();
+
+    private final AtomicLong writtenCount = new AtomicLong();
+
+    private final Thread writerThread;
+
+    private volatile boolean running = true;
+
+    /**
+     * Instantiates a new State log batch writer.
+     *
+     * @param dataSource   the data source
+     * @param batchSize    the max state logs of a batch
+     * @param windowMillis how long a batch waits for more state logs
+     */
+    public StateLogBatchWriter(DataSource dataSource, int batchSize, int windowMillis) {
+        this.dataSource = dataSource;
+        this.batchSize = Math.max(1, batchSize);
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, windowMillis));
+        this.writerThread = new NamedThreadFactory("StateLogBatchWriter", 1, true).newThread(this::run);
+        this.writerThread.start();
+    }
+
+    /**
+     * Queue a state log.
+     *
+     * @param machineInstanceId the state machine instance of the state
+     * @param sync              wait until the state log is committed
+     * @param sql               the sql
+     * @param args              the parameters of the sql
+     */
+    public void write(String machineInstanceId, boolean sync, String sql, Object... args) {
+        StateLog stateLog = new StateLog(machineInstanceId, sync, sql, args);
+        enqueue(stateLog);
+        if (sync) {
+            await(stateLog);
+        }
+    }
+
+    /**
+     * Wait until the queued state logs are written, and throw the failure of the async state logs of the state
+     * machine instance.
+     *
+     * @param machineInstanceId the state machine instance, null to wait only
+     */
+    public void flush(String machineInstanceId) {
+        if (pendingCount.get() > 0) {
+            StateLog barrier = new StateLog(machineInstanceId, true, null, null);
+            enqueue(barrier);
+            await(barrier);
+        }
+        if (machineInstanceId != null) {
+            Throwable failure = failures.remove(machineInstanceId);
+            if (failure != null) {
+                throw failure instanceof StoreException ? (StoreException)failure : new StoreException(failure);
+            }
+        }
+    }
+
+    private void enqueue(StateLog stateLog) {
+        if (!running) {
+            throw new StoreException("the state log batch writer is shutdown");
+        }
+        pendingCount.incrementAndGet();
+        stateLogs.offer(stateLog);
+    }
+
+    private void await(StateLog stateLog) {
+        try {
+            stateLog.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StoreException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof StoreException ? (StoreException)cause : new StoreException(cause);
+        }
+    }
+
+    private void run() {
+        List<StateLog> batch = new ArrayList<>(batchSize);
+        while (running || !stateLogs.isEmpty()) {
+            try {
+                StateLog first = stateLogs.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < batchSize) {
+                    if (stateLogs.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    StateLog next = remaining > 0 ? stateLogs.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (Throwable e) {
+                LOGGER.error("Failed to write the state log batch: {}", e.getMessage(), e);
+                batch.forEach(stateLog -> complete(stateLog, e));
+            } finally {
+                batch.clear();
+            }
+        }
+        StateLog stateLog;
+        while ((stateLog = stateLogs.poll()) != null) {
+            complete(stateLog, new StoreException("the state log batch writer is shutdown"));
+        }
+    }
+
+    private void write(List<StateLog> batch) {
+        List<StateLog> statements = new ArrayList<>(batch.size());
+        for (StateLog stateLog : batch) {
+            if (!stateLog.isBarrier()) {
+                statements.add(stateLog);
+            }
+        }
+        if (!statements.isEmpty()) {
+            try {
+                writeBatch(statements);
+                batchCount.incrementAndGet();
+                writtenCount.addAndGet(statements.size());
+                statements.forEach(stateLog -> complete(stateLog, null));
+            } catch (Exception e) {
+                LOGGER.warn("Failed to write {} state logs in batch, write them one by one: {}", statements.size(),
+                    e.getMessage());
+                statements.forEach(this::writeOne);
+            }
+        }
+        // everything queued before a barrier is written
+        for (StateLog stateLog : batch) {
+            if (stateLog.isBarrier()) {
+                complete(stateLog, null);
+            }
+        }
+    }
+
+    private void writeBatch(List<StateLog> statements) throws SQLException {
+        Connection connection = null;
+        PreparedStatement stmt = null;
+        boolean autoCommit = true;
+        try {
+            connection = dataSource.getConnection();
+            autoCommit = connection.getAutoCommit();
+            if (autoCommit) {
+                connection.setAutoCommit(false);
+            }
+            String sql = null;
+            for (StateLog stateLog : statements) {
+                // the logs of a state are ordered, so only the runs of the same sql are batched
+                if (!stateLog.sql.equals(sql)) {
+                    if (stmt != null) {
+                        stmt.executeBatch();
+                        AbstractStore.closeSilent(stmt);
+                    }
+                    sql = stateLog.sql;
+                    stmt = connection.prepareStatement(sql);
+                }
+                stateLog.bindTo(stmt);
+                stmt.addBatch();
+            }
+            if (stmt != null) {
+                stmt.executeBatch();
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            if (connection != null) {
+                try {
+                    connection.rollback();
+                } catch (SQLException ex) {
+                    LOGGER.warn("Rollback the state log batch failed: {}", ex.getMessage());
+                }
+            }
+            throw e;
+        } finally {
+            AbstractStore.closeSilent(stmt);
+            if (connection != null && autoCommit) {
+                try {
+                    connection.setAutoCommit(true);
+                } catch (SQLException e) {
+                    LOGGER.warn("Restore the auto commit failed: {}", e.getMessage());
+                }
+            }
+            AbstractStore.closeSilent(connection);
+        }
+    }
+
+    private void writeOne(StateLog stateLog) {
+        Connection connection = null;
+        PreparedStatement stmt = null;
+        try {
+            connection = dataSource.getConnection();
+            stmt = connection.prepareStatement(stateLog.sql);
+            stateLog.bindTo(stmt);
+            stmt.executeUpdate();
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+            writtenCount.incrementAndGet();
+            complete(stateLog, null);
+        } catch (Throwable e) {
+            complete(stateLog, e);
+        } finally {
+            AbstractStore.closeSilent(stmt);
+            AbstractStore.closeSilent(connection);
+        }
+    }
+
+    private void complete(StateLog stateLog, Throwable failure) {
+        if (stateLog.future.isDone()) {
+            return;
+        }
+        pendingCount.decrementAndGet();
+        if (failure == null) {
+            stateLog.future.complete(null);
+            return;
+        }
+        if (!stateLog.sync && stateLog.machineInstanceId != null) {
+            LOGGER.error("Write state log of StateMachineInstance[{}] failed: {}", stateLog.machineInstanceId,
+                failure.getMessage(), failure);
+            failures.putIfAbsent(stateLog.machineInstanceId, failure);
+        }
+        stateLog.future.completeExceptionally(failure);
+    }
+
+    /**
+     * Stop taking new state logs, the queued ones are written before the writer thread exits.
+     */
+    public void shutdown() {
+        running = false;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // a writer racing with the shutdown may enqueue after the writer thread exits
+        StateLog stateLog;
+        while ((stateLog = stateLogs.poll()) != null) {
+            complete(stateLog, new StoreException("the state log batch writer is shutdown"));
+        }
+    }
+
+    /**
+     * Gets the batches written.
+     *
+     * @return the batch count
+     */
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    /**
+     * Gets the state logs written.
+     *
+     * @return the written count
+     */
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    /**
+     * A queued state log, or a barrier of a flush if the sql is null.
+     */
+    private static final class StateLog {
+
+        private final String machineInstanceId;
+
+        private final boolean sync;
+
+        private final String sql;
+
+        private final Object[] args;
+
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        StateLog(String machineInstanceId, boolean sync, String sql, Object[] args) {
+            this.machineInstanceId = machineInstanceId;
+            this.sync = sync;
+            this.sql = sql;
+            this.args = args;
+        }
+
+        boolean isBarrier() {
+            return sql == null;
+        }
+
+        void bindTo(PreparedStatement statement) throws SQLException {
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+        }
+    }
+}
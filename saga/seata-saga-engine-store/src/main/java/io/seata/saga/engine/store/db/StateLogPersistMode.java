@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.saga.engine.store.db;
+
+import io.seata.common.util.StringUtils;
+
+/**
+ * How the state instance logs are persisted
+ *
+ */
+public enum StateLogPersistMode {
+
+    /**
+     * Every state log is written on the caller thread before the state goes on.
+     */
+    SYNC,
+
+    /**
+     * The state logs are written in batches, the caller waits for the logs a compensation depends on: the start of
+     * the states, the failed states and the compensation states. The finish of the succeeded states is written behind.
+     */
+    COMPENSATION,
+
+    /**
+     * The state logs are written behind in batches, they are flushed when the state machine ends.
+     */
+    ASYNC;
+
+    /**
+     * Get the persist mode by the name, ignore case.
+     *
+     * @param name the name
+     * @return the persist mode, SYNC if the name is blank
+     */
+    public static StateLogPersistMode get(String name) {
+        if (StringUtils.isBlank(name)) {
+            return SYNC;
+        }
+        for (StateLogPersistMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(name.trim())) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown state log persist mode: " + name);
+    }
+}
@@ -27,9 +27,11 @@ import io.seata.saga.engine.sequence.SeqGenerator;
 import io.seata.saga.engine.store.StateLangStore;
 import io.seata.saga.engine.store.StateLogStore;
 import io.seata.saga.engine.strategy.StatusDecisionStrategy;
+import io.seata.saga.engine.utils.CompiledObjectCache;
 import io.seata.saga.proctrl.eventing.impl.ProcessCtrlEventPublisher;
 import org.springframework.context.ApplicationContext;
 
+import javax.script.CompiledScript;
 import javax.script.ScriptEngineManager;
 
 /**
@@ -168,4 +170,11 @@ public interface StateMachineConfig {
      * @return the script engine manager info
      */
     ScriptEngineManager getScriptEngineManager();
+
+    /**
+     * get the engine-wide cache of the compiled scripts
+     *
+     * @return the script cache, null if the cache is disabled
+     */
+    CompiledObjectCache<String, CompiledScript> getScriptCache();
 }
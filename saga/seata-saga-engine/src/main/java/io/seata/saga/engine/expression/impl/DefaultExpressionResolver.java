@@ -20,6 +20,7 @@ import io.seata.saga.engine.expression.Expression;
 import io.seata.saga.engine.expression.ExpressionFactory;
 import io.seata.saga.engine.expression.ExpressionFactoryManager;
 import io.seata.saga.engine.expression.ExpressionResolver;
+import io.seata.saga.engine.utils.CompiledObjectCache;
 
 /**
  * Default {@link ExpressionResolver} implementation
@@ -41,8 +42,18 @@ public class DefaultExpressionResolver implements ExpressionResolver {
 
     private ExpressionFactoryManager expressionFactoryManager;
 
+    private CompiledObjectCache<String, Expression> expressionCache;
+
     @Override
     public Expression getExpression(String expressionStr) {
+        CompiledObjectCache<String, Expression> cache = expressionCache;
+        if (cache != null) {
+            return cache.get(expressionStr, this::createExpression);
+        }
+        return createExpression(expressionStr);
+    }
+
+    protected Expression createExpression(String expressionStr) {
         ExpressionStruct struct = parseExpressionStruct(expressionStr);
 
         ExpressionFactory expressionFactory = expressionFactoryManager.getExpressionFactory(struct.type);
@@ -107,5 +118,16 @@ public class DefaultExpressionResolver implements ExpressionResolver {
     @Override
     public void setExpressionFactoryManager(ExpressionFactoryManager expressionFactoryManager) {
         this.expressionFactoryManager = expressionFactoryManager;
+        if (expressionCache != null) {
+            expressionCache.invalidateAll();
+        }
+    }
+
+    public CompiledObjectCache<String, Expression> getExpressionCache() {
+        return expressionCache;
+    }
+
+    public void setExpressionCache(CompiledObjectCache<String, Expression> expressionCache) {
+        this.expressionCache = expressionCache;
     }
 }
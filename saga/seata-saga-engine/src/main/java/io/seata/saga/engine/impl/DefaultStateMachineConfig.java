@@ -21,10 +21,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ThreadPoolExecutor;
+import javax.script.CompiledScript;
 import javax.script.ScriptEngineManager;
 
 import io.seata.common.loader.EnhancedServiceLoader;
 import io.seata.saga.engine.StateMachineConfig;
+import io.seata.saga.engine.expression.Expression;
 import io.seata.saga.engine.expression.ExpressionFactoryManager;
 import io.seata.saga.engine.expression.ExpressionResolver;
 import io.seata.saga.engine.expression.exception.ExceptionMatchExpressionFactory;
@@ -51,6 +53,7 @@ import io.seata.saga.engine.store.StateLangStore;
 import io.seata.saga.engine.store.StateLogStore;
 import io.seata.saga.engine.strategy.StatusDecisionStrategy;
 import io.seata.saga.engine.strategy.impl.DefaultStatusDecisionStrategy;
+import io.seata.saga.engine.utils.CompiledObjectCache;
 import io.seata.saga.proctrl.ProcessRouter;
 import io.seata.saga.proctrl.ProcessType;
 import io.seata.saga.proctrl.eventing.impl.AsyncEventBus;
@@ -86,6 +89,7 @@ public class DefaultStateMachineConfig implements StateMachineConfig, Applicatio
 
     private static final int DEFAULT_TRANS_OPER_TIMEOUT     = 60000 * 30;
     private static final int DEFAULT_SERVICE_INVOKE_TIMEOUT = 60000 * 5;
+    private static final int DEFAULT_COMPILED_CACHE_SIZE    = 4096;
 
     private int transOperationTimeout = DEFAULT_TRANS_OPER_TIMEOUT;
     private int serviceInvokeTimeout  = DEFAULT_SERVICE_INVOKE_TIMEOUT;
@@ -114,6 +118,9 @@ public class DefaultStateMachineConfig implements StateMachineConfig, Applicatio
     private String sagaJsonParser = DEFAULT_SAGA_JSON_PARSER;
     private boolean sagaRetryPersistModeUpdate = DEFAULT_CLIENT_SAGA_RETRY_PERSIST_MODE_UPDATE;
     private boolean sagaCompensatePersistModeUpdate = DEFAULT_CLIENT_SAGA_COMPENSATE_PERSIST_MODE_UPDATE;
+    private int compiledCacheSize = DEFAULT_COMPILED_CACHE_SIZE;
+    private CompiledObjectCache<String, Expression> expressionCache;
+    private CompiledObjectCache<String, CompiledScript> scriptCache;
 
     protected void init() throws Exception {
 
@@ -141,6 +148,18 @@ public class DefaultStateMachineConfig implements StateMachineConfig, Applicatio
             expressionResolver = defaultExpressionResolver;
         }
 
+        if (compiledCacheSize > 0) {
+            if (expressionCache == null) {
+                expressionCache = new CompiledObjectCache<>("expression", compiledCacheSize);
+            }
+            if (scriptCache == null) {
+                scriptCache = new CompiledObjectCache<>("script", compiledCacheSize);
+            }
+        }
+        if (expressionResolver instanceof DefaultExpressionResolver) {
+            ((DefaultExpressionResolver) expressionResolver).setExpressionCache(expressionCache);
+        }
+
         if (stateMachineRepository == null) {
             StateMachineRepositoryImpl stateMachineRepository = new StateMachineRepositoryImpl();
             stateMachineRepository.setCharset(charset);
@@ -148,6 +167,7 @@ public class DefaultStateMachineConfig implements StateMachineConfig, Applicatio
             stateMachineRepository.setStateLangStore(stateLangStore);
             stateMachineRepository.setDefaultTenantId(defaultTenantId);
             stateMachineRepository.setJsonParserName(sagaJsonParser);
+            stateMachineRepository.setRegistryListener(this::invalidateCompiledCache);
             this.stateMachineRepository = stateMachineRepository;
         }
         //stateMachineRepository may be overridden, so move `stateMachineRepository.registryByResources()` here.
@@ -219,6 +239,18 @@ public class DefaultStateMachineConfig implements StateMachineConfig, Applicatio
         }
     }
 
+    /**
+     * Invalidate the compiled expressions and scripts, called when a new state machine version is registered.
+     */
+    public void invalidateCompiledCache() {
+        if (expressionCache != null) {
+            expressionCache.invalidateAll();
+        }
+        if (scriptCache != null) {
+            scriptCache.invalidateAll();
+        }
+    }
+
     protected ProcessControllerImpl createProcessorController(ProcessCtrlEventPublisher eventPublisher) throws Exception {
 
         StateMachineProcessRouter stateMachineProcessRouter = new StateMachineProcessRouter();
@@ -505,4 +537,21 @@ public class DefaultStateMachineConfig implements StateMachineConfig, Applicatio
     public void setSagaCompensatePersistModeUpdate(boolean sagaCompensatePersistModeUpdate) {
         this.sagaCompensatePersistModeUpdate = sagaCompensatePersistModeUpdate;
     }
+
+    public int getCompiledCacheSize() {
+        return compiledCacheSize;
+    }
+
+    public void setCompiledCacheSize(int compiledCacheSize) {
+        this.compiledCacheSize = compiledCacheSize;
+    }
+
+    public CompiledObjectCache<String, Expression> getExpressionCache() {
+        return expressionCache;
+    }
+
+    @Override
+    public CompiledObjectCache<String, CompiledScript> getScriptCache() {
+        return scriptCache;
+    }
 }
@@ -16,7 +16,6 @@
  */
 package io.seata.saga.engine.invoker.impl;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.math.BigDecimal;
@@ -25,11 +24,13 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import io.seata.common.exception.FrameworkErrorCode;
 import io.seata.common.util.CollectionUtils;
+import io.seata.common.util.MethodInvoker;
 import io.seata.saga.engine.exception.EngineExecutionException;
 import io.seata.saga.engine.invoker.ServiceInvoker;
 import io.seata.saga.engine.pcext.handlers.ServiceTaskStateHandler;
@@ -56,6 +57,7 @@ public class SpringBeanServiceInvoker implements ServiceInvoker, ApplicationCont
     private ApplicationContext applicationContext;
     private ThreadPoolExecutor threadPoolExecutor;
     private String sagaJsonParser;
+    private final Map<Method, MethodInvoker> methodInvokers = new ConcurrentHashMap<>();
 
     @Override
     public Object invoke(ServiceTaskState serviceTaskState, Object... input) throws Throwable {
@@ -274,16 +276,9 @@ public class SpringBeanServiceInvoker implements ServiceInvoker, ApplicationCont
     }
 
     protected Object invokeMethod(Object serviceBean, Method method, Object... input) throws Throwable {
-        try {
-            return method.invoke(serviceBean, input);
-        } catch (InvocationTargetException e) {
-            Throwable targetExp = e.getTargetException();
-            if (targetExp == null) {
-                throw new EngineExecutionException(e, e.getMessage(), FrameworkErrorCode.MethodInvokeError);
-            }
-
-            throw targetExp;
-        }
+        // the invoker of a method is built once, the bean is looked up on every call as it may be a prototype
+        MethodInvoker methodInvoker = CollectionUtils.computeIfAbsent(methodInvokers, method, MethodInvoker::of);
+        return methodInvoker.invoke(serviceBean, input);
     }
 
     protected Object toJavaObject(Object value, Class paramType) {
@@ -25,6 +25,7 @@ import io.seata.saga.engine.pcext.StateHandler;
 import io.seata.saga.engine.pcext.StateHandlerInterceptor;
 import io.seata.saga.engine.pcext.StateInstruction;
 import io.seata.saga.engine.pcext.utils.EngineUtils;
+import io.seata.saga.engine.utils.CompiledObjectCache;
 import io.seata.saga.proctrl.HierarchicalProcessContext;
 import io.seata.saga.proctrl.ProcessContext;
 import io.seata.saga.statelang.domain.DomainConstants;
@@ -33,8 +34,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
 import javax.script.SimpleBindings;
 import java.util.ArrayList;
 import java.util.List;
@@ -100,7 +104,11 @@ public class ScriptTaskStateHandler implements StateHandler, InterceptableStateH
                     }
                 }
             }
-            if (bindings != null) {
+            CompiledScript compiledScript = getCompiledScript(scriptType, scriptContent, scriptEngine,
+                    stateMachineConfig.getScriptCache());
+            if (compiledScript != null) {
+                result = bindings != null ? compiledScript.eval(bindings) : compiledScript.eval();
+            } else if (bindings != null) {
                 result = scriptEngine.eval(scriptContent, bindings);
             }
             else {
@@ -134,6 +142,24 @@ public class ScriptTaskStateHandler implements StateHandler, InterceptableStateH
             key -> scriptEngineManager.getEngineByName(scriptType));
     }
 
+    /**
+     * Get the compiled script from the engine-wide cache, null if the script engine can not compile
+     */
+    protected CompiledScript getCompiledScript(String scriptType, String scriptContent, ScriptEngine scriptEngine,
+                                               CompiledObjectCache<String, CompiledScript> scriptCache) {
+        if (scriptCache == null || !(scriptEngine instanceof Compilable)) {
+            return null;
+        }
+        return scriptCache.get(scriptType + ":" + scriptContent, key -> {
+            try {
+                return ((Compilable) scriptEngine).compile(scriptContent);
+            } catch (ScriptException e) {
+                throw new EngineExecutionException(e, "Compile script failed, ScriptType[" + scriptType + "]",
+                        FrameworkErrorCode.ExceptionCaught);
+            }
+        });
+    }
+
     @Override
     public List<StateHandlerInterceptor> getInterceptors() {
         return interceptors;
@@ -52,6 +52,7 @@ public class StateMachineRepositoryImpl implements StateMachineRepository {
     private String charset = "UTF-8";
     private String defaultTenantId;
     private String jsonParserName = DomainConstants.DEFAULT_JSON_PARSER;
+    private Runnable registryListener;
 
     @Override
     public StateMachine getStateMachineById(String stateMachineId) {
@@ -160,6 +161,10 @@ public class StateMachineRepositoryImpl implements StateMachineRepository {
         Item item = new Item(stateMachine);
         stateMachineMapByNameAndTenant.put(stateMachineName + "_" + tenantId, item);
         stateMachineMapById.put(stateMachine.getId(), item);
+        // a new version, the compiled expressions and scripts of the old one are dropped
+        if (registryListener != null) {
+            registryListener.run();
+        }
         return stateMachine;
     }
 
@@ -210,6 +215,10 @@ public class StateMachineRepositoryImpl implements StateMachineRepository {
         this.defaultTenantId = defaultTenantId;
     }
 
+    public void setRegistryListener(Runnable registryListener) {
+        this.registryListener = registryListener;
+    }
+
     public String getJsonParserName() {
         return jsonParserName;
     }
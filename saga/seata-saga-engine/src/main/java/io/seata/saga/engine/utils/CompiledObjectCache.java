@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.saga.engine.utils;
+
+import java.util.function.Function;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Bounded cache of the compiled expressions and scripts of the engine.
+ * <p>
+ * The compiled objects are immutable and shared by all the state machines using the same source text, so they are
+ * keyed by the text. The cache is invalidated when a new state machine version is registered.
+ * </p>
+ *
+ * @param <K> the key
+ * @param <V> the compiled object
+ */
+public class CompiledObjectCache<K, V> {
+
+    private final String name;
+
+    private final Cache<K, V> cache;
+
+    /**
+     * Instantiates a new Compiled object cache.
+     *
+     * @param name    the name of the cache
+     * @param maxSize the max compiled objects kept
+     */
+    public CompiledObjectCache(String name, int maxSize) {
+        this.name = name;
+        this.cache = Caffeine.newBuilder().maximumSize(maxSize).recordStats().build();
+    }
+
+    /**
+     * Get the compiled object, compile it if absent. A concurrent miss of the same key waits for the compiling
+     * instead of compiling twice, the other keys are not blocked.
+     *
+     * @param key      the key
+     * @param compiler compile the object, the null result is not cached
+     * @return the compiled object
+     */
+    public V get(K key, Function<K, V> compiler) {
+        return cache.get(key, compiler);
+    }
+
+    /**
+     * Remove all the compiled objects.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the approximate number of the compiled objects, the evictions are done asynchronously.
+     *
+     * @return the size
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    public long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    /**
+     * Gets the hit ratio since the cache is created.
+     *
+     * @return the hit ratio, 0 if nothing is requested
+     */
+    public double getHitRatio() {
+        CacheStats stats = cache.stats();
+        return stats.requestCount() == 0 ? 0 : stats.hitRate();
+    }
+
+    /**
+     * Perform the pending maintenance, e.g. the evictions.
+     */
+    public void cleanUp() {
+        cache.cleanUp();
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledObjectCache{name=" + name + ", size=" + size() + ", stats=" + cache.stats() + "}";
+    }
+}
@@ -19,6 +19,7 @@ package io.seata.spring.boot.autoconfigure.properties.client;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_LOCK_CONFLICT_CACHE_TTL;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_LOCK_RETRY_INTERVAL;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_LOCK_RETRY_POLICY_BRANCH_ROLLBACK_ON_CONFLICT;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_LOCK_RETRY_TIMES;
@@ -32,6 +33,7 @@ public class LockProperties {
     private int retryInterval = DEFAULT_CLIENT_LOCK_RETRY_INTERVAL;
     private int retryTimes = DEFAULT_CLIENT_LOCK_RETRY_TIMES;
     private boolean retryPolicyBranchRollbackOnConflict = DEFAULT_CLIENT_LOCK_RETRY_POLICY_BRANCH_ROLLBACK_ON_CONFLICT;
+    private long conflictCacheTtl = DEFAULT_CLIENT_LOCK_CONFLICT_CACHE_TTL;
 
     public int getRetryInterval() {
         return retryInterval;
@@ -59,4 +61,13 @@ public class LockProperties {
         this.retryPolicyBranchRollbackOnConflict = retryPolicyBranchRollbackOnConflict;
         return this;
     }
+
+    public long getConflictCacheTtl() {
+        return conflictCacheTtl;
+    }
+
+    public LockProperties setConflictCacheTtl(long conflictCacheTtl) {
+        this.conflictCacheTtl = conflictCacheTtl;
+        return this;
+    }
 }
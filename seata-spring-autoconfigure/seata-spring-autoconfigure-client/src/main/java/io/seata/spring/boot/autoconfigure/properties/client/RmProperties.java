@@ -20,14 +20,23 @@ import io.seata.sqlparser.SqlParserType;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_AFTER_IMAGE_RETURNING_ENABLE;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_ASYNC_COMMIT_BUFFER_LIMIT;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_ASYNC_COMMIT_FLUSH_INTERVAL;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_ASYNC_COMMIT_FLUSH_SIZE;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_ASYNC_COMMIT_WORKER_SIZE;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_REPORT_RETRY_COUNT;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_REPORT_SUCCESS_ENABLE;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_BRANCH_REGISTER_ENABLE;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_COMPENSATE_PERSIST_MODE_UPDATE;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_RETRY_PERSIST_MODE_UPDATE;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_STATE_LOG_BATCH_SIZE;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_STATE_LOG_BATCH_WINDOW;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_STATE_LOG_PERSIST_MODE;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_TABLE_META_CHECK_ENABLE;
 import static io.seata.common.DefaultValues.DEFAULT_SAGA_JSON_PARSER;
+import static io.seata.common.DefaultValues.DEFAULT_SQL_PARSER_CACHE_ENABLE;
+import static io.seata.common.DefaultValues.DEFAULT_SQL_PARSER_CACHE_MAX_WEIGHT;
 import static io.seata.common.DefaultValues.DEFAULT_TABLE_META_CHECKER_INTERVAL;
 import static io.seata.common.DefaultValues.TCC_ACTION_INTERCEPTOR_ORDER;
 import static io.seata.common.DefaultValues.DEFAULT_XA_BRANCH_EXECUTION_TIMEOUT;
@@ -41,6 +50,9 @@ import static io.seata.spring.boot.autoconfigure.StarterConstants.CLIENT_RM_PREF
 @ConfigurationProperties(prefix = CLIENT_RM_PREFIX)
 public class RmProperties {
     private int asyncCommitBufferLimit = DEFAULT_CLIENT_ASYNC_COMMIT_BUFFER_LIMIT;
+    private int asyncCommitWorkerSize = DEFAULT_CLIENT_ASYNC_COMMIT_WORKER_SIZE;
+    private int asyncCommitFlushSize = DEFAULT_CLIENT_ASYNC_COMMIT_FLUSH_SIZE;
+    private long asyncCommitFlushInterval = DEFAULT_CLIENT_ASYNC_COMMIT_FLUSH_INTERVAL;
     private int reportRetryCount = DEFAULT_CLIENT_REPORT_RETRY_COUNT;
     private boolean tableMetaCheckEnable = DEFAULT_CLIENT_TABLE_META_CHECK_ENABLE;
     private long tableMetaCheckerInterval = DEFAULT_TABLE_META_CHECKER_INTERVAL;
@@ -49,10 +61,16 @@ public class RmProperties {
     private String sagaJsonParser = DEFAULT_SAGA_JSON_PARSER;
     private boolean sagaRetryPersistModeUpdate = DEFAULT_CLIENT_SAGA_RETRY_PERSIST_MODE_UPDATE;
     private boolean sagaCompensatePersistModeUpdate = DEFAULT_CLIENT_SAGA_COMPENSATE_PERSIST_MODE_UPDATE;
+    private String sagaStateLogPersistMode = DEFAULT_CLIENT_SAGA_STATE_LOG_PERSIST_MODE;
+    private int sagaStateLogBatchSize = DEFAULT_CLIENT_SAGA_STATE_LOG_BATCH_SIZE;
+    private int sagaStateLogBatchWindow = DEFAULT_CLIENT_SAGA_STATE_LOG_BATCH_WINDOW;
     private int tccActionInterceptorOrder = TCC_ACTION_INTERCEPTOR_ORDER;
     private int branchExecutionTimeoutXA = DEFAULT_XA_BRANCH_EXECUTION_TIMEOUT;
     private int connectionTwoPhaseHoldTimeoutXA = DEFAULT_XA_CONNECTION_TWO_PHASE_HOLD_TIMEOUT;
     private String sqlParserType = SqlParserType.SQL_PARSER_TYPE_DRUID;
+    private boolean sqlParserCacheEnable = DEFAULT_SQL_PARSER_CACHE_ENABLE;
+    private long sqlParserCacheMaxWeight = DEFAULT_SQL_PARSER_CACHE_MAX_WEIGHT;
+    private boolean afterImageReturningEnable = DEFAULT_CLIENT_AFTER_IMAGE_RETURNING_ENABLE;
 
     private Boolean applicationDataLimitCheck = false;
     private Integer applicationDataLimit = DEFAULT_APPLICATION_DATA_SIZE_LIMIT;
@@ -66,6 +84,33 @@ public class RmProperties {
         return this;
     }
 
+    public int getAsyncCommitWorkerSize() {
+        return asyncCommitWorkerSize;
+    }
+
+    public RmProperties setAsyncCommitWorkerSize(int asyncCommitWorkerSize) {
+        this.asyncCommitWorkerSize = asyncCommitWorkerSize;
+        return this;
+    }
+
+    public int getAsyncCommitFlushSize() {
+        return asyncCommitFlushSize;
+    }
+
+    public RmProperties setAsyncCommitFlushSize(int asyncCommitFlushSize) {
+        this.asyncCommitFlushSize = asyncCommitFlushSize;
+        return this;
+    }
+
+    public long getAsyncCommitFlushInterval() {
+        return asyncCommitFlushInterval;
+    }
+
+    public RmProperties setAsyncCommitFlushInterval(long asyncCommitFlushInterval) {
+        this.asyncCommitFlushInterval = asyncCommitFlushInterval;
+        return this;
+    }
+
     public int getReportRetryCount() {
         return reportRetryCount;
     }
@@ -134,6 +179,30 @@ public class RmProperties {
         this.sagaCompensatePersistModeUpdate = sagaCompensatePersistModeUpdate;
     }
 
+    public String getSagaStateLogPersistMode() {
+        return sagaStateLogPersistMode;
+    }
+
+    public void setSagaStateLogPersistMode(String sagaStateLogPersistMode) {
+        this.sagaStateLogPersistMode = sagaStateLogPersistMode;
+    }
+
+    public int getSagaStateLogBatchSize() {
+        return sagaStateLogBatchSize;
+    }
+
+    public void setSagaStateLogBatchSize(int sagaStateLogBatchSize) {
+        this.sagaStateLogBatchSize = sagaStateLogBatchSize;
+    }
+
+    public int getSagaStateLogBatchWindow() {
+        return sagaStateLogBatchWindow;
+    }
+
+    public void setSagaStateLogBatchWindow(int sagaStateLogBatchWindow) {
+        this.sagaStateLogBatchWindow = sagaStateLogBatchWindow;
+    }
+
     public int getTccActionInterceptorOrder() {
         return tccActionInterceptorOrder;
     }
@@ -152,6 +221,33 @@ public class RmProperties {
         return this;
     }
 
+    public boolean isSqlParserCacheEnable() {
+        return sqlParserCacheEnable;
+    }
+
+    public RmProperties setSqlParserCacheEnable(boolean sqlParserCacheEnable) {
+        this.sqlParserCacheEnable = sqlParserCacheEnable;
+        return this;
+    }
+
+    public long getSqlParserCacheMaxWeight() {
+        return sqlParserCacheMaxWeight;
+    }
+
+    public RmProperties setSqlParserCacheMaxWeight(long sqlParserCacheMaxWeight) {
+        this.sqlParserCacheMaxWeight = sqlParserCacheMaxWeight;
+        return this;
+    }
+
+    public boolean isAfterImageReturningEnable() {
+        return afterImageReturningEnable;
+    }
+
+    public RmProperties setAfterImageReturningEnable(boolean afterImageReturningEnable) {
+        this.afterImageReturningEnable = afterImageReturningEnable;
+        return this;
+    }
+
     public int getBranchExecutionTimeoutXA() {
         return branchExecutionTimeoutXA;
     }
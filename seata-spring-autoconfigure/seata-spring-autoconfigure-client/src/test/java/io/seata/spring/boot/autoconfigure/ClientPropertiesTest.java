@@ -67,6 +67,7 @@ public class ClientPropertiesTest {
         assertEquals(10, context.getBean(LockProperties.class).getRetryInterval());
         assertEquals(30, context.getBean(LockProperties.class).getRetryTimes());
         assertTrue(context.getBean(LockProperties.class).isRetryPolicyBranchRollbackOnConflict());
+        assertEquals(10, context.getBean(LockProperties.class).getConflictCacheTtl());
     }
 
     @Test
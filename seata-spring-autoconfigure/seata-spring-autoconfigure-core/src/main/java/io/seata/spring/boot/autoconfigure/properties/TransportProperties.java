@@ -21,11 +21,13 @@ import org.springframework.stereotype.Component;
 
 import static io.seata.common.DefaultValues.DEFAULT_ENABLE_CLIENT_BATCH_SEND_REQUEST;
 import static io.seata.common.DefaultValues.DEFAULT_ENABLE_RM_CLIENT_BATCH_SEND_REQUEST;
+import static io.seata.common.DefaultValues.DEFAULT_ENABLE_TC_SERVER_BATCH_SEND_REQUEST;
 import static io.seata.common.DefaultValues.DEFAULT_ENABLE_TC_SERVER_BATCH_SEND_RESPONSE;
 import static io.seata.common.DefaultValues.DEFAULT_ENABLE_TM_CLIENT_BATCH_SEND_REQUEST;
 import static io.seata.common.DefaultValues.DEFAULT_RPC_RM_REQUEST_TIMEOUT;
 import static io.seata.common.DefaultValues.DEFAULT_RPC_TC_REQUEST_TIMEOUT;
 import static io.seata.common.DefaultValues.DEFAULT_RPC_TM_REQUEST_TIMEOUT;
+import static io.seata.common.DefaultValues.DEFAULT_TRANSPORT_COMPRESS_THRESHOLD;
 import static io.seata.common.DefaultValues.DEFAULT_TRANSPORT_HEARTBEAT;
 import static io.seata.spring.boot.autoconfigure.StarterConstants.TRANSPORT_PREFIX;
 
@@ -54,6 +56,10 @@ public class TransportProperties {
      * compressor
      */
     private String compressor = "none";
+    /**
+     * the message body smaller than it is not compressed, in bytes
+     */
+    private int compressThreshold = DEFAULT_TRANSPORT_COMPRESS_THRESHOLD;
 
     /**
      * enable client batch send request
@@ -75,6 +81,11 @@ public class TransportProperties {
      */
     private boolean enableTcServerBatchSendResponse = DEFAULT_ENABLE_TC_SERVER_BATCH_SEND_RESPONSE;
 
+    /**
+     * enable TC server batch send request
+     */
+    private boolean enableTcServerBatchSendRequest = DEFAULT_ENABLE_TC_SERVER_BATCH_SEND_REQUEST;
+
     /**
      * rpcRmRequestTimeout
      */
@@ -136,6 +147,15 @@ public class TransportProperties {
         return this;
     }
 
+    public int getCompressThreshold() {
+        return compressThreshold;
+    }
+
+    public TransportProperties setCompressThreshold(int compressThreshold) {
+        this.compressThreshold = compressThreshold;
+        return this;
+    }
+
     public boolean isEnableClientBatchSendRequest() {
         return enableClientBatchSendRequest;
     }
@@ -171,6 +191,14 @@ public class TransportProperties {
         this.enableTcServerBatchSendResponse = enableTcServerBatchSendResponse;
     }
 
+    public boolean isEnableTcServerBatchSendRequest() {
+        return enableTcServerBatchSendRequest;
+    }
+
+    public void setEnableTcServerBatchSendRequest(boolean enableTcServerBatchSendRequest) {
+        this.enableTcServerBatchSendRequest = enableTcServerBatchSendRequest;
+    }
+
     public long getRpcRmRequestTimeout() {
         return rpcRmRequestTimeout;
     }
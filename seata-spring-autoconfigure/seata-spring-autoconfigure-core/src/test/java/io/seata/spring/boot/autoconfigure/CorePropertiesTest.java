@@ -70,6 +70,7 @@ public class CorePropertiesTest {
         assertTrue(context.getBean(TransportProperties.class).isHeartbeat());
         assertEquals("seata", context.getBean(TransportProperties.class).getSerialization());
         assertEquals("none", context.getBean(TransportProperties.class).getCompressor());
+        assertEquals(1024, context.getBean(TransportProperties.class).getCompressThreshold());
         assertTrue(context.getBean(TransportProperties.class).isEnableClientBatchSendRequest());
     }
 
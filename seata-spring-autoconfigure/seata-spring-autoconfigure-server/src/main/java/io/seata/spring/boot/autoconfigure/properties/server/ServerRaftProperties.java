@@ -54,6 +54,10 @@ public class ServerRaftProperties {
 
     private String compressor = "none";
 
+    private boolean compactCodecEnable = true;
+
+    private Integer proposalBatchSize = 64;
+
     private boolean sync = true;
 
     public String getServerAddr() {
@@ -162,6 +166,22 @@ public class ServerRaftProperties {
         this.compressor = compressor;
     }
 
+    public boolean isCompactCodecEnable() {
+        return compactCodecEnable;
+    }
+
+    public void setCompactCodecEnable(boolean compactCodecEnable) {
+        this.compactCodecEnable = compactCodecEnable;
+    }
+
+    public Integer getProposalBatchSize() {
+        return proposalBatchSize;
+    }
+
+    public void setProposalBatchSize(Integer proposalBatchSize) {
+        this.proposalBatchSize = proposalBatchSize;
+    }
+
     public String getGroup() {
         return group;
     }
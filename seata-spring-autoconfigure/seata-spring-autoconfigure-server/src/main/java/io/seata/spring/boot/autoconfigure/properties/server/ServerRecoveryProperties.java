@@ -21,8 +21,12 @@ import org.springframework.stereotype.Component;
 
 import static io.seata.common.DefaultValues.DEFAULT_ASYNC_COMMITTING_RETRY_PERIOD;
 import static io.seata.common.DefaultValues.DEFAULT_COMMITING_RETRY_PERIOD;
+import static io.seata.common.DefaultValues.DEFAULT_RECOVERY_RESOURCE_MAX_CONCURRENCY;
+import static io.seata.common.DefaultValues.DEFAULT_RECOVERY_SHARD_COUNT;
+import static io.seata.common.DefaultValues.DEFAULT_RECOVERY_SHARD_QUEUE_SIZE;
 import static io.seata.common.DefaultValues.DEFAULT_ROLLBACKING_RETRY_PERIOD;
 import static io.seata.common.DefaultValues.DEFAULT_TIMEOUT_RETRY_PERIOD;
+import static io.seata.common.DefaultValues.DEFAULT_TIMEOUT_SWEEP_PERIOD;
 import static io.seata.spring.boot.autoconfigure.StarterConstants.SERVER_RECOVERY_PREFIX;
 
 /**
@@ -35,6 +39,10 @@ public class ServerRecoveryProperties {
     private long asyncCommittingRetryPeriod = DEFAULT_ASYNC_COMMITTING_RETRY_PERIOD;
     private long rollbackingRetryPeriod = DEFAULT_ROLLBACKING_RETRY_PERIOD;
     private long timeoutRetryPeriod = DEFAULT_TIMEOUT_RETRY_PERIOD;
+    private long timeoutSweepPeriod = DEFAULT_TIMEOUT_SWEEP_PERIOD;
+    private int shardCount = DEFAULT_RECOVERY_SHARD_COUNT;
+    private int shardQueueSize = DEFAULT_RECOVERY_SHARD_QUEUE_SIZE;
+    private int resourceMaxConcurrency = DEFAULT_RECOVERY_RESOURCE_MAX_CONCURRENCY;
 
     public long getCommittingRetryPeriod() {
         return committingRetryPeriod;
@@ -71,4 +79,40 @@ public class ServerRecoveryProperties {
         this.timeoutRetryPeriod = timeoutRetryPeriod;
         return this;
     }
+
+    public long getTimeoutSweepPeriod() {
+        return timeoutSweepPeriod;
+    }
+
+    public ServerRecoveryProperties setTimeoutSweepPeriod(long timeoutSweepPeriod) {
+        this.timeoutSweepPeriod = timeoutSweepPeriod;
+        return this;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public ServerRecoveryProperties setShardCount(int shardCount) {
+        this.shardCount = shardCount;
+        return this;
+    }
+
+    public int getShardQueueSize() {
+        return shardQueueSize;
+    }
+
+    public ServerRecoveryProperties setShardQueueSize(int shardQueueSize) {
+        this.shardQueueSize = shardQueueSize;
+        return this;
+    }
+
+    public int getResourceMaxConcurrency() {
+        return resourceMaxConcurrency;
+    }
+
+    public ServerRecoveryProperties setResourceMaxConcurrency(int resourceMaxConcurrency) {
+        this.resourceMaxConcurrency = resourceMaxConcurrency;
+        return this;
+    }
 }
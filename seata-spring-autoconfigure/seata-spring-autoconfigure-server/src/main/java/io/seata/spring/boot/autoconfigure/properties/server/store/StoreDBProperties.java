@@ -22,6 +22,9 @@ import org.springframework.stereotype.Component;
 import static io.seata.common.DefaultValues.DEFAULT_DB_MAX_CONN;
 import static io.seata.common.DefaultValues.DEFAULT_DB_MIN_CONN;
 import static io.seata.common.DefaultValues.DEFAULT_QUERY_LIMIT;
+import static io.seata.common.DefaultValues.DEFAULT_STORE_DB_WRITE_BATCH_ENABLE;
+import static io.seata.common.DefaultValues.DEFAULT_STORE_DB_WRITE_BATCH_SIZE;
+import static io.seata.common.DefaultValues.DEFAULT_STORE_DB_WRITE_BATCH_WINDOW;
 import static io.seata.spring.boot.autoconfigure.StarterConstants.STORE_DB_PREFIX;
 
 /**
@@ -43,6 +46,9 @@ public class StoreDBProperties {
     private String distributedLockTable = "distributed_lock";
     private Integer queryLimit = DEFAULT_QUERY_LIMIT;
     private Long maxWait = 5000L;
+    private Boolean writeBatchEnable = DEFAULT_STORE_DB_WRITE_BATCH_ENABLE;
+    private Integer writeBatchSize = DEFAULT_STORE_DB_WRITE_BATCH_SIZE;
+    private Integer writeBatchWindow = DEFAULT_STORE_DB_WRITE_BATCH_WINDOW;
 
     public String getDatasource() {
         return datasource;
@@ -168,4 +174,31 @@ public class StoreDBProperties {
         this.maxWait = maxWait;
         return this;
     }
+
+    public Boolean getWriteBatchEnable() {
+        return writeBatchEnable;
+    }
+
+    public StoreDBProperties setWriteBatchEnable(Boolean writeBatchEnable) {
+        this.writeBatchEnable = writeBatchEnable;
+        return this;
+    }
+
+    public Integer getWriteBatchSize() {
+        return writeBatchSize;
+    }
+
+    public StoreDBProperties setWriteBatchSize(Integer writeBatchSize) {
+        this.writeBatchSize = writeBatchSize;
+        return this;
+    }
+
+    public Integer getWriteBatchWindow() {
+        return writeBatchWindow;
+    }
+
+    public StoreDBProperties setWriteBatchWindow(Integer writeBatchWindow) {
+        this.writeBatchWindow = writeBatchWindow;
+        return this;
+    }
 }
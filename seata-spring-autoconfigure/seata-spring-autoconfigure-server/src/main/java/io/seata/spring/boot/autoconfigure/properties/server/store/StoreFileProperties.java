@@ -33,6 +33,7 @@ public class StoreFileProperties {
     private Integer fileWriteBufferCacheSize = 16384;
     private Integer sessionReloadReadSize = DEFAULT_SERVICE_SESSION_RELOAD_READ_SIZE;
     private String flushDiskMode = "async";
+    private Integer groupCommitRingSize = 16384;
 
     public String getDir() {
         return dir;
@@ -87,4 +88,13 @@ public class StoreFileProperties {
         this.flushDiskMode = flushDiskMode;
         return this;
     }
+
+    public Integer getGroupCommitRingSize() {
+        return groupCommitRingSize;
+    }
+
+    public StoreFileProperties setGroupCommitRingSize(Integer groupCommitRingSize) {
+        this.groupCommitRingSize = groupCommitRingSize;
+        return this;
+    }
 }
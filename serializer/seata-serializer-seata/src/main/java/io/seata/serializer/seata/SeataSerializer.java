@@ -21,8 +21,8 @@ import java.nio.ByteBuffer;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.seata.common.loader.LoadLevel;
-import io.seata.common.util.BufferUtils;
 import io.seata.core.protocol.AbstractMessage;
+import io.seata.core.serializer.ByteBufSerializer;
 import io.seata.core.serializer.Serializer;
 
 /**
@@ -30,10 +30,21 @@ import io.seata.core.serializer.Serializer;
  *
  */
 @LoadLevel(name = "SEATA")
-public class SeataSerializer implements Serializer {
+public class SeataSerializer implements Serializer, ByteBufSerializer {
 
     @Override
     public <T> byte[] serialize(T t) {
+        //get empty ByteBuffer
+        ByteBuf out = Unpooled.buffer(1024);
+        //typecode + body
+        serialize(t, out);
+        byte[] content = new byte[out.readableBytes()];
+        out.readBytes(content);
+        return content;
+    }
+
+    @Override
+    public <T> void serialize(T t, ByteBuf out) {
         if (!(t instanceof AbstractMessage)) {
             throw new IllegalArgumentException("AbstractMessage isn't available.");
         }
@@ -42,22 +53,9 @@ public class SeataSerializer implements Serializer {
         short typecode = abstractMessage.getTypeCode();
         //msg codec
         MessageSeataCodec messageCodec = MessageCodecFactory.getMessageCodec(typecode);
-        //get empty ByteBuffer
-        ByteBuf out = Unpooled.buffer(1024);
+        out.writeShort(typecode);
         //msg encode
         messageCodec.encode(t, out);
-        byte[] body = new byte[out.readableBytes()];
-        out.readBytes(body);
-
-        //typecode + body
-        ByteBuffer byteBuffer = ByteBuffer.allocate(2 + body.length);
-        byteBuffer.putShort(typecode);
-        byteBuffer.put(body);
-
-        BufferUtils.flip(byteBuffer);
-        byte[] content = new byte[byteBuffer.limit()];
-        byteBuffer.get(content);
-        return content;
     }
 
     @Override
@@ -68,13 +66,29 @@ public class SeataSerializer implements Serializer {
         if (bytes.length < 2) {
             throw new IllegalArgumentException("The byte[] isn't available for decode.");
         }
-        ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
+        ByteBuffer in = ByteBuffer.wrap(bytes);
         //typecode
-        short typecode = byteBuffer.getShort();
+        short typecode = in.getShort();
         //msg body
-        byte[] body = new byte[byteBuffer.remaining()];
-        byteBuffer.get(body);
-        ByteBuffer in = ByteBuffer.wrap(body);
+        return decode(typecode, in);
+    }
+
+    @Override
+    public <T> T deserialize(ByteBuf in, int length) {
+        if (length < 2 || in.readableBytes() < length) {
+            throw new IllegalArgumentException("The ByteBuf isn't available for decode.");
+        }
+        //typecode
+        short typecode = in.readShort();
+        //msg body, a view of the ByteBuf without copy
+        int bodyLength = length - 2;
+        ByteBuffer body = in.nioBuffer(in.readerIndex(), bodyLength);
+        T t = decode(typecode, body);
+        in.skipBytes(bodyLength);
+        return t;
+    }
+
+    private <T> T decode(short typecode, ByteBuffer in) {
         //new Messgae
         AbstractMessage abstractMessage = MessageCodecFactory.getMessage(typecode);
         //get messageCodec
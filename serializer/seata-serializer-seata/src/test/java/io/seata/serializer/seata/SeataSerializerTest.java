@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.serializer.seata;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.seata.core.compressor.CompressorType;
+import io.seata.core.protocol.ProtocolConstants;
+import io.seata.core.protocol.RpcMessage;
+import io.seata.core.protocol.transaction.GlobalBeginRequest;
+import io.seata.core.rpc.netty.v1.ProtocolV1Decoder;
+import io.seata.core.rpc.netty.v1.ProtocolV1Encoder;
+import io.seata.core.serializer.SerializerType;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The type Seata serializer test.
+ *
+ */
+public class SeataSerializerTest {
+
+    /**
+     * The Seata codec.
+     */
+    SeataSerializer seataSerializer = new SeataSerializer();
+
+    /**
+     * Test the ByteBuf codec is the same as the byte[] codec.
+     */
+    @Test
+    public void test_byteBufCodec() {
+        GlobalBeginRequest globalBeginRequest = buildGlobalBeginRequest("tx1");
+        byte[] body = seataSerializer.serialize(globalBeginRequest);
+
+        ByteBuf buf = PooledByteBufAllocator.DEFAULT.buffer();
+        try {
+            buf.writeByte(1);
+            seataSerializer.serialize(globalBeginRequest, buf);
+            buf.writeByte(2);
+            assertThat(ByteBufUtil.getBytes(buf, 1, body.length)).isEqualTo(body);
+
+            buf.skipBytes(1);
+            GlobalBeginRequest globalBeginRequest2 = seataSerializer.deserialize(buf, body.length);
+            assertThat(globalBeginRequest2.getTransactionName()).isEqualTo(globalBeginRequest.getTransactionName());
+            assertThat(globalBeginRequest2.getTimeout()).isEqualTo(globalBeginRequest.getTimeout());
+            assertThat(buf.readByte()).isEqualTo((byte)2);
+        } finally {
+            buf.release();
+        }
+    }
+
+    /**
+     * Test the message encoded and decoded by the protocol codec without the intermediate byte[].
+     */
+    @Test
+    public void test_protocolCodec() {
+        RpcMessage rpcMessage = buildRpcMessage(CompressorType.NONE);
+        RpcMessage rpcMessage2 = encodeAndDecode(new ProtocolV1Encoder(), rpcMessage);
+        assertThat(rpcMessage2.getId()).isEqualTo(rpcMessage.getId());
+        assertThat(rpcMessage2.getCompressor()).isEqualTo(CompressorType.NONE.getCode());
+        GlobalBeginRequest globalBeginRequest = (GlobalBeginRequest)rpcMessage2.getBody();
+        assertThat(globalBeginRequest.getTransactionName()).isEqualTo("tx1");
+    }
+
+    /**
+     * Test the body smaller than the compress threshold is not compressed.
+     */
+    @Test
+    public void test_compressThreshold() {
+        RpcMessage rpcMessage = buildRpcMessage(CompressorType.GZIP);
+        RpcMessage rpcMessage2 = encodeAndDecode(new ProtocolV1Encoder(1024), rpcMessage);
+        assertThat(rpcMessage2.getCompressor()).isEqualTo(CompressorType.NONE.getCode());
+        GlobalBeginRequest globalBeginRequest = (GlobalBeginRequest)rpcMessage2.getBody();
+        assertThat(globalBeginRequest.getTransactionName()).isEqualTo("tx1");
+    }
+
+    private RpcMessage encodeAndDecode(ProtocolV1Encoder encoder, RpcMessage rpcMessage) {
+        EmbeddedChannel encodeChannel = new EmbeddedChannel(encoder);
+        EmbeddedChannel decodeChannel = new EmbeddedChannel(new ProtocolV1Decoder());
+        try {
+            assertThat(encodeChannel.writeOutbound(rpcMessage)).isTrue();
+            ByteBuf frame = encodeChannel.readOutbound();
+            assertThat(decodeChannel.writeInbound(frame)).isTrue();
+            return decodeChannel.readInbound();
+        } finally {
+            encodeChannel.finishAndReleaseAll();
+            decodeChannel.finishAndReleaseAll();
+        }
+    }
+
+    private RpcMessage buildRpcMessage(CompressorType compressorType) {
+        RpcMessage rpcMessage = new RpcMessage();
+        rpcMessage.setId(100);
+        rpcMessage.setMessageType(ProtocolConstants.MSGTYPE_RESQUEST_SYNC);
+        rpcMessage.setCodec(SerializerType.SEATA.getCode());
+        rpcMessage.setCompressor(compressorType.getCode());
+        rpcMessage.setBody(buildGlobalBeginRequest("tx1"));
+        return rpcMessage;
+    }
+
+    private GlobalBeginRequest buildGlobalBeginRequest(String name) {
+        final GlobalBeginRequest globalBeginRequest = new GlobalBeginRequest();
+        globalBeginRequest.setTransactionName(name);
+        globalBeginRequest.setTimeout(3000);
+        return globalBeginRequest;
+    }
+}
@@ -20,7 +20,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 import io.seata.core.protocol.AbstractMessage;
+import io.seata.core.model.BranchType;
 import io.seata.core.protocol.MergedWarpMessage;
+import io.seata.core.protocol.transaction.BranchCommitRequest;
+import io.seata.core.protocol.transaction.BranchRollbackRequest;
 import io.seata.core.protocol.transaction.GlobalBeginRequest;
 import io.seata.serializer.seata.SeataSerializer;
 import org.junit.jupiter.api.Test;
@@ -77,6 +80,39 @@ public class MergedWarpMessageSerializerTest {
 
     }
 
+    /**
+     * Test codec of the branch commit and rollback requests merged by TC.
+     */
+    @Test
+    public void test_codec_branch_end(){
+        MergedWarpMessage mergedWarpMessage = new MergedWarpMessage();
+        BranchCommitRequest branchCommitRequest = new BranchCommitRequest();
+        branchCommitRequest.setXid("127.0.0.1:8091:1");
+        branchCommitRequest.setBranchId(1L);
+        branchCommitRequest.setBranchType(BranchType.AT);
+        branchCommitRequest.setResourceId("jdbc:mysql://127.0.0.1:3306/seata");
+        BranchRollbackRequest branchRollbackRequest = new BranchRollbackRequest();
+        branchRollbackRequest.setXid("127.0.0.1:8091:2");
+        branchRollbackRequest.setBranchId(2L);
+        branchRollbackRequest.setBranchType(BranchType.AT);
+        branchRollbackRequest.setResourceId("jdbc:mysql://127.0.0.1:3306/seata");
+        mergedWarpMessage.msgs.add(branchCommitRequest);
+        mergedWarpMessage.msgIds.add(10);
+        mergedWarpMessage.msgs.add(branchRollbackRequest);
+        mergedWarpMessage.msgIds.add(11);
+
+        byte[] body = seataSerializer.serialize(mergedWarpMessage);
+
+        MergedWarpMessage mergedWarpMessage2 = seataSerializer.deserialize(body);
+        assertThat(mergedWarpMessage2.msgIds).containsExactly(10, 11);
+        BranchCommitRequest branchCommitRequest2 = (BranchCommitRequest) mergedWarpMessage2.msgs.get(0);
+        assertThat(branchCommitRequest2.getXid()).isEqualTo(branchCommitRequest.getXid());
+        assertThat(branchCommitRequest2.getBranchId()).isEqualTo(branchCommitRequest.getBranchId());
+        BranchRollbackRequest branchRollbackRequest2 = (BranchRollbackRequest) mergedWarpMessage2.msgs.get(1);
+        assertThat(branchRollbackRequest2.getXid()).isEqualTo(branchRollbackRequest.getXid());
+        assertThat(branchRollbackRequest2.getResourceId()).isEqualTo(branchRollbackRequest.getResourceId());
+    }
+
     private GlobalBeginRequest buildGlobalBeginRequest(String name) {
         final GlobalBeginRequest globalBeginRequest = new GlobalBeginRequest();
         globalBeginRequest.setTransactionName(name);
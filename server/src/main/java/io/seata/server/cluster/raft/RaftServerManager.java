@@ -207,6 +207,8 @@ public class RaftServerManager {
         int snapshotInterval = CONFIG.getInt(SERVER_RAFT_SNAPSHOT_INTERVAL, 60 * 10);
         nodeOptions.setSnapshotIntervalSecs(snapshotInterval);
         nodeOptions.setRaftOptions(initRaftOptions());
+        // skip copying the snapshot files the follower already holds with the same checksum
+        nodeOptions.setFilterBeforeCopyRemote(true);
         // set the election timeout to 1 second
         nodeOptions
             .setElectionTimeoutMs(CONFIG.getInt(SERVER_RAFT_ELECTION_TIMEOUT_MS, DEFAULT_SERVER_RAFT_ELECTION_TIMEOUT_MS));
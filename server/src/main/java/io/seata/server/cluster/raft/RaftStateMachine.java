@@ -142,12 +142,15 @@ public class RaftStateMachine extends StateMachineAdapter {
                 ByteBuffer byteBuffer = iterator.getData();
                 // if data is empty, it is only a heartbeat event and can be ignored
                 if (byteBuffer != null && byteBuffer.hasRemaining()) {
-                    RaftBaseMsg msg = (RaftBaseMsg)RaftSyncMessageSerializer.decode(byteBuffer.array()).getBody();
-                    // follower executes the corresponding task
-                    if (LOGGER.isDebugEnabled()) {
-                        LOGGER.debug("sync msg: {}", msg);
+                    // an entry may carry the coalesced msgs of many proposals, executed in the order of proposing
+                    List<RaftBaseMsg> msgs = RaftSyncMessageSerializer.decodeMsgs(byteBuffer.array());
+                    for (RaftBaseMsg msg : msgs) {
+                        // follower executes the corresponding task
+                        if (LOGGER.isDebugEnabled()) {
+                            LOGGER.debug("sync msg: {}", msg);
+                        }
+                        onExecuteRaft(msg);
                     }
-                    onExecuteRaft(msg);
                 }
             }
             iterator.next();
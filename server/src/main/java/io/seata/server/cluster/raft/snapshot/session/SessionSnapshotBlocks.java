@@ -0,0 +1,391 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.server.cluster.raft.snapshot.session;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+import io.seata.core.compressor.CompressorFactory;
+import io.seata.server.session.BranchSession;
+import io.seata.server.session.GlobalSession;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The streaming block format of the session snapshot.
+ * <p>
+ * The sessions are partitioned by the window of their begin time and written in the order of the transaction id,
+ * every window is cut into blocks of about {@link #BLOCK_SIZE} raw bytes, a block is one file:
+ * <pre>
+ * block:    | magic (4) | version (1) | compressor (1) | raw length (4) | crc32 of raw (8) | compressed raw |
+ * raw:      | global session length (4) | global session | branch count (4) | branch length (4) | branch | ... |
+ * manifest: | magic (4) | version (1) | block count (4) | name | crc32 | sha-256 | session count | ... |
+ *           | session count (4) |
+ * </pre>
+ * The blocks of the old windows only hold the long-running sessions, they seldom change and keep the same name
+ * and sha-256 digest in the consecutive snapshots, so an unchanged block is linked from the last snapshot instead
+ * of being compressed again, and the followers which already hold it skip copying it. The crc32 only guards the
+ * block against corruption, it is too weak to tell two blocks apart.
+ * </p>
+ */
+public class SessionSnapshotBlocks {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SessionSnapshotBlocks.class);
+
+    /**
+     * the manifest file name
+     */
+    public static final String MANIFEST = "session_manifest";
+
+    /**
+     * the prefix of the block file names
+     */
+    public static final String BLOCK_PREFIX = "session_block_";
+
+    static final int BLOCK_SIZE = 1024 * 1024;
+
+    static final long WINDOW_MILLS = 60 * 1000L;
+
+    private static final int BLOCK_MAGIC = 0x53534E42;
+
+    private static final int MANIFEST_MAGIC = 0x53534E4D;
+
+    private static final byte VERSION = 1;
+
+    private static final int BLOCK_HEADER_LENGTH = 18;
+
+    private SessionSnapshotBlocks() {
+    }
+
+    /**
+     * Write the sessions into blocks.
+     *
+     * @param sessions       the sessions
+     * @param dir            the snapshot dir to write
+     * @param previousBlocks the blocks of the last snapshot, name to digest
+     * @param previousDir    the dir of the last snapshot, null if absent
+     * @param compressor     the compressor code
+     * @return the blocks written
+     * @throws IOException the io exception
+     */
+    public static List<Block> write(Collection<GlobalSession> sessions, File dir, Map<String, String> previousBlocks,
+        File previousDir, byte compressor) throws IOException {
+        Map<Long, List<GlobalSession>> windows = new TreeMap<>();
+        for (GlobalSession session : sessions) {
+            windows.computeIfAbsent(session.getBeginTime() / WINDOW_MILLS, key -> new ArrayList<>()).add(session);
+        }
+        List<Block> blocks = new ArrayList<>();
+        ByteArrayOutputStream raw = new ByteArrayOutputStream(BLOCK_SIZE + BLOCK_SIZE / 4);
+        DataOutputStream out = new DataOutputStream(raw);
+        for (Map.Entry<Long, List<GlobalSession>> window : windows.entrySet()) {
+            List<GlobalSession> windowSessions = window.getValue();
+            windowSessions.sort(Comparator.comparingLong(GlobalSession::getTransactionId));
+            int seq = 0;
+            int count = 0;
+            for (GlobalSession session : windowSessions) {
+                writeSession(out, session);
+                count++;
+                if (raw.size() >= BLOCK_SIZE) {
+                    blocks.add(writeBlock(dir, BLOCK_PREFIX + window.getKey() + "_" + seq++, raw, count,
+                        previousBlocks, previousDir, compressor));
+                    count = 0;
+                }
+            }
+            if (count > 0) {
+                blocks.add(writeBlock(dir, BLOCK_PREFIX + window.getKey() + "_" + seq, raw, count, previousBlocks,
+                    previousDir, compressor));
+            }
+        }
+        writeManifest(new File(dir, MANIFEST), blocks);
+        return blocks;
+    }
+
+    /**
+     * Read the sessions of the snapshot block by block, a block is verified before any of its sessions is
+     * restored.
+     *
+     * @param dir      the snapshot dir
+     * @param consumer consume the restored session
+     * @return the sessions read
+     * @throws IOException the io exception, e.g. a missing or corrupted block
+     */
+    public static int read(File dir, Consumer<GlobalSession> consumer) throws IOException {
+        List<Block> blocks = readManifest(new File(dir, MANIFEST));
+        int total = 0;
+        for (Block block : blocks) {
+            byte[] raw = readBlock(new File(dir, block.name), block);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+            for (int i = 0; i < block.sessionCount; i++) {
+                consumer.accept(readSession(in));
+            }
+            total += block.sessionCount;
+        }
+        return total;
+    }
+
+    private static void writeSession(DataOutputStream out, GlobalSession session) throws IOException {
+        byte[] global = session.encode();
+        out.writeInt(global.length);
+        out.write(global);
+        List<BranchSession> branches = session.getBranchSessions();
+        out.writeInt(branches.size());
+        for (BranchSession branch : branches) {
+            byte[] bytes = branch.encode();
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static GlobalSession readSession(DataInputStream in) throws IOException {
+        byte[] global = new byte[in.readInt()];
+        in.readFully(global);
+        int branchCount = in.readInt();
+        List<byte[]> branches = branchCount == 0 ? Collections.emptyList() : new ArrayList<>(branchCount);
+        for (int i = 0; i < branchCount; i++) {
+            byte[] branch = new byte[in.readInt()];
+            in.readFully(branch);
+            branches.add(branch);
+        }
+        return RaftSessionSnapshot.restoreGlobalSession(global, branches);
+    }
+
+    private static Block writeBlock(File dir, String name, ByteArrayOutputStream raw, int sessionCount,
+        Map<String, String> previousBlocks, File previousDir, byte compressor) throws IOException {
+        byte[] bytes = raw.toByteArray();
+        raw.reset();
+        CRC32 crc32 = new CRC32();
+        crc32.update(bytes, 0, bytes.length);
+        Block block = new Block(name, crc32.getValue(), digest(compressor, bytes), sessionCount, compressor);
+        File file = new File(dir, name);
+        if (previousDir != null && block.digest.equals(previousBlocks.get(name))) {
+            File previous = new File(previousDir, name);
+            if (previous.isFile() && linkOrCopy(previous, file)) {
+                block.reused = true;
+                return block;
+            }
+        }
+        byte[] compressed = CompressorFactory.getCompressor(compressor).compress(bytes);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(BLOCK_MAGIC);
+            out.writeByte(VERSION);
+            out.writeByte(compressor);
+            out.writeInt(bytes.length);
+            out.writeLong(block.crc);
+            out.write(compressed);
+        }
+        return block;
+    }
+
+    /**
+     * The sha-256 digest of the compressor and the raw bytes, which identify the content of the block file.
+     */
+    private static String digest(byte compressor, byte[] bytes) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        digest.update(compressor);
+        digest.update(bytes);
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static boolean linkOrCopy(File source, File target) {
+        try {
+            Files.createLink(target.toPath(), source.toPath());
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            try {
+                FileUtils.copyFile(source, target);
+                return true;
+            } catch (IOException ex) {
+                LOGGER.warn("Failed to reuse the snapshot block {}: {}", source, ex.getMessage());
+                return false;
+            }
+        }
+    }
+
+    private static byte[] readBlock(File file, Block block) throws IOException {
+        if (!file.isFile()) {
+            throw new IOException("missing snapshot block: " + file);
+        }
+        byte[] bytes = FileUtils.readFileToByteArray(file);
+        if (bytes.length < BLOCK_HEADER_LENGTH) {
+            throw new IOException("truncated snapshot block: " + file);
+        }
+        DataInputStream header = new DataInputStream(new ByteArrayInputStream(bytes, 0, BLOCK_HEADER_LENGTH));
+        if (header.readInt() != BLOCK_MAGIC || header.readByte() > VERSION) {
+            throw new IOException("unknown snapshot block: " + file);
+        }
+        byte compressor = header.readByte();
+        int rawLength = header.readInt();
+        long crc = header.readLong();
+        byte[] compressed = new byte[bytes.length - BLOCK_HEADER_LENGTH];
+        System.arraycopy(bytes, BLOCK_HEADER_LENGTH, compressed, 0, compressed.length);
+        byte[] raw = CompressorFactory.getCompressor(compressor).decompress(compressed);
+        CRC32 crc32 = new CRC32();
+        crc32.update(raw, 0, raw.length);
+        if (raw.length != rawLength || crc32.getValue() != crc || crc != block.crc) {
+            throw new IOException("corrupted snapshot block: " + file);
+        }
+        return raw;
+    }
+
+    private static void writeManifest(File file, List<Block> blocks) throws IOException {
+        int total = 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MANIFEST_MAGIC);
+            out.writeByte(VERSION);
+            out.writeInt(blocks.size());
+            for (Block block : blocks) {
+                out.writeUTF(block.name);
+                out.writeLong(block.crc);
+                out.writeUTF(block.digest);
+                out.writeInt(block.sessionCount);
+                total += block.sessionCount;
+            }
+            out.writeInt(total);
+        }
+    }
+
+    /**
+     * Read the blocks listed by the manifest.
+     *
+     * @param file the manifest file
+     * @return the blocks
+     * @throws IOException the io exception
+     */
+    public static List<Block> readManifest(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MANIFEST_MAGIC || in.readByte() > VERSION) {
+                throw new IOException("unknown snapshot manifest: " + file);
+            }
+            int count = in.readInt();
+            List<Block> blocks = new ArrayList<>(count);
+            int total = 0;
+            for (int i = 0; i < count; i++) {
+                Block block = new Block(in.readUTF(), in.readLong(), in.readUTF(), in.readInt(), (byte)0);
+                total += block.sessionCount;
+                blocks.add(block);
+            }
+            if (in.readInt() != total) {
+                throw new IOException("corrupted snapshot manifest: " + file);
+            }
+            return blocks;
+        }
+    }
+
+    /**
+     * Gets the name to digest of the blocks.
+     *
+     * @param blocks the blocks
+     * @return the map
+     */
+    public static Map<String, String> toDigestMap(List<Block> blocks) {
+        Map<String, String> digestMap = new HashMap<>(blocks.size() * 2);
+        blocks.forEach(block -> digestMap.put(block.name, block.digest));
+        return digestMap;
+    }
+
+    /**
+     * The block of the snapshot.
+     */
+    public static class Block {
+
+        private final String name;
+
+        private final long crc;
+
+        private final String digest;
+
+        private final int sessionCount;
+
+        private final byte compressor;
+
+        private boolean reused;
+
+        Block(String name, long crc, String digest, int sessionCount, byte compressor) {
+            this.name = name;
+            this.crc = crc;
+            this.digest = digest;
+            this.sessionCount = sessionCount;
+            this.compressor = compressor;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCrc() {
+            return crc;
+        }
+
+        public String getDigest() {
+            return digest;
+        }
+
+        public int getSessionCount() {
+            return sessionCount;
+        }
+
+        /**
+         * Whether the block is reused from the last snapshot.
+         *
+         * @return the boolean
+         */
+        public boolean isReused() {
+            return reused;
+        }
+
+        /**
+         * Gets the checksum of the block file, the sha-256 digest of its content, the same checksum means the same
+         * file content.
+         *
+         * @return the checksum
+         */
+        public String getChecksum() {
+            return digest;
+        }
+    }
+}
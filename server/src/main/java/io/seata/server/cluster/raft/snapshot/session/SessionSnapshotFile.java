@@ -19,11 +19,18 @@ package io.seata.server.cluster.raft.snapshot.session;
 import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import com.alipay.sofa.jraft.Status;
+import com.alipay.sofa.jraft.entity.LocalFileMetaOutter.LocalFileMeta;
 import com.alipay.sofa.jraft.error.RaftError;
 import com.alipay.sofa.jraft.storage.snapshot.SnapshotReader;
 import com.alipay.sofa.jraft.storage.snapshot.SnapshotWriter;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.compressor.CompressorType;
+import io.seata.core.exception.TransactionException;
 import io.seata.server.cluster.raft.snapshot.RaftSnapshot;
 import io.seata.server.cluster.raft.snapshot.StoreSnapshotFile;
 import io.seata.server.lock.LockerManagerFactory;
@@ -33,6 +40,11 @@ import io.seata.server.storage.raft.session.RaftSessionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static io.seata.common.DefaultValues.DEFAULT_RAFT_COMPACT_CODEC_ENABLE;
+import static io.seata.common.DefaultValues.DEFAULT_RAFT_COMPRESSOR;
+import static io.seata.core.constants.ConfigurationKeys.SERVER_RAFT_COMPACT_CODEC_ENABLE;
+import static io.seata.core.constants.ConfigurationKeys.SERVER_RAFT_COMPRESSOR;
+
 /**
  */
 public class SessionSnapshotFile implements Serializable,StoreSnapshotFile {
@@ -41,6 +53,22 @@ public class SessionSnapshotFile implements Serializable,StoreSnapshotFile {
 
     private static final long serialVersionUID = 7942307427240595916L;
 
+    /**
+     * the prefix of the snapshot dirs of jraft LocalSnapshotStorage
+     */
+    private static final String SNAPSHOT_DIR_PREFIX = "snapshot_";
+
+    /**
+     * the block format is written only if the compact codec is enabled, the nodes of the earlier versions
+     * cannot read it
+     */
+    private static final boolean BLOCK_FORMAT_ENABLE = ConfigurationFactory.getInstance()
+        .getBoolean(SERVER_RAFT_COMPACT_CODEC_ENABLE, DEFAULT_RAFT_COMPACT_CODEC_ENABLE);
+
+    private static final byte COMPRESSOR = CompressorType
+        .getByName(ConfigurationFactory.getInstance().getConfig(SERVER_RAFT_COMPRESSOR, DEFAULT_RAFT_COMPRESSOR))
+        .getCode();
+
     String group;
 
     String fileName = "session";
@@ -51,6 +79,51 @@ public class SessionSnapshotFile implements Serializable,StoreSnapshotFile {
 
     @Override
     public Status save(SnapshotWriter writer) {
+        if (!BLOCK_FORMAT_ENABLE) {
+            return saveWholeSnapshot(writer);
+        }
+        RaftSessionManager raftSessionManager = (RaftSessionManager)SessionHolder.getRootSessionManager(group);
+        Map<String, GlobalSession> sessionMap = raftSessionManager.getSessionMap();
+        File dir = new File(writer.getPath());
+        try {
+            File previousDir = findPreviousSnapshotDir(dir);
+            Map<String, String> previousBlocks = Collections.emptyMap();
+            if (previousDir != null) {
+                try {
+                    previousBlocks = SessionSnapshotBlocks.toDigestMap(
+                        SessionSnapshotBlocks.readManifest(new File(previousDir, SessionSnapshotBlocks.MANIFEST)));
+                } catch (IOException e) {
+                    LOGGER.warn("Fail to read the last snapshot {}, write all the blocks: {}", previousDir,
+                        e.getMessage());
+                    previousDir = null;
+                }
+            }
+            List<SessionSnapshotBlocks.Block> blocks =
+                SessionSnapshotBlocks.write(sessionMap.values(), dir, previousBlocks, previousDir, COMPRESSOR);
+            int reused = 0;
+            int sessions = 0;
+            for (SessionSnapshotBlocks.Block block : blocks) {
+                // the followers holding a block of the same name and sha-256 checksum skip copying it
+                if (!writer.addFile(block.getName(),
+                    LocalFileMeta.newBuilder().setChecksum(block.getChecksum()).build())) {
+                    return new Status(RaftError.EIO, "Fail to add file to writer");
+                }
+                reused += block.isReused() ? 1 : 0;
+                sessions += block.getSessionCount();
+            }
+            if (!writer.addFile(SessionSnapshotBlocks.MANIFEST)) {
+                return new Status(RaftError.EIO, "Fail to add file to writer");
+            }
+            LOGGER.info("groupId: {}, global session size: {}, blocks: {}, reused blocks: {}", group, sessions,
+                blocks.size(), reused);
+            return Status.OK();
+        } catch (IOException e) {
+            LOGGER.error("Fail to save groupId: {} snapshot {}", group, dir, e);
+            return new Status(RaftError.EIO, "Fail to save groupId: " + group + " snapshot %s", dir.getPath());
+        }
+    }
+
+    private Status saveWholeSnapshot(SnapshotWriter writer) {
         RaftSessionManager raftSessionManager = (RaftSessionManager)SessionHolder.getRootSessionManager(group);
         Map<String, GlobalSession> sessionMap = raftSessionManager.getSessionMap();
         RaftSessionSnapshot sessionSnapshot = new RaftSessionSnapshot();
@@ -74,8 +147,37 @@ public class SessionSnapshotFile implements Serializable,StoreSnapshotFile {
         return new Status(RaftError.EIO, "Fail to save groupId: " + group + " snapshot %s", path);
     }
 
+    /**
+     * the latest snapshot beside the temp dir being written, null if absent or not in the block format
+     */
+    private File findPreviousSnapshotDir(File dir) {
+        File parent = dir.getParentFile();
+        File[] snapshots = parent == null ? null
+            : parent.listFiles(file -> file.isDirectory() && file.getName().startsWith(SNAPSHOT_DIR_PREFIX));
+        if (snapshots == null) {
+            return null;
+        }
+        File previous = null;
+        long previousIndex = -1;
+        for (File snapshot : snapshots) {
+            try {
+                long index = Long.parseLong(snapshot.getName().substring(SNAPSHOT_DIR_PREFIX.length()));
+                if (index > previousIndex && new File(snapshot, SessionSnapshotBlocks.MANIFEST).isFile()) {
+                    previous = snapshot;
+                    previousIndex = index;
+                }
+            } catch (NumberFormatException ignore) {
+                // not a snapshot dir
+            }
+        }
+        return previous;
+    }
+
     @Override
     public boolean load(SnapshotReader reader) {
+        if (reader.getFileMeta(SessionSnapshotBlocks.MANIFEST) != null) {
+            return loadBlocks(reader);
+        }
         if (reader.getFileMeta(fileName) == null) {
             LOGGER.error("Fail to find data file in {}", reader.getPath());
             return false;
@@ -84,12 +186,8 @@ public class SessionSnapshotFile implements Serializable,StoreSnapshotFile {
         try {
             LOGGER.info("on snapshot load start index: {}", reader.load().getLastIncludedIndex());
             RaftSessionSnapshot sessionSnapshot = (RaftSessionSnapshot)load(path);
-            RaftSessionManager raftSessionManager = (RaftSessionManager)SessionHolder.getRootSessionManager(group);
-            Map<String, GlobalSession> rootSessionMap = raftSessionManager.getSessionMap();
-            // be sure to clear the data before loading it, because this is a full overwrite update
-            LockerManagerFactory.getLockManager().cleanAllLocks();
-            rootSessionMap.clear();
-            rootSessionMap.putAll(sessionSnapshot.convert2GlobalSession());
+            Map<String, GlobalSession> sessionMap = sessionSnapshot.convert2GlobalSession();
+            replaceSessions(sessionMap);
             if (LOGGER.isInfoEnabled()) {
                 LOGGER.info("on snapshot load end index: {}", reader.load().getLastIncludedIndex());
             }
@@ -100,4 +198,38 @@ public class SessionSnapshotFile implements Serializable,StoreSnapshotFile {
         }
     }
 
+    /**
+     * decode the sessions block by block, only one block of bytes is held in memory at a time, the sessions are
+     * installed only after every block is verified and decoded
+     */
+    private boolean loadBlocks(SnapshotReader reader) {
+        try {
+            LOGGER.info("on snapshot load start index: {}", reader.load().getLastIncludedIndex());
+            Map<String, GlobalSession> sessionMap = new HashMap<>();
+            int sessions = SessionSnapshotBlocks.read(new File(reader.getPath()),
+                globalSession -> sessionMap.put(globalSession.getXid(), globalSession));
+            replaceSessions(sessionMap);
+            if (LOGGER.isInfoEnabled()) {
+                LOGGER.info("on snapshot load end index: {}, global session size: {}",
+                    reader.load().getLastIncludedIndex(), sessions);
+            }
+            return true;
+        } catch (final Exception e) {
+            LOGGER.error("fail to load snapshot from {}", reader.getPath(), e);
+            return false;
+        }
+    }
+
+    /**
+     * the snapshot is a full overwrite update, the current data is cleared only once the snapshot is fully decoded,
+     * a broken snapshot leaves it untouched
+     */
+    private void replaceSessions(Map<String, GlobalSession> sessionMap) throws TransactionException {
+        RaftSessionManager raftSessionManager = (RaftSessionManager)SessionHolder.getRootSessionManager(group);
+        Map<String, GlobalSession> rootSessionMap = raftSessionManager.getSessionMap();
+        LockerManagerFactory.getLockManager().cleanAllLocks();
+        rootSessionMap.clear();
+        rootSessionMap.putAll(sessionMap);
+    }
+
 }
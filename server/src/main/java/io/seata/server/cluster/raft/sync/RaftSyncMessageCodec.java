@@ -0,0 +1,358 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.server.cluster.raft.sync;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import io.seata.core.compressor.CompressorFactory;
+import io.seata.server.cluster.raft.sync.msg.RaftBaseMsg;
+import io.seata.server.cluster.raft.sync.msg.RaftBranchSessionSyncMsg;
+import io.seata.server.cluster.raft.sync.msg.RaftGlobalSessionSyncMsg;
+import io.seata.server.cluster.raft.sync.msg.RaftSyncMsgType;
+import io.seata.server.cluster.raft.sync.msg.dto.BranchTransactionDTO;
+import io.seata.server.cluster.raft.sync.msg.dto.GlobalTransactionDTO;
+
+/**
+ * The compact binary codec of the session and lock messages in the raft log.
+ * <p>
+ * A log entry carries one or more messages:
+ * <pre>
+ * | magic (2) | version (1) | compressor (1) | compressed: count (varint) | message | message | ... |
+ * message: | msg type (1) | group (string) | field mask (varint) | the present fields in order |
+ * string:  | length (varint) | utf-8 bytes |
+ * </pre>
+ * Only the non-null fields are written, so a status update costs little more than its xid. The magic never starts
+ * a java serialization stream, which keeps the entries of {@link RaftSyncMessageSerializer} readable.
+ * </p>
+ */
+public class RaftSyncMessageCodec {
+
+    private static final byte MAGIC_HIGH = (byte)0x5E;
+
+    private static final byte MAGIC_LOW = (byte)0xA7;
+
+    private static final byte VERSION = 1;
+
+    private static final int HEADER_LENGTH = 4;
+
+    private static final RaftSyncMsgType[] MSG_TYPES = RaftSyncMsgType.values();
+
+    private RaftSyncMessageCodec() {
+    }
+
+    /**
+     * Whether the message can be encoded by the codec.
+     *
+     * @param msg the msg
+     * @return the boolean
+     */
+    public static boolean isSupported(Object msg) {
+        if (msg instanceof RaftGlobalSessionSyncMsg) {
+            return isGlobalMsgType(((RaftGlobalSessionSyncMsg)msg).getMsgType());
+        }
+        if (msg instanceof RaftBranchSessionSyncMsg) {
+            return isBranchMsgType(((RaftBranchSessionSyncMsg)msg).getMsgType());
+        }
+        return false;
+    }
+
+    /**
+     * Whether the log entry is encoded by the codec.
+     *
+     * @param bytes the bytes of the log entry
+     * @return the boolean
+     */
+    public static boolean isCompact(byte[] bytes) {
+        return bytes.length >= HEADER_LENGTH && bytes[0] == MAGIC_HIGH && bytes[1] == MAGIC_LOW;
+    }
+
+    /**
+     * Encode the messages into one log entry.
+     *
+     * @param msgs       the msgs, all of them must be {@link #isSupported(Object) supported}
+     * @param compressor the compressor code
+     * @return the bytes of the log entry
+     * @throws IOException the io exception
+     */
+    public static byte[] encode(List<? extends RaftBaseMsg> msgs, byte compressor) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(64 * msgs.size());
+        DataOutputStream out = new DataOutputStream(bos);
+        writeVarInt(out, msgs.size());
+        for (RaftBaseMsg msg : msgs) {
+            out.writeByte(msg.getMsgType().ordinal());
+            writeString(out, msg.getGroup());
+            if (msg instanceof RaftGlobalSessionSyncMsg) {
+                writeGlobal(out, ((RaftGlobalSessionSyncMsg)msg).getGlobalSession());
+            } else if (msg instanceof RaftBranchSessionSyncMsg) {
+                writeBranch(out, ((RaftBranchSessionSyncMsg)msg).getBranchSession());
+            } else {
+                throw new IllegalArgumentException("unsupported raft msg: " + msg);
+            }
+        }
+        out.flush();
+        byte[] body = CompressorFactory.getCompressor(compressor).compress(bos.toByteArray());
+        byte[] bytes = new byte[HEADER_LENGTH + body.length];
+        bytes[0] = MAGIC_HIGH;
+        bytes[1] = MAGIC_LOW;
+        bytes[2] = VERSION;
+        bytes[3] = compressor;
+        System.arraycopy(body, 0, bytes, HEADER_LENGTH, body.length);
+        return bytes;
+    }
+
+    /**
+     * Decode the messages of the log entry.
+     *
+     * @param bytes the bytes of the log entry
+     * @return the msgs in the order of encoding
+     * @throws IOException the io exception
+     */
+    public static List<RaftBaseMsg> decode(byte[] bytes) throws IOException {
+        if (!isCompact(bytes)) {
+            throw new IOException("not a compact raft log entry");
+        }
+        if (bytes[2] > VERSION) {
+            throw new IOException("unsupported raft log entry version: " + bytes[2]);
+        }
+        byte[] compressed = new byte[bytes.length - HEADER_LENGTH];
+        System.arraycopy(bytes, HEADER_LENGTH, compressed, 0, compressed.length);
+        byte[] body = CompressorFactory.getCompressor(bytes[3]).decompress(compressed);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+        int count = readVarInt(in);
+        List<RaftBaseMsg> msgs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int ordinal = in.readUnsignedByte();
+            if (ordinal >= MSG_TYPES.length) {
+                throw new IOException("unknown raft msg type: " + ordinal);
+            }
+            RaftSyncMsgType msgType = MSG_TYPES[ordinal];
+            String group = readString(in);
+            RaftBaseMsg msg;
+            if (isGlobalMsgType(msgType)) {
+                msg = new RaftGlobalSessionSyncMsg(msgType, readGlobal(in));
+            } else if (isBranchMsgType(msgType)) {
+                msg = new RaftBranchSessionSyncMsg(msgType, readBranch(in));
+            } else {
+                throw new IOException("unsupported raft msg type: " + msgType);
+            }
+            msg.setGroup(group);
+            msgs.add(msg);
+        }
+        return msgs;
+    }
+
+    private static boolean isGlobalMsgType(RaftSyncMsgType msgType) {
+        return msgType == RaftSyncMsgType.ADD_GLOBAL_SESSION || msgType == RaftSyncMsgType.REMOVE_GLOBAL_SESSION
+            || msgType == RaftSyncMsgType.UPDATE_GLOBAL_SESSION_STATUS
+            || msgType == RaftSyncMsgType.RELEASE_GLOBAL_SESSION_LOCK;
+    }
+
+    private static boolean isBranchMsgType(RaftSyncMsgType msgType) {
+        return msgType == RaftSyncMsgType.ADD_BRANCH_SESSION || msgType == RaftSyncMsgType.REMOVE_BRANCH_SESSION
+            || msgType == RaftSyncMsgType.UPDATE_BRANCH_SESSION_STATUS
+            || msgType == RaftSyncMsgType.RELEASE_BRANCH_SESSION_LOCK;
+    }
+
+    private static void writeGlobal(DataOutputStream out, GlobalTransactionDTO global) throws IOException {
+        if (global == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        Object[] fields = {global.getXid(), global.getTransactionId(), global.getStatus(), global.getApplicationId(),
+            global.getTransactionServiceGroup(), global.getTransactionName(), global.getTimeout(),
+            global.getBeginTime(), global.getApplicationData(), global.getGmtCreate(), global.getGmtModified()};
+        writeFields(out, fields);
+    }
+
+    private static GlobalTransactionDTO readGlobal(DataInputStream in) throws IOException {
+        int mask = readVarInt(in);
+        if (mask == 0) {
+            return null;
+        }
+        GlobalTransactionDTO global = new GlobalTransactionDTO();
+        if ((mask & 1) != 0) {
+            global.setXid(readString(in));
+        }
+        if ((mask & 1 << 1) != 0) {
+            global.setTransactionId(in.readLong());
+        }
+        if ((mask & 1 << 2) != 0) {
+            global.setStatus(in.readInt());
+        }
+        if ((mask & 1 << 3) != 0) {
+            global.setApplicationId(readString(in));
+        }
+        if ((mask & 1 << 4) != 0) {
+            global.setTransactionServiceGroup(readString(in));
+        }
+        if ((mask & 1 << 5) != 0) {
+            global.setTransactionName(readString(in));
+        }
+        if ((mask & 1 << 6) != 0) {
+            global.setTimeout(in.readInt());
+        }
+        if ((mask & 1 << 7) != 0) {
+            global.setBeginTime(in.readLong());
+        }
+        if ((mask & 1 << 8) != 0) {
+            global.setApplicationData(readString(in));
+        }
+        if ((mask & 1 << 9) != 0) {
+            global.setGmtCreate(new Date(in.readLong()));
+        }
+        if ((mask & 1 << 10) != 0) {
+            global.setGmtModified(new Date(in.readLong()));
+        }
+        return global;
+    }
+
+    private static void writeBranch(DataOutputStream out, BranchTransactionDTO branch) throws IOException {
+        if (branch == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        Object[] fields = {branch.getXid(), branch.getTransactionId(), branch.getBranchId(),
+            branch.getResourceGroupId(), branch.getResourceId(), branch.getBranchType(), branch.getStatus(),
+            branch.getClientId(), branch.getApplicationData(), branch.getGmtCreate(), branch.getGmtModified(),
+            branch.getLockKey()};
+        writeFields(out, fields);
+    }
+
+    private static BranchTransactionDTO readBranch(DataInputStream in) throws IOException {
+        int mask = readVarInt(in);
+        if (mask == 0) {
+            return null;
+        }
+        BranchTransactionDTO branch = new BranchTransactionDTO();
+        if ((mask & 1) != 0) {
+            branch.setXid(readString(in));
+        }
+        if ((mask & 1 << 1) != 0) {
+            branch.setTransactionId(in.readLong());
+        }
+        if ((mask & 1 << 2) != 0) {
+            branch.setBranchId(in.readLong());
+        }
+        if ((mask & 1 << 3) != 0) {
+            branch.setResourceGroupId(readString(in));
+        }
+        if ((mask & 1 << 4) != 0) {
+            branch.setResourceId(readString(in));
+        }
+        if ((mask & 1 << 5) != 0) {
+            branch.setBranchType(readString(in));
+        }
+        if ((mask & 1 << 6) != 0) {
+            branch.setStatus(in.readInt());
+        }
+        if ((mask & 1 << 7) != 0) {
+            branch.setClientId(readString(in));
+        }
+        if ((mask & 1 << 8) != 0) {
+            branch.setApplicationData(readString(in));
+        }
+        if ((mask & 1 << 9) != 0) {
+            branch.setGmtCreate(new Date(in.readLong()));
+        }
+        if ((mask & 1 << 10) != 0) {
+            branch.setGmtModified(new Date(in.readLong()));
+        }
+        if ((mask & 1 << 11) != 0) {
+            branch.setLockKey(readString(in));
+        }
+        return branch;
+    }
+
+    /**
+     * write the mask of the non-null fields, the highest bit marks an object whose fields are all null,
+     * then the non-null fields
+     */
+    private static void writeFields(DataOutputStream out, Object[] fields) throws IOException {
+        int mask = 1 << fields.length;
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] != null) {
+                mask |= 1 << i;
+            }
+        }
+        writeVarInt(out, mask);
+        for (Object field : fields) {
+            if (field == null) {
+                continue;
+            }
+            if (field instanceof String) {
+                writeString(out, (String)field);
+            } else if (field instanceof Long) {
+                out.writeLong((Long)field);
+            } else if (field instanceof Integer) {
+                out.writeInt((Integer)field);
+            } else if (field instanceof Date) {
+                out.writeLong(((Date)field).getTime());
+            } else {
+                throw new IllegalArgumentException("unsupported field type: " + field.getClass());
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        // 0 is null, so the length is shifted by one
+        writeVarInt(out, bytes.length + 1);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = readVarInt(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("malformed varint");
+    }
+}
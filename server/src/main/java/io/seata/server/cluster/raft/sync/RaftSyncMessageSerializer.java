@@ -21,21 +21,80 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import io.seata.common.loader.EnhancedServiceLoader;
+import io.seata.config.ConfigurationFactory;
 import io.seata.core.compressor.CompressorFactory;
+import io.seata.core.compressor.CompressorType;
 import io.seata.core.serializer.Serializer;
 import io.seata.core.serializer.SerializerType;
+import io.seata.server.cluster.raft.sync.msg.RaftBaseMsg;
 import io.seata.server.cluster.raft.sync.msg.RaftSyncMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static io.seata.common.DefaultValues.DEFAULT_RAFT_COMPACT_CODEC_ENABLE;
+import static io.seata.common.DefaultValues.DEFAULT_RAFT_COMPRESSOR;
+import static io.seata.core.constants.ConfigurationKeys.SERVER_RAFT_COMPACT_CODEC_ENABLE;
+import static io.seata.core.constants.ConfigurationKeys.SERVER_RAFT_COMPRESSOR;
+
 /**
  */
 public class RaftSyncMessageSerializer {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RaftSyncMessageSerializer.class);
 
+    /**
+     * disable it while rolling upgrading, the nodes of the earlier versions cannot read the compact entries
+     */
+    private static final boolean COMPACT_CODEC_ENABLE = ConfigurationFactory.getInstance()
+        .getBoolean(SERVER_RAFT_COMPACT_CODEC_ENABLE, DEFAULT_RAFT_COMPACT_CODEC_ENABLE);
+
+    private static final byte COMPRESSOR = CompressorType
+        .getByName(ConfigurationFactory.getInstance().getConfig(SERVER_RAFT_COMPRESSOR, DEFAULT_RAFT_COMPRESSOR))
+        .getCode();
+
+    /**
+     * Whether the msg is encoded by the compact codec, only these msgs can share a log entry.
+     *
+     * @param msg the msg
+     * @return the boolean
+     */
+    public static boolean isCompact(Object msg) {
+        return COMPACT_CODEC_ENABLE && RaftSyncMessageCodec.isSupported(msg);
+    }
+
+    /**
+     * Encode the msgs into one log entry with the compact codec.
+     *
+     * @param msgs the msgs
+     * @return the bytes
+     * @throws IOException the io exception
+     */
+    public static byte[] encode(List<? extends RaftBaseMsg> msgs) throws IOException {
+        return RaftSyncMessageCodec.encode(msgs, COMPRESSOR);
+    }
+
+    /**
+     * Decode the msgs of the log entry, written by either the compact codec or {@link #encode(RaftSyncMessage)}.
+     *
+     * @param bytes the bytes
+     * @return the msgs
+     */
+    public static List<RaftBaseMsg> decodeMsgs(byte[] bytes) {
+        if (RaftSyncMessageCodec.isCompact(bytes)) {
+            try {
+                return RaftSyncMessageCodec.decode(bytes);
+            } catch (IOException e) {
+                LOGGER.info("Failed to read raft synchronization log: {}", e.getMessage(), e);
+                throw new RuntimeException(e);
+            }
+        }
+        return Collections.singletonList((RaftBaseMsg)decode(bytes).getBody());
+    }
+
     public static byte[] encode(RaftSyncMessage raftSyncMessage) throws IOException {
         try (ByteArrayOutputStream bos = new ByteArrayOutputStream();
             ObjectOutputStream oos = new ObjectOutputStream(bos)) {
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.server.cluster.raft.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import com.alipay.sofa.jraft.Closure;
+import com.alipay.sofa.jraft.Status;
+import com.alipay.sofa.jraft.entity.Task;
+import com.alipay.sofa.jraft.error.RaftError;
+import io.seata.server.cluster.raft.sync.RaftSyncMessageSerializer;
+import io.seata.server.cluster.raft.sync.msg.RaftBaseMsg;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Coalesce the concurrent proposals of a raft group into multi-entry tasks.
+ * <p>
+ * A proposer enqueues its msg, then whoever wins the apply flag drains the pending proposals of all the threads
+ * into one task, so one log append and replication round trip carries all of them. There is no flush thread and no
+ * wait: an uncontended proposal is applied at once by its own thread, the batches only grow under contention.
+ * The closures run in the order of the proposals once the task is committed.
+ * </p>
+ */
+public class RaftProposalBatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RaftProposalBatcher.class);
+
+    private final int maxBatchSize;
+
+    private final Consumer<Task> applier;
+
+    private final Queue<Proposal> proposals = new ConcurrentLinkedQueue<>();
+
+    private final AtomicBoolean applying = new AtomicBoolean(false);
+
+    private final AtomicLong proposalCount = new AtomicLong();
+
+    private final AtomicLong taskCount = new AtomicLong();
+
+    /**
+     * Instantiates a new Raft proposal batcher.
+     *
+     * @param maxBatchSize the max proposals of a task
+     * @param applier      apply the task to the raft node
+     */
+    public RaftProposalBatcher(int maxBatchSize, Consumer<Task> applier) {
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.applier = applier;
+    }
+
+    /**
+     * Propose the msg.
+     *
+     * @param msg  the msg, must be encoded by the compact codec
+     * @param done run once the msg is committed or failed
+     */
+    public void propose(RaftBaseMsg msg, Closure done) {
+        proposals.offer(new Proposal(msg, done));
+        // check again after releasing the flag, a proposal may be enqueued while the other thread is applying
+        while (!proposals.isEmpty() && applying.compareAndSet(false, true)) {
+            try {
+                applyPending();
+            } finally {
+                applying.set(false);
+            }
+        }
+    }
+
+    private void applyPending() {
+        Proposal proposal;
+        while ((proposal = proposals.peek()) != null) {
+            List<Proposal> batch = new ArrayList<>(Math.min(maxBatchSize, 16));
+            List<RaftBaseMsg> msgs = new ArrayList<>(Math.min(maxBatchSize, 16));
+            while (batch.size() < maxBatchSize && (proposal = proposals.poll()) != null) {
+                batch.add(proposal);
+                msgs.add(proposal.msg);
+            }
+            Task task = new Task();
+            try {
+                task.setData(ByteBuffer.wrap(RaftSyncMessageSerializer.encode(msgs)));
+            } catch (IOException | RuntimeException e) {
+                LOGGER.error("Failed to encode raft proposals: {}", e.getMessage(), e);
+                runAll(batch, new Status(RaftError.EINTERNAL, "failed to encode raft proposals: %s", e.getMessage()));
+                continue;
+            }
+            task.setDone(status -> runAll(batch, status));
+            proposalCount.addAndGet(batch.size());
+            taskCount.incrementAndGet();
+            applier.accept(task);
+        }
+    }
+
+    private static void runAll(List<Proposal> batch, Status status) {
+        for (Proposal proposal : batch) {
+            try {
+                proposal.done.run(status);
+            } catch (Throwable e) {
+                LOGGER.error("Failed to run the closure of raft proposal {}: {}", proposal.msg, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Gets the proposals applied.
+     *
+     * @return the proposal count
+     */
+    public long getProposalCount() {
+        return proposalCount.get();
+    }
+
+    /**
+     * Gets the tasks applied, the proposals per task is the batching ratio.
+     *
+     * @return the task count
+     */
+    public long getTaskCount() {
+        return taskCount.get();
+    }
+
+    private static class Proposal {
+
+        private final RaftBaseMsg msg;
+
+        private final Closure done;
+
+        Proposal(RaftBaseMsg msg, Closure done) {
+            this.msg = msg;
+            this.done = done;
+        }
+    }
+}
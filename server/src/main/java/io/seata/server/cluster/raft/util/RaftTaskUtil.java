@@ -18,24 +18,46 @@ package io.seata.server.cluster.raft.util;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import com.alipay.sofa.jraft.Closure;
 import com.alipay.sofa.jraft.entity.Task;
+import io.seata.common.util.CollectionUtils;
+import io.seata.config.ConfigurationFactory;
 import io.seata.core.exception.GlobalTransactionException;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.exception.TransactionExceptionCode;
 import io.seata.server.cluster.raft.RaftServerManager;
 import io.seata.server.cluster.raft.context.SeataClusterContext;
 import io.seata.server.cluster.raft.sync.RaftSyncMessageSerializer;
+import io.seata.server.cluster.raft.sync.msg.RaftBaseMsg;
 import io.seata.server.cluster.raft.sync.msg.RaftSyncMessage;
 
+import static io.seata.common.DefaultValues.DEFAULT_RAFT_PROPOSAL_BATCH_SIZE;
+import static io.seata.core.constants.ConfigurationKeys.SERVER_RAFT_PROPOSAL_BATCH_SIZE;
+
 /**
  */
 public class RaftTaskUtil {
 
+    private static final int PROPOSAL_BATCH_SIZE = ConfigurationFactory.getInstance()
+        .getInt(SERVER_RAFT_PROPOSAL_BATCH_SIZE, DEFAULT_RAFT_PROPOSAL_BATCH_SIZE);
+
+    private static final Map<String, RaftProposalBatcher> BATCHERS = new ConcurrentHashMap<>();
+
     public static boolean createTask(Closure done, Object data, CompletableFuture<Boolean> completableFuture)
         throws TransactionException {
+        if (RaftSyncMessageSerializer.isCompact(data)) {
+            // the session and lock msgs are coalesced with the concurrent ones into one log entry
+            getBatcher(SeataClusterContext.getGroup()).propose((RaftBaseMsg)data, done == null ? status -> {
+            } : done);
+            if (completableFuture != null) {
+                return futureGet(completableFuture);
+            }
+            return true;
+        }
         final Task task = new Task();
         if (data != null) {
             RaftSyncMessage raftSyncMessage = new RaftSyncMessage();
@@ -60,6 +82,11 @@ public class RaftTaskUtil {
         return createTask(done, null, completableFuture);
     }
 
+    private static RaftProposalBatcher getBatcher(String group) {
+        return CollectionUtils.computeIfAbsent(BATCHERS, group, key -> new RaftProposalBatcher(PROPOSAL_BATCH_SIZE,
+            task -> RaftServerManager.getRaftServer(key).getNode().apply(task)));
+    }
+
     public static boolean futureGet(CompletableFuture<Boolean> completableFuture) throws TransactionException {
         try {
             return completableFuture.get();
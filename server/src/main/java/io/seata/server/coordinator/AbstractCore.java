@@ -17,6 +17,8 @@
 package io.seata.server.coordinator;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeoutException;
 
 import io.seata.common.ConfigurationKeys;
@@ -39,6 +41,7 @@ import io.seata.core.protocol.transaction.BranchRollbackResponse;
 import io.seata.core.rpc.RemotingServer;
 import io.seata.server.lock.LockManager;
 import io.seata.server.lock.LockerManagerFactory;
+import io.seata.server.metrics.MetricsPublisher;
 import io.seata.server.session.BranchSession;
 import io.seata.server.session.GlobalSession;
 import io.seata.server.session.SessionHelper;
@@ -86,6 +89,7 @@ public abstract class AbstractCore implements Core {
     @Override
     public Long branchRegister(BranchType branchType, String resourceId, String clientId, String xid,
                                String applicationData, String lockKeys) throws TransactionException {
+        long start = System.nanoTime();
         GlobalSession globalSession = assertGlobalSessionNotNull(xid, false);
         try {
             StringUtils.checkDataSize(applicationData, "applicationData", appDataErrSize, throwDataSizeExp);
@@ -94,7 +98,7 @@ public abstract class AbstractCore implements Core {
                     String.format("Failed to store branch xid = %s ", globalSession.getXid()), e);
         }
 
-        return SessionHolder.lockAndExecute(globalSession, () -> {
+        Long branchId = SessionHolder.lockAndExecute(globalSession, () -> {
             globalSessionStatusCheck(globalSession);
             BranchSession branchSession = SessionHelper.newBranchByGlobal(globalSession, branchType, resourceId,
                     applicationData, lockKeys, clientId);
@@ -114,6 +118,8 @@ public abstract class AbstractCore implements Core {
             }
             return branchSession.getBranchId();
         });
+        MetricsPublisher.postBranchRegisterEvent(globalSession, branchType, System.nanoTime() - start);
+        return branchId;
     }
 
     protected void globalSessionStatusCheck(GlobalSession globalSession) throws GlobalTransactionException {
@@ -174,17 +180,9 @@ public abstract class AbstractCore implements Core {
     @Override
     public BranchStatus branchCommit(GlobalSession globalSession, BranchSession branchSession) throws TransactionException {
         try {
-            BranchCommitRequest request = new BranchCommitRequest();
-            request.setXid(branchSession.getXid());
-            request.setBranchId(branchSession.getBranchId());
-            request.setResourceId(branchSession.getResourceId());
-            request.setApplicationData(branchSession.getApplicationData());
-            request.setBranchType(branchSession.getBranchType());
-            return branchCommitSend(request, globalSession, branchSession);
+            return branchCommitSend(buildBranchCommitRequest(branchSession), globalSession, branchSession);
         } catch (IOException | TimeoutException e) {
-            throw new BranchTransactionException(FailedToSendBranchCommitRequest,
-                    String.format("Send branch commit failed, xid = %s branchId = %s", branchSession.getXid(),
-                            branchSession.getBranchId()), e);
+            throw branchCommitSendFailed(branchSession, e);
         }
     }
 
@@ -196,20 +194,55 @@ public abstract class AbstractCore implements Core {
         return response.getBranchStatus();
     }
 
+    /**
+     * Commit a branch transaction without blocking the caller.
+     *
+     * @param globalSession the global session
+     * @param branchSession the branch session
+     * @return the future of the branch status after committing, completed exceptionally if the request failed
+     */
+    public CompletableFuture<BranchStatus> branchCommitAsync(GlobalSession globalSession, BranchSession branchSession) {
+        CompletableFuture<BranchStatus> future;
+        try {
+            future = branchCommitSendAsync(buildBranchCommitRequest(branchSession), globalSession, branchSession);
+        } catch (Exception e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+        return future.handle((branchStatus, cause) -> {
+            Throwable e = unwrap(cause);
+            if (e instanceof IOException || e instanceof TimeoutException) {
+                throw new CompletionException(branchCommitSendFailed(branchSession, (Exception) e));
+            }
+            if (e != null) {
+                throw new CompletionException(e);
+            }
+            return branchStatus;
+        });
+    }
+
+    /**
+     * Send the branch commit request without blocking the caller, the asynchronous counterpart of
+     * {@link #branchCommitSend}. The core overriding {@link #branchCommitSend} should override it as well.
+     *
+     * @param request       the branch commit request
+     * @param globalSession the global session
+     * @param branchSession the branch session
+     * @return the future of the branch status
+     */
+    protected CompletableFuture<BranchStatus> branchCommitSendAsync(BranchCommitRequest request,
+                                                                    GlobalSession globalSession,
+                                                                    BranchSession branchSession) {
+        return remotingServer.sendSyncRequestAsync(branchSession.getResourceId(), branchSession.getClientId(),
+            request, branchSession.isAT()).thenApply(response -> ((BranchCommitResponse) response).getBranchStatus());
+    }
+
     @Override
     public BranchStatus branchRollback(GlobalSession globalSession, BranchSession branchSession) throws TransactionException {
         try {
-            BranchRollbackRequest request = new BranchRollbackRequest();
-            request.setXid(branchSession.getXid());
-            request.setBranchId(branchSession.getBranchId());
-            request.setResourceId(branchSession.getResourceId());
-            request.setApplicationData(branchSession.getApplicationData());
-            request.setBranchType(branchSession.getBranchType());
-            return branchRollbackSend(request, globalSession, branchSession);
+            return branchRollbackSend(buildBranchRollbackRequest(branchSession), globalSession, branchSession);
         } catch (IOException | TimeoutException e) {
-            throw new BranchTransactionException(FailedToSendBranchRollbackRequest,
-                    String.format("Send branch rollback failed, xid = %s branchId = %s",
-                            branchSession.getXid(), branchSession.getBranchId()), e);
+            throw branchRollbackSendFailed(branchSession, e);
         }
     }
 
@@ -221,6 +254,122 @@ public abstract class AbstractCore implements Core {
         return response.getBranchStatus();
     }
 
+    /**
+     * Rollback a branch transaction without blocking the caller.
+     *
+     * @param globalSession the global session
+     * @param branchSession the branch session
+     * @return the future of the branch status after rollbacking, completed exceptionally if the request failed
+     */
+    public CompletableFuture<BranchStatus> branchRollbackAsync(GlobalSession globalSession,
+                                                               BranchSession branchSession) {
+        CompletableFuture<BranchStatus> future;
+        try {
+            future = branchRollbackSendAsync(buildBranchRollbackRequest(branchSession), globalSession, branchSession);
+        } catch (Exception e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+        return future.handle((branchStatus, cause) -> {
+            Throwable e = unwrap(cause);
+            if (e instanceof IOException || e instanceof TimeoutException) {
+                throw new CompletionException(branchRollbackSendFailed(branchSession, (Exception) e));
+            }
+            if (e != null) {
+                throw new CompletionException(e);
+            }
+            return branchStatus;
+        });
+    }
+
+    /**
+     * Send the branch rollback request without blocking the caller, the asynchronous counterpart of
+     * {@link #branchRollbackSend}. The core overriding {@link #branchRollbackSend} should override it as well.
+     *
+     * @param request       the branch rollback request
+     * @param globalSession the global session
+     * @param branchSession the branch session
+     * @return the future of the branch status
+     */
+    protected CompletableFuture<BranchStatus> branchRollbackSendAsync(BranchRollbackRequest request,
+                                                                      GlobalSession globalSession,
+                                                                      BranchSession branchSession) {
+        return remotingServer.sendSyncRequestAsync(branchSession.getResourceId(), branchSession.getClientId(),
+            request, branchSession.isAT()).thenApply(response -> ((BranchRollbackResponse) response).getBranchStatus());
+    }
+
+    /**
+     * Complete the future with the branch status of the blocking send hook, for the core whose requests are not
+     * sent by the resource id of the branch.
+     *
+     * @param send the blocking send
+     * @return the completed future
+     */
+    protected static CompletableFuture<BranchStatus> completedSend(BranchSend send) {
+        CompletableFuture<BranchStatus> future = new CompletableFuture<>();
+        try {
+            future.complete(send.send());
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private static BranchCommitRequest buildBranchCommitRequest(BranchSession branchSession) {
+        BranchCommitRequest request = new BranchCommitRequest();
+        request.setXid(branchSession.getXid());
+        request.setBranchId(branchSession.getBranchId());
+        request.setResourceId(branchSession.getResourceId());
+        request.setApplicationData(branchSession.getApplicationData());
+        request.setBranchType(branchSession.getBranchType());
+        return request;
+    }
+
+    private static BranchRollbackRequest buildBranchRollbackRequest(BranchSession branchSession) {
+        BranchRollbackRequest request = new BranchRollbackRequest();
+        request.setXid(branchSession.getXid());
+        request.setBranchId(branchSession.getBranchId());
+        request.setResourceId(branchSession.getResourceId());
+        request.setApplicationData(branchSession.getApplicationData());
+        request.setBranchType(branchSession.getBranchType());
+        return request;
+    }
+
+    private static BranchTransactionException branchCommitSendFailed(BranchSession branchSession, Exception e) {
+        return new BranchTransactionException(FailedToSendBranchCommitRequest,
+                String.format("Send branch commit failed, xid = %s branchId = %s", branchSession.getXid(),
+                        branchSession.getBranchId()), e);
+    }
+
+    private static BranchTransactionException branchRollbackSendFailed(BranchSession branchSession, Exception e) {
+        return new BranchTransactionException(FailedToSendBranchRollbackRequest,
+                String.format("Send branch rollback failed, xid = %s branchId = %s",
+                        branchSession.getXid(), branchSession.getBranchId()), e);
+    }
+
+    private static Throwable unwrap(Throwable cause) {
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    /**
+     * The blocking send of a branch request.
+     */
+    @FunctionalInterface
+    protected interface BranchSend {
+
+        /**
+         * Send the request.
+         *
+         * @return the branch status
+         * @throws IOException      the io exception
+         * @throws TimeoutException the timeout exception
+         */
+        BranchStatus send() throws IOException, TimeoutException;
+    }
+
     @Override
     public String begin(String applicationId, String transactionServiceGroup, String name, int timeout)
             throws TransactionException {
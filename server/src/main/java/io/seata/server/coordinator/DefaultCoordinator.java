@@ -16,13 +16,16 @@
  */
 package io.seata.server.coordinator;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import io.netty.channel.Channel;
 import io.seata.common.thread.NamedThreadFactory;
@@ -82,9 +85,13 @@ import static io.seata.common.DefaultValues.DEFAULT_COMMITING_RETRY_PERIOD;
 import static io.seata.common.DefaultValues.DEFAULT_ENABLE_BRANCH_ASYNC_REMOVE;
 import static io.seata.common.DefaultValues.DEFAULT_MAX_COMMIT_RETRY_TIMEOUT;
 import static io.seata.common.DefaultValues.DEFAULT_MAX_ROLLBACK_RETRY_TIMEOUT;
+import static io.seata.common.DefaultValues.DEFAULT_RECOVERY_RESOURCE_MAX_CONCURRENCY;
+import static io.seata.common.DefaultValues.DEFAULT_RECOVERY_SHARD_COUNT;
+import static io.seata.common.DefaultValues.DEFAULT_RECOVERY_SHARD_QUEUE_SIZE;
 import static io.seata.common.DefaultValues.DEFAULT_ROLLBACKING_RETRY_PERIOD;
 import static io.seata.common.DefaultValues.DEFAULT_ROLLBACK_RETRY_TIMEOUT_UNLOCK_ENABLE;
 import static io.seata.common.DefaultValues.DEFAULT_TIMEOUT_RETRY_PERIOD;
+import static io.seata.common.DefaultValues.DEFAULT_TIMEOUT_SWEEP_PERIOD;
 import static io.seata.common.DefaultValues.DEFAULT_UNDO_LOG_DELETE_PERIOD;
 
 /**
@@ -122,6 +129,12 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
     protected static final long TIMEOUT_RETRY_PERIOD = CONFIG.getLong(ConfigurationKeys.TIMEOUT_RETRY_PERIOD,
             DEFAULT_TIMEOUT_RETRY_PERIOD);
 
+    /**
+     * The constant TIMEOUT_SWEEP_PERIOD.
+     */
+    protected static final long TIMEOUT_SWEEP_PERIOD = CONFIG.getLong(ConfigurationKeys.TIMEOUT_SWEEP_PERIOD,
+            DEFAULT_TIMEOUT_SWEEP_PERIOD);
+
     /**
      * The Transaction undo log delete period.
      */
@@ -154,6 +167,15 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
     private static final boolean ROLLBACK_RETRY_TIMEOUT_UNLOCK_ENABLE = ConfigurationFactory.getInstance().getBoolean(
             ConfigurationKeys.ROLLBACK_RETRY_TIMEOUT_UNLOCK_ENABLE, DEFAULT_ROLLBACK_RETRY_TIMEOUT_UNLOCK_ENABLE);
 
+    private static final int RECOVERY_SHARD_COUNT = CONFIG.getInt(ConfigurationKeys.RECOVERY_SHARD_COUNT,
+            DEFAULT_RECOVERY_SHARD_COUNT);
+
+    private static final int RECOVERY_SHARD_QUEUE_SIZE = CONFIG.getInt(ConfigurationKeys.RECOVERY_SHARD_QUEUE_SIZE,
+            DEFAULT_RECOVERY_SHARD_QUEUE_SIZE);
+
+    private static final int RECOVERY_RESOURCE_MAX_CONCURRENCY = CONFIG.getInt(
+            ConfigurationKeys.RECOVERY_RESOURCE_MAX_CONCURRENCY, DEFAULT_RECOVERY_RESOURCE_MAX_CONCURRENCY);
+
     private final ScheduledThreadPoolExecutor retryRollbacking =
         new ScheduledThreadPoolExecutor(1, new NamedThreadFactory(RETRY_ROLLBACKING, 1));
 
@@ -169,6 +191,27 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
     private final ScheduledThreadPoolExecutor undoLogDelete =
         new ScheduledThreadPoolExecutor(1, new NamedThreadFactory(UNDOLOG_DELETE, 1));
 
+    private final RecoveryShardExecutor retryRollbackingExecutor = new RecoveryShardExecutor(RETRY_ROLLBACKING,
+        RECOVERY_SHARD_COUNT, RECOVERY_SHARD_QUEUE_SIZE, RECOVERY_RESOURCE_MAX_CONCURRENCY);
+
+    private final RecoveryShardExecutor retryCommittingExecutor = new RecoveryShardExecutor(RETRY_COMMITTING,
+        RECOVERY_SHARD_COUNT, RECOVERY_SHARD_QUEUE_SIZE, RECOVERY_RESOURCE_MAX_CONCURRENCY);
+
+    private final RecoveryShardExecutor asyncCommittingExecutor = new RecoveryShardExecutor(ASYNC_COMMITTING,
+        RECOVERY_SHARD_COUNT, RECOVERY_SHARD_QUEUE_SIZE, RECOVERY_RESOURCE_MAX_CONCURRENCY);
+
+    private final SessionRetryBackoff retryRollbackingBackoff = new SessionRetryBackoff();
+
+    private final SessionRetryBackoff retryCommittingBackoff = new SessionRetryBackoff();
+
+    private final SessionRetryBackoff asyncCommittingBackoff = new SessionRetryBackoff();
+
+    /**
+     * the timeout check does not send any RPC to the RMs, so the sessions are not capped by resource
+     */
+    private final RecoveryShardExecutor timeoutCheckExecutor = new RecoveryShardExecutor(TX_TIMEOUT_CHECK,
+        RECOVERY_SHARD_COUNT, RECOVERY_SHARD_QUEUE_SIZE, 0);
+
     private final GlobalStatus[] rollbackingStatuses = new GlobalStatus[] {GlobalStatus.TimeoutRollbacking,
         GlobalStatus.TimeoutRollbackRetrying, GlobalStatus.RollbackRetrying, GlobalStatus.Rollbacking};
 
@@ -319,7 +362,34 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
     }
 
     /**
-     * Timeout check.
+     * Timeout check of the sessions whose deadline has passed in the session timeout wheel.
+     */
+    protected void timeoutExpire() {
+        List<String> expiredXids = SessionHolder.getSessionTimeoutWheel().expire(System.currentTimeMillis());
+        if (expiredXids.isEmpty()) {
+            return;
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Global transaction timeout expire, size: {}", expiredXids.size());
+        }
+        List<GlobalSession> expiredGlobalSessions = new ArrayList<>(expiredXids.size());
+        for (String xid : expiredXids) {
+            try {
+                GlobalSession globalSession = SessionHolder.findGlobalSession(xid, false);
+                if (globalSession != null && globalSession.getStatus() == GlobalStatus.Begin) {
+                    expiredGlobalSessions.add(globalSession);
+                }
+            } catch (Exception e) {
+                LOGGER.error("Failed to find the expired global session [{}] {}", xid, e.getMessage(), e);
+            }
+        }
+        timeoutCheckExecutor.execute(expiredGlobalSessions, this::timeoutGlobalSession);
+    }
+
+    /**
+     * Timeout check of all the sessions in Begin status of the store.
+     * It is the safety net of {@link #timeoutExpire()} for the sessions which are not in the local timeout wheel,
+     * e.g. the sessions began on another TC node before failover.
      */
     protected void timeoutCheck() {
         SessionCondition sessionCondition = new SessionCondition(GlobalStatus.Begin);
@@ -332,33 +402,35 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
         if (!beginGlobalsessions.isEmpty() && LOGGER.isDebugEnabled()) {
             LOGGER.debug("Global transaction timeout check begin, size: {}", beginGlobalsessions.size());
         }
-        SessionHelper.forEach(beginGlobalsessions, globalSession -> {
-            if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug(
-                        globalSession.getXid() + " " + globalSession.getStatus() + " " + globalSession.getBeginTime() + " "
-                                + globalSession.getTimeout());
+        timeoutCheckExecutor.execute(beginGlobalsessions, this::timeoutGlobalSession);
+        if (!beginGlobalsessions.isEmpty() && LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Global transaction timeout check end. ");
+        }
+
+    }
+
+    private void timeoutGlobalSession(GlobalSession globalSession) throws TransactionException {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug(
+                    globalSession.getXid() + " " + globalSession.getStatus() + " " + globalSession.getBeginTime() + " "
+                            + globalSession.getTimeout());
+        }
+        SessionHolder.lockAndExecute(globalSession, () -> {
+            if (globalSession.getStatus() != GlobalStatus.Begin || !globalSession.isTimeout()) {
+                return false;
             }
-            SessionHolder.lockAndExecute(globalSession, () -> {
-                if (globalSession.getStatus() != GlobalStatus.Begin || !globalSession.isTimeout()) {
-                    return false;
-                }
 
-                LOGGER.warn("Global transaction[{}] is timeout and will be rollback,transaction begin time:{} and now:{}", globalSession.getXid(),
-                    DateFormatUtils.format(globalSession.getBeginTime(), TIME_FORMAT_PATTERN), DateFormatUtils.format(System.currentTimeMillis(), TIME_FORMAT_PATTERN));
+            LOGGER.warn("Global transaction[{}] is timeout and will be rollback,transaction begin time:{} and now:{}", globalSession.getXid(),
+                DateFormatUtils.format(globalSession.getBeginTime(), TIME_FORMAT_PATTERN), DateFormatUtils.format(System.currentTimeMillis(), TIME_FORMAT_PATTERN));
 
-                globalSession.close();
-                globalSession.changeGlobalStatus(GlobalStatus.TimeoutRollbacking);
+            globalSession.close();
+            globalSession.changeGlobalStatus(GlobalStatus.TimeoutRollbacking);
 
-                // transaction timeout and start rollbacking event
-                MetricsPublisher.postSessionDoingEvent(globalSession, GlobalStatus.TimeoutRollbacking.name(), false, false);
+            // transaction timeout and start rollbacking event
+            MetricsPublisher.postSessionDoingEvent(globalSession, GlobalStatus.TimeoutRollbacking.name(), false, false);
 
-                return true;
-            });
+            return true;
         });
-        if (!beginGlobalsessions.isEmpty() && LOGGER.isDebugEnabled()) {
-            LOGGER.debug("Global transaction timeout check end. ");
-        }
-
     }
 
 
@@ -374,14 +446,15 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
             return;
         }
         long now = System.currentTimeMillis();
-        SessionHelper.forEach(rollbackingSessions, rollbackingSession -> {
+        retryRollbackingBackoff.expungeStale(now);
+        // prevent repeated rollback, filtered before sharding to avoid loading their branches
+        List<GlobalSession> retryRollbackingSessions = rollbackingSessions.stream()
+            .filter(rollbackingSession -> rollbackingSession.getStatus() != GlobalStatus.Rollbacking
+                || rollbackingSession.isDeadSession())
+            .filter(rollbackingSession -> retryRollbackingBackoff.isDue(rollbackingSession, now))
+            .collect(Collectors.toList());
+        retryRollbackingExecutor.execute(retryRollbackingSessions, rollbackingSession -> {
             try {
-                // prevent repeated rollback
-                if (rollbackingSession.getStatus() == GlobalStatus.Rollbacking
-                    && !rollbackingSession.isDeadSession()) {
-                    // The function of this 'return' is 'continue'.
-                    return;
-                }
                 if (isRetryTimeout(now, MAX_ROLLBACK_RETRY_TIMEOUT, rollbackingSession.getBeginTime())) {
                     if (ROLLBACK_RETRY_TIMEOUT_UNLOCK_ENABLE) {
                         rollbackingSession.clean();
@@ -392,8 +465,9 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
                     //The function of this 'return' is 'continue'.
                     return;
                 }
-                core.doGlobalRollback(rollbackingSession, true);
+                retryRollbackingBackoff.onRetried(rollbackingSession, core.doGlobalRollback(rollbackingSession, true));
             } catch (TransactionException ex) {
+                retryRollbackingBackoff.onRetried(rollbackingSession, false);
                 LOGGER.error("Failed to retry rollbacking [{}] {} {}", rollbackingSession.getXid(), ex.getCode(), ex.getMessage());
             }
         });
@@ -411,15 +485,16 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
             return;
         }
         long now = System.currentTimeMillis();
-        SessionHelper.forEach(committingSessions, committingSession -> {
+        retryCommittingBackoff.expungeStale(now);
+        // prevent repeated commit, filtered before sharding to avoid loading their branches
+        List<GlobalSession> retryCommittingSessions = committingSessions.stream()
+            .filter(committingSession -> !(GlobalStatus.Committing.equals(committingSession.getStatus())
+                || GlobalStatus.Committed.equals(committingSession.getStatus()))
+                || committingSession.isDeadSession())
+            .filter(committingSession -> retryCommittingBackoff.isDue(committingSession, now))
+            .collect(Collectors.toList());
+        retryCommittingExecutor.execute(retryCommittingSessions, committingSession -> {
             try {
-                // prevent repeated commit
-                if ((GlobalStatus.Committing.equals(committingSession.getStatus())
-                        || GlobalStatus.Committed.equals(committingSession.getStatus()))
-                        && !committingSession.isDeadSession()) {
-                    // The function of this 'return' is 'continue'.
-                    return;
-                }
                 if (isRetryTimeout(now, MAX_COMMIT_RETRY_TIMEOUT, committingSession.getBeginTime())) {
 
                     // commit retry timeout event
@@ -432,8 +507,9 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
                     && committingSession.getBranchSessions().isEmpty()) {
                     SessionHelper.endCommitted(committingSession,true);
                 }
-                core.doGlobalCommit(committingSession, true);
+                retryCommittingBackoff.onRetried(committingSession, retryCommit(committingSession));
             } catch (TransactionException ex) {
+                retryCommittingBackoff.onRetried(committingSession, false);
                 LOGGER.error("Failed to retry committing [{}] {} {}", committingSession.getXid(), ex.getCode(), ex.getMessage());
             }
         });
@@ -449,10 +525,16 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
         if (CollectionUtils.isEmpty(asyncCommittingSessions)) {
             return;
         }
-        SessionHelper.forEach(asyncCommittingSessions, asyncCommittingSession -> {
+        long now = System.currentTimeMillis();
+        asyncCommittingBackoff.expungeStale(now);
+        List<GlobalSession> dueAsyncCommittingSessions = asyncCommittingSessions.stream()
+            .filter(asyncCommittingSession -> asyncCommittingBackoff.isDue(asyncCommittingSession, now))
+            .collect(Collectors.toList());
+        asyncCommittingExecutor.execute(dueAsyncCommittingSessions, asyncCommittingSession -> {
             try {
-                core.doGlobalCommit(asyncCommittingSession, true);
+                asyncCommittingBackoff.onRetried(asyncCommittingSession, retryCommit(asyncCommittingSession));
             } catch (TransactionException ex) {
+                asyncCommittingBackoff.onRetried(asyncCommittingSession, false);
                 LOGGER.error("Failed to async committing [{}] {} {}", asyncCommittingSession.getXid(), ex.getCode(), ex.getMessage(), ex);
             }
         });
@@ -484,6 +566,26 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
         }
     }
 
+    /**
+     * Retry committing the session.
+     * The failed branches of an async committing session do not fail the commit, so the remaining branches count.
+     *
+     * @param committingSession the committing session
+     * @return whether the commit is done
+     * @throws TransactionException the transaction exception
+     */
+    private boolean retryCommit(GlobalSession committingSession) throws TransactionException {
+        return core.doGlobalCommit(committingSession, true) && !committingSession.hasBranch();
+    }
+
+    private void timeoutExpireSafely() {
+        try {
+            timeoutExpire();
+        } catch (Exception e) {
+            LOGGER.error("Exception running timeout expire", e);
+        }
+    }
+
     private boolean isRetryTimeout(long now, long timeout, long beginTime) {
         return timeout >= ALWAYS_RETRY_BOUNDARY && now - beginTime > timeout;
     }
@@ -504,9 +606,13 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
             () -> SessionHolder.distributedLockAndExecute(ASYNC_COMMITTING, this::handleAsyncCommitting), 0,
             ASYNC_COMMITTING_RETRY_PERIOD, TimeUnit.MILLISECONDS);
 
+        // the timeout wheel only holds the sessions began on this node, so no distributed lock is needed
+        timeoutCheck.scheduleAtFixedRate(this::timeoutExpireSafely, TIMEOUT_RETRY_PERIOD,
+            TIMEOUT_RETRY_PERIOD, TimeUnit.MILLISECONDS);
+
         timeoutCheck.scheduleAtFixedRate(
             () -> SessionHolder.distributedLockAndExecute(TX_TIMEOUT_CHECK, this::timeoutCheck), 0,
-            TIMEOUT_RETRY_PERIOD, TimeUnit.MILLISECONDS);
+            TIMEOUT_SWEEP_PERIOD, TimeUnit.MILLISECONDS);
 
         undoLogDelete.scheduleAtFixedRate(
             () -> SessionHolder.distributedLockAndExecute(UNDOLOG_DELETE, this::undoLogDelete),
@@ -540,6 +646,10 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
         asyncCommitting.shutdown();
         timeoutCheck.shutdown();
         undoLogDelete.shutdown();
+        retryRollbackingExecutor.destroy();
+        retryCommittingExecutor.destroy();
+        asyncCommittingExecutor.destroy();
+        timeoutCheckExecutor.destroy();
         if (branchRemoveExecutor != null) {
             branchRemoveExecutor.shutdown();
         }
@@ -16,9 +16,17 @@
  */
 package io.seata.server.coordinator;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
 
 import io.seata.common.DefaultValues;
 import io.seata.common.exception.NotSupportYetException;
@@ -32,8 +40,10 @@ import io.seata.core.model.BranchStatus;
 import io.seata.core.model.BranchType;
 import io.seata.core.model.GlobalStatus;
 import io.seata.core.rpc.RemotingServer;
+import io.seata.metrics.IdConstants;
 import io.seata.server.metrics.MetricsPublisher;
 import io.seata.server.session.BranchSession;
+import io.seata.server.session.BranchSessionHandler;
 import io.seata.server.session.GlobalSession;
 import io.seata.server.session.SessionHelper;
 import io.seata.server.session.SessionHolder;
@@ -59,7 +69,12 @@ public class DefaultCore implements Core {
 
     private static Map<BranchType, AbstractCore> coreMap = new ConcurrentHashMap<>();
 
-    private static final boolean PARALLEL_HANDLE_BRANCH =
+    /**
+     * the branch is handled without the phase two request
+     */
+    private static final Boolean SKIP = Boolean.TRUE;
+
+    private boolean parallelHandleBranch =
             ConfigurationFactory.getInstance().getBoolean(ENABLE_PARALLEL_HANDLE_BRANCH_KEY, false);
 
     /**
@@ -101,6 +116,15 @@ public class DefaultCore implements Core {
         coreMap.put(branchType, core);
     }
 
+    /**
+     * only for test
+     *
+     * @param parallelHandleBranch whether to dispatch the branches of different resources in parallel
+     */
+    void setParallelHandleBranch(boolean parallelHandleBranch) {
+        this.parallelHandleBranch = parallelHandleBranch;
+    }
+
     @Override
     public Long branchRegister(BranchType branchType, String resourceId, String clientId, String xid,
                                String applicationData, String lockKeys) throws TransactionException {
@@ -122,12 +146,62 @@ public class DefaultCore implements Core {
 
     @Override
     public BranchStatus branchCommit(GlobalSession globalSession, BranchSession branchSession) throws TransactionException {
-        return getCore(branchSession.getBranchType()).branchCommit(globalSession, branchSession);
+        long start = System.nanoTime();
+        BranchStatus branchStatus = null;
+        try {
+            branchStatus = getCore(branchSession.getBranchType()).branchCommit(globalSession, branchSession);
+            return branchStatus;
+        } finally {
+            MetricsPublisher.postBranchPhaseTwoDoneEvent(globalSession, branchSession,
+                phaseTwoStatusValue(branchStatus), System.nanoTime() - start);
+        }
     }
 
     @Override
     public BranchStatus branchRollback(GlobalSession globalSession, BranchSession branchSession) throws TransactionException {
-        return getCore(branchSession.getBranchType()).branchRollback(globalSession, branchSession);
+        long start = System.nanoTime();
+        BranchStatus branchStatus = null;
+        try {
+            branchStatus = getCore(branchSession.getBranchType()).branchRollback(globalSession, branchSession);
+            return branchStatus;
+        } finally {
+            MetricsPublisher.postBranchPhaseTwoDoneEvent(globalSession, branchSession,
+                phaseTwoStatusValue(branchStatus), System.nanoTime() - start);
+        }
+    }
+
+    private CompletableFuture<BranchStatus> branchCommitAsync(GlobalSession globalSession, BranchSession branchSession) {
+        long start = System.nanoTime();
+        CompletableFuture<BranchStatus> future =
+            getCore(branchSession.getBranchType()).branchCommitAsync(globalSession, branchSession);
+        future.whenComplete((branchStatus, cause) -> MetricsPublisher.postBranchPhaseTwoDoneEvent(globalSession,
+            branchSession, phaseTwoStatusValue(branchStatus), System.nanoTime() - start));
+        return future;
+    }
+
+    private CompletableFuture<BranchStatus> branchRollbackAsync(GlobalSession globalSession, BranchSession branchSession) {
+        long start = System.nanoTime();
+        CompletableFuture<BranchStatus> future =
+            getCore(branchSession.getBranchType()).branchRollbackAsync(globalSession, branchSession);
+        future.whenComplete((branchStatus, cause) -> MetricsPublisher.postBranchPhaseTwoDoneEvent(globalSession,
+            branchSession, phaseTwoStatusValue(branchStatus), System.nanoTime() - start));
+        return future;
+    }
+
+    /**
+     * The status tag of the branch phase two event, a branch which is not done or fails to be sent goes to failed.
+     *
+     * @param branchStatus the status returned by the branch, null if it failed
+     * @return the status value
+     */
+    private static String phaseTwoStatusValue(BranchStatus branchStatus) {
+        if (branchStatus == BranchStatus.PhaseTwo_Committed) {
+            return IdConstants.STATUS_VALUE_COMMITTED;
+        }
+        if (branchStatus == BranchStatus.PhaseTwo_Rollbacked) {
+            return IdConstants.STATUS_VALUE_ROLLBACKED;
+        }
+        return IdConstants.STATUS_VALUE_FAILED;
     }
 
     @Override
@@ -164,6 +238,7 @@ public class DefaultCore implements Core {
             if (globalSession.getStatus() == GlobalStatus.Begin) {
                 // Highlight: Firstly, close the session, then no more branch can be registered.
                 globalSession.close();
+                MetricsPublisher.postPhaseOneDoneEvent(globalSession, IdConstants.STATUS_VALUE_COMMITTED);
                 if (globalSession.canBeCommittedAsync()) {
                     globalSession.asyncCommit();
                     MetricsPublisher.postSessionDoneEvent(globalSession, GlobalStatus.Committed, false, false);
@@ -201,60 +276,38 @@ public class DefaultCore implements Core {
             success = getCore(BranchType.SAGA).doGlobalCommit(globalSession, retrying);
         } else {
             List<BranchSession> branchSessions = globalSession.getSortedBranches();
-            Boolean result = SessionHelper.forEach(branchSessions, branchSession -> {
+            BranchSessionHandler skipHandler = branchSession -> {
                 // if not retrying, skip the canBeCommittedAsync branches
                 if (!retrying && branchSession.canBeCommittedAsync()) {
-                    return CONTINUE;
+                    return SKIP;
                 }
-
-                BranchStatus currentStatus = branchSession.getStatus();
-                if (currentStatus == BranchStatus.PhaseOne_Failed) {
+                if (branchSession.getStatus() == BranchStatus.PhaseOne_Failed) {
                     SessionHelper.removeBranch(globalSession, branchSession, !retrying);
-                    return CONTINUE;
+                    return SKIP;
                 }
-                try {
-                    BranchStatus branchStatus = getCore(branchSession.getBranchType()).branchCommit(globalSession, branchSession);
-                    if (isXaerNotaTimeout(globalSession,branchStatus)) {
-                        LOGGER.info("Commit branch XAER_NOTA retry timeout, xid = {} branchId = {}", globalSession.getXid(), branchSession.getBranchId());
-                        branchStatus = BranchStatus.PhaseTwo_Committed;
-                    }
-                    switch (branchStatus) {
-                        case PhaseTwo_Committed:
-                            SessionHelper.removeBranch(globalSession, branchSession, !retrying);
-                            LOGGER.info("Commit branch transaction successfully, xid = {} branchId = {}", globalSession.getXid(), branchSession.getBranchId());
-                            return CONTINUE;
-                        case PhaseTwo_CommitFailed_Unretryable:
-                            //not at branch
-                            SessionHelper.endCommitFailed(globalSession, retrying);
-                            LOGGER.error("Committing global transaction[{}] finally failed, caused by branch transaction[{}] commit failed.", globalSession.getXid(), branchSession.getBranchId());
-                            return false;
-
-                        default:
-                            if (!retrying) {
-                                globalSession.queueToRetryCommit();
-                                return false;
-                            }
-                            if (globalSession.canBeCommittedAsync()) {
-                                LOGGER.error("Committing branch transaction[{}], status:{} and will retry later",
-                                    branchSession.getBranchId(), branchStatus);
-                                return CONTINUE;
-                            } else {
-                                LOGGER.error(
-                                    "Committing global transaction[{}] failed, caused by branch transaction[{}] commit failed, will retry later.", globalSession.getXid(), branchSession.getBranchId());
-                                return false;
-                            }
+                return CONTINUE;
+            };
+            BranchResultHandler resultHandler = (branchSession, branchStatus, cause, decided) ->
+                handleBranchCommitResult(globalSession, branchSession, branchStatus, cause, retrying, decided);
+            Boolean result;
+            if (parallelHandleBranch && branchSessions.size() >= 2) {
+                result = dispatchBranches(globalSession, branchSessions, skipHandler, branchSession ->
+                    branchCommitAsync(globalSession, branchSession), resultHandler);
+            } else {
+                result = SessionHelper.forEach(branchSessions, branchSession -> {
+                    if (skipHandler.handle(branchSession) != CONTINUE) {
+                        return CONTINUE;
                     }
-                } catch (Exception ex) {
-                    String commitInfo = retrying ? "Global commit continue" : "Global commit failed";
-                    StackTraceLogger.error(LOGGER, ex, "Committing branch transaction exception:retrying={}, {}, {}",
-                        new String[] {String.valueOf(retrying), branchSession.toString(), commitInfo});
-                    if (!retrying) {
-                        globalSession.queueToRetryCommit();
-                        throw new TransactionException(ex);
+                    BranchStatus branchStatus = null;
+                    Exception cause = null;
+                    try {
+                        branchStatus = branchCommit(globalSession, branchSession);
+                    } catch (Exception ex) {
+                        cause = ex;
                     }
-                }
-                return CONTINUE;
-            }, PARALLEL_HANDLE_BRANCH && branchSessions.size() >= 2);
+                    return resultHandler.handle(branchSession, branchStatus, cause, false);
+                });
+            }
             // Return if the result is not null
             if (result != null) {
                 return result;
@@ -286,6 +339,7 @@ public class DefaultCore implements Core {
             globalSession.close(); // Highlight: Firstly, close the session, then no more branch can be registered.
             if (globalSession.getStatus() == GlobalStatus.Begin) {
                 globalSession.changeGlobalStatus(GlobalStatus.Rollbacking);
+                MetricsPublisher.postPhaseOneDoneEvent(globalSession, IdConstants.STATUS_VALUE_ROLLBACKED);
                 return true;
             }
             return false;
@@ -308,44 +362,34 @@ public class DefaultCore implements Core {
             success = getCore(BranchType.SAGA).doGlobalRollback(globalSession, retrying);
         } else {
             List<BranchSession> branchSessions = globalSession.getReverseSortedBranches();
-            Boolean result = SessionHelper.forEach(branchSessions, branchSession -> {
-                BranchStatus currentBranchStatus = branchSession.getStatus();
-                if (currentBranchStatus == BranchStatus.PhaseOne_Failed) {
+            BranchSessionHandler skipHandler = branchSession -> {
+                if (branchSession.getStatus() == BranchStatus.PhaseOne_Failed) {
                     SessionHelper.removeBranch(globalSession, branchSession, !retrying);
-                    return CONTINUE;
+                    return SKIP;
                 }
-                try {
-                    BranchStatus branchStatus = branchRollback(globalSession, branchSession);
-                    if (isXaerNotaTimeout(globalSession, branchStatus)) {
-                        LOGGER.info("Rollback branch XAER_NOTA retry timeout, xid = {} branchId = {}", globalSession.getXid(), branchSession.getBranchId());
-                        branchStatus = BranchStatus.PhaseTwo_Rollbacked;
-                    }
-                    switch (branchStatus) {
-                        case PhaseTwo_Rollbacked:
-                            SessionHelper.removeBranch(globalSession, branchSession, !retrying);
-                            LOGGER.info("Rollback branch transaction successfully, xid = {} branchId = {}", globalSession.getXid(), branchSession.getBranchId());
-                            return CONTINUE;
-                        case PhaseTwo_RollbackFailed_Unretryable:
-                            SessionHelper.endRollbackFailed(globalSession, retrying);
-                            LOGGER.error("Rollback branch transaction fail and stop retry, xid = {} branchId = {}", globalSession.getXid(), branchSession.getBranchId());
-                            return false;
-                        default:
-                            LOGGER.error("Rollback branch transaction fail and will retry, xid = {} branchId = {}", globalSession.getXid(), branchSession.getBranchId());
-                            if (!retrying) {
-                                globalSession.queueToRetryRollback();
-                            }
-                            return false;
+                return CONTINUE;
+            };
+            BranchResultHandler resultHandler = (branchSession, branchStatus, cause, decided) ->
+                handleBranchRollbackResult(globalSession, branchSession, branchStatus, cause, retrying, decided);
+            Boolean result;
+            if (parallelHandleBranch && branchSessions.size() >= 2) {
+                result = dispatchBranches(globalSession, branchSessions, skipHandler, branchSession ->
+                    branchRollbackAsync(globalSession, branchSession), resultHandler);
+            } else {
+                result = SessionHelper.forEach(branchSessions, branchSession -> {
+                    if (skipHandler.handle(branchSession) != CONTINUE) {
+                        return CONTINUE;
                     }
-                } catch (Exception ex) {
-                    StackTraceLogger.error(LOGGER, ex,
-                        "Rollback branch transaction exception, xid = {} ,branchId = {} ,retrying={} ,exception = {}, global rollback failed",
-                        new String[] {globalSession.getXid(), String.valueOf(branchSession.getBranchId()), String.valueOf(retrying), ex.getMessage()});
-                    if (!retrying) {
-                        globalSession.queueToRetryRollback();
+                    BranchStatus branchStatus = null;
+                    Exception cause = null;
+                    try {
+                        branchStatus = branchRollback(globalSession, branchSession);
+                    } catch (Exception ex) {
+                        cause = ex;
                     }
-                    throw new TransactionException(ex);
-                }
-            }, PARALLEL_HANDLE_BRANCH && branchSessions.size() >= 2);
+                    return resultHandler.handle(branchSession, branchStatus, cause, false);
+                });
+            }
             // Return if the result is not null
             if (result != null) {
                 return result;
@@ -388,6 +432,229 @@ public class DefaultCore implements Core {
         }
     }
 
+    private Boolean handleBranchCommitResult(GlobalSession globalSession, BranchSession branchSession,
+                                             BranchStatus branchStatus, Exception cause, boolean retrying,
+                                             boolean decided) throws TransactionException {
+        if (cause == null) {
+            try {
+                return handleBranchCommitStatus(globalSession, branchSession, branchStatus, retrying, decided);
+            } catch (Exception ex) {
+                cause = ex;
+            }
+        }
+        String commitInfo = retrying ? "Global commit continue" : "Global commit failed";
+        StackTraceLogger.error(LOGGER, cause, "Committing branch transaction exception:retrying={}, {}, {}",
+            new String[] {String.valueOf(retrying), branchSession.toString(), commitInfo});
+        if (!retrying) {
+            if (!decided) {
+                globalSession.queueToRetryCommit();
+            }
+            throw new TransactionException(cause);
+        }
+        return CONTINUE;
+    }
+
+    private Boolean handleBranchCommitStatus(GlobalSession globalSession, BranchSession branchSession,
+                                             BranchStatus branchStatus, boolean retrying, boolean decided)
+        throws TransactionException {
+        if (isXaerNotaTimeout(globalSession,branchStatus)) {
+            LOGGER.info("Commit branch XAER_NOTA retry timeout, xid = {} branchId = {}", globalSession.getXid(), branchSession.getBranchId());
+            branchStatus = BranchStatus.PhaseTwo_Committed;
+        }
+        switch (branchStatus) {
+            case PhaseTwo_Committed:
+                SessionHelper.removeBranch(globalSession, branchSession, !retrying);
+                LOGGER.info("Commit branch transaction successfully, xid = {} branchId = {}", globalSession.getXid(), branchSession.getBranchId());
+                return CONTINUE;
+            case PhaseTwo_CommitFailed_Unretryable:
+                //not at branch
+                SessionHelper.endCommitFailed(globalSession, retrying);
+                LOGGER.error("Committing global transaction[{}] finally failed, caused by branch transaction[{}] commit failed.", globalSession.getXid(), branchSession.getBranchId());
+                return false;
+
+            default:
+                if (!retrying) {
+                    if (!decided) {
+                        globalSession.queueToRetryCommit();
+                    }
+                    return false;
+                }
+                if (globalSession.canBeCommittedAsync()) {
+                    LOGGER.error("Committing branch transaction[{}], status:{} and will retry later",
+                        branchSession.getBranchId(), branchStatus);
+                    return CONTINUE;
+                } else {
+                    LOGGER.error(
+                        "Committing global transaction[{}] failed, caused by branch transaction[{}] commit failed, will retry later.", globalSession.getXid(), branchSession.getBranchId());
+                    return false;
+                }
+        }
+    }
+
+    private Boolean handleBranchRollbackResult(GlobalSession globalSession, BranchSession branchSession,
+                                               BranchStatus branchStatus, Exception cause, boolean retrying,
+                                               boolean decided) throws TransactionException {
+        if (cause == null) {
+            try {
+                return handleBranchRollbackStatus(globalSession, branchSession, branchStatus, retrying, decided);
+            } catch (Exception ex) {
+                cause = ex;
+            }
+        }
+        StackTraceLogger.error(LOGGER, cause,
+            "Rollback branch transaction exception, xid = {} ,branchId = {} ,retrying={} ,exception = {}, global rollback failed",
+            new String[] {globalSession.getXid(), String.valueOf(branchSession.getBranchId()), String.valueOf(retrying), cause.getMessage()});
+        if (!retrying && !decided) {
+            globalSession.queueToRetryRollback();
+        }
+        throw new TransactionException(cause);
+    }
+
+    private Boolean handleBranchRollbackStatus(GlobalSession globalSession, BranchSession branchSession,
+                                               BranchStatus branchStatus, boolean retrying, boolean decided)
+        throws TransactionException {
+        if (isXaerNotaTimeout(globalSession, branchStatus)) {
+            LOGGER.info("Rollback branch XAER_NOTA retry timeout, xid = {} branchId = {}", globalSession.getXid(), branchSession.getBranchId());
+            branchStatus = BranchStatus.PhaseTwo_Rollbacked;
+        }
+        switch (branchStatus) {
+            case PhaseTwo_Rollbacked:
+                SessionHelper.removeBranch(globalSession, branchSession, !retrying);
+                LOGGER.info("Rollback branch transaction successfully, xid = {} branchId = {}", globalSession.getXid(), branchSession.getBranchId());
+                return CONTINUE;
+            case PhaseTwo_RollbackFailed_Unretryable:
+                SessionHelper.endRollbackFailed(globalSession, retrying);
+                LOGGER.error("Rollback branch transaction fail and stop retry, xid = {} branchId = {}", globalSession.getXid(), branchSession.getBranchId());
+                return false;
+            default:
+                LOGGER.error("Rollback branch transaction fail and will retry, xid = {} branchId = {}", globalSession.getXid(), branchSession.getBranchId());
+                if (!retrying && !decided) {
+                    globalSession.queueToRetryRollback();
+                }
+                return false;
+        }
+    }
+
+    /**
+     * Dispatch the phase two requests of the branches without parking a thread per request.
+     * <p>
+     * The branches of the same resource keep their order: every round takes the next branch of each resource,
+     * fires all their requests and waits for them once. The results of the round are all handled in order on the
+     * caller thread, so the branches done by the RMs are removed and their failures are recorded even if an earlier
+     * branch of the round already decided the result, but only the deciding result queues the global session to retry.
+     * Once the global session has ended, only the done branches are still removed, the other results are logged. The
+     * first non-null result, or the first exception, is returned after the round.
+     * </p>
+     *
+     * @param globalSession  the global session
+     * @param branchSessions the branch sessions
+     * @param skipHandler    handles the branch which needs no request, returns non-null if it is done
+     * @param sender         sends the request of the branch
+     * @param resultHandler  handles the branch status or the exception of the request
+     * @return the first non-null result, null if all the branches are handled
+     * @throws TransactionException the transaction exception
+     */
+    private Boolean dispatchBranches(GlobalSession globalSession, List<BranchSession> branchSessions,
+                                     BranchSessionHandler skipHandler,
+                                     Function<BranchSession, CompletableFuture<BranchStatus>> sender,
+                                     BranchResultHandler resultHandler) throws TransactionException {
+        Map<String, Deque<BranchSession>> resourceBranches = new LinkedHashMap<>();
+        for (BranchSession branchSession : branchSessions) {
+            resourceBranches.computeIfAbsent(branchSession.getResourceId(), k -> new ArrayDeque<>()).add(branchSession);
+        }
+        while (!resourceBranches.isEmpty()) {
+            List<BranchSession> round = new ArrayList<>(resourceBranches.size());
+            List<CompletableFuture<BranchStatus>> futures = new ArrayList<>(resourceBranches.size());
+            Iterator<Deque<BranchSession>> iterator = resourceBranches.values().iterator();
+            while (iterator.hasNext()) {
+                Deque<BranchSession> branches = iterator.next();
+                BranchSession branchSession;
+                while ((branchSession = branches.poll()) != null) {
+                    if (skipHandler.handle(branchSession) == CONTINUE) {
+                        round.add(branchSession);
+                        futures.add(sender.apply(branchSession));
+                        break;
+                    }
+                }
+                if (branches.isEmpty()) {
+                    iterator.remove();
+                }
+            }
+            Boolean result = null;
+            TransactionException exception = null;
+            for (int i = 0; i < round.size(); i++) {
+                BranchSession branchSession = round.get(i);
+                BranchStatus branchStatus = null;
+                Exception cause = null;
+                try {
+                    branchStatus = futures.get(i).get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new TransactionException(e);
+                } catch (ExecutionException e) {
+                    cause = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                }
+                boolean decided = result != null || exception != null;
+                if (decided && isEnded(globalSession.getStatus()) && !isBranchDone(branchStatus)) {
+                    LOGGER.warn("The global session has ended with status {}, ignore the result of the branch, "
+                            + "xid = {} branchId = {} branchStatus = {}", globalSession.getStatus(),
+                        globalSession.getXid(), branchSession.getBranchId(), branchStatus, cause);
+                    continue;
+                }
+                try {
+                    MDC.put(RootContext.MDC_KEY_BRANCH_ID, String.valueOf(branchSession.getBranchId()));
+                    Boolean branchResult = resultHandler.handle(branchSession, branchStatus, cause, decided);
+                    if (!decided) {
+                        result = branchResult;
+                    }
+                } catch (TransactionException e) {
+                    if (!decided) {
+                        exception = e;
+                    }
+                } finally {
+                    MDC.remove(RootContext.MDC_KEY_BRANCH_ID);
+                }
+            }
+            if (exception != null) {
+                throw exception;
+            }
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isBranchDone(BranchStatus branchStatus) {
+        return branchStatus == BranchStatus.PhaseTwo_Committed || branchStatus == BranchStatus.PhaseTwo_Rollbacked;
+    }
+
+    private static boolean isEnded(GlobalStatus status) {
+        return status == GlobalStatus.CommitFailed || status == GlobalStatus.CommitRetryTimeout
+            || status == GlobalStatus.RollbackFailed || status == GlobalStatus.TimeoutRollbackFailed
+            || status == GlobalStatus.RollbackRetryTimeout;
+    }
+
+    /**
+     * The handler of the branch status or the exception of the phase two request.
+     */
+    @FunctionalInterface
+    private interface BranchResultHandler {
+
+        /**
+         * Handle the result of the branch.
+         *
+         * @param branchSession the branch session
+         * @param branchStatus  the branch status, null if the request failed
+         * @param cause         the exception of the request
+         * @param decided       whether an earlier branch of the round already decided the result
+         * @return null to continue, or the result of the global transaction
+         * @throws TransactionException the transaction exception
+         */
+        Boolean handle(BranchSession branchSession, BranchStatus branchStatus, Exception cause, boolean decided)
+            throws TransactionException;
+    }
+
     private boolean isXaerNotaTimeout(GlobalSession globalSession, BranchStatus branchStatus) {
         if (BranchStatus.PhaseTwo_CommitFailed_XAER_NOTA_Retryable.equals(branchStatus) ||
                 BranchStatus.PhaseTwo_RollbackFailed_XAER_NOTA_Retryable.equals(branchStatus)) {
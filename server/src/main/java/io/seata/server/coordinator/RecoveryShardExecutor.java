@@ -0,0 +1,281 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.server.coordinator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.seata.common.thread.NamedThreadFactory;
+import io.seata.common.util.CollectionUtils;
+import io.seata.core.context.RootContext;
+import io.seata.core.rpc.Disposable;
+import io.seata.metrics.Id;
+import io.seata.metrics.IdConstants;
+import io.seata.metrics.registry.Registry;
+import io.seata.server.cluster.raft.context.SeataClusterContext;
+import io.seata.server.metrics.MetricsManager;
+import io.seata.server.session.BranchSession;
+import io.seata.server.session.GlobalSession;
+import io.seata.server.session.GlobalSessionHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+/**
+ * The executor of the recovery tasks (retry committing, retry rollbacking, async committing and timeout check).
+ * <p>
+ * The sessions of one pass are partitioned into shards by the hash of xid, every shard has its own worker and
+ * bounded queue. The sessions which can not be queued are left to the next pass, and the sessions touching
+ * the same resource are capped by {@code resourceMaxConcurrency}, so one slow RM can not starve the others.
+ * A session waits in turn for the permits of its resources, the waits are bounded so a stuck RM only defers its
+ * sessions to the next pass.
+ * </p>
+ */
+public class RecoveryShardExecutor implements Disposable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RecoveryShardExecutor.class);
+
+    private static final int SHUTDOWN_MAX_WAIT_MILLS = 5000;
+
+    private static final long DEFAULT_RESOURCE_PERMIT_MAX_WAIT_MILLS = 10000;
+
+    private final String name;
+
+    private final Shard[] shards;
+
+    private final int resourceMaxConcurrency;
+
+    private final long resourcePermitMaxWaitMills;
+
+    private final Map<String, Semaphore> resourcePermits = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new Recovery shard executor.
+     *
+     * @param name                   the name of the recovery task
+     * @param shardCount             the shard count
+     * @param shardQueueSize         the queue size of each shard
+     * @param resourceMaxConcurrency the max concurrent sessions per resource, less than 1 means unlimited
+     */
+    public RecoveryShardExecutor(String name, int shardCount, int shardQueueSize, int resourceMaxConcurrency) {
+        this(name, shardCount, shardQueueSize, resourceMaxConcurrency, DEFAULT_RESOURCE_PERMIT_MAX_WAIT_MILLS);
+    }
+
+    /**
+     * Instantiates a new Recovery shard executor.
+     *
+     * @param name                       the name of the recovery task
+     * @param shardCount                 the shard count
+     * @param shardQueueSize             the queue size of each shard
+     * @param resourceMaxConcurrency     the max concurrent sessions per resource, less than 1 means unlimited
+     * @param resourcePermitMaxWaitMills the max time a session waits for the permit of a busy resource
+     */
+    public RecoveryShardExecutor(String name, int shardCount, int shardQueueSize, int resourceMaxConcurrency,
+                                 long resourcePermitMaxWaitMills) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("shardCount must be greater than 0: " + shardCount);
+        }
+        if (shardQueueSize <= 0) {
+            throw new IllegalArgumentException("shardQueueSize must be greater than 0: " + shardQueueSize);
+        }
+        this.name = name;
+        this.resourceMaxConcurrency = resourceMaxConcurrency;
+        this.resourcePermitMaxWaitMills = resourcePermitMaxWaitMills;
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i, shardQueueSize);
+        }
+    }
+
+    /**
+     * Execute one pass of the recovery task and wait for its completion.
+     *
+     * @param sessions the global sessions
+     * @param handler  the handler
+     */
+    public void execute(Collection<GlobalSession> sessions, GlobalSessionHandler handler) {
+        if (CollectionUtils.isEmpty(sessions)) {
+            return;
+        }
+        long passBegin = System.currentTimeMillis();
+        List<Future<?>> futures = new ArrayList<>(sessions.size());
+        int deferred = 0;
+        for (GlobalSession globalSession : sessions) {
+            Shard shard = shards[(globalSession.getXid().hashCode() & Integer.MAX_VALUE) % shards.length];
+            try {
+                futures.add(shard.executor.submit(() -> handle(shard, globalSession, handler)));
+            } catch (RejectedExecutionException e) {
+                deferred++;
+            }
+        }
+        if (deferred > 0) {
+            LOGGER.warn("{} shards are full, {} sessions are deferred to the next pass", name, deferred);
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                LOGGER.error("{} handle global session failed", name, e.getCause());
+            }
+        }
+        recordPassDuration(passBegin);
+    }
+
+    private void handle(Shard shard, GlobalSession globalSession, GlobalSessionHandler handler) {
+        SeataClusterContext.bindGroup();
+        Set<String> acquiredResources = null;
+        try {
+            MDC.put(RootContext.MDC_KEY_XID, globalSession.getXid());
+            acquiredResources = acquireResources(globalSession);
+            if (acquiredResources == null) {
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("{} resources of {} are busy, deferred to the next pass", name,
+                        globalSession.getXid());
+                }
+                return;
+            }
+            handler.handle(globalSession);
+        } catch (Throwable th) {
+            LOGGER.error("handle global session failed: {}", globalSession.getXid(), th);
+        } finally {
+            releaseResources(acquiredResources);
+            shard.lastFinishTime.set(System.currentTimeMillis());
+            SeataClusterContext.unbindGroup();
+            MDC.remove(RootContext.MDC_KEY_XID);
+        }
+    }
+
+    /**
+     * Acquire the permits of all the resources of the session.
+     * The permits are fair and taken in the order of the resource ids, so the session gets its turn behind the
+     * sessions of the other shards and no shard can hold one permit while waiting for a permit it holds.
+     *
+     * @param globalSession the global session
+     * @return the acquired resources, null if any of them is still busy after the max wait
+     */
+    private Set<String> acquireResources(GlobalSession globalSession) {
+        if (resourceMaxConcurrency <= 0) {
+            return new TreeSet<>();
+        }
+        // sorted to keep the acquire order between shards
+        Set<String> resourceIds = new TreeSet<>();
+        for (BranchSession branchSession : globalSession.getBranchSessions()) {
+            resourceIds.add(branchSession.getResourceId());
+        }
+        Set<String> acquired = new TreeSet<>();
+        for (String resourceId : resourceIds) {
+            Semaphore permits = CollectionUtils.computeIfAbsent(resourcePermits, resourceId,
+                key -> new Semaphore(resourceMaxConcurrency, true));
+            boolean permitted;
+            try {
+                permitted = permits.tryAcquire(resourcePermitMaxWaitMills, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                permitted = false;
+            }
+            if (!permitted) {
+                releaseResources(acquired);
+                return null;
+            }
+            acquired.add(resourceId);
+        }
+        return acquired;
+    }
+
+    private void releaseResources(Set<String> resourceIds) {
+        if (CollectionUtils.isEmpty(resourceIds)) {
+            return;
+        }
+        for (String resourceId : resourceIds) {
+            Semaphore permits = resourcePermits.get(resourceId);
+            if (permits != null) {
+                permits.release();
+            }
+        }
+    }
+
+    private void recordPassDuration(long passBegin) {
+        Registry registry = MetricsManager.get().getRegistry();
+        for (Shard shard : shards) {
+            long lastFinishTime = shard.lastFinishTime.getAndSet(0);
+            if (registry != null && lastFinishTime > 0) {
+                registry.getTimer(shard.passDurationId).record(lastFinishTime - passBegin, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        for (Shard shard : shards) {
+            shard.executor.shutdown();
+        }
+        try {
+            for (Shard shard : shards) {
+                shard.executor.awaitTermination(SHUTDOWN_MAX_WAIT_MILLS, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException ignore) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private class Shard {
+
+        private final ThreadPoolExecutor executor;
+
+        private final AtomicLong lastFinishTime = new AtomicLong();
+
+        private final Id passDurationId;
+
+        Shard(int index, int queueSize) {
+            String shardName = name + "_" + index;
+            this.executor = new ThreadPoolExecutor(1, 1, Integer.MAX_VALUE, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), new NamedThreadFactory(shardName, 1),
+                new ThreadPoolExecutor.AbortPolicy());
+            this.passDurationId = shardId(index, IdConstants.METER_VALUE_TIMER, IdConstants.NAME_VALUE_PASS_DURATION);
+            Registry registry = MetricsManager.get().getRegistry();
+            if (registry != null) {
+                registry.getGauge(shardId(index, IdConstants.METER_VALUE_GAUGE, IdConstants.NAME_VALUE_QUEUE_DEPTH),
+                    () -> (double)executor.getQueue().size());
+            }
+        }
+
+        private Id shardId(int index, String meter, String meterName) {
+            return new Id(IdConstants.SEATA_RECOVERY)
+                .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+                .withTag(IdConstants.METER_KEY, meter)
+                .withTag(IdConstants.NAME_KEY, meterName)
+                .withTag(IdConstants.TASK_KEY, name)
+                .withTag(IdConstants.SHARD_KEY, String.valueOf(index));
+        }
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.server.coordinator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import io.seata.common.ConfigurationKeys;
+import io.seata.config.Configuration;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.model.BranchType;
+import io.seata.server.session.BranchSession;
+import io.seata.server.session.GlobalSession;
+
+import static io.seata.common.DefaultValues.DEFAULT_RETRY_BACKOFF_ENABLE;
+import static io.seata.common.DefaultValues.DEFAULT_RETRY_BACKOFF_INITIAL_INTERVAL;
+import static io.seata.common.DefaultValues.DEFAULT_RETRY_BACKOFF_JITTER;
+import static io.seata.common.DefaultValues.DEFAULT_RETRY_BACKOFF_MAX_INTERVAL;
+import static io.seata.common.DefaultValues.DEFAULT_RETRY_BACKOFF_MULTIPLIER;
+
+/**
+ * The exponential backoff with jitter of the phase two retries, one instance per recovery task.
+ * <p>
+ * The retry state (attempts and next retry time) is kept per xid, so a session which keeps failing is retried
+ * less and less often instead of on every tick. The policy can be overridden per branch type, e.g.
+ * {@code server.recovery.retryBackoff.tcc.maxInterval}. A session with branches of several types waits the longest
+ * interval of their policies, so no branch is retried more often than its own policy allows.
+ * </p>
+ */
+public class SessionRetryBackoff {
+
+    private static final Configuration CONFIG = ConfigurationFactory.getInstance();
+
+    /**
+     * the state not refreshed within this many max intervals belongs to a session which has ended elsewhere
+     */
+    private static final int STALE_INTERVALS = 2;
+
+    private final boolean enable;
+
+    private final BackoffPolicy defaultPolicy;
+
+    private final Map<BranchType, BackoffPolicy> policies = new EnumMap<>(BranchType.class);
+
+    private final Map<String, RetryState> retryStates = new ConcurrentHashMap<>();
+
+    private final long staleThreshold;
+
+    /**
+     * Instantiates a new Session retry backoff from the configuration.
+     */
+    public SessionRetryBackoff() {
+        this.enable = CONFIG.getBoolean(ConfigurationKeys.RETRY_BACKOFF_ENABLE, DEFAULT_RETRY_BACKOFF_ENABLE);
+        this.defaultPolicy = new BackoffPolicy(
+            CONFIG.getLong(ConfigurationKeys.RETRY_BACKOFF_INITIAL_INTERVAL, DEFAULT_RETRY_BACKOFF_INITIAL_INTERVAL),
+            CONFIG.getLong(ConfigurationKeys.RETRY_BACKOFF_MAX_INTERVAL, DEFAULT_RETRY_BACKOFF_MAX_INTERVAL),
+            CONFIG.getInt(ConfigurationKeys.RETRY_BACKOFF_MULTIPLIER, DEFAULT_RETRY_BACKOFF_MULTIPLIER),
+            CONFIG.getInt(ConfigurationKeys.RETRY_BACKOFF_JITTER, DEFAULT_RETRY_BACKOFF_JITTER));
+        long maxInterval = defaultPolicy.maxInterval;
+        for (BranchType branchType : BranchType.values()) {
+            String prefix = ConfigurationKeys.RETRY_BACKOFF_PREFIX + branchType.name().toLowerCase() + ".";
+            BackoffPolicy policy = new BackoffPolicy(
+                CONFIG.getLong(prefix + ConfigurationKeys.RETRY_BACKOFF_INITIAL_INTERVAL_SUFFIX,
+                    defaultPolicy.initialInterval),
+                CONFIG.getLong(prefix + ConfigurationKeys.RETRY_BACKOFF_MAX_INTERVAL_SUFFIX,
+                    defaultPolicy.maxInterval),
+                CONFIG.getInt(prefix + ConfigurationKeys.RETRY_BACKOFF_MULTIPLIER_SUFFIX, defaultPolicy.multiplier),
+                CONFIG.getInt(prefix + ConfigurationKeys.RETRY_BACKOFF_JITTER_SUFFIX, defaultPolicy.jitter));
+            policies.put(branchType, policy);
+            maxInterval = Math.max(maxInterval, policy.maxInterval);
+        }
+        this.staleThreshold = maxInterval * STALE_INTERVALS;
+    }
+
+    /**
+     * Instantiates a new Session retry backoff with the same policy for all the branch types.
+     *
+     * @param policy the policy
+     */
+    public SessionRetryBackoff(BackoffPolicy policy) {
+        this(policy, Collections.emptyMap());
+    }
+
+    /**
+     * Instantiates a new Session retry backoff with the policies of the branch types.
+     *
+     * @param defaultPolicy the policy of the branch types without one of their own
+     * @param policies      the policies by branch type
+     */
+    public SessionRetryBackoff(BackoffPolicy defaultPolicy, Map<BranchType, BackoffPolicy> policies) {
+        this.enable = true;
+        this.defaultPolicy = defaultPolicy;
+        this.policies.putAll(policies);
+        long maxInterval = defaultPolicy.maxInterval;
+        for (BackoffPolicy policy : policies.values()) {
+            maxInterval = Math.max(maxInterval, policy.maxInterval);
+        }
+        this.staleThreshold = maxInterval * STALE_INTERVALS;
+    }
+
+    /**
+     * Whether the session is due for the next retry.
+     *
+     * @param globalSession the global session
+     * @param now           the current time in milliseconds
+     * @return the boolean
+     */
+    public boolean isDue(GlobalSession globalSession, long now) {
+        if (!enable) {
+            return true;
+        }
+        RetryState retryState = retryStates.get(globalSession.getXid());
+        return retryState == null || retryState.nextRetryTime <= now;
+    }
+
+    /**
+     * Record the result of a retry.
+     *
+     * @param globalSession the global session
+     * @param success       whether the retry is done
+     */
+    public void onRetried(GlobalSession globalSession, boolean success) {
+        if (!enable) {
+            return;
+        }
+        if (success) {
+            retryStates.remove(globalSession.getXid());
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Collection<BackoffPolicy> sessionPolicies = getPolicies(globalSession);
+        retryStates.compute(globalSession.getXid(), (xid, retryState) -> {
+            if (retryState == null) {
+                retryState = new RetryState();
+            }
+            retryState.attempts++;
+            retryState.lastRetryTime = now;
+            long interval = 0;
+            for (BackoffPolicy policy : sessionPolicies) {
+                interval = Math.max(interval, policy.nextInterval(retryState.attempts));
+            }
+            retryState.nextRetryTime = now + interval;
+            return retryState;
+        });
+    }
+
+    /**
+     * Remove the states of the sessions which have not been retried for a long time,
+     * they have ended or been taken over by another TC.
+     *
+     * @param now the current time in milliseconds
+     */
+    public void expungeStale(long now) {
+        if (retryStates.isEmpty()) {
+            return;
+        }
+        retryStates.values().removeIf(retryState -> now - retryState.lastRetryTime > staleThreshold);
+    }
+
+    /**
+     * Gets the attempts of the session.
+     *
+     * @param xid the xid
+     * @return the attempts, 0 if the session has never failed
+     */
+    public int getAttempts(String xid) {
+        RetryState retryState = retryStates.get(xid);
+        return retryState == null ? 0 : retryState.attempts;
+    }
+
+    /**
+     * Gets the policies of the branch types of the session, the most conservative one decides the interval.
+     */
+    private Collection<BackoffPolicy> getPolicies(GlobalSession globalSession) {
+        if (policies.isEmpty()) {
+            return Collections.singletonList(defaultPolicy);
+        }
+        Set<BranchType> branchTypes = EnumSet.noneOf(BranchType.class);
+        if (globalSession.isSaga()) {
+            branchTypes.add(BranchType.SAGA);
+        } else {
+            List<BranchSession> branchSessions = globalSession.getBranchSessions();
+            if (branchSessions != null) {
+                for (BranchSession branchSession : branchSessions) {
+                    branchTypes.add(branchSession.getBranchType());
+                }
+            }
+        }
+        if (branchTypes.isEmpty()) {
+            return Collections.singletonList(defaultPolicy);
+        }
+        List<BackoffPolicy> sessionPolicies = new ArrayList<>(branchTypes.size());
+        for (BranchType branchType : branchTypes) {
+            BackoffPolicy policy = policies.get(branchType);
+            sessionPolicies.add(policy == null ? defaultPolicy : policy);
+        }
+        return sessionPolicies;
+    }
+
+    /**
+     * The backoff policy.
+     */
+    public static class BackoffPolicy {
+
+        private final long initialInterval;
+
+        private final long maxInterval;
+
+        private final int multiplier;
+
+        private final int jitter;
+
+        /**
+         * Instantiates a new Backoff policy.
+         *
+         * @param initialInterval the interval after the first failure in milliseconds
+         * @param maxInterval     the max interval in milliseconds
+         * @param multiplier      the multiplier of the interval per failure
+         * @param jitter          the jitter in percent of the interval
+         */
+        public BackoffPolicy(long initialInterval, long maxInterval, int multiplier, int jitter) {
+            this.initialInterval = Math.max(0, initialInterval);
+            this.maxInterval = Math.max(this.initialInterval, maxInterval);
+            this.multiplier = Math.max(1, multiplier);
+            this.jitter = Math.min(100, Math.max(0, jitter));
+        }
+
+        /**
+         * Gets the interval before the next retry.
+         *
+         * @param attempts the failed attempts, starts with 1
+         * @return the interval in milliseconds
+         */
+        public long nextInterval(int attempts) {
+            long interval = initialInterval;
+            for (int i = 1; i < attempts && interval < maxInterval; i++) {
+                interval *= multiplier;
+            }
+            interval = Math.min(interval, maxInterval);
+            long delta = interval * jitter / 100;
+            if (delta <= 0) {
+                return interval;
+            }
+            return interval - delta + ThreadLocalRandom.current().nextLong(delta * 2 + 1);
+        }
+    }
+
+    private static class RetryState {
+
+        private int attempts;
+
+        private volatile long lastRetryTime;
+
+        private volatile long nextRetryTime;
+    }
+}
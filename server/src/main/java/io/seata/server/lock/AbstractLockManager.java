@@ -157,38 +157,61 @@ public abstract class AbstractLockManager implements LockManager {
     protected List<RowLock> collectRowLocks(String lockKey, String resourceId, String xid, Long transactionId,
         Long branchID) {
         List<RowLock> locks = new ArrayList<>();
-
-        String[] tableGroupedLockKeys = lockKey.split(";");
-        for (String tableGroupedLockKey : tableGroupedLockKeys) {
-            int idx = tableGroupedLockKey.indexOf(":");
-            if (idx < 0) {
-                return locks;
+        // scan the lock key once, instead of splitting it into the table groups and the pks
+        int length = lockKey.length();
+        int groupStart = 0;
+        while (groupStart < length) {
+            int groupEnd = lockKey.indexOf(';', groupStart);
+            if (groupEnd < 0) {
+                groupEnd = length;
             }
-            String tableName = tableGroupedLockKey.substring(0, idx);
-            String mergedPKs = tableGroupedLockKey.substring(idx + 1);
-            if (StringUtils.isBlank(mergedPKs)) {
+            int idx = lockKey.indexOf(':', groupStart);
+            if (idx < 0 || idx > groupEnd) {
                 return locks;
             }
-            String[] pks = mergedPKs.split(",");
-            if (pks == null || pks.length == 0) {
+            if (isBlank(lockKey, idx + 1, groupEnd)) {
                 return locks;
             }
-            for (String pk : pks) {
-                if (StringUtils.isNotBlank(pk)) {
-                    RowLock rowLock = new RowLock();
-                    rowLock.setXid(xid);
-                    rowLock.setTransactionId(transactionId);
-                    rowLock.setBranchId(branchID);
-                    rowLock.setTableName(tableName);
-                    rowLock.setPk(pk);
-                    rowLock.setResourceId(resourceId);
-                    locks.add(rowLock);
+            String tableName = lockKey.substring(groupStart, idx);
+            boolean hasPk = false;
+            int pkStart = idx + 1;
+            while (pkStart <= groupEnd) {
+                int pkEnd = lockKey.indexOf(',', pkStart);
+                if (pkEnd < 0 || pkEnd > groupEnd) {
+                    pkEnd = groupEnd;
+                }
+                if (pkEnd > pkStart) {
+                    hasPk = true;
+                    if (!isBlank(lockKey, pkStart, pkEnd)) {
+                        RowLock rowLock = new RowLock();
+                        rowLock.setXid(xid);
+                        rowLock.setTransactionId(transactionId);
+                        rowLock.setBranchId(branchID);
+                        rowLock.setTableName(tableName);
+                        rowLock.setPk(lockKey.substring(pkStart, pkEnd));
+                        rowLock.setResourceId(resourceId);
+                        locks.add(rowLock);
+                    }
                 }
+                pkStart = pkEnd + 1;
+            }
+            if (!hasPk) {
+                return locks;
             }
+            groupStart = groupEnd + 1;
         }
         return locks;
     }
-    
+
+    private static boolean isBlank(String str, int beginIndex, int endIndex) {
+        for (int i = beginIndex; i < endIndex; i++) {
+            if (!Character.isWhitespace(str.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public void updateLockStatus(String xid, LockStatus lockStatus) {
         this.getLocker().updateLockStatus(xid, lockStatus);
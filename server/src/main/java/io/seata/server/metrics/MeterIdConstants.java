@@ -106,7 +106,32 @@ public interface MeterIdConstants {
         .withTag(IdConstants.STATUS_KEY, IdConstants.STATUS_VALUE_AFTER_COMMITTED_KEY);
 
 
+    Id TIMER_BRANCH_REGISTER = new Id(IdConstants.SEATA_TRANSACTION)
+        .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+        .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_TIMER)
+        .withTag(IdConstants.PHASE_KEY, IdConstants.PHASE_VALUE_BRANCH_REGISTER);
+
+    Id TIMER_PHASE_ONE = new Id(IdConstants.SEATA_TRANSACTION)
+        .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+        .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_TIMER)
+        .withTag(IdConstants.PHASE_KEY, IdConstants.PHASE_VALUE_PHASE_ONE);
+
+    Id TIMER_PHASE_TWO = new Id(IdConstants.SEATA_TRANSACTION)
+        .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+        .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_TIMER)
+        .withTag(IdConstants.PHASE_KEY, IdConstants.PHASE_VALUE_PHASE_TWO);
+
     Id SUMMARY_EXP =  new Id(IdConstants.SEATA_EXCEPTION)
             .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
             .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_SUMMARY);
+
+    Id SUMMARY_FILE_FLUSH_BATCH_SIZE = new Id(IdConstants.SEATA_STORE)
+        .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+        .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_SUMMARY)
+        .withTag(IdConstants.NAME_KEY, IdConstants.NAME_VALUE_FLUSH_BATCH_SIZE);
+
+    Id TIMER_FILE_FLUSH = new Id(IdConstants.SEATA_STORE)
+        .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+        .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_TIMER)
+        .withTag(IdConstants.NAME_KEY, IdConstants.NAME_VALUE_FLUSH_LATENCY);
 }
@@ -16,10 +16,15 @@
  */
 package io.seata.server.metrics;
 
+import java.util.concurrent.TimeUnit;
+
 import io.seata.core.event.EventBus;
 import io.seata.core.event.GlobalTransactionEvent;
+import io.seata.core.event.TransactionPhaseEvent;
+import io.seata.core.model.BranchType;
 import io.seata.core.model.GlobalStatus;
 import io.seata.server.event.EventBusManager;
+import io.seata.server.session.BranchSession;
 import io.seata.server.session.GlobalSession;
 
 /**
@@ -94,4 +99,53 @@ public class MetricsPublisher {
             globalSession.getTransactionName(), globalSession.getApplicationId(),
             globalSession.getTransactionServiceGroup(), globalSession.getBeginTime(), null, status, retryGlobal, retryBranch));
     }
+
+    /**
+     * Post branch register event.
+     *
+     * @param globalSession the global session
+     * @param branchType    the branch type
+     * @param durationNanos the duration in nanoseconds
+     */
+    public static void postBranchRegisterEvent(final GlobalSession globalSession, BranchType branchType,
+                                               long durationNanos) {
+        postPhaseEvent(TransactionPhaseEvent.PHASE_BRANCH_REGISTER, branchType, globalSession, null, durationNanos);
+    }
+
+    /**
+     * Post phase one done event, when the global transaction begins to commit or rollback.
+     *
+     * @param globalSession the global session
+     * @param status        the status phase two goes to
+     */
+    public static void postPhaseOneDoneEvent(final GlobalSession globalSession, String status) {
+        long durationMillis = Math.max(0, System.currentTimeMillis() - globalSession.getBeginTime());
+        postPhaseEvent(TransactionPhaseEvent.PHASE_ONE, null, globalSession, status,
+            TimeUnit.MILLISECONDS.toNanos(durationMillis));
+    }
+
+    /**
+     * Post branch phase two done event.
+     *
+     * @param globalSession the global session
+     * @param branchSession the branch session
+     * @param status        the status phase two goes to
+     * @param durationNanos the duration in nanoseconds
+     */
+    public static void postBranchPhaseTwoDoneEvent(final GlobalSession globalSession,
+                                                   final BranchSession branchSession, String status,
+                                                   long durationNanos) {
+        postPhaseEvent(TransactionPhaseEvent.PHASE_TWO, branchSession.getBranchType(), globalSession, status,
+            durationNanos);
+    }
+
+    private static void postPhaseEvent(String phase, BranchType branchType, GlobalSession globalSession,
+                                       String status, long durationNanos) {
+        // the phase events are posted per branch, skip them if the metrics is disabled
+        if (MetricsManager.get().getRegistry() == null) {
+            return;
+        }
+        EVENT_BUS.post(new TransactionPhaseEvent(phase, branchType != null ? branchType.name() : null,
+            globalSession.getApplicationId(), globalSession.getTransactionServiceGroup(), status, durationNanos));
+    }
 }
@@ -24,14 +24,18 @@ import java.util.function.Consumer;
 import com.google.common.eventbus.Subscribe;
 import io.seata.core.event.ExceptionEvent;
 import io.seata.core.event.GlobalTransactionEvent;
+import io.seata.core.event.TransactionPhaseEvent;
 import io.seata.core.model.GlobalStatus;
+import io.seata.metrics.Id;
 import io.seata.metrics.registry.Registry;
 import io.seata.server.event.EventBusManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import static io.seata.metrics.IdConstants.APP_ID_KEY;
+import static io.seata.metrics.IdConstants.BRANCH_TYPE_KEY;
 import static io.seata.metrics.IdConstants.GROUP_KEY;
+import static io.seata.metrics.IdConstants.STATUS_KEY;
 import static io.seata.metrics.IdConstants.STATUS_VALUE_AFTER_COMMITTED_KEY;
 import static io.seata.metrics.IdConstants.STATUS_VALUE_AFTER_ROLLBACKED_KEY;
 
@@ -46,6 +50,8 @@ public class MetricsSubscriber {
 
     private final Map<String, Consumer<GlobalTransactionEvent>> consumers;
 
+    private final Map<String, Id> phaseTimerIds;
+
     public MetricsSubscriber(Registry registry) {
         this.registry = registry;
         consumers = new HashMap<>();
@@ -63,6 +69,11 @@ public class MetricsSubscriber {
 
         consumers.put(STATUS_VALUE_AFTER_COMMITTED_KEY, this::processAfterGlobalCommitted);
         consumers.put(STATUS_VALUE_AFTER_ROLLBACKED_KEY, this::processAfterGlobalRollbacked);
+
+        phaseTimerIds = new HashMap<>();
+        phaseTimerIds.put(TransactionPhaseEvent.PHASE_BRANCH_REGISTER, MeterIdConstants.TIMER_BRANCH_REGISTER);
+        phaseTimerIds.put(TransactionPhaseEvent.PHASE_ONE, MeterIdConstants.TIMER_PHASE_ONE);
+        phaseTimerIds.put(TransactionPhaseEvent.PHASE_TWO, MeterIdConstants.TIMER_PHASE_TWO);
     }
 
     private void processGlobalStatusBegin(GlobalTransactionEvent event) {
@@ -202,6 +213,25 @@ public class MetricsSubscriber {
     }
 
 
+    @Subscribe
+    public void recordTransactionPhaseEventForMetrics(TransactionPhaseEvent event) {
+        Id phaseTimerId = phaseTimerIds.get(event.getPhase());
+        if (registry == null || phaseTimerId == null) {
+            return;
+        }
+        // the phase events come from many threads, tag a copy instead of the shared id
+        Id id = new Id(phaseTimerId.getName()).withTag(phaseTimerId.getTags())
+            .withTag(APP_ID_KEY, event.getApplicationId())
+            .withTag(GROUP_KEY, event.getGroup());
+        if (event.getBranchType() != null) {
+            id.withTag(BRANCH_TYPE_KEY, event.getBranchType());
+        }
+        if (event.getStatus() != null) {
+            id.withTag(STATUS_KEY, event.getStatus());
+        }
+        registry.getTimer(id).record(event.getDurationNanos(), TimeUnit.NANOSECONDS);
+    }
+
     @Subscribe
     public void exceptionEventForMetrics(ExceptionEvent event) {
         registry.getSummary(MeterIdConstants.SUMMARY_EXP
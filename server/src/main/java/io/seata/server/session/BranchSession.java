@@ -20,7 +20,6 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import io.seata.common.util.BufferUtils;
@@ -31,7 +30,7 @@ import io.seata.core.model.BranchType;
 import io.seata.core.model.LockStatus;
 import io.seata.server.lock.LockManager;
 import io.seata.server.lock.LockerManagerFactory;
-import io.seata.server.storage.file.lock.FileLocker;
+import io.seata.server.storage.file.lock.RowLockTable;
 import io.seata.server.store.SessionStorable;
 import io.seata.server.store.StoreConfig;
 import org.slf4j.Logger;
@@ -74,7 +73,7 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
 
     private LockStatus lockStatus = Locked;
 
-    private final Map<FileLocker.BucketLockMap, Set<String>> lockHolder;
+    private final Map<RowLockTable.Stripe, RowLockTable.HeldRows> lockHolder;
 
     private final LockManager lockManager = LockerManagerFactory.getLockManager();
 
@@ -286,7 +285,7 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
      *
      * @return the lock holder
      */
-    public Map<FileLocker.BucketLockMap, Set<String>> getLockHolder() {
+    public Map<RowLockTable.Stripe, RowLockTable.HeldRows> getLockHolder() {
         return lockHolder;
     }
 
@@ -434,7 +433,11 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
 
     @Override
     public void decode(byte[] a) {
-        ByteBuffer byteBuffer = ByteBuffer.wrap(a);
+        decode(ByteBuffer.wrap(a));
+    }
+
+    @Override
+    public void decode(ByteBuffer byteBuffer) {
         this.transactionId = byteBuffer.getLong();
         this.branchId = byteBuffer.getLong();
         int resourceLen = byteBuffer.getInt();
@@ -213,6 +213,7 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
         this.beginTime = System.currentTimeMillis();
         this.active = true;
         SessionHolder.getRootSessionManager().onBegin(this);
+        SessionHolder.getSessionTimeoutWheel().onBegin(this);
         for (SessionLifecycleListener lifecycleListener : lifecycleListeners) {
             lifecycleListener.onBegin(this);
         }
@@ -226,6 +227,7 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
         SessionHolder.getRootSessionManager().onStatusChange(this, status);
         // set session status after update successfully
         this.status = status;
+        SessionHolder.getSessionTimeoutWheel().onStatusChange(this, status);
         for (SessionLifecycleListener lifecycleListener : lifecycleListeners) {
             lifecycleListener.onStatusChange(this, status);
         }
@@ -261,11 +263,13 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
             // Clean locks first
             clean();
             SessionHolder.getRootSessionManager().onSuccessEnd(this);
+            SessionHolder.getSessionTimeoutWheel().onSuccessEnd(this);
             for (SessionLifecycleListener lifecycleListener : lifecycleListeners) {
                 lifecycleListener.onSuccessEnd(this);
             }
         } else {
             SessionHolder.getRootSessionManager().onFailEnd(this);
+            SessionHolder.getSessionTimeoutWheel().onFailEnd(this);
             for (SessionLifecycleListener lifecycleListener : lifecycleListeners) {
                 lifecycleListener.onFailEnd(this);
             }
@@ -680,8 +684,12 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
 
     @Override
     public void decode(byte[] a) {
+        decode(ByteBuffer.wrap(a));
+    }
+
+    @Override
+    public void decode(ByteBuffer byteBuffer) {
         this.branchSessions = new ArrayList<>();
-        ByteBuffer byteBuffer = ByteBuffer.wrap(a);
         this.transactionId = byteBuffer.getLong();
         this.timeout = byteBuffer.getInt();
         short applicationIdLen = byteBuffer.getShort();
@@ -50,6 +50,7 @@ import static io.seata.common.DefaultValues.DEFAULT_SEATA_GROUP;
 import static java.io.File.separator;
 import static io.seata.common.DefaultValues.DEFAULT_DISTRIBUTED_LOCK_EXPIRE_TIME;
 import static io.seata.common.DefaultValues.DEFAULT_SESSION_STORE_FILE_DIR;
+import static io.seata.common.DefaultValues.DEFAULT_TIMEOUT_RETRY_PERIOD;
 import static io.seata.common.ConfigurationKeys.SERVER_SERVICE_PORT_CAMEL;
 
 /**
@@ -80,6 +81,12 @@ public class SessionHolder {
 
     private static DistributedLocker DISTRIBUTED_LOCKER;
 
+    /**
+     * The timing wheel of the global sessions in Begin status
+     */
+    private static final SessionTimeoutWheel SESSION_TIMEOUT_WHEEL = new SessionTimeoutWheel(
+        CONFIG.getLong(ConfigurationKeys.TIMEOUT_RETRY_PERIOD, DEFAULT_TIMEOUT_RETRY_PERIOD));
+
     public static void init() {
         init(null);
     }
@@ -217,6 +224,7 @@ public class SessionHolder {
                                     }
                                 } else {
                                     globalSession.setActive(true);
+                                    SESSION_TIMEOUT_WHEEL.schedule(globalSession);
                                 }
                                 break;
                             default:
@@ -297,6 +305,15 @@ public class SessionHolder {
             ? SESSION_MANAGER_MAP.computeIfAbsent(group, k -> ROOT_SESSION_MANAGER) : ROOT_SESSION_MANAGER;
     }
 
+    /**
+     * Gets the timing wheel of the global sessions in Begin status.
+     *
+     * @return the session timeout wheel
+     */
+    public static SessionTimeoutWheel getSessionTimeoutWheel() {
+        return SESSION_TIMEOUT_WHEEL;
+    }
+
     //endregion
 
     /**
@@ -384,6 +401,7 @@ public class SessionHolder {
             ROOT_SESSION_MANAGER.destroy();
         }
         SESSION_MANAGER_MAP = null;
+        SESSION_TIMEOUT_WHEEL.clear();
     }
 
     @FunctionalInterface
@@ -0,0 +1,249 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.server.session;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import io.seata.core.model.BranchStatus;
+import io.seata.core.model.GlobalStatus;
+
+/**
+ * A hashed timing wheel keyed by the deadline (begin time + timeout) of the global sessions in Begin status.
+ * <p>
+ * The wheel is fed by the session lifecycle hooks, so the timeout check only has to visit the sessions whose
+ * deadline has actually passed instead of scanning every Begin session of the store.
+ * Entries are identified by xid, a session which changed its status or ended is cancelled lazily. The hooks are
+ * called by every {@link GlobalSession} next to the root session manager, so a copy loaded from the store in db or
+ * redis mode cancels the entry scheduled by the session it was loaded from.
+ * </p>
+ * {@link #expire(long)} must be driven by a single thread, {@link #schedule(GlobalSession)} and the lifecycle
+ * hooks are thread safe.
+ */
+public class SessionTimeoutWheel implements SessionLifecycleListener {
+
+    private static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private final long tickDuration;
+
+    private final int mask;
+
+    private final Queue<TimeoutEntry>[] buckets;
+
+    /**
+     * the new entries, moved into the buckets by the expiring thread
+     */
+    private final Queue<TimeoutEntry> incomingEntries = new ConcurrentLinkedQueue<>();
+
+    private final Map<String, TimeoutEntry> pendingEntries = new ConcurrentHashMap<>();
+
+    /**
+     * the last tick which has been fully expired, only touched by the expiring thread
+     */
+    private long lastExpiredTick;
+
+    /**
+     * Instantiates a new Session timeout wheel.
+     *
+     * @param tickDuration the tick duration in milliseconds
+     */
+    public SessionTimeoutWheel(long tickDuration) {
+        this(tickDuration, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * Instantiates a new Session timeout wheel.
+     *
+     * @param tickDuration the tick duration in milliseconds
+     * @param wheelSize    the wheel size, normalized to a power of two
+     */
+    @SuppressWarnings("unchecked")
+    public SessionTimeoutWheel(long tickDuration, int wheelSize) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration must be greater than 0: " + tickDuration);
+        }
+        if (wheelSize <= 0) {
+            throw new IllegalArgumentException("wheelSize must be greater than 0: " + wheelSize);
+        }
+        int normalizedWheelSize = 1;
+        while (normalizedWheelSize < wheelSize) {
+            normalizedWheelSize <<= 1;
+        }
+        this.tickDuration = tickDuration;
+        this.mask = normalizedWheelSize - 1;
+        this.buckets = new Queue[normalizedWheelSize];
+        for (int i = 0; i < normalizedWheelSize; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.lastExpiredTick = System.currentTimeMillis() / tickDuration - 1;
+    }
+
+    /**
+     * Schedule the timeout of the global session, sessions not in Begin status are ignored.
+     *
+     * @param globalSession the global session
+     */
+    public void schedule(GlobalSession globalSession) {
+        if (globalSession.getStatus() != GlobalStatus.Begin) {
+            return;
+        }
+        TimeoutEntry entry = new TimeoutEntry(globalSession.getXid(),
+            globalSession.getBeginTime() + globalSession.getTimeout());
+        TimeoutEntry previous = pendingEntries.put(entry.xid, entry);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        incomingEntries.offer(entry);
+    }
+
+    /**
+     * Cancel the timeout of the global session.
+     *
+     * @param xid the xid
+     */
+    public void cancel(String xid) {
+        TimeoutEntry entry = pendingEntries.remove(xid);
+        if (entry != null) {
+            entry.cancelled = true;
+        }
+    }
+
+    /**
+     * Expire all the entries whose deadline has passed.
+     *
+     * @param now the current time in milliseconds
+     * @return the xids of the expired sessions
+     */
+    public synchronized List<String> expire(long now) {
+        // only the ticks which have been fully passed are expired
+        long currentTick = now / tickDuration - 1;
+        transferIncomingEntries();
+        if (currentTick <= lastExpiredTick) {
+            return Collections.emptyList();
+        }
+        List<String> expiredXids = new ArrayList<>();
+        // every entry is visited once the whole wheel has been walked, no matter how far behind we are
+        long startTick = Math.max(lastExpiredTick + 1, currentTick - mask);
+        for (long tick = startTick; tick <= currentTick; tick++) {
+            Iterator<TimeoutEntry> iterator = buckets[(int)(tick & mask)].iterator();
+            while (iterator.hasNext()) {
+                TimeoutEntry entry = iterator.next();
+                if (entry.cancelled) {
+                    iterator.remove();
+                } else if (entry.deadline <= now) {
+                    iterator.remove();
+                    if (pendingEntries.remove(entry.xid, entry)) {
+                        expiredXids.add(entry.xid);
+                    }
+                }
+            }
+        }
+        lastExpiredTick = currentTick;
+        return expiredXids;
+    }
+
+    /**
+     * Gets the count of the sessions waiting for timeout.
+     *
+     * @return the size
+     */
+    public int size() {
+        return pendingEntries.size();
+    }
+
+    /**
+     * Clear all the entries.
+     */
+    public synchronized void clear() {
+        pendingEntries.clear();
+        incomingEntries.clear();
+        for (Queue<TimeoutEntry> bucket : buckets) {
+            bucket.clear();
+        }
+    }
+
+    private void transferIncomingEntries() {
+        TimeoutEntry entry;
+        while ((entry = incomingEntries.poll()) != null) {
+            if (entry.cancelled) {
+                continue;
+            }
+            long tick = Math.max(entry.deadline / tickDuration, lastExpiredTick + 1);
+            buckets[(int)(tick & mask)].offer(entry);
+        }
+    }
+
+    @Override
+    public void onBegin(GlobalSession globalSession) {
+        schedule(globalSession);
+    }
+
+    @Override
+    public void onStatusChange(GlobalSession globalSession, GlobalStatus status) {
+        if (status != GlobalStatus.Begin) {
+            cancel(globalSession.getXid());
+        }
+    }
+
+    @Override
+    public void onBranchStatusChange(GlobalSession globalSession, BranchSession branchSession, BranchStatus status) {
+    }
+
+    @Override
+    public void onAddBranch(GlobalSession globalSession, BranchSession branchSession) {
+    }
+
+    @Override
+    public void onRemoveBranch(GlobalSession globalSession, BranchSession branchSession) {
+    }
+
+    @Override
+    public void onClose(GlobalSession globalSession) {
+        // a closed session in Begin status still has to be timed out if the status change failed
+    }
+
+    @Override
+    public void onSuccessEnd(GlobalSession globalSession) {
+        cancel(globalSession.getXid());
+    }
+
+    @Override
+    public void onFailEnd(GlobalSession globalSession) {
+        cancel(globalSession.getXid());
+    }
+
+    private static class TimeoutEntry {
+
+        private final String xid;
+
+        private final long deadline;
+
+        private volatile boolean cancelled;
+
+        TimeoutEntry(String xid, long deadline) {
+            this.xid = xid;
+            this.deadline = deadline;
+        }
+    }
+}
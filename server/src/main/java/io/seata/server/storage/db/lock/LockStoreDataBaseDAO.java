@@ -21,10 +21,13 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLWarning;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import javax.sql.DataSource;
 import io.seata.common.exception.DataAccessException;
@@ -57,6 +60,21 @@ public class LockStoreDataBaseDAO implements LockStore {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(LockStoreDataBaseDAO.class);
 
+    /**
+     * The max rows acquired by one insert statement, keeps the bind parameters within the limits of the drivers.
+     */
+    private static final int MAX_INSERT_IGNORE_ROWS = 1000;
+
+    /**
+     * The max rows of the insert statements kept in the sql cache.
+     */
+    private static final int MAX_CACHED_INSERT_IGNORE_ROWS = 64;
+
+    /**
+     * The mysql error code of a duplicate key, the only error the insert ignore of the locks is meant to skip.
+     */
+    private static final int ER_DUP_ENTRY = 1062;
+
     /**
      * The constant CONFIG.
      */
@@ -77,6 +95,11 @@ public class LockStoreDataBaseDAO implements LockStore {
      */
     protected String dbType;
 
+    /**
+     * The insert ignore lock sql by row size, only the common small sizes are cached.
+     */
+    private final Map<Integer, String> insertIgnoreLockSqlCache = new ConcurrentHashMap<>();
+
     /**
      * Instantiates a new Data base lock store dao.
      *
@@ -119,6 +142,11 @@ public class LockStoreDataBaseDAO implements LockStore {
             if (originalAutoCommit = conn.getAutoCommit()) {
                 conn.setAutoCommit(false);
             }
+            // acquire all the rows in one round trip, read back the existing ones only if some of them are skipped
+            String insertIgnoreLockSQL = getInsertIgnoreLockSql(lockDOs.size());
+            if (insertIgnoreLockSQL != null) {
+                return doAcquireLocksIgnoreExisted(conn, insertIgnoreLockSQL, lockDOs, autoCommit, skipCheckLock);
+            }
             List<LockDO> unrepeatedLockDOs = lockDOs;
 
             //check lock
@@ -380,6 +408,127 @@ public class LockStoreDataBaseDAO implements LockStore {
         }
     }
 
+    /**
+     * Acquire the locks by one insert statement skipping the existing rows.
+     * If some rows are skipped, read them back in the same transaction: the rows held by the current xid are
+     * re-entrant, any other xid is a conflict and the inserted rows are rolled back. As the plain insert does,
+     * skipping the check lock fails on any existing row without reading it back.
+     * Insert ignore also turns the other errors of a row into warnings, e.g. a pk too long for its column would be
+     * stored truncated and its lock missed by the later checks, so any warning but a duplicate key fails the lock.
+     *
+     * @param conn                the conn, not auto commit
+     * @param insertIgnoreLockSQL the insert ignore lock sql of the lock do list
+     * @param lockDOs             the lock do list, distinct by row key
+     * @param autoCommit          the branch is auto commit
+     * @param skipCheckLock       whether skip check lock or not
+     * @return the boolean
+     * @throws SQLException the sql exception
+     */
+    protected boolean doAcquireLocksIgnoreExisted(Connection conn, String insertIgnoreLockSQL, List<LockDO> lockDOs,
+        boolean autoCommit, boolean skipCheckLock) throws SQLException {
+        int insertedRows;
+        try (PreparedStatement ps = conn.prepareStatement(insertIgnoreLockSQL)) {
+            int index = 0;
+            for (LockDO lockDO : lockDOs) {
+                ps.setString(++index, lockDO.getXid());
+                ps.setLong(++index, lockDO.getTransactionId());
+                ps.setLong(++index, lockDO.getBranchId());
+                ps.setString(++index, lockDO.getResourceId());
+                ps.setString(++index, lockDO.getTableName());
+                ps.setString(++index, lockDO.getPk());
+                ps.setString(++index, lockDO.getRowKey());
+                ps.setInt(++index, lockDO.getStatus());
+            }
+            insertedRows = ps.executeUpdate();
+            SQLWarning warning = findNotDuplicateKeyWarning(ps.getWarnings());
+            if (warning != null) {
+                conn.rollback();
+                throw new SQLException(warning.getMessage(), warning.getSQLState(), warning.getErrorCode(), warning);
+            }
+        }
+        if (insertedRows == lockDOs.size()) {
+            conn.commit();
+            return true;
+        }
+        String currentXID = lockDOs.get(0).getXid();
+        if (skipCheckLock) {
+            if (LOGGER.isInfoEnabled()) {
+                LOGGER.info("Global lock batch acquire failed, xid {} branchId {} holds {} of {} rows", currentXID,
+                    lockDOs.get(0).getBranchId(), insertedRows, lockDOs.size());
+            }
+            conn.rollback();
+            return false;
+        }
+        Set<String> ownedRowKeys = new HashSet<>(lockDOs.size());
+        boolean failFast = false;
+        String checkLockSQL = LockStoreSqlFactory.getLogStoreSql(dbType).getCheckLockableSql(lockTable, lockDOs.size());
+        try (PreparedStatement ps = conn.prepareStatement(checkLockSQL)) {
+            for (int i = 0; i < lockDOs.size(); i++) {
+                ps.setString(i + 1, lockDOs.get(i).getRowKey());
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String dbXID = rs.getString(ServerTableColumnsName.LOCK_TABLE_XID);
+                    if (!StringUtils.equals(dbXID, currentXID)) {
+                        if (LOGGER.isInfoEnabled()) {
+                            String dbPk = rs.getString(ServerTableColumnsName.LOCK_TABLE_PK);
+                            String dbTableName = rs.getString(ServerTableColumnsName.LOCK_TABLE_TABLE_NAME);
+                            long dbBranchId = rs.getLong(ServerTableColumnsName.LOCK_TABLE_BRANCH_ID);
+                            LOGGER.info("Global lock on [{}:{}] is holding by xid {} branchId {}", dbTableName, dbPk,
+                                dbXID, dbBranchId);
+                        }
+                        if (!autoCommit) {
+                            int status = rs.getInt(ServerTableColumnsName.LOCK_TABLE_STATUS);
+                            if (status == LockStatus.Rollbacking.getCode()) {
+                                failFast = true;
+                            }
+                        }
+                        conn.rollback();
+                        if (failFast) {
+                            throw new StoreException(new BranchTransactionException(LockKeyConflictFailFast));
+                        }
+                        return false;
+                    }
+                    ownedRowKeys.add(rs.getString(ServerTableColumnsName.LOCK_TABLE_ROW_KEY));
+                }
+            }
+        }
+        if (ownedRowKeys.size() < lockDOs.size()) {
+            // a row skipped for another reason than a duplicate key, e.g. a value the column can not hold
+            conn.rollback();
+            throw new StoreException("Global lock acquire failed, xid " + currentXID + " only holds "
+                + ownedRowKeys.size() + " of " + lockDOs.size() + " rows after the insert");
+        }
+        conn.commit();
+        return true;
+    }
+
+    private static SQLWarning findNotDuplicateKeyWarning(SQLWarning warning) {
+        for (; warning != null; warning = warning.getNextWarning()) {
+            if (warning.getErrorCode() != ER_DUP_ENTRY) {
+                return warning;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the insert ignore lock sql of the rows.
+     *
+     * @param rowSize the row size
+     * @return the sql, null if the db type does not support it or there are too many rows for one statement
+     */
+    protected String getInsertIgnoreLockSql(int rowSize) {
+        if (rowSize > MAX_INSERT_IGNORE_ROWS) {
+            return null;
+        }
+        if (rowSize > MAX_CACHED_INSERT_IGNORE_ROWS) {
+            return LockStoreSqlFactory.getLogStoreSql(dbType).getInsertIgnoreLockSql(lockTable, rowSize);
+        }
+        return CollectionUtils.computeIfAbsent(insertIgnoreLockSqlCache, rowSize,
+            key -> LockStoreSqlFactory.getLogStoreSql(dbType).getInsertIgnoreLockSql(lockTable, key));
+    }
+
     /**
      * Check lock boolean.
      *
@@ -419,6 +568,7 @@ public class LockStoreDataBaseDAO implements LockStore {
      */
     public void setLockTable(String lockTable) {
         this.lockTable = lockTable;
+        insertIgnoreLockSqlCache.clear();
     }
 
     /**
@@ -428,6 +578,7 @@ public class LockStoreDataBaseDAO implements LockStore {
      */
     public void setDbType(String dbType) {
         this.dbType = dbType;
+        insertIgnoreLockSqlCache.clear();
     }
 
     /**
@@ -45,6 +45,9 @@ import io.seata.server.store.SessionStorable;
 import io.seata.server.store.TransactionStoreManager;
 
 import static io.seata.common.DefaultValues.DEFAULT_QUERY_LIMIT;
+import static io.seata.common.DefaultValues.DEFAULT_STORE_DB_WRITE_BATCH_ENABLE;
+import static io.seata.common.DefaultValues.DEFAULT_STORE_DB_WRITE_BATCH_SIZE;
+import static io.seata.common.DefaultValues.DEFAULT_STORE_DB_WRITE_BATCH_WINDOW;
 
 /**
  * The type Database transaction store manager.
@@ -70,6 +73,11 @@ public class DataBaseTransactionStoreManager extends AbstractTransactionStoreMan
      */
     protected int logQueryLimit;
 
+    /**
+     * The batch writer of the session mutations, null if the write batch is disabled.
+     */
+    protected volatile LogStoreBatchWriter batchWriter;
+
     /**
      * Get the instance.
      */
@@ -93,10 +101,24 @@ public class DataBaseTransactionStoreManager extends AbstractTransactionStoreMan
         //init dataSource
         DataSource logStoreDataSource = EnhancedServiceLoader.load(DataSourceProvider.class, datasourceType).provide();
         logStore = new LogStoreDataBaseDAO(logStoreDataSource);
+        initBatchWriter();
+    }
+
+    private void initBatchWriter() {
+        if (logStore instanceof LogStoreDataBaseDAO
+            && CONFIG.getBoolean(ConfigurationKeys.STORE_DB_WRITE_BATCH_ENABLE, DEFAULT_STORE_DB_WRITE_BATCH_ENABLE)) {
+            batchWriter = new LogStoreBatchWriter((LogStoreDataBaseDAO)logStore,
+                CONFIG.getInt(ConfigurationKeys.STORE_DB_WRITE_BATCH_SIZE, DEFAULT_STORE_DB_WRITE_BATCH_SIZE),
+                CONFIG.getInt(ConfigurationKeys.STORE_DB_WRITE_BATCH_WINDOW, DEFAULT_STORE_DB_WRITE_BATCH_WINDOW));
+        }
     }
 
     @Override
     public boolean writeSession(LogOperation logOperation, SessionStorable session) {
+        LogStoreBatchWriter writer = batchWriter;
+        if (writer != null) {
+            return writer.write(logOperation, session);
+        }
         if (LogOperation.GLOBAL_ADD.equals(logOperation)) {
             return logStore.insertGlobalTransactionDO(SessionConverter.convertGlobalTransactionDO(session));
         } else if (LogOperation.GLOBAL_UPDATE.equals(logOperation)) {
@@ -254,6 +276,21 @@ public class DataBaseTransactionStoreManager extends AbstractTransactionStoreMan
      */
     public void setLogStore(LogStore logStore) {
         this.logStore = logStore;
+        LogStoreBatchWriter writer = batchWriter;
+        if (writer != null) {
+            batchWriter = null;
+            writer.shutdown();
+            initBatchWriter();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        LogStoreBatchWriter writer = batchWriter;
+        if (writer != null) {
+            batchWriter = null;
+            writer.shutdown();
+        }
     }
 
     /**
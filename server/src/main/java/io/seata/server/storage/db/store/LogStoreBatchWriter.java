@@ -0,0 +1,291 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.server.storage.db.store;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.seata.common.exception.StoreException;
+import io.seata.common.thread.NamedThreadFactory;
+import io.seata.core.store.BranchTransactionDO;
+import io.seata.core.store.GlobalTransactionDO;
+import io.seata.server.session.GlobalSession;
+import io.seata.server.storage.SessionConverter;
+import io.seata.server.store.SessionStorable;
+import io.seata.server.store.TransactionStoreManager.LogOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Write-behind batching of the global and branch table mutations.
+ * <p>
+ * The concurrent writers enqueue their mutations and wait, the writer thread takes all the mutations of a short
+ * window and writes them in one transaction, with a jdbc batch per table and statement. The writers return once the
+ * transaction is committed, so the store is as durable as writing them one by one. If the batch fails, the mutations are written one by one so only the failed
+ * ones report the error. The update of the global status by the expected one is written alone, as its result
+ * depends on the exact update count.
+ * </p>
+ */
+public class LogStoreBatchWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LogStoreBatchWriter.class);
+
+    private final LogStoreDataBaseDAO logStore;
+
+    private final int batchSize;
+
+    private final long windowNanos;
+
+    private final BlockingQueue<Mutation> mutations = new LinkedBlockingQueue<>();
+
+    private final Thread writerThread;
+
+    private final AtomicLong batchCount = new AtomicLong();
+
+    private final AtomicLong writtenCount = new AtomicLong();
+
+    private volatile boolean running = true;
+
+    /**
+     * Instantiates a new Log store batch writer.
+     *
+     * @param logStore     the log store
+     * @param batchSize    the max mutations of a batch
+     * @param windowMillis how long a batch waits for more mutations
+     */
+    public LogStoreBatchWriter(LogStoreDataBaseDAO logStore, int batchSize, int windowMillis) {
+        this.logStore = logStore;
+        this.batchSize = Math.max(1, batchSize);
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, windowMillis));
+        this.writerThread = new NamedThreadFactory("LogStoreBatchWriter", 1, true).newThread(this::run);
+        this.writerThread.start();
+    }
+
+    /**
+     * Write the session and wait until it is committed.
+     *
+     * @param logOperation the log operation
+     * @param session      the session
+     * @return the result of the statement
+     */
+    public boolean write(LogOperation logOperation, SessionStorable session) {
+        Mutation mutation = new Mutation(logOperation, session);
+        if (!running) {
+            throw new StoreException("the log store batch writer is shutdown");
+        }
+        if (mutation.expectedStatus != null) {
+            // a compare-and-set of the global status, the driver may not report the update count of a batched
+            // statement, so it is written alone to tell whether it won
+            return logStore.updateGlobalTransactionDO(mutation.globalTransactionDO, mutation.expectedStatus);
+        }
+        mutations.offer(mutation);
+        try {
+            return mutation.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StoreException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof StoreException ? (StoreException)cause : new StoreException(cause);
+        }
+    }
+
+    private void run() {
+        List<Mutation> batch = new ArrayList<>(batchSize);
+        while (running || !mutations.isEmpty()) {
+            try {
+                Mutation first = mutations.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < batchSize) {
+                    if (mutations.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    Mutation next = remaining > 0 ? mutations.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (Throwable e) {
+                LOGGER.error("Failed to write the session batch: {}", e.getMessage(), e);
+                batch.forEach(mutation -> mutation.future.completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+        Mutation mutation;
+        while ((mutation = mutations.poll()) != null) {
+            mutation.future.completeExceptionally(new StoreException("the log store batch writer is shutdown"));
+        }
+    }
+
+    private void write(List<Mutation> batch) {
+        boolean[] results;
+        try {
+            results = logStore.writeBatch(batch);
+        } catch (Exception e) {
+            LOGGER.warn("Failed to write {} session mutations in batch, write them one by one: {}", batch.size(),
+                e.getMessage());
+            batch.forEach(this::writeOne);
+            return;
+        }
+        batchCount.incrementAndGet();
+        writtenCount.addAndGet(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).future.complete(results[i]);
+        }
+    }
+
+    private void writeOne(Mutation mutation) {
+        try {
+            boolean result;
+            switch (mutation.operation) {
+                case GLOBAL_ADD:
+                    result = logStore.insertGlobalTransactionDO(mutation.globalTransactionDO);
+                    break;
+                case GLOBAL_UPDATE:
+                    result = logStore.updateGlobalTransactionDO(mutation.globalTransactionDO);
+                    break;
+                case GLOBAL_REMOVE:
+                    result = logStore.deleteGlobalTransactionDO(mutation.globalTransactionDO);
+                    break;
+                case BRANCH_ADD:
+                    result = logStore.insertBranchTransactionDO(mutation.branchTransactionDO);
+                    break;
+                case BRANCH_UPDATE:
+                    result = logStore.updateBranchTransactionDO(mutation.branchTransactionDO);
+                    break;
+                case BRANCH_REMOVE:
+                    result = logStore.deleteBranchTransactionDO(mutation.branchTransactionDO);
+                    break;
+                default:
+                    throw new StoreException("Unknown LogOperation:" + mutation.operation.name());
+            }
+            writtenCount.incrementAndGet();
+            mutation.future.complete(result);
+        } catch (Throwable e) {
+            mutation.future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Stop taking new mutations, the queued ones are written before the writer thread exits.
+     */
+    public void shutdown() {
+        running = false;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // a writer racing with the shutdown may enqueue after the writer thread exits
+        Mutation mutation;
+        while ((mutation = mutations.poll()) != null) {
+            mutation.future.completeExceptionally(new StoreException("the log store batch writer is shutdown"));
+        }
+    }
+
+    /**
+     * Gets the batches written.
+     *
+     * @return the batch count
+     */
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    /**
+     * Gets the mutations written.
+     *
+     * @return the written count
+     */
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    /**
+     * A mutation of the global or branch table, the session is converted when it is enqueued.
+     */
+    static final class Mutation {
+
+        private final LogOperation operation;
+
+        private final GlobalTransactionDO globalTransactionDO;
+
+        private final BranchTransactionDO branchTransactionDO;
+
+        private final Integer expectedStatus;
+
+        private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+        Mutation(LogOperation operation, SessionStorable session) {
+            this.operation = operation;
+            switch (operation) {
+                case GLOBAL_ADD:
+                case GLOBAL_UPDATE:
+                case GLOBAL_REMOVE:
+                    GlobalSession globalSession = (GlobalSession)session;
+                    this.globalTransactionDO = SessionConverter.convertGlobalTransactionDO(session);
+                    this.branchTransactionDO = null;
+                    this.expectedStatus = LogOperation.GLOBAL_UPDATE == operation
+                        && globalSession.getExpectedStatus() != null ? globalSession.getExpectedStatus().getCode()
+                        : null;
+                    break;
+                case BRANCH_ADD:
+                case BRANCH_UPDATE:
+                case BRANCH_REMOVE:
+                    this.globalTransactionDO = null;
+                    this.branchTransactionDO = SessionConverter.convertBranchTransactionDO(session);
+                    this.expectedStatus = null;
+                    break;
+                default:
+                    throw new StoreException("Unknown LogOperation:" + operation.name());
+            }
+        }
+
+        LogOperation getOperation() {
+            return operation;
+        }
+
+        GlobalTransactionDO getGlobalTransactionDO() {
+            return globalTransactionDO;
+        }
+
+        BranchTransactionDO getBranchTransactionDO() {
+            return branchTransactionDO;
+        }
+
+        boolean isGlobal() {
+            return globalTransactionDO != null;
+        }
+    }
+}
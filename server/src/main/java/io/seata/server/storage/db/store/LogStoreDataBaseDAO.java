@@ -21,6 +21,7 @@ import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 import javax.sql.DataSource;
@@ -36,7 +37,10 @@ import io.seata.core.constants.ServerTableColumnsName;
 import io.seata.core.store.BranchTransactionDO;
 import io.seata.core.store.GlobalTransactionDO;
 import io.seata.core.store.LogStore;
+import io.seata.core.store.db.sql.log.LogStoreSqls;
 import io.seata.core.store.db.sql.log.LogStoreSqlsFactory;
+import io.seata.server.storage.db.store.LogStoreBatchWriter.Mutation;
+import io.seata.server.store.TransactionStoreManager.LogOperation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -197,23 +201,10 @@ public class LogStoreDataBaseDAO implements LogStore {
         Connection conn = null;
         PreparedStatement ps = null;
         try {
-            int index = 1;
             conn = logStoreDataSource.getConnection();
             conn.setAutoCommit(true);
             ps = conn.prepareStatement(sql);
-            ps.setString(index++, globalTransactionDO.getXid());
-            ps.setLong(index++, globalTransactionDO.getTransactionId());
-            ps.setInt(index++, globalTransactionDO.getStatus());
-            ps.setString(index++, globalTransactionDO.getApplicationId());
-            ps.setString(index++, globalTransactionDO.getTransactionServiceGroup());
-            String transactionName = globalTransactionDO.getTransactionName();
-            transactionName = transactionName.length() > transactionNameColumnSize ?
-                transactionName.substring(0, transactionNameColumnSize) :
-                transactionName;
-            ps.setString(index++, transactionName);
-            ps.setInt(index++, globalTransactionDO.getTimeout());
-            ps.setLong(index++, globalTransactionDO.getBeginTime());
-            ps.setString(index++, globalTransactionDO.getApplicationData());
+            setInsertGlobalTransactionParams(ps, globalTransactionDO);
             return ps.executeUpdate() > 0;
         } catch (SQLException e) {
             throw new StoreException(e);
@@ -342,19 +333,10 @@ public class LogStoreDataBaseDAO implements LogStore {
         Connection conn = null;
         PreparedStatement ps = null;
         try {
-            int index = 1;
             conn = logStoreDataSource.getConnection();
             conn.setAutoCommit(true);
             ps = conn.prepareStatement(sql);
-            ps.setString(index++, branchTransactionDO.getXid());
-            ps.setLong(index++, branchTransactionDO.getTransactionId());
-            ps.setLong(index++, branchTransactionDO.getBranchId());
-            ps.setString(index++, branchTransactionDO.getResourceGroupId());
-            ps.setString(index++, branchTransactionDO.getResourceId());
-            ps.setString(index++, branchTransactionDO.getBranchType());
-            ps.setInt(index++, branchTransactionDO.getStatus());
-            ps.setString(index++, branchTransactionDO.getClientId());
-            ps.setString(index++, branchTransactionDO.getApplicationData());
+            setInsertBranchTransactionParams(ps, branchTransactionDO);
             return ps.executeUpdate() > 0;
         } catch (SQLException e) {
             throw new StoreException(e);
@@ -372,16 +354,10 @@ public class LogStoreDataBaseDAO implements LogStore {
         Connection conn = null;
         PreparedStatement ps = null;
         try {
-            int index = 1;
             conn = logStoreDataSource.getConnection();
             conn.setAutoCommit(true);
             ps = conn.prepareStatement(sql);
-            ps.setInt(index++, branchTransactionDO.getStatus());
-            if (shouldUpdateAppData) {
-                ps.setString(index++, branchTransactionDO.getApplicationData());
-            }
-            ps.setString(index++, branchTransactionDO.getXid());
-            ps.setLong(index++, branchTransactionDO.getBranchId());
+            setUpdateBranchTransactionParams(ps, branchTransactionDO, shouldUpdateAppData);
             return ps.executeUpdate() > 0;
         } catch (SQLException e) {
             throw new StoreException(e);
@@ -410,6 +386,167 @@ public class LogStoreDataBaseDAO implements LogStore {
         return true;
     }
 
+    /**
+     * Write the mutations in one transaction, a jdbc batch per run of the same statement on a table.
+     * The order of the mutations on the same table is kept. The update of the global status by the expected one is
+     * never batched, as the driver may report {@link Statement#SUCCESS_NO_INFO} instead of its update count.
+     *
+     * @param mutations the mutations
+     * @return the result of each mutation
+     * @throws SQLException the sql exception, nothing is written
+     */
+    boolean[] writeBatch(List<Mutation> mutations) throws SQLException {
+        LogStoreSqls logStoreSqls = LogStoreSqlsFactory.getLogStoreSqls(dbType);
+        String[] sqls = new String[mutations.size()];
+        List<Integer> globalMutations = new ArrayList<>();
+        List<Integer> branchMutations = new ArrayList<>();
+        for (int i = 0; i < mutations.size(); i++) {
+            Mutation mutation = mutations.get(i);
+            sqls[i] = getMutationSql(logStoreSqls, mutation);
+            if (mutation.isGlobal()) {
+                globalMutations.add(i);
+            } else {
+                branchMutations.add(i);
+            }
+        }
+        boolean[] results = new boolean[mutations.size()];
+        try (Connection conn = logStoreDataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                executeBatch(conn, mutations, sqls, globalMutations, results);
+                executeBatch(conn, mutations, sqls, branchMutations, results);
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        return results;
+    }
+
+    private void executeBatch(Connection conn, List<Mutation> mutations, String[] sqls, List<Integer> indexes,
+        boolean[] results) throws SQLException {
+        int start = 0;
+        while (start < indexes.size()) {
+            String sql = sqls[indexes.get(start)];
+            int end = start + 1;
+            while (end < indexes.size() && sql.equals(sqls[indexes.get(end)])) {
+                end++;
+            }
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                for (int i = start; i < end; i++) {
+                    setMutationParams(ps, mutations.get(indexes.get(i)));
+                    ps.addBatch();
+                }
+                int[] counts = ps.executeBatch();
+                for (int i = start; i < end; i++) {
+                    int count = counts[i - start];
+                    LogOperation operation = mutations.get(indexes.get(i)).getOperation();
+                    // the delete is idempotent, the same as the single statement one
+                    results[indexes.get(i)] = count > 0 || count == Statement.SUCCESS_NO_INFO
+                        || LogOperation.GLOBAL_REMOVE == operation || LogOperation.BRANCH_REMOVE == operation;
+                }
+            }
+            start = end;
+        }
+    }
+
+    private String getMutationSql(LogStoreSqls logStoreSqls, Mutation mutation) {
+        switch (mutation.getOperation()) {
+            case GLOBAL_ADD:
+                return logStoreSqls.getInsertGlobalTransactionSQL(globalTable);
+            case GLOBAL_UPDATE:
+                return logStoreSqls.getUpdateGlobalTransactionStatusSQL(globalTable);
+            case GLOBAL_REMOVE:
+                return logStoreSqls.getDeleteGlobalTransactionSQL(globalTable);
+            case BRANCH_ADD:
+                return logStoreSqls.getInsertBranchTransactionSQL(branchTable);
+            case BRANCH_UPDATE:
+                return StringUtils.isNotBlank(mutation.getBranchTransactionDO().getApplicationData())
+                    ? logStoreSqls.getUpdateBranchTransactionStatusAppDataSQL(branchTable)
+                    : logStoreSqls.getUpdateBranchTransactionStatusSQL(branchTable);
+            case BRANCH_REMOVE:
+                return logStoreSqls.getDeleteBranchTransactionByBranchIdSQL(branchTable);
+            default:
+                throw new StoreException("Unknown LogOperation:" + mutation.getOperation().name());
+        }
+    }
+
+    private void setMutationParams(PreparedStatement ps, Mutation mutation) throws SQLException {
+        GlobalTransactionDO globalTransactionDO = mutation.getGlobalTransactionDO();
+        BranchTransactionDO branchTransactionDO = mutation.getBranchTransactionDO();
+        switch (mutation.getOperation()) {
+            case GLOBAL_ADD:
+                setInsertGlobalTransactionParams(ps, globalTransactionDO);
+                break;
+            case GLOBAL_UPDATE:
+                ps.setInt(1, globalTransactionDO.getStatus());
+                ps.setString(2, globalTransactionDO.getXid());
+                break;
+            case GLOBAL_REMOVE:
+                ps.setString(1, globalTransactionDO.getXid());
+                break;
+            case BRANCH_ADD:
+                setInsertBranchTransactionParams(ps, branchTransactionDO);
+                break;
+            case BRANCH_UPDATE:
+                setUpdateBranchTransactionParams(ps, branchTransactionDO,
+                    StringUtils.isNotBlank(branchTransactionDO.getApplicationData()));
+                break;
+            case BRANCH_REMOVE:
+                ps.setString(1, branchTransactionDO.getXid());
+                ps.setLong(2, branchTransactionDO.getBranchId());
+                break;
+            default:
+                throw new StoreException("Unknown LogOperation:" + mutation.getOperation().name());
+        }
+    }
+
+    private void setInsertGlobalTransactionParams(PreparedStatement ps, GlobalTransactionDO globalTransactionDO)
+        throws SQLException {
+        int index = 1;
+        ps.setString(index++, globalTransactionDO.getXid());
+        ps.setLong(index++, globalTransactionDO.getTransactionId());
+        ps.setInt(index++, globalTransactionDO.getStatus());
+        ps.setString(index++, globalTransactionDO.getApplicationId());
+        ps.setString(index++, globalTransactionDO.getTransactionServiceGroup());
+        String transactionName = globalTransactionDO.getTransactionName();
+        transactionName = transactionName.length() > transactionNameColumnSize ?
+            transactionName.substring(0, transactionNameColumnSize) :
+            transactionName;
+        ps.setString(index++, transactionName);
+        ps.setInt(index++, globalTransactionDO.getTimeout());
+        ps.setLong(index++, globalTransactionDO.getBeginTime());
+        ps.setString(index++, globalTransactionDO.getApplicationData());
+    }
+
+    private void setInsertBranchTransactionParams(PreparedStatement ps, BranchTransactionDO branchTransactionDO)
+        throws SQLException {
+        int index = 1;
+        ps.setString(index++, branchTransactionDO.getXid());
+        ps.setLong(index++, branchTransactionDO.getTransactionId());
+        ps.setLong(index++, branchTransactionDO.getBranchId());
+        ps.setString(index++, branchTransactionDO.getResourceGroupId());
+        ps.setString(index++, branchTransactionDO.getResourceId());
+        ps.setString(index++, branchTransactionDO.getBranchType());
+        ps.setInt(index++, branchTransactionDO.getStatus());
+        ps.setString(index++, branchTransactionDO.getClientId());
+        ps.setString(index++, branchTransactionDO.getApplicationData());
+    }
+
+    private void setUpdateBranchTransactionParams(PreparedStatement ps, BranchTransactionDO branchTransactionDO,
+        boolean shouldUpdateAppData) throws SQLException {
+        int index = 1;
+        ps.setInt(index++, branchTransactionDO.getStatus());
+        if (shouldUpdateAppData) {
+            ps.setString(index++, branchTransactionDO.getApplicationData());
+        }
+        ps.setString(index++, branchTransactionDO.getXid());
+        ps.setLong(index++, branchTransactionDO.getBranchId());
+    }
+
     @Override
     public long getCurrentMaxSessionId(long high, long low) {
         String transMaxSql = LogStoreSqlsFactory.getLogStoreSqls(dbType).getQueryGlobalMax(globalTable);
@@ -108,6 +108,19 @@ public class TransactionWriteStore implements SessionStorable {
         this.sessionRequest = tmpSessionStorable;
     }
 
+    @Override
+    public void decode(ByteBuffer src) {
+        // the operation code is the last byte, the session is decoded from the bytes before it without copy
+        ByteBuffer bySessionRequest = src.slice();
+        bySessionRequest.limit(bySessionRequest.limit() - 1);
+        byte byOpCode = src.get(src.limit() - 1);
+        this.operate = LogOperation.getLogOperationByCode(byOpCode);
+        SessionStorable tmpSessionStorable = getSessionInstanceByOperation(this.operate);
+        tmpSessionStorable.decode(bySessionRequest);
+        this.sessionRequest = tmpSessionStorable;
+        src.position(src.limit());
+    }
+
     private SessionStorable getSessionInstanceByOperation(LogOperation logOperation) {
         SessionStorable sessionStorable = null;
         switch (logOperation) {
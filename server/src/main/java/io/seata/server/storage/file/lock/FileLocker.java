@@ -18,7 +18,6 @@ package io.seata.server.storage.file.lock;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -36,15 +35,21 @@ import static io.seata.core.exception.TransactionExceptionCode.LockKeyConflictFa
 
 /**
  * The type Memory locker.
- *
+ * <p>
+ * The rows are locked in the {@link RowLockTable}, the branch keeps the fingerprints of the rows it holds per
+ * stripe to release them.
+ * </p>
  */
 public class FileLocker extends AbstractLocker {
 
     private static final int BUCKET_PER_TABLE = 128;
 
-    private static final ConcurrentMap<String/* resourceId */, ConcurrentMap<String/* tableName */,
-        ConcurrentMap<Integer/* bucketId */, BucketLockMap>>>
-        LOCK_MAP = new ConcurrentHashMap<>();
+    private static final RowLockTable LOCK_TABLE = new RowLockTable();
+
+    /**
+     * The branch sessions holding any row lock, to find the holder of a conflict by its branch id.
+     */
+    private static final ConcurrentMap<Long/* branchId */, BranchSession> LOCK_HOLDERS = new ConcurrentHashMap<>();
 
     /**
      * The Branch session.
@@ -73,38 +78,37 @@ public class FileLocker extends AbstractLocker {
         }
         String resourceId = branchSession.getResourceId();
         long transactionId = branchSession.getTransactionId();
+        long branchId = branchSession.getBranchId();
 
-        Map<BucketLockMap, Set<String>> bucketHolder = branchSession.getLockHolder();
-        Map<String, ConcurrentMap<Integer, BucketLockMap>> dbLockMap = CollectionUtils.computeIfAbsent(
-            LOCK_MAP, resourceId, key -> new ConcurrentHashMap<>(8));
+        Map<RowLockTable.Stripe, RowLockTable.HeldRows> bucketHolder = branchSession.getLockHolder();
+        LOCK_HOLDERS.put(branchId, branchSession);
         boolean failFast = false;
         boolean canLock = true;
         for (RowLock lock : rowLocks) {
             String tableName = lock.getTableName();
             String pk = lock.getPk();
-            ConcurrentMap<Integer, BucketLockMap> tableLockMap = CollectionUtils.computeIfAbsent(dbLockMap, tableName,
-                key -> new ConcurrentHashMap<>(8));
-
-            int bucketId = pk.hashCode() % BUCKET_PER_TABLE;
-            BucketLockMap bucketLockMap = CollectionUtils.computeIfAbsent(tableLockMap, bucketId,
-                key -> new BucketLockMap());
-            BranchSession previousLockBranchSession = bucketLockMap.get().putIfAbsent(pk, branchSession);
-            if (previousLockBranchSession == null) {
+            int check = pk.hashCode();
+            long fingerprint = RowLockTable.fingerprint(pk);
+            RowLockTable.Stripe stripe = LOCK_TABLE.getOrCreateStripe(resourceId, tableName,
+                check % BUCKET_PER_TABLE);
+            long result = stripe.lock(fingerprint, check, transactionId, branchId);
+            if (result == RowLockTable.LOCKED) {
                 // No existing lock, and now locked by myself
-                Set<String> keysInHolder = CollectionUtils.computeIfAbsent(bucketHolder, bucketLockMap,
-                    key -> ConcurrentHashMap.newKeySet());
-                keysInHolder.add(pk);
-            } else if (previousLockBranchSession.getTransactionId() == transactionId) {
+                CollectionUtils.computeIfAbsent(bucketHolder, stripe, key -> new RowLockTable.HeldRows())
+                    .add(fingerprint, check);
+            } else if (result == RowLockTable.REENTERED) {
                 // Locked by me before
             } else {
-                LOGGER.info("Global lock on [" + tableName + ":" + pk + "] is holding by " + previousLockBranchSession.getBranchId());
+                LOGGER.info("Global lock on [" + tableName + ":" + pk + "] is holding by " + result);
                 try {
                     // Release all acquired locks.
                     branchSession.unlock();
                 } catch (TransactionException e) {
                     throw new FrameworkException(e);
                 }
-                if (!autoCommit && previousLockBranchSession.getLockStatus() == LockStatus.Rollbacking) {
+                BranchSession previousLockBranchSession = LOCK_HOLDERS.get(result);
+                if (!autoCommit && previousLockBranchSession != null
+                    && previousLockBranchSession.getLockStatus() == LockStatus.Rollbacking) {
                     failFast = true;
                     break;
                 }
@@ -116,6 +120,9 @@ public class FileLocker extends AbstractLocker {
                 }
             }
         }
+        if (bucketHolder.isEmpty()) {
+            LOCK_HOLDERS.remove(branchId, branchSession);
+        }
         if (failFast) {
             throw new StoreException(new BranchTransactionException(LockKeyConflictFailFast));
         }
@@ -128,17 +135,15 @@ public class FileLocker extends AbstractLocker {
             //no lock
             return true;
         }
-        Map<BucketLockMap, Set<String>> lockHolder = branchSession.getLockHolder();
+        Map<RowLockTable.Stripe, RowLockTable.HeldRows> lockHolder = branchSession.getLockHolder();
         if (CollectionUtils.isEmpty(lockHolder)) {
             return true;
         }
-        lockHolder.forEach((bucket, keys) -> {
-            for (String key : keys) {
-                // remove lock only if it locked by myself
-                bucket.get().remove(key, branchSession);
-            }
-        });
+        long branchId = branchSession.getBranchId();
+        // remove lock only if it locked by myself
+        lockHolder.forEach((stripe, rows) -> rows.unlockFrom(stripe, branchId));
         lockHolder.clear();
+        LOCK_HOLDERS.remove(branchId, branchSession);
         return true;
     }
 
@@ -150,26 +155,16 @@ public class FileLocker extends AbstractLocker {
         }
         Long transactionId = rowLocks.get(0).getTransactionId();
         String resourceId = rowLocks.get(0).getResourceId();
-        ConcurrentMap<String, ConcurrentMap<Integer, BucketLockMap>> dbLockMap = LOCK_MAP.get(resourceId);
-        if (dbLockMap == null) {
-            return true;
-        }
         for (RowLock rowLock : rowLocks) {
             String tableName = rowLock.getTableName();
             String pk = rowLock.getPk();
-
-            ConcurrentMap<Integer, BucketLockMap> tableLockMap = dbLockMap.get(tableName);
-            if (tableLockMap == null) {
-                continue;
-            }
-            int bucketId = pk.hashCode() % BUCKET_PER_TABLE;
-            BucketLockMap bucketLockMap = tableLockMap.get(bucketId);
-            if (bucketLockMap == null) {
+            int check = pk.hashCode();
+            RowLockTable.Stripe stripe = LOCK_TABLE.getStripe(resourceId, tableName, check % BUCKET_PER_TABLE);
+            if (stripe == null) {
                 continue;
             }
-            BranchSession branchSession = bucketLockMap.get().get(pk);
-            Long lockingTransactionId = branchSession != null ? branchSession.getTransactionId() : null;
-            if (lockingTransactionId == null || lockingTransactionId.longValue() == transactionId) {
+            long lockingTransactionId = stripe.getTransactionId(RowLockTable.fingerprint(pk), check);
+            if (lockingTransactionId == 0 || lockingTransactionId == transactionId) {
                 // Locked by me
                 continue;
             } else {
@@ -187,31 +182,7 @@ public class FileLocker extends AbstractLocker {
 
     @Override
     public void cleanAllLocks() {
-        LOCK_MAP.clear();
-    }
-
-    /**
-     * Because bucket lock map will be key of HashMap(lockHolder), however {@link ConcurrentHashMap} overwrites
-     * {@link Object#hashCode()} and {@link Object#equals(Object)}, that leads to hash key conflict in lockHolder.
-     * We define a {@link BucketLockMap} to hold the ConcurrentHashMap(bucketLockMap) and replace it as key of
-     * HashMap(lockHolder).
-     */
-    public static class BucketLockMap {
-        private final ConcurrentHashMap<String/* pk */, BranchSession/* branchSession */> bucketLockMap
-            = new ConcurrentHashMap<>();
-
-        ConcurrentHashMap<String, BranchSession> get() {
-            return bucketLockMap;
-        }
-
-        @Override
-        public int hashCode() {
-            return super.hashCode();
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            return super.equals(o);
-        }
+        LOCK_TABLE.clear();
+        LOCK_HOLDERS.clear();
     }
 }
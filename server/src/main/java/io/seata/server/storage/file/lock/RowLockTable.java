@@ -0,0 +1,315 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.server.storage.file.lock;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.seata.common.util.CollectionUtils;
+
+/**
+ * The row lock table of the file mode.
+ * <p>
+ * The resource ids and the table names are interned to ints, every (resource, table, bucket) owns a stripe, and
+ * a stripe keeps its rows in open-addressing primitive arrays: the 64-bit fingerprint of the pk, the
+ * {@link String#hashCode()} of the pk as the verification of the fingerprint, the holder branch id and the holder
+ * transaction id. No object is allocated per locked row.
+ * </p>
+ * <p>
+ * Two different pks are taken as the same row only if both the fingerprint and the verification collide, which
+ * leads to a false lock conflict at worst, never to two transactions holding the same row.
+ * </p>
+ */
+public class RowLockTable {
+
+    /**
+     * the row is locked by the branch now, never a branch id
+     */
+    public static final long LOCKED = Long.MIN_VALUE;
+
+    /**
+     * the row has been locked by the same transaction before, never a branch id
+     */
+    public static final long REENTERED = Long.MIN_VALUE + 1;
+
+    private static final int MAX_TABLE_ID = (1 << 24) - 1;
+
+    private final ConcurrentMap<String, Integer> resourceIds = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Integer> tableNames = new ConcurrentHashMap<>();
+
+    private final AtomicInteger resourceIdSequence = new AtomicInteger();
+
+    private final AtomicInteger tableNameSequence = new AtomicInteger();
+
+    private final ConcurrentMap<Long, Stripe> stripes = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the stripe of the row, create it if absent.
+     *
+     * @param resourceId the resource id
+     * @param tableName  the table name
+     * @param bucketId   the bucket id
+     * @return the stripe
+     */
+    public Stripe getOrCreateStripe(String resourceId, String tableName, int bucketId) {
+        return CollectionUtils.computeIfAbsent(stripes, stripeKey(resourceId, tableName, bucketId),
+            key -> new Stripe());
+    }
+
+    /**
+     * Gets the stripe of the row.
+     *
+     * @param resourceId the resource id
+     * @param tableName  the table name
+     * @param bucketId   the bucket id
+     * @return the stripe, null if no row of it has ever been locked
+     */
+    public Stripe getStripe(String resourceId, String tableName, int bucketId) {
+        Integer resource = resourceIds.get(resourceId);
+        Integer table = tableNames.get(tableName);
+        if (resource == null || table == null) {
+            return null;
+        }
+        return stripes.get(stripeKey(resource, table, bucketId));
+    }
+
+    /**
+     * Clear all the locks.
+     */
+    public void clear() {
+        stripes.clear();
+    }
+
+    private long stripeKey(String resourceId, String tableName, int bucketId) {
+        int resource = CollectionUtils.computeIfAbsent(resourceIds, resourceId,
+            key -> resourceIdSequence.incrementAndGet());
+        int table = CollectionUtils.computeIfAbsent(tableNames, tableName, key -> {
+            int id = tableNameSequence.incrementAndGet();
+            if (id > MAX_TABLE_ID) {
+                throw new IllegalStateException("too many table names: " + id);
+            }
+            return id;
+        });
+        return stripeKey(resource, table, bucketId);
+    }
+
+    private static long stripeKey(int resource, int table, int bucketId) {
+        return ((long)resource << 32) | ((long)table << 8) | (bucketId & 0xFF);
+    }
+
+    /**
+     * The 64-bit fingerprint of the pk, FNV-1a over the chars with the murmur3 finalizer.
+     *
+     * @param pk the pk
+     * @return the fingerprint, never 0
+     */
+    public static long fingerprint(String pk) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < pk.length(); i++) {
+            h ^= pk.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        // 0 marks the empty slot
+        return h == 0 ? 1 : h;
+    }
+
+    /**
+     * The stripe of the rows, an open-addressing table with linear probing guarded by its monitor.
+     * <p>
+     * The stripe is also the key of {@code BranchSession#getLockHolder}, so it keeps the identity equality.
+     * </p>
+     */
+    public static final class Stripe {
+
+        private static final int INITIAL_CAPACITY = 8;
+
+        private long[] fingerprints = new long[INITIAL_CAPACITY];
+
+        private int[] checks = new int[INITIAL_CAPACITY];
+
+        private long[] branchIds = new long[INITIAL_CAPACITY];
+
+        private long[] transactionIds = new long[INITIAL_CAPACITY];
+
+        private int size;
+
+        /**
+         * Lock the row.
+         *
+         * @param fingerprint   the fingerprint of the pk
+         * @param check         the verification of the fingerprint
+         * @param transactionId the transaction id
+         * @param branchId      the branch id
+         * @return {@link #LOCKED}, {@link #REENTERED} or the branch id of the holder of the other transaction
+         */
+        public synchronized long lock(long fingerprint, int check, long transactionId, long branchId) {
+            int slot = find(fingerprint, check);
+            if (fingerprints[slot] != 0) {
+                return transactionIds[slot] == transactionId ? REENTERED : branchIds[slot];
+            }
+            fingerprints[slot] = fingerprint;
+            checks[slot] = check;
+            branchIds[slot] = branchId;
+            transactionIds[slot] = transactionId;
+            if (++size * 2 > fingerprints.length) {
+                rehash(fingerprints.length << 1);
+            }
+            return LOCKED;
+        }
+
+        /**
+         * Unlock the row if it is locked by the branch.
+         *
+         * @param fingerprint the fingerprint of the pk
+         * @param check       the verification of the fingerprint
+         * @param branchId    the branch id
+         * @return whether the row is unlocked
+         */
+        public synchronized boolean unlock(long fingerprint, int check, long branchId) {
+            int slot = find(fingerprint, check);
+            if (fingerprints[slot] == 0 || branchIds[slot] != branchId) {
+                return false;
+            }
+            delete(slot);
+            if (size * 8 < fingerprints.length && fingerprints.length > INITIAL_CAPACITY) {
+                rehash(fingerprints.length >> 1);
+            }
+            return true;
+        }
+
+        /**
+         * Gets the transaction id of the holder.
+         *
+         * @param fingerprint the fingerprint of the pk
+         * @param check       the verification of the fingerprint
+         * @return the transaction id, 0 if not locked
+         */
+        public synchronized long getTransactionId(long fingerprint, int check) {
+            int slot = find(fingerprint, check);
+            return fingerprints[slot] == 0 ? 0 : transactionIds[slot];
+        }
+
+        public synchronized int size() {
+            return size;
+        }
+
+        /**
+         * the slot of the row, or the empty slot to put it
+         */
+        private int find(long fingerprint, int check) {
+            int mask = fingerprints.length - 1;
+            int slot = (int)fingerprint & mask;
+            while (fingerprints[slot] != 0 && (fingerprints[slot] != fingerprint || checks[slot] != check)) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        /**
+         * delete by shifting the following rows of the probe sequence back, so no tombstone is left
+         */
+        private void delete(int slot) {
+            int mask = fingerprints.length - 1;
+            int hole = slot;
+            int next = (hole + 1) & mask;
+            while (fingerprints[next] != 0) {
+                int home = (int)fingerprints[next] & mask;
+                // move the row into the hole if its home is not in (hole, next]
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    fingerprints[hole] = fingerprints[next];
+                    checks[hole] = checks[next];
+                    branchIds[hole] = branchIds[next];
+                    transactionIds[hole] = transactionIds[next];
+                    hole = next;
+                }
+                next = (next + 1) & mask;
+            }
+            fingerprints[hole] = 0;
+            checks[hole] = 0;
+            branchIds[hole] = 0;
+            transactionIds[hole] = 0;
+            size--;
+        }
+
+        private void rehash(int capacity) {
+            long[] oldFingerprints = fingerprints;
+            int[] oldChecks = checks;
+            long[] oldBranchIds = branchIds;
+            long[] oldTransactionIds = transactionIds;
+            fingerprints = new long[capacity];
+            checks = new int[capacity];
+            branchIds = new long[capacity];
+            transactionIds = new long[capacity];
+            for (int i = 0; i < oldFingerprints.length; i++) {
+                if (oldFingerprints[i] != 0) {
+                    int slot = find(oldFingerprints[i], oldChecks[i]);
+                    fingerprints[slot] = oldFingerprints[i];
+                    checks[slot] = oldChecks[i];
+                    branchIds[slot] = oldBranchIds[i];
+                    transactionIds[slot] = oldTransactionIds[i];
+                }
+            }
+        }
+    }
+
+    /**
+     * The rows of one stripe held by a branch, kept as primitive arrays to release them without the pks.
+     */
+    public static final class HeldRows {
+
+        private long[] fingerprints = new long[4];
+
+        private int[] checks = new int[4];
+
+        private int size;
+
+        public synchronized void add(long fingerprint, int check) {
+            if (size == fingerprints.length) {
+                fingerprints = Arrays.copyOf(fingerprints, size << 1);
+                checks = Arrays.copyOf(checks, size << 1);
+            }
+            fingerprints[size] = fingerprint;
+            checks[size] = check;
+            size++;
+        }
+
+        /**
+         * Unlock all the rows from the stripe.
+         *
+         * @param stripe   the stripe
+         * @param branchId the branch id
+         */
+        public synchronized void unlockFrom(Stripe stripe, long branchId) {
+            for (int i = 0; i < size; i++) {
+                stripe.unlock(fingerprints[i], checks[i], branchId);
+            }
+            size = 0;
+        }
+
+        public synchronized int size() {
+            return size;
+        }
+    }
+}
@@ -20,22 +20,29 @@ import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
 import io.seata.common.exception.StoreException;
 import io.seata.common.thread.NamedThreadFactory;
 import io.seata.common.util.CollectionUtils;
 import io.seata.common.util.BufferUtils;
+import io.seata.metrics.registry.Registry;
+import io.seata.server.metrics.MeterIdConstants;
+import io.seata.server.metrics.MetricsManager;
 import io.seata.server.session.BranchSession;
 import io.seata.server.session.GlobalSession;
 import io.seata.server.session.SessionCondition;
@@ -56,7 +63,11 @@ import static io.seata.core.context.RootContext.MDC_KEY_BRANCH_ID;
 
 /**
  * The type File transaction store manager.
- *
+ * <p>
+ * The writes are group committed: the callers put the encoded records into a lock-free ring and wait for them,
+ * the single write thread drains the ring, writes the whole batch and forces it with one fsync in sync flush
+ * mode, then completes every waiter of the batch. The history file rolling is done by the write thread as well.
+ * </p>
  */
 public class FileTransactionStoreManager extends AbstractTransactionStoreManager
     implements TransactionStoreManager, ReloadableStore {
@@ -104,6 +115,10 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
 
     private long recoverHisOffset = 0;
 
+    private ReplayReader currReplayReader;
+
+    private ReplayReader hisReplayReader;
+
     private SessionManager sessionManager;
 
     private String currFullFileName;
@@ -112,8 +127,6 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
 
     private WriteDataFileRunnable writeDataFileRunnable;
 
-    private ReentrantLock writeSessionLock = new ReentrantLock();
-
     private volatile long lastModifiedTime;
 
     private static final int MAX_WRITE_BUFFER_SIZE = StoreConfig.getFileWriteBufferCacheSize();
@@ -124,10 +137,17 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
 
     private static final int MAX_WAIT_FOR_FLUSH_TIME_MILLS = 2 * 1000;
 
-    private static final int MAX_WAIT_FOR_CLOSE_TIME_MILLS = 2 * 1000;
-
     private static final int INT_BYTE_SIZE = 4;
 
+    private static final long RING_FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    /**
+     * the size of the mapped window of the replay, a multi-GB data file is mapped window by window
+     */
+    private static final int REPLAY_MAP_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private static final int PARALLEL_DECODE_THRESHOLD = 64;
+
     /**
      * Instantiates a new File transaction store manager.
      *
@@ -172,42 +192,31 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
 
     @Override
     public boolean writeSession(LogOperation logOperation, SessionStorable session) {
-        long curFileTrxNum;
-        writeSessionLock.lock();
+        if (stopping) {
+            return false;
+        }
+        byte[] data;
         try {
-            if (!writeDataFile(new TransactionWriteStore(session, logOperation).encode())) {
-                return false;
-            }
-            lastModifiedTime = System.currentTimeMillis();
-            curFileTrxNum = FILE_TRX_NUM.incrementAndGet();
-            if (curFileTrxNum % PER_FILE_BLOCK_SIZE == 0
-                && (System.currentTimeMillis() - trxStartTimeMills) > MAX_TRX_TIMEOUT_MILLS) {
-                return saveHistory();
-            }
+            data = new TransactionWriteStore(session, logOperation).encode();
         } catch (Exception exx) {
             LOGGER.error("writeSession error, {}", exx.getMessage(), exx);
             return false;
-        } finally {
-            writeSessionLock.unlock();
         }
-        flushDisk(curFileTrxNum, currFileChannel);
-        return true;
-    }
-
-    private void flushDisk(long curFileNum, FileChannel currFileChannel) {
-
-        if (FLUSH_DISK_MODE == FlushDiskMode.SYNC_MODEL) {
-            SyncFlushRequest syncFlushRequest = new SyncFlushRequest(curFileNum, currFileChannel);
-            writeDataFileRunnable.putRequest(syncFlushRequest);
-            syncFlushRequest.waitForFlush(MAX_WAIT_FOR_FLUSH_TIME_MILLS);
-        } else {
-            writeDataFileRunnable.putRequest(new AsyncFlushRequest(curFileNum, currFileChannel));
+        if (data == null || data.length >= Integer.MAX_VALUE - 3) {
+            return false;
         }
+        WriteRequest request = new WriteRequest(data);
+        if (!writeDataFileRunnable.putRequest(request, MAX_WAIT_FOR_FLUSH_TIME_MILLS)) {
+            LOGGER.error("writeSession error, the write ring is full");
+            return false;
+        }
+        return request.waitForWrite(MAX_WAIT_FOR_FLUSH_TIME_MILLS);
     }
 
     /**
      * get all overTimeSessionStorables
      * merge write file
+     * only called by the write thread
      *
      * @throws IOException
      */
@@ -215,9 +224,10 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
         boolean result;
         try {
             result = findTimeoutAndSave();
-            CloseFileRequest request = new CloseFileRequest(currFileChannel, currRaf);
-            writeDataFileRunnable.putRequest(request);
-            request.waitForClose(MAX_WAIT_FOR_CLOSE_TIME_MILLS);
+            if (flush(currFileChannel)) {
+                FILE_FLUSH_NUM.set(FILE_TRX_NUM.get());
+            }
+            closeFile(currRaf);
             Files.move(currDataFile.toPath(), new File(hisFullFileName).toPath(), StandardCopyOption.REPLACE_EXISTING);
         } catch (IOException exx) {
             LOGGER.error("save history data file error, {}", exx.getMessage(), exx);
@@ -323,6 +333,7 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
         if (fileWriteExecutor != null) {
             fileWriteExecutor.shutdown();
             stopping = true;
+            writeDataFileRunnable.wakeup();
             int retry = 0;
             while (!fileWriteExecutor.isTerminated() && retry < MAX_SHUTDOWN_RETRY) {
                 ++retry;
@@ -343,102 +354,95 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
             LOGGER.error("fileChannel force error: {}", e.getMessage(), e);
         }
         closeFile(currRaf);
+        closeReplayReader(true);
+        closeReplayReader(false);
     }
 
     @Override
     public List<TransactionWriteStore> readWriteStore(int readSize, boolean isHistory) {
-        File file = null;
-        long currentOffset = 0;
-        if (isHistory) {
-            file = new File(hisFullFileName);
-            currentOffset = recoverHisOffset;
-        } else {
-            file = new File(currFullFileName);
-            currentOffset = recoverCurrOffset;
+        File file = new File(isHistory ? hisFullFileName : currFullFileName);
+        if (!file.exists()) {
+            return null;
         }
-        if (file.exists()) {
-            return parseDataFile(file, readSize, currentOffset, isHistory);
+        ReplayReader reader = isHistory ? hisReplayReader : currReplayReader;
+        try {
+            if (reader == null) {
+                reader = new ReplayReader(file, isHistory ? recoverHisOffset : recoverCurrOffset);
+                if (isHistory) {
+                    hisReplayReader = reader;
+                } else {
+                    currReplayReader = reader;
+                }
+            }
+            return parseDataFile(reader, readSize);
+        } catch (IOException exx) {
+            LOGGER.error("parse data file error:{},file:{}", exx.getMessage(), file.getName(), exx);
+            closeReplayReader(isHistory);
+            return null;
+        } finally {
+            if (isHistory) {
+                recoverHisOffset = reader == null ? recoverHisOffset : reader.position();
+            } else {
+                recoverCurrOffset = reader == null ? recoverCurrOffset : reader.position();
+            }
+            if (reader != null && !reader.hasRemaining()) {
+                closeReplayReader(isHistory);
+            }
         }
-        return null;
     }
 
     @Override
     public boolean hasRemaining(boolean isHistory) {
-        File file;
-        RandomAccessFile raf = null;
-        long currentOffset;
-        if (isHistory) {
-            file = new File(hisFullFileName);
-            currentOffset = recoverHisOffset;
-        } else {
-            file = new File(currFullFileName);
-            currentOffset = recoverCurrOffset;
-        }
-        try {
-            raf = new RandomAccessFile(file, "r");
-            return currentOffset < raf.length();
+        File file = new File(isHistory ? hisFullFileName : currFullFileName);
+        long currentOffset = isHistory ? recoverHisOffset : recoverCurrOffset;
+        return file.exists() && currentOffset < file.length();
+    }
 
-        } catch (IOException ignore) {
-        } finally {
-            closeFile(raf);
+    /**
+     * Slice the frames out of the mapped file, then decode them in parallel if there are enough,
+     * the order of the returned stores is always the order in the file.
+     */
+    private List<TransactionWriteStore> parseDataFile(ReplayReader reader, int readSize) throws IOException {
+        List<ByteBuffer> frames = new ArrayList<>(readSize);
+        ByteBuffer frame;
+        while (frames.size() < readSize && (frame = reader.nextFrame()) != null) {
+            frames.add(frame);
+        }
+        TransactionWriteStore[] writeStores = new TransactionWriteStore[frames.size()];
+        IntStream indexes = IntStream.range(0, frames.size());
+        if (frames.size() >= PARALLEL_DECODE_THRESHOLD) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(i -> writeStores[i] = decodeFrame(frames.get(i)));
+        List<TransactionWriteStore> transactionWriteStores = new ArrayList<>(writeStores.length);
+        for (TransactionWriteStore writeStore : writeStores) {
+            if (writeStore != null) {
+                transactionWriteStores.add(writeStore);
+            }
         }
-        return false;
+        return transactionWriteStores;
     }
 
-    private List<TransactionWriteStore> parseDataFile(File file, int readSize, long currentOffset, boolean isHistory) {
-        List<TransactionWriteStore> transactionWriteStores = new ArrayList<>(readSize);
-        RandomAccessFile raf = null;
-        FileChannel fileChannel = null;
+    private TransactionWriteStore decodeFrame(ByteBuffer frame) {
         try {
-            raf = new RandomAccessFile(file, "r");
-            raf.seek(currentOffset);
-            fileChannel = raf.getChannel();
-            fileChannel.position(currentOffset);
-            long size = raf.length();
-            ByteBuffer buffSize = ByteBuffer.allocate(MARK_SIZE);
-            while (fileChannel.position() < size) {
-                try {
-                    BufferUtils.clear(buffSize);
-                    int avilReadSize = fileChannel.read(buffSize);
-                    if (avilReadSize != MARK_SIZE) {
-                        break;
-                    }
-                    BufferUtils.flip(buffSize);
-                    int bodySize = buffSize.getInt();
-                    byte[] byBody = new byte[bodySize];
-                    ByteBuffer buffBody = ByteBuffer.wrap(byBody);
-                    avilReadSize = fileChannel.read(buffBody);
-                    if (avilReadSize != bodySize) {
-                        break;
-                    }
-                    TransactionWriteStore writeStore = new TransactionWriteStore();
-                    writeStore.decode(byBody);
-                    transactionWriteStores.add(writeStore);
-                    if (transactionWriteStores.size() == readSize) {
-                        break;
-                    }
-                } catch (Exception ex) {
-                    LOGGER.error("decode data file error:{}", ex.getMessage(), ex);
-                    break;
-                }
-            }
-            return transactionWriteStores;
-        } catch (IOException exx) {
-            LOGGER.error("parse data file error:{},file:{}", exx.getMessage(), file.getName(), exx);
+            TransactionWriteStore writeStore = new TransactionWriteStore();
+            writeStore.decode(frame);
+            return writeStore;
+        } catch (Exception ex) {
+            LOGGER.error("decode data file error:{}", ex.getMessage(), ex);
             return null;
-        } finally {
-            try {
-                if (fileChannel != null) {
-                    if (isHistory) {
-                        recoverHisOffset = fileChannel.position();
-                    } else {
-                        recoverCurrOffset = fileChannel.position();
-                    }
-                }
-                closeFile(raf);
-            } catch (IOException exx) {
-                LOGGER.error("file close error{}", exx.getMessage(), exx);
-            }
+        }
+    }
+
+    private void closeReplayReader(boolean isHistory) {
+        ReplayReader reader = isHistory ? hisReplayReader : currReplayReader;
+        if (reader != null) {
+            reader.close();
+        }
+        if (isHistory) {
+            hisReplayReader = null;
+        } else {
+            currReplayReader = null;
         }
     }
 
@@ -453,16 +457,6 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
         }
     }
 
-    private boolean writeDataFile(byte[] bs) {
-        if (bs == null || bs.length >= Integer.MAX_VALUE - 3) {
-            return false;
-        }
-        if (!writeDataFrame(bs)) {
-            return false;
-        }
-        return flushWriteBuffer(writeBuffer);
-    }
-
     private boolean writeDataFileByBuffer(ByteBuffer byteBuffer) {
         for (int retry = 0; retry < MAX_WRITE_RETRY; retry++) {
             try {
@@ -478,107 +472,171 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
         return false;
     }
 
-    interface StoreRequest {
-
-    }
-
-    abstract static class AbstractFlushRequest implements StoreRequest {
-        private final long curFileTrxNum;
+    /**
+     * The reader of the replay, maps the data file window by window and slices the frames out of the mapped
+     * buffer without copying.
+     */
+    static class ReplayReader {
 
-        private final FileChannel curFileChannel;
+        private final RandomAccessFile raf;
 
-        protected AbstractFlushRequest(long curFileTrxNum, FileChannel curFileChannel) {
-            this.curFileTrxNum = curFileTrxNum;
-            this.curFileChannel = curFileChannel;
-        }
+        private final FileChannel fileChannel;
 
-        public long getCurFileTrxNum() {
-            return curFileTrxNum;
-        }
+        private final long fileSize;
 
-        public FileChannel getCurFileChannel() {
-            return curFileChannel;
-        }
-    }
+        private long position;
 
-    class SyncFlushRequest extends AbstractFlushRequest {
+        private MappedByteBuffer window;
 
-        private final CountDownLatch countDownLatch = new CountDownLatch(1);
+        private long windowOffset;
 
-        public SyncFlushRequest(long curFileTrxNum, FileChannel curFileChannel) {
-            super(curFileTrxNum, curFileChannel);
+        ReplayReader(File file, long position) throws IOException {
+            this.raf = new RandomAccessFile(file, "r");
+            this.fileChannel = raf.getChannel();
+            this.fileSize = fileChannel.size();
+            this.position = position;
         }
 
-        public void wakeup() {
-            this.countDownLatch.countDown();
+        /**
+         * the body of the next frame, null if no complete frame remains
+         */
+        ByteBuffer nextFrame() throws IOException {
+            if (fileSize - position < MARK_SIZE) {
+                position = fileSize;
+                return null;
+            }
+            int bodySize = slice(position, MARK_SIZE).getInt();
+            if (bodySize < 0 || fileSize - position - MARK_SIZE < bodySize) {
+                LOGGER.warn("the data file is truncated at {}, the rest {} bytes are skipped", position,
+                    fileSize - position);
+                position = fileSize;
+                return null;
+            }
+            ByteBuffer body = slice(position + MARK_SIZE, bodySize);
+            position += MARK_SIZE + bodySize;
+            return body;
         }
 
-        public void waitForFlush(long timeout) {
-            try {
-                this.countDownLatch.await(timeout, TimeUnit.MILLISECONDS);
-            } catch (InterruptedException e) {
-                LOGGER.error("Interrupted", e);
+        private ByteBuffer slice(long offset, int length) throws IOException {
+            if (window == null || offset < windowOffset || offset + length > windowOffset + window.capacity()) {
+                long size = Math.min(Math.max(REPLAY_MAP_WINDOW_SIZE, length), fileSize - offset);
+                window = fileChannel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+                windowOffset = offset;
             }
+            ByteBuffer slice = window.duplicate();
+            int begin = (int)(offset - windowOffset);
+            slice.position(begin);
+            slice.limit(begin + length);
+            return slice.slice();
         }
-    }
 
-    class AsyncFlushRequest extends AbstractFlushRequest {
+        long position() {
+            return position;
+        }
 
-        public AsyncFlushRequest(long curFileTrxNum, FileChannel curFileChannel) {
-            super(curFileTrxNum, curFileChannel);
+        boolean hasRemaining() {
+            return position < fileSize;
         }
 
+        void close() {
+            // the mapped window is released with the buffer
+            window = null;
+            try {
+                fileChannel.close();
+            } catch (IOException exx) {
+                LOGGER.error("file close error{}", exx.getMessage(), exx);
+            }
+            try {
+                raf.close();
+            } catch (IOException exx) {
+                LOGGER.error("file close error{}", exx.getMessage(), exx);
+            }
+        }
     }
 
-    static class CloseFileRequest implements StoreRequest {
-        private final CountDownLatch countDownLatch = new CountDownLatch(1);
-        private FileChannel fileChannel;
+    static class WriteRequest {
 
-        private RandomAccessFile file;
+        private final byte[] data;
 
-        public CloseFileRequest(FileChannel fileChannel, RandomAccessFile file) {
-            this.fileChannel = fileChannel;
-            this.file = file;
-        }
+        private final CompletableFuture<Boolean> future = new CompletableFuture<>();
 
-        public FileChannel getFileChannel() {
-            return fileChannel;
+        WriteRequest(byte[] data) {
+            this.data = data;
         }
 
-        public RandomAccessFile getFile() {
-            return file;
+        void complete(boolean success) {
+            future.complete(success);
         }
 
-        public void wakeup() {
-            this.countDownLatch.countDown();
-        }
-
-        public void waitForClose(long timeout) {
+        /**
+         * wait for the record written, and forced in sync flush mode. As the flush waiting before, giving up the
+         * wait does not fail the write, the record stays queued and is written later, only a write error fails it.
+         */
+        boolean waitForWrite(long timeout) {
             try {
-                this.countDownLatch.await(timeout, TimeUnit.MILLISECONDS);
+                return future.get(timeout, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                LOGGER.warn("wait for write timeout after {} ms", timeout);
             } catch (InterruptedException e) {
                 LOGGER.error("Interrupted", e);
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                LOGGER.error("write error: {}", e.getMessage(), e);
+                return false;
             }
+            return true;
         }
     }
 
     /**
-     * The type Write data file runnable.
+     * The type Write data file runnable, the only thread writing the data file.
      */
     class WriteDataFileRunnable implements Runnable {
 
-        private LinkedBlockingQueue<StoreRequest> storeRequests = new LinkedBlockingQueue<>();
+        private final GroupCommitRing<WriteRequest> writeRequests =
+            new GroupCommitRing<>(StoreConfig.getGroupCommitRingSize());
+
+        private final List<WriteRequest> batch = new ArrayList<>();
+
+        private volatile Thread writeThread;
+
+        /**
+         * put the request into the ring, wait for the free slot if the ring is full
+         */
+        public boolean putRequest(final WriteRequest request, long timeout) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+            while (!writeRequests.offer(request)) {
+                if (stopping || System.nanoTime() > deadline) {
+                    return false;
+                }
+                wakeup();
+                LockSupport.parkNanos(RING_FULL_PARK_NANOS);
+            }
+            wakeup();
+            return true;
+        }
 
-        public void putRequest(final StoreRequest request) {
-            storeRequests.add(request);
+        public void wakeup() {
+            Thread thread = writeThread;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
         }
 
         @Override
         public void run() {
+            writeThread = Thread.currentThread();
             while (!stopping) {
                 try {
-                    StoreRequest storeRequest = storeRequests.poll(MAX_WAIT_TIME_MILLS, TimeUnit.MILLISECONDS);
-                    handleStoreRequest(storeRequest);
+                    if (!writeBatch()) {
+                        if (writeRequests.isEmpty()) {
+                            LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(MAX_WAIT_TIME_MILLS));
+                        } else {
+                            // a producer has claimed the slot but not published yet
+                            Thread.yield();
+                        }
+                    }
+                    flushOnCondition(currFileChannel);
                 } catch (Exception exx) {
                     LOGGER.error("write file error: {}", exx.getMessage(), exx);
                 }
@@ -590,45 +648,73 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
          * handle the rest requests when stopping is true
          */
         private void handleRestRequest() {
-            int remainNums = storeRequests.size();
-            for (int i = 0; i < remainNums; i++) {
-                handleStoreRequest(storeRequests.poll());
+            long deadline = System.currentTimeMillis() + MAX_WAIT_FOR_FLUSH_TIME_MILLS;
+            while (!writeRequests.isEmpty() && System.currentTimeMillis() < deadline) {
+                try {
+                    if (!writeBatch()) {
+                        Thread.yield();
+                    }
+                } catch (Exception exx) {
+                    LOGGER.error("write file error: {}", exx.getMessage(), exx);
+                }
             }
         }
 
-        private void handleStoreRequest(StoreRequest storeRequest) {
-            if (storeRequest == null) {
-                flushOnCondition(currFileChannel);
+        /**
+         * write and complete one batch of the requests
+         *
+         * @return false if no request is drained
+         */
+        private boolean writeBatch() throws IOException {
+            if (writeRequests.drainTo(batch, writeRequests.capacity()) == 0) {
+                return false;
             }
-            if (storeRequest instanceof SyncFlushRequest) {
-                syncFlush((SyncFlushRequest)storeRequest);
-            } else if (storeRequest instanceof AsyncFlushRequest) {
-                async((AsyncFlushRequest)storeRequest);
-            } else if (storeRequest instanceof CloseFileRequest) {
-                closeAndFlush((CloseFileRequest)storeRequest);
+            long start = System.currentTimeMillis();
+            boolean success = true;
+            try {
+                for (WriteRequest request : batch) {
+                    if (!writeDataFrame(request.data)) {
+                        success = false;
+                        break;
+                    }
+                }
+                success = success && flushWriteBuffer(writeBuffer);
+                if (!success) {
+                    BufferUtils.clear(writeBuffer);
+                } else if (FLUSH_DISK_MODE == FlushDiskMode.SYNC_MODEL) {
+                    success = flush(currFileChannel);
+                }
+            } catch (RuntimeException exx) {
+                LOGGER.error("write data file error:{}", exx.getMessage(), exx);
+                BufferUtils.clear(writeBuffer);
+                success = false;
             }
+            long prevFileTrxNum = FILE_TRX_NUM.get();
+            if (success) {
+                lastModifiedTime = System.currentTimeMillis();
+                FILE_TRX_NUM.addAndGet(batch.size());
+                if (FLUSH_DISK_MODE == FlushDiskMode.SYNC_MODEL) {
+                    FILE_FLUSH_NUM.set(FILE_TRX_NUM.get());
+                }
+            }
+            for (WriteRequest request : batch) {
+                request.complete(success);
+            }
+            recordBatch(batch.size(), System.currentTimeMillis() - start);
+            batch.clear();
+            if (success && FILE_TRX_NUM.get() / PER_FILE_BLOCK_SIZE != prevFileTrxNum / PER_FILE_BLOCK_SIZE
+                && (System.currentTimeMillis() - trxStartTimeMills) > MAX_TRX_TIMEOUT_MILLS) {
+                saveHistory();
+            }
+            return true;
         }
 
-        private void closeAndFlush(CloseFileRequest req) {
-            long diff = FILE_TRX_NUM.get() - FILE_FLUSH_NUM.get();
-            flush(req.getFileChannel());
-            FILE_FLUSH_NUM.addAndGet(diff);
-            closeFile(req.getFile());
-            req.wakeup();
-        }
-
-        private void async(AsyncFlushRequest req) {
-            flushOnCondition(req.getCurFileChannel());
-        }
-
-        private void syncFlush(SyncFlushRequest req) {
-            if (req.getCurFileTrxNum() > FILE_FLUSH_NUM.get()) {
-                long diff = FILE_TRX_NUM.get() - FILE_FLUSH_NUM.get();
-                flush(req.getCurFileChannel());
-                FILE_FLUSH_NUM.addAndGet(diff);
+        private void recordBatch(int batchSize, long duration) {
+            Registry registry = MetricsManager.get().getRegistry();
+            if (registry != null) {
+                registry.getSummary(MeterIdConstants.SUMMARY_FILE_FLUSH_BATCH_SIZE).increase(batchSize);
+                registry.getTimer(MeterIdConstants.TIMER_FILE_FLUSH).record(duration, TimeUnit.MILLISECONDS);
             }
-            // notify
-            req.wakeup();
         }
 
         private void flushOnCondition(FileChannel fileChannel) {
@@ -636,21 +722,24 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
                 return;
             }
             long diff = FILE_TRX_NUM.get() - FILE_FLUSH_NUM.get();
-            if (diff == 0) {
+            if (diff <= 0) {
                 return;
             }
-            if (diff % MAX_FLUSH_NUM == 0 || System.currentTimeMillis() - lastModifiedTime > MAX_FLUSH_TIME_MILLS) {
-                flush(fileChannel);
-                FILE_FLUSH_NUM.addAndGet(diff);
+            if (diff >= MAX_FLUSH_NUM || System.currentTimeMillis() - lastModifiedTime > MAX_FLUSH_TIME_MILLS) {
+                if (flush(fileChannel)) {
+                    FILE_FLUSH_NUM.addAndGet(diff);
+                }
             }
         }
+    }
 
-        private void flush(FileChannel fileChannel) {
-            try {
-                fileChannel.force(false);
-            } catch (IOException exx) {
-                LOGGER.error("flush error: {}", exx.getMessage(), exx);
-            }
+    private boolean flush(FileChannel fileChannel) {
+        try {
+            fileChannel.force(false);
+            return true;
+        } catch (IOException exx) {
+            LOGGER.error("flush error: {}", exx.getMessage(), exx);
+            return false;
         }
     }
 }
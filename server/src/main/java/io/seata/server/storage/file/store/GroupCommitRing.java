@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.server.storage.file.store;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The bounded lock-free ring of the group commit, many producers and one consumer.
+ * <p>
+ * The producers claim a slot by CAS on the producer index and then publish the element into it, the consumer
+ * drains the published elements in claim order. An element claimed but not yet published stops the drain
+ * until the next one, so the order in the file is always the order of the claims.
+ * </p>
+ *
+ * @param <E> the type of the element
+ */
+public class GroupCommitRing<E> {
+
+    private final AtomicReferenceArray<E> slots;
+
+    private final int capacity;
+
+    private final int mask;
+
+    private final AtomicLong producerIndex = new AtomicLong();
+
+    private volatile long consumerIndex;
+
+    /**
+     * Instantiates a new Group commit ring.
+     *
+     * @param capacity the capacity, rounded up to the power of 2
+     */
+    public GroupCommitRing(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("illegal capacity: " + capacity);
+        }
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.capacity = size;
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+    }
+
+    /**
+     * Offer the element, called by any thread.
+     *
+     * @param e the element
+     * @return false if the ring is full
+     */
+    public boolean offer(E e) {
+        Objects.requireNonNull(e);
+        long index;
+        do {
+            index = producerIndex.get();
+            if (index - consumerIndex >= capacity) {
+                return false;
+            }
+        } while (!producerIndex.compareAndSet(index, index + 1));
+        slots.lazySet((int)index & mask, e);
+        return true;
+    }
+
+    /**
+     * Drain the published elements, only called by the consumer thread.
+     *
+     * @param to    the list to add the elements to
+     * @param limit the max elements to drain
+     * @return the drained count
+     */
+    public int drainTo(List<E> to, int limit) {
+        long index = consumerIndex;
+        int drained = 0;
+        while (drained < limit) {
+            int offset = (int)index & mask;
+            E e = slots.get(offset);
+            if (e == null) {
+                break;
+            }
+            slots.lazySet(offset, null);
+            to.add(e);
+            index++;
+            drained++;
+        }
+        // the volatile write releases the slots cleared above to the producers
+        consumerIndex = index;
+        return drained;
+    }
+
+    /**
+     * Whether no element is claimed.
+     *
+     * @return the boolean
+     */
+    public boolean isEmpty() {
+        return producerIndex.get() == consumerIndex;
+    }
+
+    /**
+     * Gets the claimed element count.
+     *
+     * @return the size
+     */
+    public int size() {
+        long consumed = consumerIndex;
+        return (int)Math.max(0, producerIndex.get() - consumed);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
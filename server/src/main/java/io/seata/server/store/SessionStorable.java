@@ -16,6 +16,8 @@
  */
 package io.seata.server.store;
 
+import java.nio.ByteBuffer;
+
 /**
  * The interface Session storable.
  *
@@ -35,4 +37,15 @@ public interface SessionStorable {
      * @param src the src
      */
     void decode(byte[] src);
+
+    /**
+     * Decode from the remaining bytes of the buffer, the buffer may be a slice of a mapped file.
+     *
+     * @param src the src
+     */
+    default void decode(ByteBuffer src) {
+        byte[] bytes = new byte[src.remaining()];
+        src.get(bytes);
+        decode(bytes);
+    }
 }
@@ -69,6 +69,11 @@ public class StoreConfig {
      */
     private static final int DEFAULT_WRITE_BUFFER_SIZE = 1024 * 16;
 
+    /**
+     * Default 16384 records waiting for the group commit.
+     */
+    private static final int DEFAULT_GROUP_COMMIT_RING_SIZE = 1024 * 16;
+
     public static int getMaxBranchSessionSize() {
         return CONFIGURATION.getInt(STORE_FILE_PREFIX + "maxBranchSessionSize", DEFAULT_MAX_BRANCH_SESSION_SIZE);
     }
@@ -81,6 +86,10 @@ public class StoreConfig {
         return CONFIGURATION.getInt(STORE_FILE_PREFIX + "fileWriteBufferCacheSize", DEFAULT_WRITE_BUFFER_SIZE);
     }
 
+    public static int getGroupCommitRingSize() {
+        return CONFIGURATION.getInt(STORE_FILE_PREFIX + "groupCommitRingSize", DEFAULT_GROUP_COMMIT_RING_SIZE);
+    }
+
     public static FlushDiskMode getFlushDiskMode() {
         return FlushDiskMode.findDiskMode(CONFIGURATION.getConfig(STORE_FILE_PREFIX + "flushDiskMode"));
     }
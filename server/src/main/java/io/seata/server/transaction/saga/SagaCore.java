@@ -18,6 +18,7 @@ package io.seata.server.transaction.saga;
 
 import java.io.IOException;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeoutException;
 import io.netty.channel.Channel;
 import io.seata.common.util.CollectionUtils;
@@ -96,6 +97,20 @@ public class SagaCore extends AbstractCore {
         return response.getBranchStatus();
     }
 
+    @Override
+    protected CompletableFuture<BranchStatus> branchCommitSendAsync(BranchCommitRequest request,
+                                                                    GlobalSession globalSession,
+                                                                    BranchSession branchSession) {
+        return completedSend(() -> branchCommitSend(request, globalSession, branchSession));
+    }
+
+    @Override
+    protected CompletableFuture<BranchStatus> branchRollbackSendAsync(BranchRollbackRequest request,
+                                                                      GlobalSession globalSession,
+                                                                      BranchSession branchSession) {
+        return completedSend(() -> branchRollbackSend(request, globalSession, branchSession));
+    }
+
     @Override
     public boolean doGlobalCommit(GlobalSession globalSession, boolean retrying) throws TransactionException {
         try {
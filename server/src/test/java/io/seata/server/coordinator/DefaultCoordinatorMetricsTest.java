@@ -89,7 +89,12 @@ public class DefaultCoordinatorMetricsTest {
 
             MetricsManager.get().getRegistry().measure().forEach(
                 measurement -> measurements.put(measurement.getId().toString(), measurement));
-            Assertions.assertEquals(9, measurements.size());
+            // the phase one timer is recorded when the transaction begins to commit
+            Assertions.assertEquals(13, measurements.size());
+            Assertions.assertEquals(1, measurements.get(
+                "seata.transaction(applicationId=null,group=null,meter=timer,phase=phase1,role=tc,statistic=count,"
+                    + "status=committed)")
+                .getValue(), 0);
             Assertions.assertEquals(0,
                 measurements.get("seata.transaction(applicationId=null,group=null,meter=counter,role=tc,status=active)")
                     .getValue(), 0);
@@ -123,7 +128,11 @@ public class DefaultCoordinatorMetricsTest {
             Thread.sleep(2000);
             MetricsManager.get().getRegistry().measure().forEach(
                 measurement -> measurements.put(measurement.getId().toString(), measurement));
-            Assertions.assertEquals(17, measurements.size());
+            Assertions.assertEquals(25, measurements.size());
+            Assertions.assertEquals(1, measurements.get(
+                "seata.transaction(applicationId=null,group=null,meter=timer,phase=phase1,role=tc,statistic=count,"
+                    + "status=rollbacked)")
+                .getValue(), 0);
             Assertions.assertEquals(0,
                 measurements.get("seata.transaction(applicationId=null,group=null,meter=counter,role=tc,status=active)")
                     .getValue(), 0);
@@ -16,7 +16,18 @@
  */
 package io.seata.server.coordinator;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 import io.seata.core.exception.TransactionException;
@@ -28,6 +39,7 @@ import io.seata.server.session.BranchSession;
 import io.seata.server.session.GlobalSession;
 import io.seata.server.session.SessionHelper;
 import io.seata.server.session.SessionHolder;
+import io.seata.server.session.SessionLifecycleListener;
 import io.seata.server.store.StoreConfig.SessionMode;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
@@ -37,6 +49,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.Mockito;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.ApplicationContext;
 
@@ -306,6 +319,108 @@ public class DefaultCoreTest {
         Assertions.assertEquals(globalSession.getStatus(), GlobalStatus.RollbackRetrying);
     }
 
+    /**
+     * Do global commit in parallel, the results of a round are all handled.
+     *
+     * @param xid the xid
+     * @throws Exception the exception
+     */
+    @ParameterizedTest
+    @MethodSource("xidProvider")
+    public void doGlobalCommitParallelMixedResultsTest(String xid) throws Exception {
+        globalSession = SessionHolder.findGlobalSession(xid);
+        BranchSession retryable = addBranch(globalSession, BranchType.TCC, "r1");
+        BranchSession committed = addBranch(globalSession, BranchType.TCC, "r2");
+        BranchSession unretryable = addBranch(globalSession, BranchType.TCC, "r3");
+        Map<Long, BranchStatus> statuses = new HashMap<>();
+        statuses.put(retryable.getBranchId(), BranchStatus.PhaseTwo_CommitFailed_Retryable);
+        statuses.put(committed.getBranchId(), BranchStatus.PhaseTwo_Committed);
+        statuses.put(unretryable.getBranchId(), BranchStatus.PhaseTwo_CommitFailed_Unretryable);
+        core.mockCore(BranchType.TCC, new AsyncMockCore(statuses));
+        core.setParallelHandleBranch(true);
+        try {
+            Assertions.assertFalse(core.doGlobalCommit(globalSession, false));
+        } finally {
+            core.setParallelHandleBranch(false);
+        }
+        // the committed branch is removed and the unretryable one ends the global transaction
+        Assertions.assertNull(globalSession.getBranch(committed.getBranchId()));
+        Assertions.assertNotNull(globalSession.getBranch(retryable.getBranchId()));
+        Assertions.assertEquals(GlobalStatus.CommitFailed, globalSession.getStatus());
+    }
+
+    /**
+     * Do global rollback in parallel, the failed branches of a round queue the global session to retry once.
+     *
+     * @param xid the xid
+     * @throws Exception the exception
+     */
+    @ParameterizedTest
+    @MethodSource("xidProvider")
+    public void doGlobalRollbackParallelRetryOnceTest(String xid) throws Exception {
+        globalSession = SessionHolder.findGlobalSession(xid);
+        BranchSession failed1 = addBranch(globalSession, BranchType.TCC, "r1");
+        BranchSession rollbacked = addBranch(globalSession, BranchType.TCC, "r2");
+        BranchSession failed2 = addBranch(globalSession, BranchType.TCC, "r3");
+        Map<Long, BranchStatus> statuses = new HashMap<>();
+        statuses.put(failed1.getBranchId(), BranchStatus.PhaseTwo_RollbackFailed_Retryable);
+        statuses.put(rollbacked.getBranchId(), BranchStatus.PhaseTwo_Rollbacked);
+        statuses.put(failed2.getBranchId(), BranchStatus.PhaseTwo_RollbackFailed_Retryable);
+        core.mockCore(BranchType.TCC, new AsyncMockCore(statuses));
+        SessionLifecycleListener listener = Mockito.mock(SessionLifecycleListener.class);
+        globalSession.addSessionLifecycleListener(listener);
+        core.setParallelHandleBranch(true);
+        try {
+            Assertions.assertFalse(core.doGlobalRollback(globalSession, false));
+        } finally {
+            core.setParallelHandleBranch(false);
+            globalSession.removeSessionLifecycleListener(listener);
+        }
+        Assertions.assertNull(globalSession.getBranch(rollbacked.getBranchId()));
+        Mockito.verify(listener, Mockito.times(1)).onStatusChange(globalSession, GlobalStatus.RollbackRetrying);
+    }
+
+    /**
+     * Do global rollback in parallel, the branches of the same resource are in order.
+     *
+     * @param xid the xid
+     * @throws Exception the exception
+     */
+    @ParameterizedTest
+    @MethodSource("xidProvider")
+    public void doGlobalRollbackParallelResourceOrderTest(String xid) throws Exception {
+        globalSession = SessionHolder.findGlobalSession(xid);
+        BranchSession a1 = addBranch(globalSession, BranchType.AT, "ra");
+        BranchSession b1 = addBranch(globalSession, BranchType.AT, "rb");
+        BranchSession a2 = addBranch(globalSession, BranchType.AT, "ra");
+        Map<Long, BranchStatus> statuses = new HashMap<>();
+        statuses.put(a1.getBranchId(), BranchStatus.PhaseTwo_Rollbacked);
+        statuses.put(b1.getBranchId(), BranchStatus.PhaseTwo_Rollbacked);
+        statuses.put(a2.getBranchId(), BranchStatus.PhaseTwo_Rollbacked);
+        AsyncMockCore mockCore = new AsyncMockCore(statuses);
+        core.mockCore(BranchType.AT, mockCore);
+        core.setParallelHandleBranch(true);
+        try {
+            Assertions.assertTrue(core.doGlobalRollback(globalSession, false));
+        } finally {
+            core.setParallelHandleBranch(false);
+        }
+        Assertions.assertEquals(GlobalStatus.Rollbacked, globalSession.getStatus());
+        // the branches of different resources are in flight together, the same resource one by one in reverse order
+        Assertions.assertEquals(2, mockCore.maxInFlight.get());
+        Assertions.assertFalse(mockCore.resourceOverlapped);
+        Assertions.assertEquals(Arrays.asList(a2.getBranchId(), b1.getBranchId(), a1.getBranchId()), mockCore.sent);
+    }
+
+    private static BranchSession addBranch(GlobalSession globalSession, BranchType branchType, String resourceId)
+        throws TransactionException {
+        BranchSession branchSession = SessionHelper.newBranchByGlobal(globalSession, branchType, resourceId,
+            applicationData, null, clientId);
+        globalSession.addBranch(branchSession);
+        globalSession.changeBranchStatus(branchSession, BranchStatus.PhaseOne_Done);
+        return branchSession;
+    }
+
     /**
      * Xid provider object [ ] [ ].
      *
@@ -353,6 +468,61 @@ public class DefaultCoreTest {
         }
     }
 
+    private static class AsyncMockCore extends AbstractCore {
+
+        private final Map<Long, BranchStatus> statuses;
+
+        private final List<Long> sent = Collections.synchronizedList(new ArrayList<>());
+
+        private final Set<String> inFlightResources = ConcurrentHashMap.newKeySet();
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+
+        private volatile boolean resourceOverlapped;
+
+        AsyncMockCore(Map<Long, BranchStatus> statuses) {
+            super(new DefaultCoordinatorTest.MockServerMessageSender());
+            this.statuses = statuses;
+        }
+
+        @Override
+        public CompletableFuture<BranchStatus> branchCommitAsync(GlobalSession globalSession,
+                                                                 BranchSession branchSession) {
+            return send(branchSession);
+        }
+
+        @Override
+        public CompletableFuture<BranchStatus> branchRollbackAsync(GlobalSession globalSession,
+                                                                   BranchSession branchSession) {
+            return send(branchSession);
+        }
+
+        private CompletableFuture<BranchStatus> send(BranchSession branchSession) {
+            sent.add(branchSession.getBranchId());
+            if (!inFlightResources.add(branchSession.getResourceId())) {
+                resourceOverlapped = true;
+            }
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                inFlight.decrementAndGet();
+                inFlightResources.remove(branchSession.getResourceId());
+                return statuses.get(branchSession.getBranchId());
+            });
+        }
+
+        @Override
+        public BranchType getHandleBranchType() {
+            return BranchType.AT;
+        }
+    }
+
     private static class MockCore extends AbstractCore {
 
         private BranchStatus commitStatus;
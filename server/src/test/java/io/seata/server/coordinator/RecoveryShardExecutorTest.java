@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.server.coordinator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.seata.core.model.BranchType;
+import io.seata.server.session.BranchSession;
+import io.seata.server.session.GlobalSession;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static io.seata.common.DefaultValues.DEFAULT_TX_GROUP;
+
+/**
+ * The type Recovery shard executor test.
+ */
+@SpringBootTest
+public class RecoveryShardExecutorTest {
+
+    @Test
+    public void testExecuteAllSessions() {
+        RecoveryShardExecutor executor = new RecoveryShardExecutor("test", 4, 100, 0);
+        try {
+            List<GlobalSession> sessions = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                sessions.add(newGlobalSession("xid-" + i, "resource-" + i));
+            }
+            Set<String> handled = ConcurrentHashMap.newKeySet();
+            executor.execute(sessions, globalSession -> handled.add(globalSession.getXid()));
+            Assertions.assertEquals(50, handled.size());
+        } finally {
+            executor.destroy();
+        }
+    }
+
+    @Test
+    public void testShardBackpressure() {
+        RecoveryShardExecutor executor = new RecoveryShardExecutor("test", 1, 1, 0);
+        try {
+            List<GlobalSession> sessions = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                sessions.add(newGlobalSession("xid-" + i, "resource-" + i));
+            }
+            AtomicInteger handled = new AtomicInteger();
+            executor.execute(sessions, globalSession -> {
+                handled.incrementAndGet();
+                sleep(50);
+            });
+            // the sessions which overflow the shard queue are left to the next pass
+            Assertions.assertTrue(handled.get() < 10);
+            Assertions.assertTrue(handled.get() > 0);
+        } finally {
+            executor.destroy();
+        }
+    }
+
+    @Test
+    public void testResourceMaxConcurrency() {
+        RecoveryShardExecutor executor = new RecoveryShardExecutor("test", 2, 100, 1);
+        try {
+            List<GlobalSession> sessions = new ArrayList<>();
+            // "a" and "b" are partitioned into different shards
+            sessions.add(newGlobalSession("a", "slow-resource"));
+            sessions.add(newGlobalSession("b", "slow-resource"));
+            AtomicInteger handled = new AtomicInteger();
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger maxRunning = new AtomicInteger();
+            executor.execute(sessions, globalSession -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(300);
+                running.decrementAndGet();
+                handled.incrementAndGet();
+            });
+            // the session of the other shard waits for its turn instead of being deferred
+            Assertions.assertEquals(2, handled.get());
+            Assertions.assertEquals(1, maxRunning.get());
+        } finally {
+            executor.destroy();
+        }
+    }
+
+    @Test
+    public void testResourcePermitMaxWait() {
+        RecoveryShardExecutor executor = new RecoveryShardExecutor("test", 2, 100, 1, 50);
+        try {
+            List<GlobalSession> sessions = new ArrayList<>();
+            sessions.add(newGlobalSession("a", "slow-resource"));
+            sessions.add(newGlobalSession("b", "slow-resource"));
+            AtomicInteger handled = new AtomicInteger();
+            executor.execute(sessions, globalSession -> {
+                handled.incrementAndGet();
+                sleep(300);
+            });
+            // a resource busy longer than the max wait defers the session to the next pass
+            Assertions.assertEquals(1, handled.get());
+        } finally {
+            executor.destroy();
+        }
+    }
+
+    private GlobalSession newGlobalSession(String xid, String resourceId) {
+        GlobalSession globalSession = new GlobalSession("demo-app", DEFAULT_TX_GROUP, "test", 60000);
+        globalSession.setXid(xid);
+        BranchSession branchSession = new BranchSession();
+        branchSession.setXid(xid);
+        branchSession.setBranchType(BranchType.AT);
+        branchSession.setResourceId(resourceId);
+        globalSession.add(branchSession);
+        return globalSession;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.server.coordinator;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import io.seata.core.model.BranchType;
+import io.seata.server.session.GlobalSession;
+import io.seata.server.session.SessionHelper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static io.seata.common.DefaultValues.DEFAULT_TX_GROUP;
+
+/**
+ * The type Session retry backoff test.
+ */
+@SpringBootTest
+public class SessionRetryBackoffTest {
+
+    @Test
+    public void testNextInterval() {
+        SessionRetryBackoff.BackoffPolicy policy = new SessionRetryBackoff.BackoffPolicy(1000, 8000, 2, 0);
+        Assertions.assertEquals(1000, policy.nextInterval(1));
+        Assertions.assertEquals(2000, policy.nextInterval(2));
+        Assertions.assertEquals(4000, policy.nextInterval(3));
+        Assertions.assertEquals(8000, policy.nextInterval(4));
+        Assertions.assertEquals(8000, policy.nextInterval(100));
+    }
+
+    @Test
+    public void testJitter() {
+        SessionRetryBackoff.BackoffPolicy policy = new SessionRetryBackoff.BackoffPolicy(1000, 8000, 2, 20);
+        for (int i = 0; i < 100; i++) {
+            long interval = policy.nextInterval(1);
+            Assertions.assertTrue(interval >= 800 && interval <= 1200, "interval: " + interval);
+        }
+    }
+
+    @Test
+    public void testRetryState() {
+        SessionRetryBackoff backoff = new SessionRetryBackoff(new SessionRetryBackoff.BackoffPolicy(1000, 8000, 2, 0));
+        GlobalSession globalSession = new GlobalSession("demo-app", DEFAULT_TX_GROUP, "test", 60000);
+        long now = System.currentTimeMillis();
+        Assertions.assertTrue(backoff.isDue(globalSession, now));
+
+        backoff.onRetried(globalSession, false);
+        Assertions.assertEquals(1, backoff.getAttempts(globalSession.getXid()));
+        Assertions.assertFalse(backoff.isDue(globalSession, now));
+        Assertions.assertTrue(backoff.isDue(globalSession, now + 1500));
+
+        backoff.onRetried(globalSession, false);
+        Assertions.assertEquals(2, backoff.getAttempts(globalSession.getXid()));
+        Assertions.assertFalse(backoff.isDue(globalSession, now + 1500));
+
+        backoff.onRetried(globalSession, true);
+        Assertions.assertEquals(0, backoff.getAttempts(globalSession.getXid()));
+        Assertions.assertTrue(backoff.isDue(globalSession, now));
+    }
+
+    @Test
+    public void testMostConservativePolicy() {
+        Map<BranchType, SessionRetryBackoff.BackoffPolicy> policies = new EnumMap<>(BranchType.class);
+        policies.put(BranchType.AT, new SessionRetryBackoff.BackoffPolicy(1000, 8000, 2, 0));
+        policies.put(BranchType.TCC, new SessionRetryBackoff.BackoffPolicy(5000, 60000, 2, 0));
+        SessionRetryBackoff backoff =
+            new SessionRetryBackoff(new SessionRetryBackoff.BackoffPolicy(2000, 8000, 2, 0), policies);
+
+        GlobalSession atSession = new GlobalSession("demo-app", DEFAULT_TX_GROUP, "test", 60000);
+        atSession.add(SessionHelper.newBranchByGlobal(atSession, BranchType.AT, "resource", null, "client"));
+        GlobalSession mixedSession = new GlobalSession("demo-app", DEFAULT_TX_GROUP, "test", 60000);
+        mixedSession.add(SessionHelper.newBranchByGlobal(mixedSession, BranchType.AT, "resource", null, "client"));
+        mixedSession.add(SessionHelper.newBranchByGlobal(mixedSession, BranchType.TCC, "resource", null, "client"));
+        GlobalSession emptySession = new GlobalSession("demo-app", DEFAULT_TX_GROUP, "test", 60000);
+
+        long now = System.currentTimeMillis();
+        backoff.onRetried(atSession, false);
+        backoff.onRetried(mixedSession, false);
+        backoff.onRetried(emptySession, false);
+
+        // the at session waits the interval of the at policy
+        Assertions.assertTrue(backoff.isDue(atSession, now + 1500));
+        // the mixed session waits the longest interval of the at and tcc policies, whatever the branch order
+        Assertions.assertFalse(backoff.isDue(mixedSession, now + 4500));
+        Assertions.assertTrue(backoff.isDue(mixedSession, now + 5500));
+        // the session without branches waits the interval of the default policy
+        Assertions.assertFalse(backoff.isDue(emptySession, now + 1500));
+        Assertions.assertTrue(backoff.isDue(emptySession, now + 2500));
+    }
+
+    @Test
+    public void testExpungeStale() {
+        SessionRetryBackoff backoff = new SessionRetryBackoff(new SessionRetryBackoff.BackoffPolicy(1000, 8000, 2, 0));
+        GlobalSession globalSession = new GlobalSession("demo-app", DEFAULT_TX_GROUP, "test", 60000);
+        backoff.onRetried(globalSession, false);
+        backoff.expungeStale(System.currentTimeMillis());
+        Assertions.assertEquals(1, backoff.getAttempts(globalSession.getXid()));
+        backoff.expungeStale(System.currentTimeMillis() + 20000);
+        Assertions.assertEquals(0, backoff.getAttempts(globalSession.getXid()));
+    }
+}
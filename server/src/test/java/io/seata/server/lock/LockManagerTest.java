@@ -19,6 +19,7 @@ package io.seata.server.lock;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -29,6 +30,7 @@ import javax.annotation.Resource;
 import io.seata.common.util.CollectionUtils;
 import io.seata.console.result.PageResult;
 import io.seata.core.exception.TransactionException;
+import io.seata.core.lock.RowLock;
 import io.seata.core.model.BranchType;
 import io.seata.server.UUIDGenerator;
 import io.seata.server.console.param.GlobalLockParam;
@@ -42,6 +44,7 @@ import io.seata.server.session.SessionManager;
 import io.seata.server.store.StoreConfig.SessionMode;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -80,6 +83,30 @@ public class LockManagerTest {
         Assertions.assertTrue(lockManager.acquireLock(branchSession));
     }
 
+    /**
+     * Collect row locks from the lock key.
+     */
+    @Test
+    public void collectRowLocks() {
+        AbstractLockManager lockManager = new FileLockManagerForTest();
+        List<RowLock> locks = lockManager.collectRowLocks("t1:1,2_a, ,;t2:3;", "resource", "xid", 1L, 2L);
+        // the blank pks are skipped
+        Assertions.assertEquals(3, locks.size());
+        Assertions.assertEquals("t1", locks.get(0).getTableName());
+        Assertions.assertEquals("1", locks.get(0).getPk());
+        Assertions.assertEquals("2_a", locks.get(1).getPk());
+        Assertions.assertEquals("t2", locks.get(2).getTableName());
+        Assertions.assertEquals("3", locks.get(2).getPk());
+        Assertions.assertEquals("resource", locks.get(2).getResourceId());
+        Assertions.assertEquals(2L, locks.get(2).getBranchId().longValue());
+
+        // stop at the malformed group
+        Assertions.assertEquals(1, lockManager.collectRowLocks("t1:1;t2;t3:3", "resource", "xid", 1L, 2L).size());
+        Assertions.assertEquals(1, lockManager.collectRowLocks("t1:1;;t3:3", "resource", "xid", 1L, 2L).size());
+        Assertions.assertEquals(1, lockManager.collectRowLocks("t1:1;t2: ;t3:3", "resource", "xid", 1L, 2L).size());
+        Assertions.assertEquals(0, lockManager.collectRowLocks("t1:,;t3:3", "resource", "xid", 1L, 2L).size());
+    }
+
     /**
      * Acquire lock failed.
      *
@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.server.lock.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import io.seata.common.exception.StoreException;
+import io.seata.core.constants.ServerTableColumnsName;
+import io.seata.core.exception.BranchTransactionException;
+import io.seata.core.exception.TransactionExceptionCode;
+import io.seata.core.model.LockStatus;
+import io.seata.core.store.LockDO;
+import io.seata.server.storage.db.lock.LockStoreDataBaseDAO;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+/**
+ * The locks acquired by one insert statement skipping the existing rows.
+ * The h2 of the tests does not support the insert ignore statements, so the jdbc objects are mocked.
+ */
+@SpringBootTest
+public class LockStoreDataBaseDAOInsertIgnoreTest {
+
+    private static final String INSERT_IGNORE_SQL = "insert ignore into lock_table";
+
+    private static final String XID = "127.0.0.1:8091:1001";
+
+    private static final String OTHER_XID = "127.0.0.1:8091:1002";
+
+    private Connection conn;
+
+    private PreparedStatement insertPs;
+
+    private PreparedStatement checkPs;
+
+    private LockStoreDataBaseDAO lockStoreDAO;
+
+    @BeforeEach
+    public void init() throws SQLException {
+        DataSource dataSource = Mockito.mock(DataSource.class);
+        conn = Mockito.mock(Connection.class);
+        insertPs = Mockito.mock(PreparedStatement.class);
+        checkPs = Mockito.mock(PreparedStatement.class);
+        Mockito.when(dataSource.getConnection()).thenReturn(conn);
+        Mockito.when(conn.getAutoCommit()).thenReturn(true);
+        Mockito.when(conn.prepareStatement(anyString())).thenReturn(checkPs);
+        Mockito.when(conn.prepareStatement(eq(INSERT_IGNORE_SQL))).thenReturn(insertPs);
+
+        lockStoreDAO = new LockStoreDataBaseDAO(dataSource) {
+            @Override
+            protected String getInsertIgnoreLockSql(int rowSize) {
+                return INSERT_IGNORE_SQL;
+            }
+        };
+        lockStoreDAO.setDbType("mysql");
+        lockStoreDAO.setLockTable("lock_table");
+    }
+
+    @Test
+    public void testAllRowsInserted() throws SQLException {
+        Mockito.when(insertPs.executeUpdate()).thenReturn(3);
+
+        Assertions.assertTrue(lockStoreDAO.acquireLock(lockDOs(XID, "1", "2", "3"), true, false));
+        // 8 parameters of each row are bound to the single statement, the row key is the 7th of them
+        Mockito.verify(insertPs).setString(2 * 8 + 7, "res^^^t^^^3");
+        Mockito.verify(conn).commit();
+        // the rows are not read back
+        Mockito.verify(conn, Mockito.times(1)).prepareStatement(anyString());
+    }
+
+    @Test
+    public void testReentrantLock() throws SQLException {
+        // two rows are held by the same xid already
+        Mockito.when(insertPs.executeUpdate()).thenReturn(1);
+        // the rows held already are only skipped with a duplicate key warning
+        SQLWarning warning = duplicateKeyWarning("1");
+        warning.setNextWarning(duplicateKeyWarning("2"));
+        Mockito.when(insertPs.getWarnings()).thenReturn(warning);
+        ResultSet rs = resultSet(row(XID, "1", 0), row(XID, "2", 0), row(XID, "3", 0));
+        Mockito.when(checkPs.executeQuery()).thenReturn(rs);
+
+        Assertions.assertTrue(lockStoreDAO.acquireLock(lockDOs(XID, "1", "2", "3"), true, false));
+        Mockito.verify(conn).commit();
+        Mockito.verify(conn, Mockito.never()).rollback();
+    }
+
+    @Test
+    public void testConflict() throws SQLException {
+        Mockito.when(insertPs.executeUpdate()).thenReturn(2);
+        ResultSet rs = resultSet(row(XID, "1", 0), row(OTHER_XID, "2", LockStatus.Locked.getCode()));
+        Mockito.when(checkPs.executeQuery()).thenReturn(rs);
+
+        Assertions.assertFalse(lockStoreDAO.acquireLock(lockDOs(XID, "1", "2", "3"), false, false));
+        Mockito.verify(conn).rollback();
+        Mockito.verify(conn, Mockito.never()).commit();
+    }
+
+    @Test
+    public void testConflictFailFast() throws SQLException {
+        Mockito.when(insertPs.executeUpdate()).thenReturn(2);
+        ResultSet rs = resultSet(row(OTHER_XID, "2", LockStatus.Rollbacking.getCode()));
+        Mockito.when(checkPs.executeQuery()).thenReturn(rs);
+
+        StoreException exception = Assertions.assertThrows(StoreException.class,
+            () -> lockStoreDAO.acquireLock(lockDOs(XID, "1", "2", "3"), false, false));
+        Assertions.assertTrue(exception.getCause() instanceof BranchTransactionException);
+        Assertions.assertEquals(TransactionExceptionCode.LockKeyConflictFailFast,
+            ((BranchTransactionException)exception.getCause()).getCode());
+        Mockito.verify(conn).rollback();
+        Mockito.verify(conn, Mockito.never()).commit();
+    }
+
+    @Test
+    public void testSkipCheckLock() throws SQLException {
+        Mockito.when(insertPs.executeUpdate()).thenReturn(2);
+
+        // any existing row fails the lock without reading it back, even if it is held by the same xid
+        Assertions.assertFalse(lockStoreDAO.acquireLock(lockDOs(XID, "1", "2", "3"), true, true));
+        Mockito.verify(checkPs, Mockito.never()).executeQuery();
+        Mockito.verify(conn).rollback();
+        Mockito.verify(conn, Mockito.never()).commit();
+    }
+
+    @Test
+    public void testOverLongPk() throws SQLException {
+        // mysql stores the over long pk truncated, the row is counted as inserted
+        Mockito.when(insertPs.executeUpdate()).thenReturn(2);
+        SQLWarning warning = duplicateKeyWarning("1");
+        warning.setNextWarning(new SQLWarning("Data too long for column 'pk' at row 2", "22001", 1406));
+        Mockito.when(insertPs.getWarnings()).thenReturn(warning);
+
+        StoreException exception = Assertions.assertThrows(StoreException.class,
+            () -> lockStoreDAO.acquireLock(lockDOs(XID, "1", String.join("", Collections.nCopies(64, "2"))), true,
+                false));
+        Assertions.assertEquals(1406, ((SQLException)exception.getCause()).getErrorCode());
+        Mockito.verify(checkPs, Mockito.never()).executeQuery();
+        Mockito.verify(conn).rollback();
+        Mockito.verify(conn, Mockito.never()).commit();
+    }
+
+    private static SQLWarning duplicateKeyWarning(String pk) {
+        return new SQLWarning("Duplicate entry 'res^^^t^^^" + pk + "' for key 'PRIMARY'", "23000", 1062);
+    }
+
+    private static List<LockDO> lockDOs(String xid, String... pks) {
+        List<LockDO> lockDOs = new ArrayList<>(pks.length);
+        for (String pk : pks) {
+            LockDO lockDO = new LockDO();
+            lockDO.setXid(xid);
+            lockDO.setTransactionId(1001L);
+            lockDO.setBranchId(1L);
+            lockDO.setResourceId("res");
+            lockDO.setTableName("t");
+            lockDO.setPk(pk);
+            lockDO.setRowKey("res^^^t^^^" + pk);
+            lockDO.setStatus(LockStatus.Locked.getCode());
+            lockDOs.add(lockDO);
+        }
+        return lockDOs;
+    }
+
+    private static Map<String, Object> row(String xid, String pk, int status) {
+        Map<String, Object> row = new HashMap<>();
+        row.put(ServerTableColumnsName.LOCK_TABLE_XID, xid);
+        row.put(ServerTableColumnsName.LOCK_TABLE_PK, pk);
+        row.put(ServerTableColumnsName.LOCK_TABLE_TABLE_NAME, "t");
+        row.put(ServerTableColumnsName.LOCK_TABLE_ROW_KEY, "res^^^t^^^" + pk);
+        row.put(ServerTableColumnsName.LOCK_TABLE_STATUS, status);
+        return row;
+    }
+
+    @SafeVarargs
+    private static ResultSet resultSet(Map<String, Object>... rows) throws SQLException {
+        Iterator<Map<String, Object>> iterator = Arrays.asList(rows).iterator();
+        List<Map<String, Object>> current = new ArrayList<>(1);
+        current.add(null);
+        ResultSet rs = Mockito.mock(ResultSet.class);
+        Mockito.when(rs.next()).thenAnswer(invocation -> {
+            current.set(0, iterator.hasNext() ? iterator.next() : null);
+            return current.get(0) != null;
+        });
+        Mockito.when(rs.getString(anyString())).thenAnswer(
+            invocation -> (String)current.get(0).get(invocation.<String>getArgument(0)));
+        Mockito.when(rs.getInt(anyString())).thenAnswer(
+            invocation -> (Integer)current.get(0).get(invocation.<String>getArgument(0)));
+        Mockito.when(rs.getLong(anyString())).thenReturn(1L);
+        return rs;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.server.lock.file;
+
+import io.seata.server.storage.file.lock.RowLockTable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Row lock table test.
+ */
+public class RowLockTableTest {
+
+    @Test
+    public void testStripe() {
+        RowLockTable table = new RowLockTable();
+        Assertions.assertNull(table.getStripe("jdbc:mysql://127.0.0.1:3306/db", "t", 1));
+        RowLockTable.Stripe stripe = table.getOrCreateStripe("jdbc:mysql://127.0.0.1:3306/db", "t", 1);
+        Assertions.assertSame(stripe, table.getStripe("jdbc:mysql://127.0.0.1:3306/db", "t", 1));
+        Assertions.assertSame(stripe, table.getOrCreateStripe("jdbc:mysql://127.0.0.1:3306/db", "t", 1));
+        Assertions.assertNotSame(stripe, table.getOrCreateStripe("jdbc:mysql://127.0.0.1:3306/db", "t", -1));
+        Assertions.assertNotSame(stripe, table.getOrCreateStripe("jdbc:mysql://127.0.0.1:3306/db", "t1", 1));
+        table.clear();
+        Assertions.assertNull(table.getStripe("jdbc:mysql://127.0.0.1:3306/db", "t", 1));
+    }
+
+    @Test
+    public void testLockAndUnlock() {
+        RowLockTable.Stripe stripe = new RowLockTable.Stripe();
+        long fingerprint = RowLockTable.fingerprint("1");
+        int check = "1".hashCode();
+        Assertions.assertEquals(RowLockTable.LOCKED, stripe.lock(fingerprint, check, 100L, 0L));
+        Assertions.assertEquals(RowLockTable.REENTERED, stripe.lock(fingerprint, check, 100L, 1L));
+        // the holder branch id is returned on conflict, even if it is 0
+        Assertions.assertEquals(0L, stripe.lock(fingerprint, check, 200L, 2L));
+        Assertions.assertEquals(100L, stripe.getTransactionId(fingerprint, check));
+
+        // the same fingerprint with another verification is another row
+        Assertions.assertEquals(RowLockTable.LOCKED, stripe.lock(fingerprint, check + 1, 200L, 2L));
+
+        Assertions.assertFalse(stripe.unlock(fingerprint, check, 2L));
+        Assertions.assertTrue(stripe.unlock(fingerprint, check, 0L));
+        Assertions.assertEquals(0L, stripe.getTransactionId(fingerprint, check));
+        Assertions.assertEquals(200L, stripe.getTransactionId(fingerprint, check + 1));
+        Assertions.assertEquals(1, stripe.size());
+    }
+
+    @Test
+    public void testGrowAndShrink() {
+        RowLockTable.Stripe stripe = new RowLockTable.Stripe();
+        RowLockTable.HeldRows heldRows = new RowLockTable.HeldRows();
+        int rows = 10000;
+        for (int i = 0; i < rows; i++) {
+            String pk = String.valueOf(i);
+            Assertions.assertEquals(RowLockTable.LOCKED, stripe.lock(RowLockTable.fingerprint(pk), pk.hashCode(), 1L, 1L));
+            heldRows.add(RowLockTable.fingerprint(pk), pk.hashCode());
+        }
+        Assertions.assertEquals(rows, stripe.size());
+        Assertions.assertEquals(rows, heldRows.size());
+        // unlock half of them, the probe sequences of the rest must survive the deletions
+        for (int i = 0; i < rows; i += 2) {
+            String pk = String.valueOf(i);
+            Assertions.assertTrue(stripe.unlock(RowLockTable.fingerprint(pk), pk.hashCode(), 1L));
+        }
+        for (int i = 1; i < rows; i += 2) {
+            String pk = String.valueOf(i);
+            Assertions.assertEquals(1L, stripe.getTransactionId(RowLockTable.fingerprint(pk), pk.hashCode()));
+        }
+        heldRows.unlockFrom(stripe, 1L);
+        Assertions.assertEquals(0, stripe.size());
+        Assertions.assertEquals(0, heldRows.size());
+    }
+}
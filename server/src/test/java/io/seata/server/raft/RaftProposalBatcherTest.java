@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.server.raft;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alipay.sofa.jraft.Status;
+import com.alipay.sofa.jraft.entity.Task;
+import io.seata.server.cluster.raft.sync.RaftSyncMessageSerializer;
+import io.seata.server.cluster.raft.sync.msg.RaftBaseMsg;
+import io.seata.server.cluster.raft.sync.msg.RaftBranchSessionSyncMsg;
+import io.seata.server.cluster.raft.sync.msg.RaftSyncMsgType;
+import io.seata.server.cluster.raft.sync.msg.dto.BranchTransactionDTO;
+import io.seata.server.cluster.raft.util.RaftProposalBatcher;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * The type Raft proposal batcher test.
+ */
+@SpringBootTest
+public class RaftProposalBatcherTest {
+
+    @Test
+    public void testCoalesceProposals() throws InterruptedException {
+        int threads = 8;
+        int proposalsPerThread = 500;
+        List<Task> tasks = new ArrayList<>();
+        Set<Long> applied = ConcurrentHashMap.newKeySet();
+        RaftProposalBatcher batcher = new RaftProposalBatcher(16, task -> {
+            // the applier is called by one proposer at a time
+            tasks.add(task);
+            for (RaftBaseMsg msg : RaftSyncMessageSerializer.decodeMsgs(task.getData().array())) {
+                applied.add(((RaftBranchSessionSyncMsg)msg).getBranchSession().getBranchId());
+            }
+            task.getDone().run(Status.OK());
+        });
+        AtomicInteger done = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int t = 0; t < threads; t++) {
+                int base = t * proposalsPerThread;
+                executor.execute(() -> {
+                    for (int i = 0; i < proposalsPerThread; i++) {
+                        BranchTransactionDTO branch = new BranchTransactionDTO("123:123", base + i);
+                        batcher.propose(new RaftBranchSessionSyncMsg(RaftSyncMsgType.ADD_BRANCH_SESSION, branch),
+                            status -> {
+                                if (status.isOk()) {
+                                    done.incrementAndGet();
+                                }
+                            });
+                    }
+                    latch.countDown();
+                });
+            }
+            Assertions.assertTrue(latch.await(30, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        Assertions.assertEquals(threads * proposalsPerThread, done.get());
+        Assertions.assertEquals(threads * proposalsPerThread, applied.size());
+        Assertions.assertEquals(threads * proposalsPerThread, batcher.getProposalCount());
+        Assertions.assertEquals(tasks.size(), batcher.getTaskCount());
+        Assertions.assertTrue(batcher.getTaskCount() <= batcher.getProposalCount());
+    }
+
+    @Test
+    public void testProposalOrder() {
+        List<Long> committed = new ArrayList<>();
+        List<Task> pending = new ArrayList<>();
+        RaftProposalBatcher batcher = new RaftProposalBatcher(4, pending::add);
+        for (long i = 0; i < 10; i++) {
+            long branchId = i;
+            batcher.propose(new RaftBranchSessionSyncMsg(RaftSyncMsgType.REMOVE_BRANCH_SESSION,
+                new BranchTransactionDTO("123:123", branchId)), status -> committed.add(branchId));
+        }
+        pending.forEach(task -> task.getDone().run(Status.OK()));
+        Assertions.assertEquals(10, committed.size());
+        for (int i = 0; i < committed.size(); i++) {
+            Assertions.assertEquals(i, committed.get(i).longValue());
+        }
+    }
+}
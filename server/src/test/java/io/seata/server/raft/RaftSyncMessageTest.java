@@ -18,6 +18,7 @@ package io.seata.server.raft;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -26,11 +27,13 @@ import io.seata.common.metadata.ClusterRole;
 import io.seata.common.metadata.Node;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.model.BranchType;
+import io.seata.server.cluster.raft.sync.msg.RaftBaseMsg;
 import io.seata.server.cluster.raft.sync.msg.RaftBranchSessionSyncMsg;
 import io.seata.server.cluster.raft.sync.msg.RaftClusterMetadataMsg;
 import io.seata.server.cluster.raft.sync.msg.RaftGlobalSessionSyncMsg;
 import io.seata.server.cluster.raft.sync.msg.RaftSyncMessage;
 import io.seata.server.cluster.raft.sync.RaftSyncMessageSerializer;
+import io.seata.server.cluster.raft.sync.msg.RaftSyncMsgType;
 import io.seata.server.cluster.raft.snapshot.RaftSnapshot;
 import io.seata.server.cluster.raft.snapshot.RaftSnapshotSerializer;
 import io.seata.server.cluster.raft.snapshot.session.RaftSessionSnapshot;
@@ -81,6 +84,67 @@ public class RaftSyncMessageTest {
         Assertions.assertEquals(1234, ((RaftBranchSessionSyncMsg) raftSyncMessageByBranch.getBody()).getBranchSession().getBranchId());
     }
 
+    @Test
+    public void testCompactMsgSerialize() throws IOException {
+        GlobalTransactionDTO global = new GlobalTransactionDTO("123:123");
+        global.setTransactionId(123L);
+        global.setStatus(1);
+        global.setApplicationId("app");
+        global.setTransactionServiceGroup("default_tx_group");
+        global.setTransactionName("test");
+        global.setTimeout(60000);
+        global.setBeginTime(System.currentTimeMillis());
+        global.setGmtCreate(new Date());
+        RaftGlobalSessionSyncMsg globalMsg = new RaftGlobalSessionSyncMsg(RaftSyncMsgType.ADD_GLOBAL_SESSION, global);
+        BranchTransactionDTO branch = new BranchTransactionDTO("123:123", 1234);
+        branch.setTransactionId(123L);
+        branch.setResourceId("jdbc:mysql://127.0.0.1:3306/seata");
+        branch.setBranchType(BranchType.AT.name());
+        branch.setLockKey("t:1,2;t2:3");
+        branch.setApplicationData("{\"k\":\"\u6d4b\u8bd5\"}");
+        RaftBranchSessionSyncMsg branchMsg = new RaftBranchSessionSyncMsg(RaftSyncMsgType.ADD_BRANCH_SESSION, branch);
+        RaftBranchSessionSyncMsg releaseMsg = new RaftBranchSessionSyncMsg(RaftSyncMsgType.RELEASE_BRANCH_SESSION_LOCK,
+            new BranchTransactionDTO("123:123", 1234));
+        Assertions.assertTrue(RaftSyncMessageSerializer.isCompact(globalMsg));
+        Assertions.assertFalse(RaftSyncMessageSerializer.isCompact(new RaftClusterMetadataMsg()));
+
+        List<RaftBaseMsg> msgs = new ArrayList<>();
+        msgs.add(globalMsg);
+        msgs.add(branchMsg);
+        msgs.add(releaseMsg);
+        byte[] bytes = RaftSyncMessageSerializer.encode(msgs);
+        List<RaftBaseMsg> decoded = RaftSyncMessageSerializer.decodeMsgs(bytes);
+        Assertions.assertEquals(3, decoded.size());
+
+        GlobalTransactionDTO global1 = ((RaftGlobalSessionSyncMsg)decoded.get(0)).getGlobalSession();
+        Assertions.assertEquals(RaftSyncMsgType.ADD_GLOBAL_SESSION, decoded.get(0).getMsgType());
+        Assertions.assertEquals(global.getXid(), global1.getXid());
+        Assertions.assertEquals(global.getTransactionId(), global1.getTransactionId());
+        Assertions.assertEquals(global.getStatus(), global1.getStatus());
+        Assertions.assertEquals(global.getTransactionName(), global1.getTransactionName());
+        Assertions.assertEquals(global.getBeginTime(), global1.getBeginTime());
+        Assertions.assertEquals(global.getGmtCreate(), global1.getGmtCreate());
+        Assertions.assertNull(global1.getApplicationData());
+
+        BranchTransactionDTO branch1 = ((RaftBranchSessionSyncMsg)decoded.get(1)).getBranchSession();
+        Assertions.assertEquals(RaftSyncMsgType.ADD_BRANCH_SESSION, decoded.get(1).getMsgType());
+        Assertions.assertEquals(branch.getBranchId(), branch1.getBranchId());
+        Assertions.assertEquals(branch.getResourceId(), branch1.getResourceId());
+        Assertions.assertEquals(branch.getLockKey(), branch1.getLockKey());
+        Assertions.assertEquals(branch.getApplicationData(), branch1.getApplicationData());
+        Assertions.assertEquals(RaftSyncMsgType.RELEASE_BRANCH_SESSION_LOCK, decoded.get(2).getMsgType());
+
+        // the entries written by the java serialization are still readable
+        RaftSyncMessage raftSyncMessage = new RaftSyncMessage();
+        raftSyncMessage.setBody(branchMsg);
+        byte[] legacyBytes = RaftSyncMessageSerializer.encode(raftSyncMessage);
+        List<RaftBaseMsg> legacy = RaftSyncMessageSerializer.decodeMsgs(legacyBytes);
+        Assertions.assertEquals(1, legacy.size());
+        Assertions.assertEquals(branch.getLockKey(),
+            ((RaftBranchSessionSyncMsg)legacy.get(0)).getBranchSession().getLockKey());
+        Assertions.assertTrue(bytes.length < legacyBytes.length);
+    }
+
     @Test
     public void testSnapshotSerialize() throws IOException, TransactionException {
         Map<String, GlobalSession> sessionMap = new HashMap<>();
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.server.raft;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.seata.core.exception.TransactionException;
+import io.seata.core.model.BranchType;
+import io.seata.core.model.GlobalStatus;
+import io.seata.server.cluster.raft.snapshot.session.SessionSnapshotBlocks;
+import io.seata.server.session.GlobalSession;
+import io.seata.server.session.SessionHelper;
+import io.seata.server.session.SessionHolder;
+import io.seata.server.store.StoreConfig;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+
+/**
+ * The type Session snapshot blocks test.
+ */
+@SpringBootTest
+public class SessionSnapshotBlocksTest {
+
+    @BeforeAll
+    public static void setUp(ApplicationContext context) {
+        SessionHolder.init(StoreConfig.SessionMode.FILE);
+    }
+
+    @AfterAll
+    public static void destroy() {
+        SessionHolder.destroy();
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException, TransactionException {
+        List<GlobalSession> sessions = newSessions(100);
+        File dir = Files.createTempDirectory("snapshot").toFile();
+        try {
+            List<SessionSnapshotBlocks.Block> blocks =
+                SessionSnapshotBlocks.write(sessions, dir, Collections.emptyMap(), null, (byte)0);
+            // the sessions of different begin time windows never share a block
+            Assertions.assertEquals(2, blocks.size());
+            Map<String, GlobalSession> restored = new HashMap<>();
+            int count = SessionSnapshotBlocks.read(dir, session -> restored.put(session.getXid(), session));
+            Assertions.assertEquals(100, count);
+            for (GlobalSession session : sessions) {
+                GlobalSession restoredSession = restored.get(session.getXid());
+                Assertions.assertNotNull(restoredSession);
+                Assertions.assertEquals(session.getStatus(), restoredSession.getStatus());
+                Assertions.assertEquals(2, restoredSession.getBranchSessions().size());
+            }
+        } finally {
+            FileUtils.deleteQuietly(dir);
+        }
+    }
+
+    @Test
+    public void testReuseUnchangedBlocks() throws IOException, TransactionException {
+        List<GlobalSession> sessions = newSessions(100);
+        File previousDir = Files.createTempDirectory("snapshot").toFile();
+        File dir = Files.createTempDirectory("snapshot").toFile();
+        try {
+            List<SessionSnapshotBlocks.Block> previous =
+                SessionSnapshotBlocks.write(sessions, previousDir, Collections.emptyMap(), null, (byte)0);
+            // only the window of the changed session is written again
+            sessions.get(sessions.size() - 1).setStatus(GlobalStatus.Committing);
+            List<SessionSnapshotBlocks.Block> blocks = SessionSnapshotBlocks.write(sessions, dir,
+                SessionSnapshotBlocks.toDigestMap(previous), previousDir, (byte)0);
+            Assertions.assertEquals(previous.size(), blocks.size());
+            Assertions.assertTrue(blocks.get(0).isReused());
+            Assertions.assertFalse(blocks.get(1).isReused());
+            Assertions.assertEquals(previous.get(0).getChecksum(), blocks.get(0).getChecksum());
+            Assertions.assertNotEquals(previous.get(1).getChecksum(), blocks.get(1).getChecksum());
+            // the checksum is the sha-256 digest kept by the manifest
+            Assertions.assertEquals(64, blocks.get(0).getChecksum().length());
+            Assertions.assertEquals(SessionSnapshotBlocks.toDigestMap(blocks), SessionSnapshotBlocks.toDigestMap(
+                SessionSnapshotBlocks.readManifest(new File(dir, SessionSnapshotBlocks.MANIFEST))));
+            Assertions.assertEquals(100, SessionSnapshotBlocks.read(dir, session -> { }));
+        } finally {
+            FileUtils.deleteQuietly(previousDir);
+            FileUtils.deleteQuietly(dir);
+        }
+    }
+
+    @Test
+    public void testCorruptedBlock() throws IOException, TransactionException {
+        File dir = Files.createTempDirectory("snapshot").toFile();
+        try {
+            List<SessionSnapshotBlocks.Block> blocks =
+                SessionSnapshotBlocks.write(newSessions(10), dir, Collections.emptyMap(), null, (byte)0);
+            try (RandomAccessFile file = new RandomAccessFile(new File(dir, blocks.get(0).getName()), "rw")) {
+                file.seek(file.length() - 1);
+                int last = file.read();
+                file.seek(file.length() - 1);
+                file.write(last ^ 0xFF);
+            }
+            Assertions.assertThrows(IOException.class, () -> SessionSnapshotBlocks.read(dir, session -> { }));
+        } finally {
+            FileUtils.deleteQuietly(dir);
+        }
+    }
+
+    private List<GlobalSession> newSessions(int size) throws TransactionException {
+        List<GlobalSession> sessions = new ArrayList<>(size);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < size; i++) {
+            GlobalSession globalSession = GlobalSession.createGlobalSession("test", "test", "test" + i, 60000);
+            // half of them are long-running ones begun an hour ago
+            globalSession.setBeginTime(i < size / 2 ? now - 3600 * 1000L : now);
+            globalSession.setStatus(GlobalStatus.Committed);
+            globalSession.addBranch(SessionHelper.newBranchByGlobal(globalSession, BranchType.AT, "resource", null,
+                "client"));
+            globalSession.addBranch(SessionHelper.newBranchByGlobal(globalSession, BranchType.AT, "resource", null,
+                "client"));
+            sessions.add(globalSession);
+        }
+        return sessions;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.server.session;
+
+import java.util.List;
+
+import io.seata.core.exception.TransactionException;
+import io.seata.core.model.GlobalStatus;
+import io.seata.server.store.StoreConfig.SessionMode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static io.seata.common.DefaultValues.DEFAULT_TX_GROUP;
+
+/**
+ * The type Session timeout wheel test.
+ */
+@SpringBootTest
+public class SessionTimeoutWheelTest {
+
+    private static final long TICK_DURATION = 100;
+
+    @Test
+    public void testExpire() {
+        SessionTimeoutWheel wheel = new SessionTimeoutWheel(TICK_DURATION, 8);
+        long now = System.currentTimeMillis();
+        GlobalSession shortSession = newGlobalSession(now, 200);
+        GlobalSession longSession = newGlobalSession(now, 5000);
+        wheel.schedule(shortSession);
+        wheel.schedule(longSession);
+        Assertions.assertEquals(2, wheel.size());
+
+        Assertions.assertTrue(wheel.expire(now + 100).isEmpty());
+
+        List<String> expired = wheel.expire(now + 400);
+        Assertions.assertEquals(1, expired.size());
+        Assertions.assertEquals(shortSession.getXid(), expired.get(0));
+        Assertions.assertEquals(1, wheel.size());
+
+        // the long session is several rounds ahead of the short wheel
+        Assertions.assertTrue(wheel.expire(now + 2000).isEmpty());
+        expired = wheel.expire(now + 5200);
+        Assertions.assertEquals(1, expired.size());
+        Assertions.assertEquals(longSession.getXid(), expired.get(0));
+        Assertions.assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testCancelByLifecycle() {
+        SessionTimeoutWheel wheel = new SessionTimeoutWheel(TICK_DURATION);
+        long now = System.currentTimeMillis();
+        GlobalSession committed = newGlobalSession(now, 100);
+        GlobalSession ended = newGlobalSession(now, 100);
+        GlobalSession closed = newGlobalSession(now, 100);
+        wheel.onBegin(committed);
+        wheel.onBegin(ended);
+        wheel.onBegin(closed);
+
+        wheel.onStatusChange(committed, GlobalStatus.Committing);
+        wheel.onSuccessEnd(ended);
+        wheel.onClose(closed);
+        Assertions.assertEquals(1, wheel.size());
+
+        List<String> expired = wheel.expire(now + 1000);
+        Assertions.assertEquals(1, expired.size());
+        Assertions.assertEquals(closed.getXid(), expired.get(0));
+    }
+
+    @Test
+    public void testCancelByStoredCopy() throws TransactionException {
+        SessionHolder.init(SessionMode.FILE);
+        try {
+            SessionTimeoutWheel wheel = SessionHolder.getSessionTimeoutWheel();
+            GlobalSession globalSession = GlobalSession.createGlobalSession("demo-app", DEFAULT_TX_GROUP, "test", 60000);
+            int size = wheel.size();
+            globalSession.begin();
+            Assertions.assertEquals(size + 1, wheel.size());
+
+            // db and redis mode change the status of a copy loaded from the store, not of the session began
+            GlobalSession copy = new GlobalSession();
+            copy.decode(globalSession.encode());
+            copy.changeGlobalStatus(GlobalStatus.Committing);
+            Assertions.assertEquals(size, wheel.size());
+            SessionHolder.getRootSessionManager().removeGlobalSession(copy);
+        } finally {
+            SessionHolder.destroy();
+        }
+    }
+
+    @Test
+    public void testScheduleExpiredSession() {
+        SessionTimeoutWheel wheel = new SessionTimeoutWheel(TICK_DURATION);
+        long now = System.currentTimeMillis();
+        GlobalSession globalSession = newGlobalSession(now - 10000, 100);
+        wheel.schedule(globalSession);
+        List<String> expired = wheel.expire(now + TICK_DURATION * 2);
+        Assertions.assertEquals(1, expired.size());
+
+        globalSession.setStatus(GlobalStatus.Rollbacking);
+        wheel.schedule(globalSession);
+        Assertions.assertEquals(0, wheel.size());
+    }
+
+    private GlobalSession newGlobalSession(long beginTime, int timeout) {
+        GlobalSession globalSession = new GlobalSession("demo-app", DEFAULT_TX_GROUP, "test", timeout);
+        globalSession.setBeginTime(beginTime);
+        return globalSession;
+    }
+}
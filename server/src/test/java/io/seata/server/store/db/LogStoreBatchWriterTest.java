@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.server.store.db;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import io.seata.common.util.IOUtil;
+import io.seata.core.model.BranchType;
+import io.seata.core.model.GlobalStatus;
+import io.seata.server.session.BranchSession;
+import io.seata.server.session.GlobalSession;
+import io.seata.server.session.SessionHelper;
+import io.seata.server.storage.db.store.LogStoreBatchWriter;
+import io.seata.server.storage.db.store.LogStoreDataBaseDAO;
+import io.seata.server.store.TransactionStoreManager.LogOperation;
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+
+/**
+ * The type Log store batch writer test.
+ */
+@SpringBootTest
+public class LogStoreBatchWriterTest {
+
+    static LogStoreDataBaseDAO logStoreDataBaseDAO = null;
+
+    static BasicDataSource dataSource = null;
+
+    @BeforeAll
+    public static void start(ApplicationContext context) throws Exception {
+        dataSource = new BasicDataSource();
+        dataSource.setDriverClassName("org.h2.Driver");
+        dataSource.setUrl("jdbc:h2:./db_store/log_batch");
+        dataSource.setUsername("sa");
+        dataSource.setPassword("");
+        try (Connection conn = dataSource.getConnection(); Statement s = conn.createStatement()) {
+            s.execute("drop table if exists global_table");
+            s.execute("CREATE TABLE global_table ( xid varchar(96) primary key,  transaction_id long , STATUS int,  application_id varchar(32), transaction_service_group varchar(32) ,transaction_name varchar(128) ,timeout int,  begin_time long, application_data varchar(500), gmt_create TIMESTAMP(6) ,gmt_modified TIMESTAMP(6) ) ");
+            s.execute("drop table if exists branch_table");
+            s.execute("CREATE TABLE branch_table ( xid varchar(96),  transaction_id long , branch_id long primary key, resource_group_id varchar(32), resource_id varchar(32) ,lock_key varchar(64) ,branch_type varchar(32) ,  status int , client_id varchar(128),  application_data varchar(500),  gmt_create TIMESTAMP(6) ,gmt_modified TIMESTAMP(6) ) ");
+        }
+        logStoreDataBaseDAO = new LogStoreDataBaseDAO(dataSource);
+        logStoreDataBaseDAO.setDbType("h2");
+        logStoreDataBaseDAO.setGlobalTable("global_table");
+        logStoreDataBaseDAO.setBranchTable("branch_table");
+    }
+
+    @AfterAll
+    public static void stop() {
+        IOUtil.close(dataSource);
+    }
+
+    @Test
+    public void testConcurrentWrites() throws Exception {
+        LogStoreBatchWriter writer = new LogStoreBatchWriter(logStoreDataBaseDAO, 64, 5);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            GlobalSession globalSession = GlobalSession.createGlobalSession("test", "test", "test", 60000);
+            Assertions.assertTrue(writer.write(LogOperation.GLOBAL_ADD, globalSession));
+            List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                BranchSession branchSession = newBranch(globalSession);
+                futures.add(CompletableFuture.supplyAsync(() -> writer.write(LogOperation.BRANCH_ADD, branchSession),
+                    executor));
+            }
+            for (CompletableFuture<Boolean> future : futures) {
+                Assertions.assertTrue(future.get(30, TimeUnit.SECONDS));
+            }
+            Assertions.assertEquals(200, logStoreDataBaseDAO.queryBranchTransactionDO(globalSession.getXid()).size());
+            Assertions.assertEquals(201, writer.getWrittenCount());
+            Assertions.assertTrue(writer.getBatchCount() < writer.getWrittenCount());
+
+            // the status of the global session is checked by the expected one
+            globalSession.setStatus(GlobalStatus.Begin);
+            globalSession.setExpectedStatusFromCurrent();
+            globalSession.setStatus(GlobalStatus.Committing);
+            Assertions.assertTrue(writer.write(LogOperation.GLOBAL_UPDATE, globalSession));
+            Assertions.assertFalse(writer.write(LogOperation.GLOBAL_UPDATE, globalSession));
+            Assertions.assertTrue(writer.write(LogOperation.GLOBAL_REMOVE, globalSession));
+            Assertions.assertNull(logStoreDataBaseDAO.queryGlobalTransactionDO(globalSession.getXid()));
+        } finally {
+            executor.shutdownNow();
+            writer.shutdown();
+        }
+    }
+
+    private static BranchSession newBranch(GlobalSession globalSession) {
+        return SessionHelper.newBranchByGlobal(globalSession, BranchType.AT, "resource", null, "client");
+    }
+}
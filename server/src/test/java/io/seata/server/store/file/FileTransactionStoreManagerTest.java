@@ -22,6 +22,11 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import io.seata.server.session.SessionHolder;
 import org.assertj.core.util.Files;
@@ -92,6 +97,71 @@ public class FileTransactionStoreManagerTest {
         }
     }
 
+    @Test
+    public void testConcurrentWrite() throws Exception {
+        File seataFile = Files.newTemporaryFile();
+        FileTransactionStoreManager fileTransactionStoreManager = null;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            fileTransactionStoreManager = new FileTransactionStoreManager(seataFile.getAbsolutePath(), null);
+            FileTransactionStoreManager storeManager = fileTransactionStoreManager;
+            int writes = 1000;
+            CountDownLatch latch = new CountDownLatch(writes);
+            AtomicInteger succeeded = new AtomicInteger();
+            for (int i = 0; i < writes; i++) {
+                executor.execute(() -> {
+                    GlobalSession globalSession = new GlobalSession("demo-app", "default_tx_group", "test", 60000);
+                    if (storeManager.writeSession(TransactionStoreManager.LogOperation.GLOBAL_ADD, globalSession)) {
+                        succeeded.incrementAndGet();
+                    }
+                    latch.countDown();
+                });
+            }
+            Assertions.assertTrue(latch.await(30, TimeUnit.SECONDS));
+            Assertions.assertEquals(writes, succeeded.get());
+            List<TransactionWriteStore> list = fileTransactionStoreManager.readWriteStore(writes * 2, false);
+            Assertions.assertNotNull(list);
+            Assertions.assertEquals(writes, list.size());
+        } finally {
+            executor.shutdownNow();
+            if (fileTransactionStoreManager != null) {
+                fileTransactionStoreManager.shutdown();
+            }
+            Assertions.assertTrue(seataFile.delete());
+        }
+    }
+
+    @Test
+    public void testReplayInOrder() throws Exception {
+        File seataFile = Files.newTemporaryFile();
+        FileTransactionStoreManager fileTransactionStoreManager = null;
+        try {
+            fileTransactionStoreManager = new FileTransactionStoreManager(seataFile.getAbsolutePath(), null);
+            List<String> xids = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                GlobalSession globalSession = new GlobalSession("demo-app", "default_tx_group", "test", 60000);
+                xids.add(globalSession.getXid());
+                Assertions.assertTrue(fileTransactionStoreManager.writeSession(
+                    TransactionStoreManager.LogOperation.GLOBAL_ADD, globalSession));
+            }
+            List<String> replayed = new ArrayList<>();
+            while (fileTransactionStoreManager.hasRemaining(false)) {
+                List<TransactionWriteStore> list = fileTransactionStoreManager.readWriteStore(150, false);
+                Assertions.assertNotNull(list);
+                list.forEach(store -> {
+                    Assertions.assertEquals(TransactionStoreManager.LogOperation.GLOBAL_ADD, store.getOperate());
+                    replayed.add(((GlobalSession)store.getSessionRequest()).getXid());
+                });
+            }
+            Assertions.assertEquals(xids, replayed);
+        } finally {
+            if (fileTransactionStoreManager != null) {
+                fileTransactionStoreManager.shutdown();
+            }
+            Assertions.assertTrue(seataFile.delete());
+        }
+    }
+
     @Test
     public void testFindTimeoutAndSave() throws Exception {
         File seataFile = Files.newTemporaryFile();
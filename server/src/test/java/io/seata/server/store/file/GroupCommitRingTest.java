@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.server.store.file;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import io.seata.server.storage.file.store.GroupCommitRing;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Group commit ring test.
+ */
+public class GroupCommitRingTest {
+
+    @Test
+    public void testOfferAndDrain() {
+        GroupCommitRing<Integer> ring = new GroupCommitRing<>(3);
+        Assertions.assertEquals(4, ring.capacity());
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertTrue(ring.offer(i));
+        }
+        Assertions.assertFalse(ring.offer(4));
+        Assertions.assertEquals(4, ring.size());
+
+        List<Integer> batch = new ArrayList<>();
+        Assertions.assertEquals(2, ring.drainTo(batch, 2));
+        Assertions.assertTrue(ring.offer(4));
+        Assertions.assertTrue(ring.offer(5));
+        Assertions.assertEquals(4, ring.drainTo(batch, 10));
+        Assertions.assertEquals(6, batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Assertions.assertEquals(i, batch.get(i));
+        }
+        Assertions.assertTrue(ring.isEmpty());
+        Assertions.assertEquals(0, ring.drainTo(batch, 10));
+    }
+
+    @Test
+    public void testConcurrentProducers() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 10000;
+        GroupCommitRing<Integer> ring = new GroupCommitRing<>(64);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch latch = new CountDownLatch(producers);
+        try {
+            for (int p = 0; p < producers; p++) {
+                int base = p * perProducer;
+                executor.execute(() -> {
+                    for (int i = 0; i < perProducer; i++) {
+                        while (!ring.offer(base + i)) {
+                            Thread.yield();
+                        }
+                    }
+                    latch.countDown();
+                });
+            }
+            int[] last = new int[producers];
+            Arrays.fill(last, -1);
+            List<Integer> batch = new ArrayList<>();
+            int total = 0;
+            long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+            while (total < producers * perProducer && System.currentTimeMillis() < deadline) {
+                batch.clear();
+                ring.drainTo(batch, 16);
+                for (Integer e : batch) {
+                    int producer = e / perProducer;
+                    // the elements of one producer are drained in its offer order
+                    Assertions.assertTrue(e % perProducer > last[producer]);
+                    last[producer] = e % perProducer;
+                }
+                total += batch.size();
+            }
+            Assertions.assertEquals(producers * perProducer, total);
+            Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.rm.fence;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.seata.common.thread.NamedThreadFactory;
+import io.seata.integration.tx.api.fence.store.CommonFenceDO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Clean the fence logs that have the final status, in batches.
+ * <p>
+ * The cleaner threads drain the queue in batches and delete every batch with one statement, the rows of a failed
+ * batch are deleted one by one. When the queue is full, the overflowed log is left to the time range clean: the
+ * cleaner deletes the final status logs older than the clean period at once, at most once a minute, instead of
+ * waiting for the scheduled clean.
+ * </p>
+ *
+ */
+public class FenceLogCleaner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FenceLogCleaner.class);
+
+    /**
+     * the min interval of the time range clean triggered by the overflow
+     */
+    private static final long DATE_CLEAN_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final FenceLogDeleter deleter;
+
+    private final int batchSize;
+
+    private final Duration cleanPeriod;
+
+    private final LinkedBlockingQueue<FenceLogIdentity> logQueue;
+
+    private final ExecutorService logCleanExecutor;
+
+    private final AtomicBoolean dateCleanRequested = new AtomicBoolean(false);
+
+    private final AtomicLong lastDateCleanTime = new AtomicLong();
+
+    private final AtomicLong deletedCount = new AtomicLong();
+
+    private final AtomicLong failedCount = new AtomicLong();
+
+    private final AtomicLong overflowCount = new AtomicLong();
+
+    private final AtomicLong dateCleanCount = new AtomicLong();
+
+    private volatile boolean running = true;
+
+    /**
+     * Instantiates a new Fence log cleaner.
+     *
+     * @param deleter     delete the fence logs
+     * @param threads     the cleaner threads
+     * @param queueSize   the max fence logs queued
+     * @param batchSize   the max fence logs deleted by a statement
+     * @param cleanPeriod the final status logs older than it are deleted by the time range clean, null or not
+     *                    positive to disable the time range clean
+     */
+    public FenceLogCleaner(FenceLogDeleter deleter, int threads, int queueSize, int batchSize, Duration cleanPeriod) {
+        this.deleter = deleter;
+        this.batchSize = Math.max(1, batchSize);
+        this.cleanPeriod = cleanPeriod;
+        this.logQueue = new LinkedBlockingQueue<>(Math.max(1, queueSize));
+        int threadSize = Math.max(1, threads);
+        this.logCleanExecutor = new ThreadPoolExecutor(threadSize, threadSize, Integer.MAX_VALUE,
+            TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+            new NamedThreadFactory("fenceLogCleanThread", threadSize, true));
+        for (int i = 0; i < threadSize; i++) {
+            logCleanExecutor.submit(this::run);
+        }
+    }
+
+    /**
+     * Add a fence log to clean.
+     *
+     * @param xid      the global transaction id
+     * @param branchId the branch transaction id
+     * @return false if the queue is full, the fence log is left to the time range clean
+     */
+    public boolean add(String xid, Long branchId) {
+        return add(new FenceLogIdentity(xid, branchId, System.currentTimeMillis()));
+    }
+
+    private boolean add(FenceLogIdentity logIdentity) {
+        if (logQueue.offer(logIdentity)) {
+            return true;
+        }
+        overflowCount.incrementAndGet();
+        dateCleanRequested.set(true);
+        LOGGER.warn("The fence log clean queue is full, left the fence log to the time range clean, xid: {}, branchId: {}",
+            logIdentity.xid, logIdentity.branchId);
+        return false;
+    }
+
+    private void run() {
+        List<FenceLogIdentity> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                FenceLogIdentity first = logQueue.poll(1, TimeUnit.SECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    logQueue.drainTo(batch, batchSize - 1);
+                    delete(batch);
+                }
+                cleanByDateIfRequested();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                LOGGER.error("exception occur when clean fence log", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void delete(List<FenceLogIdentity> batch) {
+        List<CommonFenceDO> fenceLogs = toFenceLogs(batch);
+        if (fenceLogs.size() > 1) {
+            try {
+                deleter.deleteBatch(fenceLogs);
+                deletedCount.addAndGet(fenceLogs.size());
+                return;
+            } catch (RuntimeException e) {
+                LOGGER.warn("delete {} fence logs in batch failed, delete them one by one: {}", fenceLogs.size(),
+                    e.getMessage());
+            }
+        }
+        for (CommonFenceDO fenceLog : fenceLogs) {
+            boolean ret;
+            try {
+                ret = deleter.delete(fenceLog);
+            } catch (RuntimeException e) {
+                failedCount.incrementAndGet();
+                LOGGER.error("delete fence log failed, xid: {}, branchId: {}", fenceLog.getXid(), fenceLog.getBranchId(), e);
+                continue;
+            }
+            if (ret) {
+                deletedCount.incrementAndGet();
+            } else {
+                failedCount.incrementAndGet();
+                LOGGER.error("delete fence log failed, xid: {}, branchId: {}", fenceLog.getXid(), fenceLog.getBranchId());
+            }
+        }
+    }
+
+    private void cleanByDateIfRequested() {
+        if (!dateCleanRequested.get()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long last = lastDateCleanTime.get();
+        if (now - last < DATE_CLEAN_INTERVAL_MILLIS || !lastDateCleanTime.compareAndSet(last, now)) {
+            return;
+        }
+        dateCleanRequested.set(false);
+        if (cleanPeriod == null || cleanPeriod.isZero() || cleanPeriod.isNegative()) {
+            LOGGER.warn("The fence log clean queue overflowed, but the time range clean is disabled, cleanPeriod: {}",
+                cleanPeriod);
+            return;
+        }
+        Date timeBefore = new Date(now - cleanPeriod.toMillis());
+        int deleted = deleter.deleteByDate(timeBefore);
+        dateCleanCount.incrementAndGet();
+        LOGGER.info("The fence log clean queue overflowed, deleted {} fence logs before {}", deleted, timeBefore);
+    }
+
+    /**
+     * Stop the cleaner threads.
+     *
+     * @return the fence logs not cleaned yet, xid and branch id only
+     */
+    public List<CommonFenceDO> shutdown() {
+        running = false;
+        logCleanExecutor.shutdownNow();
+        List<FenceLogIdentity> remaining = new ArrayList<>(logQueue.size());
+        logQueue.drainTo(remaining);
+        return toFenceLogs(remaining);
+    }
+
+    private static List<CommonFenceDO> toFenceLogs(List<FenceLogIdentity> logIdentities) {
+        List<CommonFenceDO> fenceLogs = new ArrayList<>(logIdentities.size());
+        for (FenceLogIdentity logIdentity : logIdentities) {
+            CommonFenceDO commonFenceDO = new CommonFenceDO();
+            commonFenceDO.setXid(logIdentity.xid);
+            commonFenceDO.setBranchId(logIdentity.branchId);
+            fenceLogs.add(commonFenceDO);
+        }
+        return fenceLogs;
+    }
+
+    /**
+     * Gets the fence logs waiting in the queue.
+     *
+     * @return the queue size
+     */
+    public int getQueueSize() {
+        return logQueue.size();
+    }
+
+    /**
+     * Gets how long the oldest queued fence log has waited, the lag of the cleaner.
+     *
+     * @return the lag in milliseconds, 0 if the queue is empty
+     */
+    public long getLagMillis() {
+        FenceLogIdentity head = logQueue.peek();
+        return head == null ? 0 : Math.max(0, System.currentTimeMillis() - head.enqueueTime);
+    }
+
+    public long getDeletedCount() {
+        return deletedCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    public long getOverflowCount() {
+        return overflowCount.get();
+    }
+
+    public long getDateCleanCount() {
+        return dateCleanCount.get();
+    }
+
+    /**
+     * Delete the fence logs.
+     */
+    public interface FenceLogDeleter {
+
+        /**
+         * Delete the fence logs with one statement.
+         *
+         * @param fenceLogs the fence logs, xid and branch id only
+         * @return the deleted row count
+         */
+        int deleteBatch(List<CommonFenceDO> fenceLogs);
+
+        /**
+         * Delete a fence log.
+         *
+         * @param fenceLog the fence log, xid and branch id only
+         * @return the boolean
+         */
+        boolean delete(CommonFenceDO fenceLog);
+
+        /**
+         * Delete the final status fence logs before the time.
+         *
+         * @param timeBefore the time
+         * @return the deleted row count
+         */
+        int deleteByDate(Date timeBefore);
+    }
+
+    private static class FenceLogIdentity {
+        /**
+         * the global transaction id
+         */
+        private final String xid;
+
+        /**
+         * the branch transaction id
+         */
+        private final Long branchId;
+
+        /**
+         * when it is queued
+         */
+        private final long enqueueTime;
+
+        FenceLogIdentity(String xid, Long branchId, long enqueueTime) {
+            this.xid = xid;
+            this.branchId = branchId;
+            this.enqueueTime = enqueueTime;
+        }
+    }
+}
@@ -58,6 +58,8 @@ public class SpringFenceConfig extends CommonFenceConfig implements Initializing
         } else {
             throw new CommonFenceException(FrameworkErrorCode.TransactionManagerNeedInjected);
         }
+        SpringFenceHandler.initLogCleaner(getLogCleanThreads(), getLogCleanQueueSize(), getLogCleanBatchSize(),
+            getCleanPeriod());
     }
 
 
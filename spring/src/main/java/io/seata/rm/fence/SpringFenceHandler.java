@@ -18,20 +18,18 @@ package io.seata.rm.fence;
 
 import java.lang.reflect.Method;
 import java.sql.Connection;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
 
 import javax.sql.DataSource;
 
+import io.seata.common.DefaultValues;
 import io.seata.common.exception.FrameworkErrorCode;
 import io.seata.common.exception.SkipCallbackWrapperException;
 import io.seata.common.executor.Callback;
-import io.seata.common.thread.NamedThreadFactory;
 import io.seata.integration.tx.api.fence.DefaultCommonFenceHandler;
 import io.seata.integration.tx.api.fence.FenceHandler;
 import io.seata.integration.tx.api.fence.constant.CommonFenceConstant;
@@ -60,24 +58,19 @@ public class SpringFenceHandler implements FenceHandler {
 
     private static TransactionTemplate transactionTemplate;
 
-    private static final int MAX_THREAD_CLEAN = 1;
-
-    private static final int MAX_QUEUE_SIZE = 500;
-
     /**
      * limit of delete record by date (per sql)
      */
     private static final int LIMIT_DELETE = 1000;
 
-    private static final LinkedBlockingQueue<FenceLogIdentity> LOG_QUEUE = new LinkedBlockingQueue<>(MAX_QUEUE_SIZE);
-
-    private static FenceLogCleanRunnable fenceLogCleanRunnable;
-
-    private static ExecutorService logCleanExecutor;
+    private static volatile FenceLogCleaner logCleaner;
 
     static {
         try {
-            initLogCleanExecutor();
+            initLogCleaner(DefaultValues.DEFAULT_COMMON_FENCE_LOG_CLEAN_THREADS,
+                DefaultValues.DEFAULT_COMMON_FENCE_LOG_CLEAN_QUEUE_SIZE,
+                DefaultValues.DEFAULT_COMMON_FENCE_LOG_CLEAN_BATCH_SIZE,
+                Duration.ofDays(DefaultValues.DEFAULT_COMMON_FENCE_CLEAN_PERIOD));
             DefaultCommonFenceHandler.get().setFenceHandler(new SpringFenceHandler());
         } catch (Exception e) {
             LOGGER.error("init fence log clean executor error", e);
@@ -294,6 +287,19 @@ public class SpringFenceHandler implements FenceHandler {
         });
     }
 
+    /**
+     * Delete Common Fences with one statement, the transaction is rolled back if it fails
+     *
+     * @param commonFenceDOs the common fences, xid and branch id only
+     * @return the deleted row count
+     */
+    public static int deleteFences(List<CommonFenceDO> commonFenceDOs) {
+        return transactionTemplate.execute(status -> {
+            Connection conn = DataSourceUtils.getConnection(dataSource);
+            return COMMON_FENCE_DAO.deleteCommonFenceDOs(conn, commonFenceDOs);
+        });
+    }
+
     /**
      * Delete Common Fence By Datetime
      *
@@ -328,76 +334,54 @@ public class SpringFenceHandler implements FenceHandler {
 
     }
 
-    private static void initLogCleanExecutor() {
-        logCleanExecutor = new ThreadPoolExecutor(MAX_THREAD_CLEAN, MAX_THREAD_CLEAN, Integer.MAX_VALUE,
-                TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
-                new NamedThreadFactory("fenceLogCleanThread", MAX_THREAD_CLEAN, true)
-        );
-        fenceLogCleanRunnable = new FenceLogCleanRunnable();
-        logCleanExecutor.submit(fenceLogCleanRunnable);
+    /**
+     * Init the fence log cleaner, the logs queued in the previous cleaner are moved to the new one.
+     *
+     * @param threads     the cleaner threads
+     * @param queueSize   the max fence logs queued
+     * @param batchSize   the max fence logs deleted by a statement
+     * @param cleanPeriod the clean period, the overflowed logs older than it are deleted by date
+     */
+    public static synchronized void initLogCleaner(int threads, int queueSize, int batchSize, Duration cleanPeriod) {
+        FenceLogCleaner previous = logCleaner;
+        logCleaner = new FenceLogCleaner(new SpringFenceLogDeleter(), threads, queueSize, batchSize, cleanPeriod);
+        if (previous != null) {
+            for (CommonFenceDO commonFenceDO : previous.shutdown()) {
+                logCleaner.add(commonFenceDO.getXid(), commonFenceDO.getBranchId());
+            }
+        }
+    }
+
+    public static FenceLogCleaner getLogCleaner() {
+        return logCleaner;
     }
 
     private static void addToLogCleanQueue(final String xid, final long branchId) {
-        FenceLogIdentity logIdentity = new FenceLogIdentity();
-        logIdentity.setXid(xid);
-        logIdentity.setBranchId(branchId);
         try {
-            LOG_QUEUE.add(logIdentity);
+            logCleaner.add(xid, branchId);
         } catch (Exception e) {
             LOGGER.warn("Insert tcc fence record into queue for async delete error,xid:{},branchId:{}", xid, branchId, e);
         }
     }
 
     /**
-     * clean fence log that has the final status runnable.
-     *
-     * @see CommonFenceConstant
+     * Delete the fence logs by the spring transaction template.
      */
-    private static class FenceLogCleanRunnable implements Runnable {
-        @Override
-        public void run() {
-            while (true) {
+    private static class SpringFenceLogDeleter implements FenceLogCleaner.FenceLogDeleter {
 
-                try {
-                    FenceLogIdentity logIdentity = LOG_QUEUE.take();
-                    boolean ret = SpringFenceHandler.deleteFence(logIdentity.getXid(), logIdentity.getBranchId());
-                    if (!ret) {
-                        LOGGER.error("delete fence log failed, xid: {}, branchId: {}", logIdentity.getXid(), logIdentity.getBranchId());
-                    }
-                } catch (InterruptedException e) {
-                    LOGGER.error("take fence log from queue for clean be interrupted", e);
-                } catch (Exception e) {
-                    LOGGER.error("exception occur when clean fence log", e);
-                }
-            }
-        }
-    }
-
-    private static class FenceLogIdentity {
-        /**
-         * the global transaction id
-         */
-        private String xid;
-
-        /**
-         * the branch transaction id
-         */
-        private Long branchId;
-
-        public String getXid() {
-            return xid;
-        }
-
-        public Long getBranchId() {
-            return branchId;
+        @Override
+        public int deleteBatch(List<CommonFenceDO> fenceLogs) {
+            return SpringFenceHandler.deleteFences(fenceLogs);
         }
 
-        public void setXid(String xid) {
-            this.xid = xid;
+        @Override
+        public boolean delete(CommonFenceDO fenceLog) {
+            return SpringFenceHandler.deleteFence(fenceLog.getXid(), fenceLog.getBranchId());
         }
 
-        public void setBranchId(Long branchId) {
-            this.branchId = branchId;
+        @Override
+        public int deleteByDate(Date timeBefore) {
+            return DefaultCommonFenceHandler.get().deleteFenceByDate(timeBefore);
         }
     }
 }
@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.rm.fence;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.seata.integration.tx.api.fence.store.CommonFenceDO;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class FenceLogCleanerTest {
+
+    @Test
+    public void testDeleteInBatch() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        MockDeleter deleter = new MockDeleter() {
+            @Override
+            public boolean delete(CommonFenceDO fenceLog) {
+                // block the cleaner until all the logs are queued
+                started.countDown();
+                await(release);
+                return super.delete(fenceLog);
+            }
+        };
+        FenceLogCleaner cleaner = new FenceLogCleaner(deleter, 1, 100, 10, Duration.ofDays(1));
+        try {
+            cleaner.add("xid", 0L);
+            Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (long i = 1; i <= 20; i++) {
+                Assertions.assertTrue(cleaner.add("xid", i));
+            }
+            Assertions.assertEquals(20, cleaner.getQueueSize());
+            release.countDown();
+            waitUntilDeleted(cleaner, 21);
+
+            Assertions.assertEquals(1, deleter.singleDeleted.get());
+            Assertions.assertEquals(2, deleter.batchSizes.size());
+            Assertions.assertEquals(10, (int)deleter.batchSizes.get(0));
+            Assertions.assertEquals(10, (int)deleter.batchSizes.get(1));
+            Assertions.assertEquals(0, cleaner.getQueueSize());
+            Assertions.assertEquals(0, cleaner.getLagMillis());
+        } finally {
+            cleaner.shutdown();
+        }
+    }
+
+    @Test
+    public void testDeleteOneByOneIfBatchFailed() throws InterruptedException {
+        MockDeleter deleter = new MockDeleter() {
+            @Override
+            public int deleteBatch(List<CommonFenceDO> fenceLogs) {
+                throw new IllegalStateException("batch delete failed");
+            }
+        };
+        FenceLogCleaner cleaner = new FenceLogCleaner(deleter, 1, 100, 10, Duration.ofDays(1));
+        try {
+            CountDownLatch release = blockCleaner(cleaner, deleter);
+            for (long i = 1; i <= 5; i++) {
+                cleaner.add("xid", i);
+            }
+            release.countDown();
+            waitUntilDeleted(cleaner, 6);
+            Assertions.assertEquals(6, deleter.singleDeleted.get());
+            Assertions.assertEquals(0, cleaner.getFailedCount());
+        } finally {
+            cleaner.shutdown();
+        }
+    }
+
+    @Test
+    public void testCleanByDateIfOverflowed() throws InterruptedException {
+        MockDeleter deleter = new MockDeleter();
+        Duration cleanPeriod = Duration.ofHours(1);
+        FenceLogCleaner cleaner = new FenceLogCleaner(deleter, 1, 2, 10, cleanPeriod);
+        try {
+            CountDownLatch release = blockCleaner(cleaner, deleter);
+            Assertions.assertTrue(cleaner.add("xid", 1L));
+            Assertions.assertTrue(cleaner.add("xid", 2L));
+            Assertions.assertFalse(cleaner.add("xid", 3L));
+            Assertions.assertEquals(1, cleaner.getOverflowCount());
+            release.countDown();
+            waitUntilDeleted(cleaner, 3);
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while (cleaner.getDateCleanCount() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Assertions.assertEquals(1, cleaner.getDateCleanCount());
+            // the logs in the clean period are kept
+            Assertions.assertTrue(deleter.timeBefore.getTime() <= System.currentTimeMillis() - cleanPeriod.toMillis());
+        } finally {
+            cleaner.shutdown();
+        }
+    }
+
+    @Test
+    public void testShutdown() {
+        MockDeleter deleter = new MockDeleter();
+        FenceLogCleaner cleaner = new FenceLogCleaner(deleter, 1, 100, 10, Duration.ofDays(1));
+        CountDownLatch release = blockCleaner(cleaner, deleter);
+        cleaner.add("xid", 1L);
+        List<CommonFenceDO> remaining = cleaner.shutdown();
+        release.countDown();
+        Assertions.assertEquals(1, remaining.size());
+        Assertions.assertEquals("xid", remaining.get(0).getXid());
+        Assertions.assertEquals(1L, remaining.get(0).getBranchId());
+    }
+
+    private static CountDownLatch blockCleaner(FenceLogCleaner cleaner, MockDeleter deleter) {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        deleter.blocker = () -> {
+            started.countDown();
+            await(release);
+        };
+        cleaner.add("xid", 0L);
+        await(started);
+        deleter.blocker = null;
+        return release;
+    }
+
+    private static void waitUntilDeleted(FenceLogCleaner cleaner, long count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (cleaner.getDeletedCount() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(count, cleaner.getDeletedCount());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class MockDeleter implements FenceLogCleaner.FenceLogDeleter {
+
+        final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+        final AtomicInteger singleDeleted = new AtomicInteger();
+
+        volatile Runnable blocker;
+
+        volatile Date timeBefore;
+
+        @Override
+        public int deleteBatch(List<CommonFenceDO> fenceLogs) {
+            batchSizes.add(fenceLogs.size());
+            return fenceLogs.size();
+        }
+
+        @Override
+        public boolean delete(CommonFenceDO fenceLog) {
+            Runnable r = blocker;
+            if (r != null) {
+                r.run();
+            }
+            singleDeleted.incrementAndGet();
+            return true;
+        }
+
+        @Override
+        public int deleteByDate(Date timeBefore) {
+            this.timeBefore = timeBefore;
+            return 0;
+        }
+    }
+}
@@ -53,6 +53,10 @@ public class TCCResource implements Resource {
 
     private String[] phaseTwoRollbackKeys;
 
+    private volatile TwoPhaseInvoker commitInvoker;
+
+    private volatile TwoPhaseInvoker rollbackInvoker;
+
     @Override
     public String getResourceGroupId() {
         return resourceGroupId;
@@ -129,6 +133,7 @@ public class TCCResource implements Resource {
      */
     public void setTargetBean(Object targetBean) {
         this.targetBean = targetBean;
+        resetInvokers();
     }
 
     /**
@@ -165,6 +170,7 @@ public class TCCResource implements Resource {
      */
     public void setCommitMethod(Method commitMethod) {
         this.commitMethod = commitMethod;
+        this.commitInvoker = null;
     }
 
     /**
@@ -183,6 +189,7 @@ public class TCCResource implements Resource {
      */
     public void setRollbackMethod(Method rollbackMethod) {
         this.rollbackMethod = rollbackMethod;
+        this.rollbackInvoker = null;
     }
 
     /**
@@ -235,6 +242,7 @@ public class TCCResource implements Resource {
      */
     public void setCommitArgsClasses(Class<?>[] commitArgsClasses) {
         this.commitArgsClasses = commitArgsClasses;
+        this.commitInvoker = null;
     }
 
     /**
@@ -251,6 +259,7 @@ public class TCCResource implements Resource {
      */
     public void setRollbackArgsClasses(Class<?>[] rollbackArgsClasses) {
         this.rollbackArgsClasses = rollbackArgsClasses;
+        this.rollbackInvoker = null;
     }
 
     /**
@@ -267,6 +276,7 @@ public class TCCResource implements Resource {
      */
     public void setPhaseTwoCommitKeys(String[] phaseTwoCommitKeys) {
         this.phaseTwoCommitKeys = phaseTwoCommitKeys;
+        this.commitInvoker = null;
     }
 
     /**
@@ -283,6 +293,40 @@ public class TCCResource implements Resource {
      */
     public void setPhaseTwoRollbackKeys(String[] phaseTwoRollbackKeys) {
         this.phaseTwoRollbackKeys = phaseTwoRollbackKeys;
+        this.rollbackInvoker = null;
+    }
+
+    /**
+     * Gets the invoker of the commit method, it is built on the first call.
+     *
+     * @return the commit invoker, null if the target bean or the commit method is absent
+     */
+    public TwoPhaseInvoker getCommitInvoker() {
+        TwoPhaseInvoker invoker = commitInvoker;
+        if (invoker == null && targetBean != null && commitMethod != null) {
+            invoker = new TwoPhaseInvoker(targetBean, commitMethod, phaseTwoCommitKeys, commitArgsClasses);
+            commitInvoker = invoker;
+        }
+        return invoker;
+    }
+
+    /**
+     * Gets the invoker of the rollback method, it is built on the first call.
+     *
+     * @return the rollback invoker, null if the target bean or the rollback method is absent
+     */
+    public TwoPhaseInvoker getRollbackInvoker() {
+        TwoPhaseInvoker invoker = rollbackInvoker;
+        if (invoker == null && targetBean != null && rollbackMethod != null) {
+            invoker = new TwoPhaseInvoker(targetBean, rollbackMethod, phaseTwoRollbackKeys, rollbackArgsClasses);
+            rollbackInvoker = invoker;
+        }
+        return invoker;
+    }
+
+    private void resetInvokers() {
+        this.commitInvoker = null;
+        this.rollbackInvoker = null;
     }
 
     @Override
@@ -16,7 +16,6 @@
  */
 package io.seata.rm.tcc;
 
-import java.lang.reflect.Method;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -60,6 +59,9 @@ public class TCCResourceManager extends AbstractResourceManager {
     @Override
     public void registerResource(Resource resource) {
         TCCResource tccResource = (TCCResource)resource;
+        // build the phase two invokers once, instead of reflecting on every phase two call
+        tccResource.getCommitInvoker();
+        tccResource.getRollbackInvoker();
         tccResourceCache.put(tccResource.getResourceId(), tccResource);
         super.registerResource(tccResource);
     }
@@ -87,9 +89,8 @@ public class TCCResourceManager extends AbstractResourceManager {
         if (tccResource == null) {
             throw new ShouldNeverHappenException(String.format("TCC resource is not exist, resourceId: %s", resourceId));
         }
-        Object targetTCCBean = tccResource.getTargetBean();
-        Method commitMethod = tccResource.getCommitMethod();
-        if (targetTCCBean == null || commitMethod == null) {
+        TwoPhaseInvoker commitInvoker = tccResource.getCommitInvoker();
+        if (commitInvoker == null) {
             throw new ShouldNeverHappenException(String.format("TCC resource is not available, resourceId: %s", resourceId));
         }
         try {
@@ -97,27 +98,18 @@ public class TCCResourceManager extends AbstractResourceManager {
             BusinessActionContext businessActionContext = BusinessActionContextUtil.getBusinessActionContext(xid, branchId, resourceId,
                     applicationData);
 
-            Object[] args = this.getTwoPhaseCommitArgs(tccResource, businessActionContext);
-            Object ret;
+            Object[] args = commitInvoker.resolveArgs(businessActionContext);
             boolean result;
             // add idempotent and anti hanging
             if (Boolean.TRUE.equals(businessActionContext.getActionContext(Constants.USE_COMMON_FENCE))) {
                 try {
-                    result = DefaultCommonFenceHandler.get().commitFence(commitMethod, targetTCCBean, xid, branchId, args);
+                    result = DefaultCommonFenceHandler.get().commitFence(commitInvoker.getMethod(),
+                            commitInvoker.getTargetBean(), xid, branchId, args);
                 } catch (SkipCallbackWrapperException | UndeclaredThrowableException e) {
                     throw e.getCause();
                 }
             } else {
-                ret = commitMethod.invoke(targetTCCBean, args);
-                if (ret != null) {
-                    if (ret instanceof TwoPhaseResult) {
-                        result = ((TwoPhaseResult)ret).isSuccess();
-                    } else {
-                        result = (boolean)ret;
-                    }
-                } else {
-                    result = true;
-                }
+                result = toTwoPhaseResult(commitInvoker.invoke(args));
             }
             LOGGER.info("TCC resource commit result : {}, xid: {}, branchId: {}, resourceId: {}", result, xid, branchId, resourceId);
             return result ? BranchStatus.PhaseTwo_Committed : BranchStatus.PhaseTwo_CommitFailed_Retryable;
@@ -146,37 +138,26 @@ public class TCCResourceManager extends AbstractResourceManager {
         if (tccResource == null) {
             throw new ShouldNeverHappenException(String.format("TCC resource is not exist, resourceId: %s", resourceId));
         }
-        Object targetTCCBean = tccResource.getTargetBean();
-        Method rollbackMethod = tccResource.getRollbackMethod();
-        if (targetTCCBean == null || rollbackMethod == null) {
+        TwoPhaseInvoker rollbackInvoker = tccResource.getRollbackInvoker();
+        if (rollbackInvoker == null) {
             throw new ShouldNeverHappenException(String.format("TCC resource is not available, resourceId: %s", resourceId));
         }
         try {
             //BusinessActionContext
             BusinessActionContext businessActionContext = BusinessActionContextUtil.getBusinessActionContext(xid, branchId, resourceId,
                     applicationData);
-            Object[] args = this.getTwoPhaseRollbackArgs(tccResource, businessActionContext);
-            Object ret;
+            Object[] args = rollbackInvoker.resolveArgs(businessActionContext);
             boolean result;
             // add idempotent and anti hanging
             if (Boolean.TRUE.equals(businessActionContext.getActionContext(Constants.USE_COMMON_FENCE))) {
                 try {
-                    result = DefaultCommonFenceHandler.get().rollbackFence(rollbackMethod, targetTCCBean, xid, branchId,
-                            args, tccResource.getActionName());
+                    result = DefaultCommonFenceHandler.get().rollbackFence(rollbackInvoker.getMethod(),
+                            rollbackInvoker.getTargetBean(), xid, branchId, args, tccResource.getActionName());
                 } catch (SkipCallbackWrapperException | UndeclaredThrowableException e) {
                     throw e.getCause();
                 }
             } else {
-                ret = rollbackMethod.invoke(targetTCCBean, args);
-                if (ret != null) {
-                    if (ret instanceof TwoPhaseResult) {
-                        result = ((TwoPhaseResult)ret).isSuccess();
-                    } else {
-                        result = (boolean)ret;
-                    }
-                } else {
-                    result = true;
-                }
+                result = toTwoPhaseResult(rollbackInvoker.invoke(args));
             }
             LOGGER.info("TCC resource rollback result : {}, xid: {}, branchId: {}, resourceId: {}", result, xid, branchId, resourceId);
             return result ? BranchStatus.PhaseTwo_Rollbacked : BranchStatus.PhaseTwo_RollbackFailed_Retryable;
@@ -188,27 +169,18 @@ public class TCCResourceManager extends AbstractResourceManager {
     }
 
     /**
-     * get phase two commit method's args
-     * @param tccResource tccResource
-     * @param businessActionContext businessActionContext
-     * @return args
-     */
-    private Object[] getTwoPhaseCommitArgs(TCCResource tccResource, BusinessActionContext businessActionContext) {
-        String[] keys = tccResource.getPhaseTwoCommitKeys();
-        Class<?>[] argsCommitClasses = tccResource.getCommitArgsClasses();
-        return BusinessActionContextUtil.getTwoPhaseMethodParams(keys, argsCommitClasses, businessActionContext);
-    }
-
-    /**
-     * get phase two rollback method's args
-     * @param tccResource tccResource
-     * @param businessActionContext businessActionContext
-     * @return args
+     * the phase two method succeeds if it returns nothing, true, or a successful TwoPhaseResult
+     * @param ret the returned value
+     * @return result
      */
-    private Object[] getTwoPhaseRollbackArgs(TCCResource tccResource, BusinessActionContext businessActionContext) {
-        String[] keys = tccResource.getPhaseTwoRollbackKeys();
-        Class<?>[] argsRollbackClasses = tccResource.getRollbackArgsClasses();
-        return BusinessActionContextUtil.getTwoPhaseMethodParams(keys, argsRollbackClasses, businessActionContext);
+    private boolean toTwoPhaseResult(Object ret) {
+        if (ret == null) {
+            return true;
+        }
+        if (ret instanceof TwoPhaseResult) {
+            return ((TwoPhaseResult)ret).isSuccess();
+        }
+        return (boolean)ret;
     }
 
     @Override
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.rm.tcc;
+
+import java.lang.reflect.Method;
+
+import io.seata.common.util.MethodInvoker;
+import io.seata.rm.tcc.api.BusinessActionContext;
+
+/**
+ * The invoker of a phase two method of a TCC resource, built when the resource is registered.
+ * <p>
+ * The arguments are resolved by a plan computed once: the index of the business action context, and the key and the
+ * class of every other argument.
+ * </p>
+ *
+ */
+public class TwoPhaseInvoker {
+
+    private final Object targetBean;
+
+    private final MethodInvoker methodInvoker;
+
+    private final String[] keys;
+
+    private final Class<?>[] argsClasses;
+
+    private final boolean[] contextArgs;
+
+    /**
+     * Instantiates a new Two phase invoker.
+     *
+     * @param targetBean  the target bean
+     * @param method      the phase two method
+     * @param keys        the action context key of every argument
+     * @param argsClasses the argument classes
+     */
+    public TwoPhaseInvoker(Object targetBean, Method method, String[] keys, Class<?>[] argsClasses) {
+        this.targetBean = targetBean;
+        this.methodInvoker = MethodInvoker.of(method);
+        this.argsClasses = argsClasses != null ? argsClasses : new Class<?>[0];
+        this.keys = keys != null ? keys : new String[this.argsClasses.length];
+        this.contextArgs = new boolean[this.argsClasses.length];
+        for (int i = 0; i < this.argsClasses.length; i++) {
+            contextArgs[i] = BusinessActionContext.class.equals(this.argsClasses[i]);
+        }
+    }
+
+    /**
+     * Resolve the arguments from the business action context.
+     *
+     * @param businessActionContext the business action context
+     * @return the arguments
+     */
+    public Object[] resolveArgs(BusinessActionContext businessActionContext) {
+        Object[] args = new Object[argsClasses.length];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = contextArgs[i] ? businessActionContext
+                : businessActionContext.getActionContext(keys[i], argsClasses[i]);
+        }
+        return args;
+    }
+
+    /**
+     * Invoke the phase two method.
+     *
+     * @param args the arguments
+     * @return the returned value
+     * @throws Throwable the exception thrown by the method
+     */
+    public Object invoke(Object[] args) throws Throwable {
+        return methodInvoker.invoke(targetBean, args);
+    }
+
+    public Object getTargetBean() {
+        return targetBean;
+    }
+
+    public Method getMethod() {
+        return methodInvoker.getMethod();
+    }
+}
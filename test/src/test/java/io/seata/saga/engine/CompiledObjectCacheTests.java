@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.saga.engine;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.seata.saga.engine.expression.Expression;
+import io.seata.saga.engine.expression.ExpressionFactoryManager;
+import io.seata.saga.engine.expression.impl.DefaultExpressionResolver;
+import io.seata.saga.engine.expression.spel.SpringELExpressionFactory;
+import io.seata.saga.engine.utils.CompiledObjectCache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compiled object cache tests
+ */
+public class CompiledObjectCacheTests {
+
+    @Test
+    public void testExpressionCache() {
+        ExpressionFactoryManager expressionFactoryManager = new ExpressionFactoryManager();
+        expressionFactoryManager.putExpressionFactory(ExpressionFactoryManager.DEFAULT_EXPRESSION_TYPE,
+            new SpringELExpressionFactory());
+        DefaultExpressionResolver resolver = new DefaultExpressionResolver();
+        resolver.setExpressionFactoryManager(expressionFactoryManager);
+        CompiledObjectCache<String, Expression> cache = new CompiledObjectCache<>("expression", 16);
+        resolver.setExpressionCache(cache);
+
+        Expression expression = resolver.getExpression("$.[a] + 1");
+        Assertions.assertSame(expression, resolver.getExpression("$.[a] + 1"));
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("a", 1);
+        Assertions.assertEquals(2, expression.getValue(variables));
+        Assertions.assertEquals(1, cache.getHitCount());
+        Assertions.assertEquals(1, cache.getMissCount());
+        Assertions.assertEquals(0.5, cache.getHitRatio());
+
+        cache.invalidateAll();
+        Assertions.assertNotSame(expression, resolver.getExpression("$.[a] + 1"));
+    }
+
+    @Test
+    public void testEviction() {
+        CompiledObjectCache<String, String> cache = new CompiledObjectCache<>("test", 2);
+        for (String key : new String[] {"a", "b", "c", "d"}) {
+            cache.get(key, String::toUpperCase);
+        }
+        cache.cleanUp();
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertEquals(2, cache.getEvictionCount());
+        Assertions.assertEquals(4, cache.getMissCount());
+        Assertions.assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    public void testCompileOnce() throws Exception {
+        CompiledObjectCache<String, String> cache = new CompiledObjectCache<>("test", 16);
+        AtomicInteger compiled = new AtomicInteger();
+        CountDownLatch compiling = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> cache.get("a", key -> {
+            compiled.incrementAndGet();
+            compiling.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return key.toUpperCase();
+        }));
+        Assertions.assertTrue(compiling.await(5, TimeUnit.SECONDS));
+        // another key is not blocked by the compiling
+        Assertions.assertEquals("B", cache.get("b", String::toUpperCase));
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> cache.get("a", key -> {
+            compiled.incrementAndGet();
+            return key.toUpperCase();
+        }));
+        release.countDown();
+        Assertions.assertEquals("A", first.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals("A", second.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, compiled.get());
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.seata.saga.engine.db.mockserver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.seata.common.SagaCostPrint;
+import io.seata.saga.engine.AsyncCallback;
+import io.seata.saga.engine.StateMachineEngine;
+import io.seata.saga.engine.store.StateLogStore;
+import io.seata.saga.engine.store.db.DbAndReportTcStateLogStore;
+import io.seata.saga.engine.store.db.StateLogBatchWriter;
+import io.seata.saga.proctrl.ProcessContext;
+import io.seata.saga.statelang.domain.ExecutionStatus;
+import io.seata.saga.statelang.domain.StateInstance;
+import io.seata.saga.statelang.domain.StateMachineInstance;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+
+/**
+ * State machine tests with the state logs written behind in batches
+ *
+ */
+public class StateMachineDBBatchMockServerTests {
+
+    private static StateMachineEngine stateMachineEngine;
+
+    @BeforeAll
+    public static void initApplicationContext() throws InterruptedException {
+        ApplicationContext applicationContext = new ClassPathXmlApplicationContext(
+                "classpath:saga/spring/statemachine_engine_db_batch_mockserver_test.xml");
+        stateMachineEngine = applicationContext.getBean("stateMachineEngine", StateMachineEngine.class);
+    }
+
+    @Test
+    public void testConcurrentCompensationStateMachine() throws Exception {
+        String stateMachineName = "simpleCompensationStateMachine";
+        int count = 20;
+        List<StateMachineInstance> instances = new ArrayList<>(count);
+
+        SagaCostPrint.executeAndPrint("5-1", () -> {
+            CountDownLatch latch = new CountDownLatch(count);
+            AsyncCallback callback = new AsyncCallback() {
+                @Override
+                public void onFinished(ProcessContext context, StateMachineInstance stateMachineInstance) {
+                    latch.countDown();
+                }
+
+                @Override
+                public void onError(ProcessContext context, StateMachineInstance stateMachineInstance, Exception exp) {
+                    latch.countDown();
+                }
+            };
+            for (int i = 0; i < count; i++) {
+                Map<String, Object> paramMap = new HashMap<>(2);
+                paramMap.put("a", i);
+                paramMap.put("barThrowException", "true");
+                instances.add(stateMachineEngine.startAsync(stateMachineName, null, paramMap, callback));
+            }
+            Assertions.assertTrue(latch.await(60, TimeUnit.SECONDS));
+        });
+
+        StateLogStore stateLogStore = stateMachineEngine.getStateMachineConfig().getStateLogStore();
+        for (StateMachineInstance inst : instances) {
+            Assertions.assertEquals(ExecutionStatus.UN, inst.getStatus());
+            Assertions.assertEquals(ExecutionStatus.SU, inst.getCompensationStatus());
+
+            // the state logs written behind are flushed by the end state
+            StateMachineInstance stored = stateLogStore.getStateMachineInstance(inst.getId());
+            Assertions.assertEquals(ExecutionStatus.SU, stored.getCompensationStatus());
+            Assertions.assertEquals(inst.getStateList().size(), stored.getStateList().size());
+            for (StateInstance stateInstance : inst.getStateList()) {
+                Assertions.assertEquals(stateInstance.getStatus(), stored.getStateMap().get(stateInstance.getId()).getStatus());
+            }
+        }
+
+        StateLogBatchWriter writer = ((DbAndReportTcStateLogStore)stateLogStore).getStateLogBatchWriter();
+        Assertions.assertNotNull(writer);
+        Assertions.assertTrue(writer.getBatchCount() < writer.getWrittenCount());
+    }
+}